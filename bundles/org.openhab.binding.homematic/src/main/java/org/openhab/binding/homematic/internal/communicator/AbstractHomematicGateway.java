@@ -14,6 +14,7 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,12 +26,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
@@ -90,6 +97,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_POOL_NAME = "homematicMetadata";
+    private static final String METADATA_CACHE_FOLDER = "cache" + File.separator + "org.openhab.binding.homematic";
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
@@ -106,11 +115,14 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
+    private DeviceMetadataCache metadataCache;
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME);
+    private final ExecutorService metadataPool = ThreadPoolManager.getPool(METADATA_POOL_NAME);
+    private final Object deviceLoadedLock = new Object();
 
     static {
         // loads all virtual datapoints
@@ -368,62 +380,147 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     @Override
     public void loadAllDeviceMetadata() throws IOException {
         cancelLoadAllMetadata = false;
+        long startTime = System.currentTimeMillis();
+        metadataCache = createMetadataCache();
+        metadataCache.load();
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
+        long descriptionsTime = System.currentTimeMillis();
 
-        // loading datapoints for all channels
-        Set<String> loadedDevices = new HashSet<>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
+        // loading datapoints for all channels, the interfaces are loaded in parallel
+        Map<HmInterface, List<HmDevice>> devicesByInterface = new TreeMap<>();
         for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
-                try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
-                            }
+            devicesByInterface.computeIfAbsent(device.getHmInterface(), i -> new ArrayList<>()).add(device);
+        }
+        MetadataLoadResult result = new MetadataLoadResult();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Entry<HmInterface, List<HmDevice>> entry : devicesByInterface.entrySet()) {
+            futures.add(metadataPool.submit(() -> loadDeviceMetadata(entry.getKey(), entry.getValue(), result)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                cancelLoadAllMetadata = true;
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                logger.warn("Can't load device metadata from gateway '{}': {}", id, ex.getCause().getMessage(),
+                        ex.getCause());
+            }
+        }
+
+        if (!cancelLoadAllMetadata) {
+            devices.keySet().retainAll(result.loadedDevices);
+            // drop the channels of removed devices and old firmwares
+            metadataCache.retainAll(result.channelKeys);
+        }
+        metadataCache.save();
+        long endTime = System.currentTimeMillis();
+        logger.debug(
+                "Loaded metadata of {} devices from gateway '{}' in {} ms (device descriptions: {} ms, datapoints: {} ms), {} channels loaded, {} channels restored from cache",
+                result.loadedDevices.size(), id, endTime - startTime, descriptionsTime - startTime,
+                endTime - descriptionsTime, result.loadedChannels.get(), result.restoredChannels.get());
+        initialized = true;
+    }
+
+    /**
+     * Collects the results of the metadata loading of all interfaces.
+     */
+    private static class MetadataLoadResult {
+        private final Set<String> loadedDevices = ConcurrentHashMap.newKeySet();
+        private final Set<String> channelKeys = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger loadedChannels = new AtomicInteger();
+        private final AtomicInteger restoredChannels = new AtomicInteger();
+    }
+
+    /**
+     * Loads the metadata of all devices of an interface.
+     */
+    private void loadDeviceMetadata(HmInterface hmInterface, List<HmDevice> deviceDescriptions,
+            MetadataLoadResult result) {
+        long startTime = System.currentTimeMillis();
+        int loadedDevices = 0;
+        int loadedChannels = 0;
+        int restoredChannels = 0;
+        for (HmDevice device : deviceDescriptions) {
+            if (cancelLoadAllMetadata) {
+                break;
+            }
+            try {
+                logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+                if (device.isGatewayExtras()) {
+                    loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+                    loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+                } else {
+                    List<HmChannel> channelsToLoad = new ArrayList<>();
+                    for (HmChannel channel : device.getChannels()) {
+                        logger.trace("  Loading channel {}", channel);
+                        if (isClonedChannel(channel)) {
+                            continue;
+                        } else if (metadataCache.restore(channel)) {
+                            logger.trace("    Restored datapoints of channel {} from cache", channel);
+                            result.channelKeys.add(DeviceMetadataCache.getChannelKey(channel));
+                            restoredChannels++;
+                        } else {
+                            channelsToLoad.add(channel);
+                        }
+                    }
+                    if (!channelsToLoad.isEmpty()) {
+                        logger.trace("    Loading datapoints into channels {}", channelsToLoad);
+                        addChannelDatapoints(channelsToLoad);
+                        for (HmChannel channel : channelsToLoad) {
+                            // only non-reconfigurable channels are cached, for reconfigurable channels the
+                            // datapoint set might change depending on the selected mode
+                            metadataCache.store(channel);
+                            result.channelKeys.add(DeviceMetadataCache.getChannelKey(channel));
+                        }
+                        loadedChannels += channelsToLoad.size();
+                    }
+                    for (HmChannel channel : device.getChannels()) {
+                        if (isClonedChannel(channel)) {
+                            HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                            cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
                         }
                     }
+                }
+                synchronized (deviceLoadedLock) {
                     prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
+                    result.loadedDevices.add(device.getAddress());
                     gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
                 }
+                loadedDevices++;
+            } catch (IOException ex) {
+                logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                        ex.getMessage());
             }
         }
-        if (!cancelLoadAllMetadata) {
-            devices.keySet().retainAll(loadedDevices);
-        }
-        initialized = true;
+        result.loadedChannels.addAndGet(loadedChannels);
+        result.restoredChannels.addAndGet(restoredChannels);
+        logger.debug(
+                "Loaded metadata of {} devices of interface {} from gateway '{}' in {} ms, {} channels loaded, {} channels restored from cache",
+                loadedDevices, hmInterface, id, System.currentTimeMillis() - startTime, loadedChannels,
+                restoredChannels);
+    }
+
+    /**
+     * Returns true, if the datapoints of the channel are cloned from the previous channel. Speeds up metadata
+     * generation a little bit for equal channels in the gateway devices.
+     */
+    private boolean isClonedChannel(HmChannel channel) {
+        String deviceType = channel.getDevice().getType();
+        return (DEVICE_TYPE_VIRTUAL.equals(deviceType) || DEVICE_TYPE_VIRTUAL_WIRED.equals(deviceType))
+                && channel.getNumber() > 1;
+    }
+
+    /**
+     * Creates the metadata cache of the gateway, stamped with the gateway type and firmware.
+     */
+    private DeviceMetadataCache createMetadataCache() {
+        File folder = new File(ConfigConstants.getUserDataFolder(), METADATA_CACHE_FOLDER);
+        String fileName = id.replaceAll("[^\\w.-]", "_") + ".json";
+        HmGatewayInfo gatewayInfo = config.getGatewayInfo();
+        String stamp = String.format("%s:%s", gatewayInfo.getType(), gatewayInfo.getFirmware());
+        return new DeviceMetadataCache(new File(folder, fileName), stamp);
     }
 
     /**
@@ -440,12 +537,42 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     }
 
     /**
-     * Loads all device descriptions from the gateway.
+     * Loads the MASTER and VALUES datapoint metadata of the channels of a device, combined into multicall requests
+     * if supported by the interface.
+     */
+    private void addChannelDatapoints(List<HmChannel> channels) throws IOException {
+        RpcClient<?> rpcClient = getRpcClient(channels.get(0).getDevice().getHmInterface());
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient.addChannelDatapoints(channels,
+                HmParamsetType.MASTER, HmParamsetType.VALUES);
+        for (Entry<HmChannel, List<HmParamsetType>> entry : remaining.entrySet()) {
+            for (HmParamsetType paramsetType : entry.getValue()) {
+                addChannelDatapoints(entry.getKey(), paramsetType);
+            }
+        }
+    }
+
+    /**
+     * Loads all device descriptions from the gateway, the interfaces are loaded in parallel.
      */
     private List<HmDevice> getDeviceDescriptions() throws IOException {
-        List<HmDevice> deviceDescriptions = new ArrayList<>();
+        List<Future<Collection<HmDevice>>> futures = new ArrayList<>();
         for (HmInterface hmInterface : availableInterfaces.keySet()) {
-            deviceDescriptions.addAll(getRpcClient(hmInterface).listDevices(hmInterface));
+            RpcClient<?> rpcClient = getRpcClient(hmInterface);
+            futures.add(metadataPool.submit(() -> rpcClient.listDevices(hmInterface)));
+        }
+        List<HmDevice> deviceDescriptions = new ArrayList<>();
+        for (Future<Collection<HmDevice>> future : futures) {
+            try {
+                deviceDescriptions.addAll(future.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading the device descriptions", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException) {
+                    throw (IOException) ex.getCause();
+                }
+                throw new IOException(ex.getCause());
+            }
         }
         if (!cancelLoadAllMetadata) {
             deviceDescriptions.add(createGatewayDevice());
@@ -484,8 +611,12 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             }
         } else {
             logger.debug("Loading values for channel {} of device '{}'", channel, channel.getDevice().getAddress());
-            setChannelDatapointValues(channel, HmParamsetType.MASTER);
-            setChannelDatapointValues(channel, HmParamsetType.VALUES);
+            Map<HmChannel, List<HmParamsetType>> remaining = getRpcClient(channel.getDevice().getHmInterface())
+                    .setChannelDatapointValues(Collections.singletonList(channel), HmParamsetType.MASTER,
+                            HmParamsetType.VALUES);
+            for (HmParamsetType paramsetType : remaining.getOrDefault(channel, Collections.emptyList())) {
+                setChannelDatapointValues(channel, paramsetType);
+            }
         }
 
         for (HmDatapoint dp : channel.getDatapoints()) {
@@ -761,10 +892,14 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     List<HmDevice> deviceDescriptions = getDeviceDescriptions();
                     for (HmDevice device : deviceDescriptions) {
                         if (device.getAddress().equals(address)) {
+                            metadataCache.invalidate(device);
+                            if (!device.getChannels().isEmpty()) {
+                                addChannelDatapoints(device.getChannels());
+                            }
                             for (HmChannel channel : device.getChannels()) {
-                                addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                addChannelDatapoints(channel, HmParamsetType.VALUES);
+                                metadataCache.store(channel);
                             }
+                            metadataCache.save();
                             prepareDevice(device);
                             gatewayAdapter.onNewDevice(device);
                         }
@@ -783,9 +918,11 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                 logger.debug("Device '{}' removed from gateway with id '{}'", address, id);
                 HmDevice device = devices.remove(address);
                 if (device != null) {
+                    metadataCache.invalidate(device);
                     gatewayAdapter.onDeviceDeleted(device);
                 }
             }
+            metadataCache.save();
         }
     }
 
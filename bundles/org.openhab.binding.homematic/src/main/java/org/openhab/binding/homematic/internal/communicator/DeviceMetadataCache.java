@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Persistent cache of the MASTER and VALUES paramset descriptions of the device channels, keyed by device type,
+ * firmware and channel number. The cache is stored as JSON.
+ *
+ * The cache file carries a version stamp of the gateway (e.g. type and firmware), the whole cache is discarded if
+ * the stamp does not match anymore. A device with a new firmware gets a new key and is loaded from the gateway.
+ * Reconfigurable channels are never cached, their datapoints depend on the selected channel function.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCache {
+    private final Logger logger = LoggerFactory.getLogger(DeviceMetadataCache.class);
+    private static final int FORMAT_VERSION = 2;
+
+    private final Gson gson = new Gson();
+    private final File file;
+    private final String stamp;
+    private final Map<String, List<CachedDatapoint>> channels = new HashMap<>();
+    private boolean modified;
+
+    /**
+     * Content of the cache file.
+     */
+    private static class CacheFile {
+        private int version;
+        private String stamp;
+        private Map<String, List<CachedDatapoint>> channels;
+    }
+
+    /**
+     * Metadata of a single datapoint, without channel and value.
+     */
+    private static class CachedDatapoint {
+        private String name;
+        private String description;
+        private Object defaultValue;
+        private HmValueType type;
+        private HmParamsetType paramsetType;
+        private Number minValue;
+        private Number maxValue;
+        private Number step;
+        private String[] options;
+        private boolean readOnly;
+        private boolean readable;
+        private String info;
+        private String unit;
+        private boolean trigger;
+
+        private CachedDatapoint(HmDatapoint dp) {
+            name = dp.getName();
+            description = dp.getDescription();
+            defaultValue = dp.getDefaultValue();
+            type = dp.getType();
+            paramsetType = dp.getParamsetType();
+            minValue = dp.getMinValue();
+            maxValue = dp.getMaxValue();
+            step = dp.getStep();
+            options = dp.getOptions();
+            readOnly = dp.isReadOnly();
+            readable = dp.isReadable();
+            info = dp.getInfo();
+            unit = dp.getUnit();
+            trigger = dp.isTrigger();
+        }
+
+        private HmDatapoint toDatapoint() {
+            HmDatapoint dp = new HmDatapoint(name, description, type, null, readOnly, paramsetType);
+            dp.setMinValue(toNumber(dp, minValue));
+            dp.setMaxValue(toNumber(dp, maxValue));
+            dp.setStep(toNumber(dp, step));
+            dp.setOptions(options);
+            dp.setInfo(info);
+            dp.setUnit(unit);
+            dp.setReadable(readable);
+            dp.setTrigger(trigger);
+            dp.setDefaultValue(defaultValue instanceof Number ? toNumber(dp, (Number) defaultValue) : defaultValue);
+            // like a datapoint loaded from the gateway, the value is the default value until the real one is loaded
+            dp.setValue(dp.getDefaultValue());
+            return dp;
+        }
+
+        /**
+         * Converts a number read from JSON back to the type of the datapoint.
+         */
+        private static Number toNumber(HmDatapoint dp, Number number) {
+            if (number == null) {
+                return null;
+            }
+            return dp.isFloatType() ? (Number) number.doubleValue() : (Number) number.intValue();
+        }
+    }
+
+    /**
+     * Creates the cache for the given file.
+     *
+     * @param file the cache file, created on the first {@link #save()}
+     * @param stamp the version stamp of the gateway, a cache file with another stamp is not used
+     */
+    public DeviceMetadataCache(File file, String stamp) {
+        this.file = file;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Returns the cache key of the channel.
+     */
+    public static String getChannelKey(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
+    }
+
+    /**
+     * Loads the cache file, if available and valid.
+     */
+    public synchronized void load() {
+        channels.clear();
+        modified = false;
+        if (!file.exists()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            CacheFile cacheFile = gson.fromJson(reader, CacheFile.class);
+            if (cacheFile == null || cacheFile.channels == null) {
+                throw new JsonParseException("no channels");
+            }
+            if (cacheFile.version != FORMAT_VERSION || !stamp.equals(cacheFile.stamp)) {
+                logger.debug("Discarding metadata cache '{}', created for '{}' (version {})", file, cacheFile.stamp,
+                        cacheFile.version);
+                modified = true;
+                return;
+            }
+            channels.putAll(cacheFile.channels);
+            logger.debug("Loaded metadata of {} channels from cache '{}'", channels.size(), file);
+        } catch (IOException | JsonParseException ex) {
+            logger.info("Can't read metadata cache '{}', loading all metadata from the gateway: {}", file,
+                    ex.getMessage());
+            channels.clear();
+            modified = true;
+        }
+    }
+
+    /**
+     * Writes the cache file, if the cache has been modified since it was loaded or saved.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists()) {
+            folder.mkdirs();
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        CacheFile cacheFile = new CacheFile();
+        cacheFile.version = FORMAT_VERSION;
+        cacheFile.stamp = stamp;
+        cacheFile.channels = channels;
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(cacheFile, writer);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+            logger.debug("Saved metadata of {} channels to cache '{}'", channels.size(), file);
+        } catch (IOException | JsonParseException ex) {
+            logger.warn("Can't write metadata cache '{}': {}", file, ex.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Adds the cached datapoints to the channel.
+     *
+     * @return true, if the channel was found in the cache
+     */
+    public synchronized boolean restore(HmChannel channel) {
+        List<CachedDatapoint> datapoints = channels.get(getChannelKey(channel));
+        if (datapoints == null) {
+            return false;
+        }
+        for (CachedDatapoint cachedDp : datapoints) {
+            channel.addDatapoint(cachedDp.toDatapoint());
+        }
+        return true;
+    }
+
+    /**
+     * Stores the datapoints of the channel, if the channel is not reconfigurable.
+     */
+    public synchronized void store(HmChannel channel) {
+        if (channel.isReconfigurable()) {
+            return;
+        }
+        List<CachedDatapoint> datapoints = new ArrayList<>();
+        for (HmDatapoint dp : channel.getDatapoints()) {
+            if (!dp.isVirtual()) {
+                datapoints.add(new CachedDatapoint(dp));
+            }
+        }
+        channels.put(getChannelKey(channel), datapoints);
+        modified = true;
+    }
+
+    /**
+     * Removes all channels of the device type and firmware of the given device.
+     */
+    public synchronized void invalidate(HmDevice device) {
+        String prefix = String.format("%s:%s:", device.getType(), device.getFirmware());
+        if (channels.keySet().removeIf(key -> key.startsWith(prefix))) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Removes all channels which are not in the given keys, e.g. of removed devices or old firmwares.
+     */
+    public synchronized void retainAll(Collection<String> keys) {
+        if (channels.keySet().retainAll(keys)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Returns the number of cached channels.
+     */
+    public synchronized int size() {
+        return channels.size();
+    }
+}
@@ -55,19 +55,25 @@ public class BinRpcClient extends RpcClient<byte[]> {
 
     @Override
     public void init(HmInterface hmInterface, String clientId) throws IOException {
-        super.init(hmInterface, clientId);
-        socketHandler.removeSocket(config.getRpcPort(hmInterface));
+        int port = config.getRpcPort(hmInterface);
+        synchronized (getPortLock(port)) {
+            super.init(hmInterface, clientId);
+            socketHandler.removeSocket(port);
+        }
     }
 
     /**
-     * Sends a BIN-RPC message and parses the response to see if there was an error.
+     * Sends a BIN-RPC message and parses the response to see if there was an error. Messages to different ports are
+     * sent in parallel, each port has its own socket.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
-        return sendMessage(port, request, 0);
+        synchronized (getPortLock(port)) {
+            return sendMessage(port, request, 0);
+        }
     }
 
     /**
@@ -15,10 +15,14 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -33,6 +37,8 @@ import org.openhab.binding.homematic.internal.communicator.parser.GetValueParser
 import org.openhab.binding.homematic.internal.communicator.parser.HomegearLoadDeviceNamesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListDevicesParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser;
 import org.openhab.binding.homematic.internal.communicator.parser.RssiInfoParser;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -53,8 +59,11 @@ public abstract class RpcClient<T> {
     private final Logger logger = LoggerFactory.getLogger(RpcClient.class);
     protected static final int MAX_RPC_RETRY = 3;
     protected static final int RESP_BUFFER_SIZE = 8192;
+    protected static final int MAX_MULTICALL_SIZE = 32;
 
     protected HomematicConfig config;
+    private final Map<Integer, Object> portLocks = new ConcurrentHashMap<>();
+    private final Map<Integer, Boolean> multicallSupport = new ConcurrentHashMap<>();
 
     public RpcClient(HomematicConfig config) {
         this.config = config;
@@ -80,6 +89,14 @@ public abstract class RpcClient<T> {
      */
     protected abstract Object[] sendMessage(int port, RpcRequest<T> request) throws IOException;
 
+    /**
+     * Returns the lock for the requests to the given port. Requests to the same port are sent one after the other,
+     * requests to different ports (interfaces) can be sent in parallel.
+     */
+    protected Object getPortLock(int port) {
+        return portLocks.computeIfAbsent(port, p -> new Object());
+    }
+
     /**
      * Register a callback for the specified interface where the Homematic gateway can send its events.
      */
@@ -183,6 +200,163 @@ public abstract class RpcClient<T> {
         new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
     }
 
+    /**
+     * Loads the datapoint metadata of the given paramsets into the channels, combined into system.multicall requests
+     * if the interface supports it. All channels must belong to devices of the same interface.
+     *
+     * @return the paramsets of the channels which have not been loaded, either because a multicall or a single call
+     *         of it failed or because the interface does not support multicalls
+     */
+    public Map<HmChannel, List<HmParamsetType>> addChannelDatapoints(List<HmChannel> channels,
+            HmParamsetType... paramsetTypes) throws IOException {
+        return sendParamsetMulticalls("getParamsetDescription", channels, paramsetTypes,
+                (channel, paramsetType) -> new GetParamsetDescriptionParser(channel, paramsetType));
+    }
+
+    /**
+     * Sets the datapoint values of the given paramsets for the channels, combined into system.multicall requests if
+     * the interface supports it. All channels must belong to devices of the same interface.
+     *
+     * @return the paramsets of the channels which have not been loaded, either because a multicall or a single call
+     *         of it failed or because the interface does not support multicalls
+     */
+    public Map<HmChannel, List<HmParamsetType>> setChannelDatapointValues(List<HmChannel> channels,
+            HmParamsetType... paramsetTypes) throws IOException {
+        return sendParamsetMulticalls("getParamset", channels, paramsetTypes,
+                (channel, paramsetType) -> new GetParamsetParser(channel, paramsetType));
+    }
+
+    /**
+     * Factory for the parser of a paramset call.
+     */
+    @FunctionalInterface
+    private interface ParamsetParserFactory {
+        RpcParser<Object[], ?> create(HmChannel channel, HmParamsetType paramsetType);
+    }
+
+    /**
+     * A single paramset call of a multicall.
+     */
+    private static class ParamsetCall {
+        private final HmChannel channel;
+        private final HmParamsetType paramsetType;
+
+        private ParamsetCall(HmChannel channel, HmParamsetType paramsetType) {
+            this.channel = channel;
+            this.paramsetType = paramsetType;
+        }
+    }
+
+    private Map<HmChannel, List<HmParamsetType>> sendParamsetMulticalls(String methodName, List<HmChannel> channels,
+            HmParamsetType[] paramsetTypes, ParamsetParserFactory parserFactory) throws IOException {
+        Map<HmChannel, List<HmParamsetType>> remaining = new LinkedHashMap<>();
+        List<ParamsetCall> calls = new ArrayList<>();
+        for (HmChannel channel : channels) {
+            for (HmParamsetType paramsetType : paramsetTypes) {
+                if (isConfigurationChannel(channel) && paramsetType != HmParamsetType.MASTER) {
+                    // The configuration channel only has a MASTER Paramset, so there is nothing to load
+                    continue;
+                }
+                if ("getParamset".equals(methodName) && channel.getDevice().getHmInterface() == HmInterface.CUXD
+                        && paramsetType == HmParamsetType.VALUES) {
+                    // CUxD values are read individually
+                    remaining.computeIfAbsent(channel, c -> new ArrayList<>()).add(paramsetType);
+                    continue;
+                }
+                calls.add(new ParamsetCall(channel, paramsetType));
+            }
+        }
+        if (calls.isEmpty()) {
+            return remaining;
+        }
+
+        int port = config.getRpcPort(calls.get(0).channel);
+        if (calls.size() == 1 || !isMulticallSupported(port)) {
+            for (ParamsetCall call : calls) {
+                remaining.computeIfAbsent(call.channel, c -> new ArrayList<>()).add(call.paramsetType);
+            }
+            return remaining;
+        }
+
+        for (int from = 0; from < calls.size(); from += MAX_MULTICALL_SIZE) {
+            List<ParamsetCall> chunk = calls.subList(from, Math.min(from + MAX_MULTICALL_SIZE, calls.size()));
+            List<Object> multicall = new ArrayList<>();
+            for (ParamsetCall call : chunk) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("methodName", methodName);
+                entry.put("params", Arrays.asList(
+                        getRpcAddress(call.channel.getDevice().getAddress()) + getChannelSuffix(call.channel),
+                        call.paramsetType.toString()));
+                multicall.add(entry);
+            }
+            RpcRequest<T> request = createRpcRequest("system.multicall");
+            request.addArg(multicall);
+            Object[] results;
+            try {
+                results = toResults(sendMessage(port, request));
+            } catch (IOException ex) {
+                // the single calls are sent individually by the caller, which handles their errors as usual
+                logger.debug("Multicall {} of {} calls failed: {}", methodName, chunk.size(), ex.getMessage());
+                for (ParamsetCall call : chunk) {
+                    remaining.computeIfAbsent(call.channel, c -> new ArrayList<>()).add(call.paramsetType);
+                }
+                continue;
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                ParamsetCall call = chunk.get(i);
+                Object result = i < results.length ? results[i] : null;
+                try {
+                    if (!(result instanceof Object[])) {
+                        // throws the exception of a fault struct
+                        new RpcResponseParser(request).parse(new Object[] { result });
+                        throw new IOException("Unknown multicall result: " + result);
+                    }
+                    parserFactory.create(call.channel, call.paramsetType).parse((Object[]) result);
+                } catch (IOException ex) {
+                    logger.debug("Multicall {} failed for device: {}, channel: {}, paramset: {}: {}", methodName,
+                            call.channel.getDevice().getAddress(), call.channel.getNumber(), call.paramsetType,
+                            ex.getMessage());
+                    remaining.computeIfAbsent(call.channel, c -> new ArrayList<>()).add(call.paramsetType);
+                }
+            }
+        }
+        return remaining;
+    }
+
+    private Object[] toResults(Object[] message) throws IOException {
+        if (message != null && message.length > 0 && message[0] instanceof Object[]) {
+            return (Object[]) message[0];
+        }
+        throw new IOException("Unknown multicall response: " + Arrays.toString(message));
+    }
+
+    /**
+     * Returns true, if the interface on the given port supports system.multicall requests. The result is only
+     * remembered if the interface answered, a connection failure is checked again with the next call.
+     */
+    private boolean isMulticallSupported(int port) {
+        Boolean supported = multicallSupport.get(port);
+        if (supported == null) {
+            try {
+                Object[] message = sendMessage(port, createRpcRequest("system.listMethods"));
+                supported = message != null && message.length > 0 && message[0] instanceof Object[]
+                        && Arrays.asList((Object[]) message[0]).contains("system.multicall");
+            } catch (UnknownRpcFailureException ex) {
+                // the interface doesn't know system.listMethods, so it doesn't know system.multicall either
+                logger.debug("Interface on port {} can't list its methods: {}", port, ex.getMessage());
+                supported = false;
+            } catch (IOException ex) {
+                // don't remember a transient failure, the interface is checked again with the next call
+                logger.debug("Can't list the methods of the interface on port {}: {}", port, ex.getMessage());
+                return false;
+            }
+            logger.debug("Interface on port {} supports system.multicall: {}", port, supported);
+            multicallSupport.put(port, supported);
+        }
+        return supported;
+    }
+
     /**
      * Sets all datapoint values for the given channel.
      */
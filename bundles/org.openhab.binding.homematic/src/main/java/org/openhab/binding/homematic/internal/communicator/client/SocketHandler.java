@@ -40,7 +40,7 @@ public class SocketHandler {
     /**
      * Returns a socket for the given port, (re)creates it if required.
      */
-    public Socket getSocket(int port) throws IOException {
+    public synchronized Socket getSocket(int port) throws IOException {
         SocketInfo socketInfo = socketsPerPort.get(port);
         if (socketInfo == null) {
             logger.trace("Creating new socket for port {}", port);
@@ -67,7 +67,7 @@ public class SocketHandler {
     /**
      * Removes the socket for the given port from the cache.
      */
-    public void removeSocket(int port) {
+    public synchronized void removeSocket(int port) {
         SocketInfo socketInfo = socketsPerPort.get(port);
         if (socketInfo != null) {
             logger.trace("Closing Socket on port {}", port);
@@ -79,12 +79,10 @@ public class SocketHandler {
     /**
      * Removes all cached sockets.
      */
-    public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
-            }
+    public synchronized void flush() {
+        Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
+        for (Integer key : portsToRemove) {
+            removeSocket(key);
         }
     }
 
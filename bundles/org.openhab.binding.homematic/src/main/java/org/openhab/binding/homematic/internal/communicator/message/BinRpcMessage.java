@@ -19,6 +19,8 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,18 +31,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
  *
+ * Received messages are decoded directly from a {@link ByteBuffer}, without copying the payload. Created messages are
+ * encoded into a growing byte array, which can be accessed with {@link #toByteBuffer()} without copying it.
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
 
+    public static final int HEADER_LENGTH = 8;
+
     public enum TYPE {
         REQUEST,
         RESPONSE
@@ -49,11 +55,12 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private Object[] messageData;
     private byte binRpcData[];
     private int offset;
+    private int dataOffset;
 
     private String methodName;
     private TYPE type;
     private int args;
-    private String encoding;
+    private Charset charset;
 
     public BinRpcMessage(String methodName, String encoding) {
         this(methodName, TYPE.REQUEST, encoding);
@@ -65,7 +72,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     public BinRpcMessage(String methodName, TYPE type, String encoding) {
         this.methodName = methodName;
         this.type = type;
-        this.encoding = encoding;
+        setEncoding(encoding);
         createHeader();
     }
 
@@ -73,8 +80,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given InputStream.
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
-        this.encoding = encoding;
-        byte sig[] = new byte[8];
+        setEncoding(encoding);
+        byte sig[] = new byte[HEADER_LENGTH];
         int length = is.read(sig, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
@@ -84,64 +91,95 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
+        int datasize = getMessageLength(ByteBuffer.wrap(sig));
+        byte message[] = new byte[HEADER_LENGTH + datasize];
+        System.arraycopy(sig, 0, message, 0, HEADER_LENGTH);
         int offset = 0;
         int currentLength;
 
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
+        while (offset < datasize
+                && (currentLength = is.read(message, HEADER_LENGTH + offset, datasize - offset)) != -1) {
             offset += currentLength;
         }
         if (offset != datasize) {
             throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
                     + datasize + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
+        decodeMessage(ByteBuffer.wrap(message), methodHeader);
     }
 
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
+    private static void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
         if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
             throw new UnsupportedEncodingException("No BinX signature");
         }
     }
 
+    /**
+     * Validates the BinX signature of the message header at the current position of the buffer and returns the
+     * length of the payload which follows the header.
+     */
+    public static int getMessageLength(ByteBuffer header) throws UnsupportedEncodingException {
+        int position = header.position();
+        if (header.get(position) != 'B' || header.get(position + 1) != 'i' || header.get(position + 2) != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+        return header.getInt(position + 4);
+    }
+
     /**
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
-        this.encoding = encoding;
-        if (message.length < 8) {
+        setEncoding(encoding);
+        if (message.length < HEADER_LENGTH) {
             throw new EOFException("Only " + message.length + " bytes received");
         }
         validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        decodeMessage(ByteBuffer.wrap(message), methodHeader);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
-        binRpcData = message;
+    /**
+     * Decodes a BIN-RPC message from the remaining bytes of the given buffer, the buffer content is not copied. The
+     * buffer can be reused after the message has been created.
+     */
+    public BinRpcMessage(ByteBuffer message, boolean methodHeader, String encoding) throws IOException {
+        setEncoding(encoding);
+        if (message.remaining() < HEADER_LENGTH) {
+            throw new EOFException("Only " + message.remaining() + " bytes received");
+        }
+        getMessageLength(message);
+        decodeMessage(message.slice(), methodHeader);
+    }
 
-        offset = 8;
+    private void setEncoding(String encoding) {
+        try {
+            charset = Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            charset = Charset.defaultCharset();
+        }
+    }
 
+    private void decodeMessage(ByteBuffer message, boolean methodHeader) throws IOException {
+        message.position(HEADER_LENGTH);
         if (methodHeader) {
-            methodName = readString();
-            readInt();
+            methodName = readString(message);
+            message.getInt();
         }
-        generateResponseData();
+        dataOffset = message.position();
+        generateResponseData(message);
     }
 
     public void setType(TYPE type) {
         binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
     }
 
-    private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
+    private void generateResponseData(ByteBuffer message) throws IOException {
+        message.position(dataOffset);
         List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
+        while (message.hasRemaining()) {
+            values.add(readRpcValue(message));
         }
         messageData = values.toArray();
-        values.clear();
     }
 
     private void createHeader() {
@@ -150,11 +188,11 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         setType(type);
         addInt(0); // placeholder content length
         if (methodName != null) {
-            addInt(methodName.length());
-            addString(methodName);
+            addString(encode(methodName));
             addInt(0); // placeholder arguments
         }
-        setInt(4, offset - 8);
+        dataOffset = offset;
+        setInt(4, offset - HEADER_LENGTH);
     }
 
     /**
@@ -163,10 +201,10 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public void addArg(Object argument) {
         addObject(argument);
-        setInt(4, offset - 8);
+        setInt(4, offset - HEADER_LENGTH);
 
         if (methodName != null) {
-            setInt(12 + methodName.length(), ++args);
+            setInt(dataOffset - 4, ++args);
         }
     }
 
@@ -185,10 +223,17 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         return binRpcData;
     }
 
+    /**
+     * Returns the encoded message without copying it. The buffer is only valid until the next argument is added.
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(binRpcData, 0, offset);
+    }
+
     private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+        if (binRpcData.length != offset) {
+            binRpcData = Arrays.copyOf(binRpcData, offset);
+        }
     }
 
     @Override
@@ -197,66 +242,63 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
-    }
-
-    private long readInt64() {
-        byte bi[] = new byte[8];
-        System.arraycopy(binRpcData, offset, bi, 0, 8);
-        offset += 8;
-        return (new BigInteger(bi)).longValue();
-    }
-
-    private String readString() throws UnsupportedEncodingException {
-        int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
+    private String readString(ByteBuffer message) {
+        int len = message.getInt();
+        String string;
+        if (message.hasArray()) {
+            string = new String(message.array(), message.arrayOffset() + message.position(), len, charset);
+            message.position(message.position() + len);
+        } else {
+            byte bytes[] = new byte[len];
+            message.get(bytes);
+            string = new String(bytes, charset);
+        }
+        return string;
     }
 
-    private Object readRpcValue() throws IOException {
-        int type = readInt();
+    private Object readRpcValue(ByteBuffer message) throws IOException {
+        int type = message.getInt();
         switch (type) {
             case 1:
-                return new Integer(readInt());
+                return Integer.valueOf(message.getInt());
             case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
+                return message.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
-                return readString();
+                return readString(message);
             case 4:
-                int mantissa = readInt();
-                int exponent = readInt();
+                int mantissa = message.getInt();
+                int exponent = message.getInt();
                 BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
                 return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
             case 5:
-                return new Date(readInt() * 1000);
+                return new Date(message.getInt() * 1000);
             case 0xD1:
                 // Int64
-                return new Long(readInt64());
+                return Long.valueOf(message.getLong());
             case 0x100:
                 // Array
-                int numElements = readInt();
-                Collection<Object> array = new ArrayList<>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
+                int numElements = message.getInt();
+                if (numElements < 0 || numElements > message.remaining() / 4) {
+                    throw new IOException("Invalid array size " + numElements);
                 }
-                return array.toArray();
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readRpcValue(message);
+                }
+                return array;
             case 0x101:
                 // Struct
-                numElements = readInt();
+                numElements = message.getInt();
                 Map<String, Object> struct = new TreeMap<>();
                 while (numElements-- > 0) {
-                    String name = readString();
-                    struct.put(name, readRpcValue());
+                    String name = readString(message);
+                    struct.put(name, readRpcValue(message));
                 }
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
+                for (int i = 0; i < message.limit(); i++) {
+                    logger.info("{} {}", Integer.toHexString(message.get(i)), (char) message.get(i));
                 }
                 throw new IOException("Unknown data type " + type);
         }
@@ -269,20 +311,23 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         offset = temp;
     }
 
-    private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
+    private void ensureCapacity(int length) {
+        if (offset + length > binRpcData.length) {
+            binRpcData = Arrays.copyOf(binRpcData, Math.max(binRpcData.length * 2, offset + length));
         }
+    }
+
+    private void addByte(byte b) {
+        ensureCapacity(1);
         binRpcData[offset++] = b;
     }
 
     private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+        ensureCapacity(4);
+        binRpcData[offset++] = (byte) (value >> 24);
+        binRpcData[offset++] = (byte) (value >> 16);
+        binRpcData[offset++] = (byte) (value >> 8);
+        binRpcData[offset++] = (byte) (value);
     }
 
     private void addDouble(double value) {
@@ -307,16 +352,25 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         addInt(exp);
     }
 
+    private byte[] encode(String string) {
+        return string.getBytes(charset);
+    }
+
     private void addString(String string) {
-        byte sd[];
-        try {
-            sd = string.getBytes(encoding);
-        } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
-        }
+        byte sd[] = encode(string);
+        ensureCapacity(sd.length);
+        System.arraycopy(sd, 0, binRpcData, offset, sd.length);
+        offset += sd.length;
+    }
+
+    /**
+     * Adds the length and the bytes of an encoded string.
+     */
+    private void addString(byte[] sd) {
+        ensureCapacity(4 + sd.length);
+        addInt(sd.length);
+        System.arraycopy(sd, 0, binRpcData, offset, sd.length);
+        offset += sd.length;
     }
 
     private void addList(Collection<?> collection) {
@@ -328,9 +382,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private void addObject(Object object) {
         if (object.getClass() == String.class) {
             addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
+            addString(encode((String) object));
         } else if (object.getClass() == Boolean.class) {
             addInt(2);
             addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
@@ -365,8 +417,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = (String) entry.getKey();
                 if (key != null) {
-                    addInt(key.length());
-                    addString(key);
+                    addString(encode(key));
                     addList(Collections.singleton(entry.getValue()));
                 }
             }
@@ -380,8 +431,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
-            trimBinRpcData();
-            generateResponseData();
+            if (binRpcData != null) {
+                generateResponseData(toByteBuffer());
+            }
             return RpcUtils.dumpRpcMessage(methodName, messageData);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of buffers for received BIN-RPC messages. Messages which don't fit into a pooled buffer get their own
+ * buffer, which is not returned to the pool.
+ *
+ * @author agent - Initial contribution
+ */
+class BinRpcBufferPool {
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    BinRpcBufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * Returns a buffer with the given limit.
+     */
+    ByteBuffer acquire(int length) {
+        if (length > bufferSize) {
+            return ByteBuffer.allocate(length);
+        }
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(bufferSize);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+        buffer.clear();
+        buffer.limit(length);
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && pooledBuffers.incrementAndGet() <= maxPooledBuffers) {
+            buffers.offer(buffer);
+        } else if (buffer.capacity() == bufferSize) {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of buffers in the pool.
+     */
+    int size() {
+        return pooledBuffers.get();
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage.HEADER_LENGTH;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+
+/**
+ * A connection from the Homematic gateway to the BIN-RPC server. Reads framed messages into pooled buffers and writes
+ * the responses, all methods must be called from the selector thread.
+ *
+ * @author agent - Initial contribution
+ */
+class BinRpcConnection {
+    private static final int MAX_MESSAGE_LENGTH = 64 * 1024 * 1024;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final BinRpcBufferPool bufferPool;
+    private final long created = System.currentTimeMillis();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+    private ByteBuffer message;
+    private ByteBuffer response;
+
+    BinRpcConnection(SocketChannel channel, SelectionKey key, BinRpcBufferPool bufferPool) {
+        this.channel = channel;
+        this.key = key;
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Reads the available bytes from the channel and returns the message, if it has been received completely. The
+     * connection stops reading until the response has been written.
+     */
+    ByteBuffer read() throws IOException {
+        if (message == null) {
+            if (channel.read(header) < 0) {
+                throw new EOFException("Connection closed by the gateway");
+            }
+            if (header.hasRemaining()) {
+                return null;
+            }
+            header.flip();
+            int length = BinRpcMessage.getMessageLength(header);
+            if (length < 0 || length > MAX_MESSAGE_LENGTH) {
+                throw new IOException("Invalid BIN-RPC message length " + length);
+            }
+            message = bufferPool.acquire(HEADER_LENGTH + length);
+            message.put(header);
+            header.clear();
+        }
+        if (message.hasRemaining() && channel.read(message) < 0) {
+            throw new EOFException("Only " + message.position() + " bytes received while reading message, expected "
+                    + message.limit() + " bytes");
+        }
+        if (message.hasRemaining()) {
+            return null;
+        }
+        ByteBuffer received = message;
+        message = null;
+        received.flip();
+        key.interestOps(0);
+        return received;
+    }
+
+    /**
+     * Writes the response of the last message, the connection reads the next message after the response has been
+     * written completely.
+     *
+     * @return true, if the response has been written completely
+     */
+    boolean write(ByteBuffer response) throws IOException {
+        this.response = response;
+        return write();
+    }
+
+    /**
+     * Continues writing the response.
+     *
+     * @return true, if the response has been written completely
+     */
+    boolean write() throws IOException {
+        if (response != null) {
+            channel.write(response);
+            if (response.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return false;
+            }
+            response = null;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        return true;
+    }
+
+    /**
+     * Returns true, if the connection has been open longer than the given time.
+     */
+    boolean isMaxAliveReached(long maxAlive) {
+        return System.currentTimeMillis() - created > maxAlive;
+    }
+
+    /**
+     * Closes the connection and releases the buffer of an incomplete message.
+     */
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+        if (message != null) {
+            bufferPool.release(message);
+            message = null;
+        }
+    }
+}
@@ -12,30 +12,54 @@
  */
 package org.openhab.binding.homematic.internal.communicator.server;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Waits for messages from the Homematic gateway and handles the method calls.
+ *
+ * All connections are served by a single selector thread, which reads the framed messages into pooled buffers. The
+ * messages are decoded and handled in the RPC thread pool. A connection doesn't read the next message until the
+ * response of the previous message has been written, so the events of a connection are handled in order.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_POOLED_BUFFERS = 32;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final BinRpcBufferPool bufferPool = new BinRpcBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean accept = true;
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
 
@@ -45,9 +69,17 @@ public class BinRpcNetworkService implements Runnable {
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+            serverChannel.configureBlocking(false);
+            selector = Selector.open();
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            serverChannel.close();
+            throw ex;
+        }
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -78,14 +110,124 @@ public class BinRpcNetworkService implements Runnable {
      */
     @Override
     public void run() {
-        while (accept) {
+        try {
+            while (accept && !Thread.currentThread().isInterrupted()) {
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (CancelledKeyException ex) {
+                        // connection already closed
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            acceptConnection();
+                        } else if (key.isReadable()) {
+                            readMessage((BinRpcConnection) key.attachment());
+                        } else if (key.isWritable()) {
+                            writeResponse((BinRpcConnection) key.attachment(), null);
+                        }
+                    } catch (CancelledKeyException ex) {
+                        // connection already closed
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            if (accept) {
+                logger.warn("BIN-RPC server stopped: {}", ex.getMessage(), ex);
+            }
+        } finally {
+            close();
+        }
+    }
+
+    private void acceptConnection() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel != null) {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new BinRpcConnection(channel, key, bufferPool));
+            }
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    private void readMessage(BinRpcConnection connection) {
+        try {
+            ByteBuffer message = connection.read();
+            if (message != null) {
+                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(() -> handleMessage(connection, message));
+            }
+        } catch (EOFException eof) {
+            connection.close();
+        } catch (IOException | RejectedExecutionException ex) {
+            logger.warn("{}", ex.getMessage(), ex);
+            connection.close();
+        }
+    }
+
+    /**
+     * Decodes the message and handles the method call, executed in the RPC thread pool.
+     */
+    private void handleMessage(BinRpcConnection connection, ByteBuffer buffer) {
+        try {
+            BinRpcMessage message;
             try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
-            } catch (IOException ex) {
-                // ignore
+                message = new BinRpcMessage(buffer, true, config.getEncoding());
+            } finally {
+                bufferPool.release(buffer);
             }
+            logger.trace("Event BinRpcMessage: {}", message);
+            byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
+                    message.getResponseData());
+            ByteBuffer response = returnValue == null ? null : ByteBuffer.wrap(returnValue);
+            runInSelector(() -> writeResponse(connection, response));
+        } catch (Exception e) {
+            logger.warn("{}", e.getMessage(), e);
+            runInSelector(connection::close);
+        }
+    }
+
+    private void writeResponse(BinRpcConnection connection, ByteBuffer response) {
+        try {
+            boolean written = response != null ? connection.write(response) : connection.write();
+            if (written && connection.isMaxAliveReached(config.getSocketMaxAlive() * 1000L)) {
+                connection.close();
+            }
+        } catch (IOException ex) {
+            logger.debug("Can't write BIN-RPC response: {}", ex.getMessage());
+            connection.close();
+        }
+    }
+
+    private void runInSelector(Runnable task) {
+        selectorTasks.add(task);
+        selector.wakeup();
+    }
+
+    private void close() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof BinRpcConnection) {
+                    ((BinRpcConnection) key.attachment()).close();
+                }
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException ex) {
+            // ignore
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException ioe) {
+            // ignore
         }
     }
 
@@ -94,8 +236,9 @@ public class BinRpcNetworkService implements Runnable {
      */
     public void shutdown() {
         accept = false;
+        selector.wakeup();
         try {
-            serverSocket.close();
+            serverChannel.close();
         } catch (IOException ioe) {
             // ignore
         }
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link DeviceMetadataCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setup() {
+        file = new File(folder.getRoot(), "cache/gateway.metadata");
+    }
+
+    private HmChannel createChannel(String firmware) {
+        HmDevice device = new HmDevice("ABC0000001", HmInterface.RF, "HM-LC-Dim1T-Pl", "ccu", null, firmware);
+        HmChannel channel = new HmChannel("DIMMER", 1);
+        device.addChannel(channel);
+        return channel;
+    }
+
+    private HmChannel createLoadedChannel(String firmware) {
+        HmChannel channel = createChannel(firmware);
+        HmDatapoint level = new HmDatapoint("LEVEL", "Level", HmValueType.FLOAT, 0.5, false, HmParamsetType.VALUES);
+        level.setMinValue(0.0);
+        level.setMaxValue(1.0);
+        level.setDefaultValue(0.0);
+        channel.addDatapoint(level);
+        HmDatapoint mode = new HmDatapoint("MODE", "Mode", HmValueType.ENUM, 1, false, HmParamsetType.MASTER);
+        mode.setMinValue(0);
+        mode.setMaxValue(1);
+        mode.setOptions(new String[] { "OFF", "ON" });
+        mode.setDefaultValue(0);
+        channel.addDatapoint(mode);
+        return channel;
+    }
+
+    @Test
+    public void testChannelIsRestoredAfterSave() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.51.6");
+        cache.load();
+        cache.store(createLoadedChannel("1.9"));
+        cache.save();
+        assertThat(file.exists(), is(true));
+
+        DeviceMetadataCache restartedCache = new DeviceMetadataCache(file, "CCU3:3.51.6");
+        restartedCache.load();
+        HmChannel channel = createChannel("1.9");
+        assertThat(restartedCache.restore(channel), is(true));
+        assertThat(channel.getDatapoints().size(), is(2));
+
+        // The value is the default value until the real one is loaded, numbers have the type of the datapoint
+        HmDatapoint mode = channel.getDatapoint(HmParamsetType.MASTER, "MODE");
+        assertThat(mode.getValue(), is((Object) 0));
+        assertThat(mode.getChannel(), is(channel));
+        assertThat(mode.getMaxValue(), is((Number) 1));
+        assertThat(mode.getOptions()[1], is("ON"));
+        HmDatapoint level = channel.getDatapoint(HmParamsetType.VALUES, "LEVEL");
+        assertThat(level.getDefaultValue(), is((Object) 0.0));
+        assertThat(level.getValue(), is((Object) 0.0));
+        assertThat(level.getMaxValue(), is((Number) 1.0));
+    }
+
+    @Test
+    public void testUnreadableCacheIsDiscarded() throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), new byte[] { (byte) 0xac, (byte) 0xed, 0, 5 });
+
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.51.6");
+        cache.load();
+        assertThat(cache.size(), is(0));
+        cache.store(createLoadedChannel("1.9"));
+        cache.save();
+        cache.load();
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void testNewFirmwareIsNotRestored() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.51.6");
+        cache.store(createLoadedChannel("1.9"));
+
+        assertThat(cache.restore(createChannel("2.0")), is(false));
+    }
+
+    @Test
+    public void testCacheOfOtherGatewayFirmwareIsDiscarded() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.51.6");
+        cache.store(createLoadedChannel("1.9"));
+        cache.save();
+
+        DeviceMetadataCache updatedCache = new DeviceMetadataCache(file, "CCU3:3.53.26");
+        updatedCache.load();
+        assertThat(updatedCache.size(), is(0));
+        assertThat(updatedCache.restore(createChannel("1.9")), is(false));
+    }
+
+    @Test
+    public void testInvalidateAndRetain() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.51.6");
+        HmChannel channel = createLoadedChannel("1.9");
+        cache.store(channel);
+        cache.store(createLoadedChannel("2.0"));
+        assertThat(cache.size(), is(2));
+
+        cache.retainAll(Collections.singleton(DeviceMetadataCache.getChannelKey(channel)));
+        assertThat(cache.size(), is(1));
+
+        cache.invalidate(channel.getDevice());
+        assertThat(cache.size(), is(0));
+    }
+}
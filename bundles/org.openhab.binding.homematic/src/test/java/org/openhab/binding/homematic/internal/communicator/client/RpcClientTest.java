@@ -19,6 +19,12 @@ import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.eclipse.smarthome.test.java.JavaTest;
 import org.junit.Before;
@@ -26,6 +32,7 @@ import org.junit.Test;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.binding.homematic.internal.communicator.message.XmlRpcRequest;
 import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
 import org.openhab.binding.homematic.test.util.RpcClientMockImpl;
 
@@ -95,6 +102,158 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
     }
 
+    @Test
+    public void paramsetDescriptionsAreReturnedForSingleCallsIfMulticallIsNotSupported() throws IOException {
+        HmChannel channel = createDimmerHmChannel();
+
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient
+                .addChannelDatapoints(Collections.singletonList(channel), HmParamsetType.MASTER, HmParamsetType.VALUES);
+        rpcClient.addChannelDatapoints(Collections.singletonList(channel), HmParamsetType.MASTER,
+                HmParamsetType.VALUES);
+
+        assertThat(remaining.get(channel), is(Arrays.asList(HmParamsetType.MASTER, HmParamsetType.VALUES)));
+        assertThat(rpcClient.numberOfCalls.get("system.listMethods"), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(0));
+    }
+
+    @Test
+    public void multicallSupportIsCheckedAgainAfterConnectionFailure() throws IOException {
+        List<HmChannel> channels = createDimmerChannels(2);
+        rpcClient.addResponse("system.listMethods", new IOException("Connection reset"));
+        supportMulticall();
+        rpcClient.addResponse("system.multicall",
+                new Object[] { new Object[] { levelDescription(), levelDescription() } });
+
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient.addChannelDatapoints(channels,
+                HmParamsetType.VALUES);
+        assertThat(remaining.size(), is(2));
+
+        remaining = rpcClient.addChannelDatapoints(channels, HmParamsetType.VALUES);
+        assertThat(remaining.isEmpty(), is(true));
+        assertThat(rpcClient.numberOfCalls.get("system.listMethods"), is(2));
+        assertThat(rpcClient.numberOfCalls.get("system.multicall"), is(1));
+    }
+
+    @Test
+    public void missingMulticallSupportIsRememberedIfServerReportsFailure() throws IOException {
+        List<HmChannel> channels = createDimmerChannels(2);
+        rpcClient.addResponse("system.listMethods", new UnknownRpcFailureException("-1 Failure"));
+
+        rpcClient.addChannelDatapoints(channels, HmParamsetType.VALUES);
+        rpcClient.addChannelDatapoints(channels, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get("system.listMethods"), is(1));
+        assertThat(rpcClient.numberOfCalls.get("system.multicall"), is(nullValue()));
+    }
+
+    @Test
+    public void valuesParamsetIsNotReturnedForDummyChannel() throws IOException {
+        HmChannel channel = createDimmerDummyChannel();
+
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient.setChannelDatapointValues(
+                Collections.singletonList(channel), HmParamsetType.MASTER, HmParamsetType.VALUES);
+
+        assertThat(remaining.get(channel), is(Collections.singletonList(HmParamsetType.MASTER)));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
+    }
+
+    private void supportMulticall() {
+        rpcClient.addResponse("system.listMethods", new Object[] { new Object[] { "system.multicall" } });
+    }
+
+    private static Object[] levelDescription() {
+        Map<String, Object> level = new HashMap<>();
+        level.put("TYPE", "FLOAT");
+        level.put("OPERATIONS", 7);
+        level.put("MIN", 0.0);
+        level.put("MAX", 1.0);
+        level.put("DEFAULT", 0.0);
+        return new Object[] { Collections.singletonMap("LEVEL", level) };
+    }
+
+    private static Map<String, Object> fault(int code, String message) {
+        Map<String, Object> fault = new HashMap<>();
+        fault.put("faultCode", code);
+        fault.put("faultString", message);
+        return fault;
+    }
+
+    private static List<HmChannel> createDimmerChannels(int count) {
+        HmDevice device = createDimmerHmDevice();
+        List<HmChannel> channels = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            HmChannel channel = new HmChannel("HM-LC-Dim1-Pl3", i);
+            channel.setDevice(device);
+            channels.add(channel);
+        }
+        return channels;
+    }
+
+    @Test
+    public void paramsetDescriptionsAreLoadedWithMulticall() throws IOException {
+        supportMulticall();
+        List<HmChannel> channels = createDimmerChannels(2);
+        rpcClient.addResponse("system.multicall",
+                new Object[] { new Object[] { levelDescription(), levelDescription() } });
+
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient.addChannelDatapoints(channels,
+                HmParamsetType.VALUES);
+
+        assertThat(remaining.isEmpty(), is(true));
+        assertThat(rpcClient.numberOfCalls.get("system.multicall"), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(0));
+        for (HmChannel channel : channels) {
+            assertThat(channel.getDatapoint(HmParamsetType.VALUES, "LEVEL"), is(notNullValue()));
+        }
+    }
+
+    @Test
+    public void paramsetWithFaultInMulticallIsReturnedForSingleCall() throws IOException {
+        supportMulticall();
+        HmChannel channel = createDimmerHmChannel();
+        rpcClient.addResponse("system.multicall",
+                new Object[] { new Object[] { fault(-3, "Unknown paramset"), levelDescription() } });
+
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient
+                .addChannelDatapoints(Collections.singletonList(channel), HmParamsetType.MASTER, HmParamsetType.VALUES);
+
+        assertThat(remaining.get(channel), is(Collections.singletonList(HmParamsetType.MASTER)));
+        assertThat(channel.getDatapoint(HmParamsetType.VALUES, "LEVEL"), is(notNullValue()));
+    }
+
+    @Test
+    public void multicallsAreChunkedAndFailedChunkIsReturnedForSingleCalls() throws IOException {
+        supportMulticall();
+        List<HmChannel> channels = createDimmerChannels(17);
+        rpcClient.addResponse("system.multicall", new IOException("Connection reset"));
+        rpcClient.addResponse("system.multicall",
+                new Object[] { new Object[] { levelDescription(), levelDescription() } });
+
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient.addChannelDatapoints(channels,
+                HmParamsetType.MASTER, HmParamsetType.VALUES);
+
+        List<List<Object>> multicalls = rpcClient.requestArgs.get("system.multicall");
+        assertThat(multicalls.size(), is(2));
+        assertThat(((List<?>) multicalls.get(0).get(0)).size(), is(32));
+        assertThat(((List<?>) multicalls.get(1).get(0)).size(), is(2));
+        assertThat(remaining.size(), is(16));
+        assertThat(remaining.containsKey(channels.get(16)), is(false));
+        assertThat(channels.get(16).getDatapoint(HmParamsetType.VALUES, "LEVEL"), is(notNullValue()));
+    }
+
+    @Test
+    public void unknownMulticallResponseReturnsChunkForSingleCalls() throws IOException {
+        supportMulticall();
+        HmChannel channel = createDimmerHmChannel();
+        rpcClient.addResponse("system.multicall", new Object[] { fault(-1, "Failure") });
+
+        Map<HmChannel, List<HmParamsetType>> remaining = rpcClient
+                .setChannelDatapointValues(Collections.singletonList(channel), HmParamsetType.MASTER,
+                        HmParamsetType.VALUES);
+
+        assertThat(remaining.get(channel), is(Arrays.asList(HmParamsetType.MASTER, HmParamsetType.VALUES)));
+    }
+
     @Test
     public void burstRxModeIsConfiguredAsParameterOnRequest() throws IOException {
         RpcRequest<String> request = new XmlRpcRequest("setValue");
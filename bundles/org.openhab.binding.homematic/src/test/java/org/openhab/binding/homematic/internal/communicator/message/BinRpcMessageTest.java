@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link BinRpcMessage}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = "ISO-8859-1";
+
+    private BinRpcMessage createMulticall() {
+        BinRpcMessage request = new BinRpcMessage("system.multicall", ENCODING);
+        Map<String, Object> event = new HashMap<>();
+        event.put("methodName", "event");
+        event.put("params", Arrays.asList("openHAB-RF", "NEQ0000001:1", "LEVEL", 0.5));
+        Map<String, Object> booleanEvent = new HashMap<>();
+        booleanEvent.put("methodName", "event");
+        booleanEvent.put("params", Arrays.asList("openHAB-RF", "NEQ0000002:1", "STATE", true));
+        request.addArg(Arrays.asList(event, booleanEvent));
+        return request;
+    }
+
+    private void assertMulticall(BinRpcMessage message) {
+        assertThat(message.getMethodName(), is("system.multicall"));
+        Object[] calls = (Object[]) message.getResponseData()[0];
+        assertThat(calls.length, is(2));
+        Object[] params = (Object[]) ((Map<?, ?>) calls[0]).get("params");
+        assertThat(params, is(new Object[] { "openHAB-RF", "NEQ0000001:1", "LEVEL", 0.5 }));
+        params = (Object[]) ((Map<?, ?>) calls[1]).get("params");
+        assertThat(params[3], is((Object) Boolean.TRUE));
+    }
+
+    @Test
+    public void messageIsDecodedFromByteArrayAndStream() throws IOException, ParseException {
+        byte[] data = createMulticall().createMessage();
+
+        assertMulticall(new BinRpcMessage(data, true, ENCODING));
+        assertMulticall(new BinRpcMessage(new ByteArrayInputStream(data), true, ENCODING));
+    }
+
+    @Test
+    public void messageIsDecodedFromRemainingBytesOfBuffer() throws IOException {
+        byte[] data = createMulticall().createMessage();
+        ByteBuffer buffer = ByteBuffer.allocate(data.length + 16);
+        buffer.position(16);
+        buffer.put(data);
+        buffer.position(16);
+
+        assertMulticall(new BinRpcMessage(buffer, true, ENCODING));
+        assertThat(BinRpcMessage.getMessageLength(buffer), is(data.length - BinRpcMessage.HEADER_LENGTH));
+    }
+
+    @Test
+    public void byteBufferContainsTheEncodedMessage() {
+        BinRpcMessage request = createMulticall();
+
+        ByteBuffer buffer = request.toByteBuffer();
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+
+        assertThat(data, is(request.createMessage()));
+    }
+
+    @Test
+    public void stringLengthIsEncodedInBytes() throws IOException, ParseException {
+        BinRpcMessage request = new BinRpcMessage("setValue", "UTF-8");
+        request.addArg("Küche");
+        request.addArg(1);
+
+        BinRpcMessage message = new BinRpcMessage(request.createMessage(), true, "UTF-8");
+
+        assertThat(message.getMethodName(), is("setValue"));
+        assertThat(message.getResponseData(), is(new Object[] { "Küche", 1 }));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+
+/**
+ * Tests for {@link BinRpcNetworkService}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcNetworkServiceTest {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private HomematicConfig config;
+    private BinRpcNetworkService networkService;
+
+    @Before
+    public void setup() throws IOException {
+        config = new HomematicConfig();
+        config.setBindAddress("127.0.0.1");
+        try (ServerSocket socket = new ServerSocket(0)) {
+            config.setBinCallbackPort(socket.getLocalPort());
+        }
+        networkService = new BinRpcNetworkService(new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                events.add(dpInfo.getAddress() + ":" + dpInfo.getChannel() + "#" + dpInfo.getName() + "=" + newValue);
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        }, config);
+        new Thread(networkService).start();
+    }
+
+    @After
+    public void shutdown() {
+        networkService.shutdown();
+    }
+
+    private byte[] createEvents(int first, int count) {
+        BinRpcMessage request = new BinRpcMessage("system.multicall", config.getEncoding());
+        Object[] calls = new Object[count];
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("methodName", "event");
+            event.put("params", Arrays.asList("openHAB-RF", "NEQ0000001:1", "LEVEL", first + i));
+            calls[i] = event;
+        }
+        request.addArg(Arrays.asList(calls));
+        return request.createMessage();
+    }
+
+    private Object[] readResponse(DataInputStream in) throws IOException {
+        return new BinRpcMessage(in, false, config.getEncoding()).getResponseData();
+    }
+
+    @Test
+    public void eventsOfAConnectionAreHandledInOrder() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", config.getBinCallbackPort())) {
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            for (int i = 0; i < 50; i++) {
+                byte[] message = createEvents(i * 4, 4);
+                // split the message to test the framing
+                out.write(message, 0, 5);
+                out.flush();
+                out.write(message, 5, message.length - 5);
+                out.flush();
+                assertThat(readResponse(in)[0], is((Object) new Object[] { "event" }));
+            }
+        }
+
+        assertThat(events.size(), is(200));
+        for (int i = 0; i < events.size(); i++) {
+            assertThat(events.get(i), is("NEQ0000001:1#LEVEL=" + i));
+        }
+    }
+
+    @Test
+    public void listMethodsIsAnswered() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", config.getBinCallbackPort())) {
+            BinRpcMessage request = new BinRpcMessage("system.listMethods", config.getEncoding());
+            socket.getOutputStream().write(request.createMessage());
+            Object[] methods = (Object[]) readResponse(new DataInputStream(socket.getInputStream()))[0];
+            assertThat(Arrays.asList(methods), hasItem("system.multicall"));
+        }
+    }
+}
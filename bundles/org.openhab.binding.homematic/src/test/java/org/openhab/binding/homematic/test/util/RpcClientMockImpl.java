@@ -13,8 +13,12 @@
 package org.openhab.binding.homematic.test.util;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
@@ -30,6 +34,8 @@ public class RpcClientMockImpl extends RpcClient<String> {
     public static final String GET_PARAMSET_NAME = "getParamset";
 
     public Map<String, Integer> numberOfCalls = new HashMap<>();
+    public Map<String, List<List<Object>>> requestArgs = new HashMap<>();
+    private Map<String, Deque<Object>> responses = new HashMap<>();
 
     public RpcClientMockImpl() throws IOException {
         this(new HomematicConfig());
@@ -47,7 +53,19 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
         increaseNumberOfCalls(methodName);
 
-        return mockResponse();
+        Deque<Object> methodResponses = responses.get(methodName);
+        Object response = methodResponses == null ? null : methodResponses.poll();
+        if (response instanceof IOException) {
+            throw (IOException) response;
+        }
+        return response != null ? (Object[]) response : mockResponse();
+    }
+
+    /**
+     * Adds the response of the next call of the method, either the message or an {@link IOException} to throw.
+     */
+    public void addResponse(String methodName, Object response) {
+        responses.computeIfAbsent(methodName, m -> new ArrayDeque<>()).add(response);
     }
 
     private void increaseNumberOfCalls(String methodName) {
@@ -67,10 +85,13 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     @Override
     protected RpcRequest<String> createRpcRequest(String methodName) {
+        List<Object> args = new ArrayList<>();
+        requestArgs.computeIfAbsent(methodName, m -> new ArrayList<>()).add(args);
         return new RpcRequest<String>() {
 
             @Override
             public void addArg(Object arg) {
+                args.add(arg);
             }
 
             @Override
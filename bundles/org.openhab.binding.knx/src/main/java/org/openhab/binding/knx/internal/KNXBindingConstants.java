@@ -43,6 +43,12 @@ public class KNXBindingConstants {
     public static final String MANUFACTURER_SERIAL_NO = "manfacturerserialnumber";
     public static final String MANUFACTURER_HARDWARE_TYPE = "manfacturerhardwaretype";
     public static final String MANUFACTURER_FIRMWARE_REVISION = "manfacturerfirmwarerevision";
+    public static final String READ_QUEUE_SIZE = "readqueuesize";
+    public static final String READS_COMPLETED = "readscompleted";
+    public static final String READS_FAILED = "readsfailed";
+    public static final String READ_RATE = "readrate";
+    public static final String READ_PAUSE = "readpause";
+    public static final String BUS_LOAD = "busload";
 
     // Thing Configuration parameters
     public static final String IP_ADDRESS = "ipAddress";
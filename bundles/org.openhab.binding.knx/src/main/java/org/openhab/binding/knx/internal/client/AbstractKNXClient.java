@@ -12,9 +12,13 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -26,6 +30,7 @@ import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.types.Type;
+import org.openhab.binding.knx.internal.KNXBindingConstants;
 import org.openhab.binding.knx.internal.KNXTypeMapper;
 import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
 import org.openhab.binding.knx.internal.handler.GroupAddressListener;
@@ -33,6 +38,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import tuwien.auto.calimero.CloseEvent;
+import tuwien.auto.calimero.DataUnitBuilder;
 import tuwien.auto.calimero.DetachEvent;
 import tuwien.auto.calimero.FrameEvent;
 import tuwien.auto.calimero.GroupAddress;
@@ -64,15 +70,15 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    private static final int GROUP_READ = 0x00;
+    private static final int READ_PROGRESS_INTERVAL = 100;
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
 
     private final ThingUID thingUID;
     private final int responseTimeout;
-    private final int readingPause;
     private final int autoReconnectPeriod;
-    private final int readRetriesLimit;
     private final StatusUpdateCallback statusUpdateCallback;
     private final ScheduledExecutorService knxScheduler;
 
@@ -83,18 +89,25 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable KNXNetworkLink link;
     private @Nullable DeviceInfoClient deviceInfoClient;
     private @Nullable ScheduledFuture<?> busJob;
+    private volatile boolean busJobActive;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    // Listeners by the group addresses they listen to, and the addresses each listener has been indexed with
+    private final Map<GroupAddress, Set<GroupAddressListener>> groupAddressListeners = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> listenerGroupAddresses = new HashMap<>();
+    private final DatapointReadScheduler readScheduler;
+    private long reportedReads;
+    private long reportedReadsTime;
+    private long loggedReads;
 
     @FunctionalInterface
     private interface ListenerNotification {
         void apply(BusMessageListener listener, IndividualAddress source, GroupAddress destination, byte[] asdu);
     }
 
+    // package visibility for testing
     @NonNullByDefault({})
-    private final ProcessListener processListener = new ProcessListener() {
+    final ProcessListener processListener = new ProcessListener() {
 
         @Override
         public void detached(DetachEvent e) {
@@ -103,6 +116,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupWrite(ProcessEvent e) {
+            readScheduler.valueReceived(e.getDestination());
             processEvent("Group Write", e, (listener, source, destination, asdu) -> {
                 listener.onGroupWrite(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -117,6 +131,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupReadResponse(ProcessEvent e) {
+            readScheduler.valueReceived(e.getDestination());
             processEvent("Group Read Response", e, (listener, source, destination, asdu) -> {
                 listener.onGroupReadResponse(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -128,8 +143,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.autoReconnectPeriod = autoReconnectPeriod;
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
-        this.readingPause = readingPause;
-        this.readRetriesLimit = readRetriesLimit;
+        this.readScheduler = new DatapointReadScheduler(readingPause, TimeUnit.SECONDS.toMillis(responseTimeout),
+                readRetriesLimit);
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
     }
@@ -196,8 +211,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
-                    TimeUnit.MILLISECONDS);
+            busJobActive = true;
+            busJob = knxScheduler.schedule(this::readNextQueuedDatapoint, 0, TimeUnit.MILLISECONDS);
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
             connectJob = null;
@@ -221,9 +236,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @SuppressWarnings("null")
-    private void releaseConnection() {
+    private synchronized void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
-        readDatapoints.clear();
+        busJobActive = false;
+        readScheduler.clear();
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -251,11 +267,21 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        readScheduler.telegramReceived(System.currentTimeMillis());
+        Set<GroupAddressListener> listeners = groupAddressListeners.get(destination);
+        if (listeners == null || listeners.isEmpty()) {
+            return;
         }
+        // A single task per telegram, the listeners must not be called on the receiver thread of the link
+        knxScheduler.execute(() -> {
+            for (GroupAddressListener listener : listeners) {
+                try {
+                    action.apply(listener, source, destination, asdu);
+                } catch (RuntimeException e) {
+                    logger.warn("Listener {} failed to process a {} telegram to '{}'", listener, task, destination, e);
+                }
+            }
+        });
     }
 
     /**
@@ -270,35 +296,86 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
-    @SuppressWarnings("null")
     private void readNextQueuedDatapoint() {
+        if (!busJobActive) {
+            return;
+        }
+        try {
+            readNextDatapoint();
+        } finally {
+            reportReadProgress();
+            scheduleNextRead();
+        }
+    }
+
+    private void readNextDatapoint() {
         if (!connectIfNotAutomatic()) {
             return;
         }
-        ProcessCommunicator processCommunicator = this.processCommunicator;
-        if (processCommunicator == null) {
+        KNXNetworkLink link = this.link;
+        if (link == null) {
             return;
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
+        ReadDatapoint datapoint = readScheduler.next(System.currentTimeMillis());
         if (datapoint != null) {
-            datapoint.incrementRetries();
+            GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+            long start = System.nanoTime();
             try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
+                logger.trace("Sending a Group Read Request telegram for {}", groupAddress);
+                // The response is received by the process listener like any other GroupValueResponse
+                link.sendRequestWait(groupAddress, datapoint.getDatapoint().getPriority(),
+                        DataUnitBuilder.createLengthOptimizedAPDU(GROUP_READ, null));
+                readScheduler.sent(datapoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
             } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
-                }
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted sending KNX read request");
-                return;
+                readScheduler.sendFailed(datapoint, System.currentTimeMillis(), e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void scheduleNextRead() {
+        if (busJobActive) {
+            busJob = knxScheduler.schedule(this::readNextQueuedDatapoint,
+                    readScheduler.getPause(System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publish the statistics of reading the datapoints as bridge properties once all the queued datapoints have been
+     * read. The progress in between is logged every {@link #READ_PROGRESS_INTERVAL} reads.
+     */
+    private void reportReadProgress() {
+        long reads = readScheduler.getCompletedCount() + readScheduler.getFailedCount();
+        int pending = readScheduler.getPendingCount();
+        long now = System.currentTimeMillis();
+        if (reads == reportedReads) {
+            if (pending == 0) {
+                // idle, the reads of datapoints queued later start from here
+                reportedReadsTime = now;
+            }
+            return;
+        }
+        if (pending > 0) {
+            if (reads - loggedReads >= READ_PROGRESS_INTERVAL) {
+                loggedReads = reads;
+                logger.debug("Bridge {} read {} datapoints, {} pending, pause {} ms, bus load {} telegrams/s",
+                        thingUID, reads, pending, readScheduler.getPause(now), readScheduler.getBusLoad(now));
             }
+            return;
         }
+        long elapsed = now - reportedReadsTime;
+        Map<String, String> properties = new HashMap<>();
+        properties.put(KNXBindingConstants.READ_QUEUE_SIZE, Integer.toString(pending));
+        properties.put(KNXBindingConstants.READS_COMPLETED, Long.toString(readScheduler.getCompletedCount()));
+        properties.put(KNXBindingConstants.READS_FAILED, Long.toString(readScheduler.getFailedCount()));
+        if (reportedReadsTime > 0 && elapsed > 0) {
+            properties.put(KNXBindingConstants.READ_RATE, Long.toString((reads - reportedReads) * 1000 / elapsed));
+        }
+        properties.put(KNXBindingConstants.READ_PAUSE, Integer.toString(readScheduler.getPause(now)));
+        properties.put(KNXBindingConstants.BUS_LOAD, Integer.toString(readScheduler.getBusLoad(now)));
+        reportedReads = reads;
+        loggedReads = reads;
+        reportedReadsTime = now;
+        statusUpdateCallback.updateProperties(properties);
     }
 
     public void dispose() {
@@ -366,23 +443,55 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, boolean priority) {
+        readScheduler.add(datapoint, priority);
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        Set<GroupAddress> groupAddresses = new HashSet<>(listener.getGroupAddresses());
+        synchronized (listenerGroupAddresses) {
+            Set<GroupAddress> previous = listenerGroupAddresses.put(listener, groupAddresses);
+            if (previous != null) {
+                unindex(listener, previous);
+            }
+            for (GroupAddress groupAddress : groupAddresses) {
+                groupAddressListeners.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(listener);
+            }
+            return previous == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (listenerGroupAddresses) {
+            Set<GroupAddress> previous = listenerGroupAddresses.remove(listener);
+            if (previous == null) {
+                return false;
+            }
+            unindex(listener, previous);
+            return true;
+        }
+    }
+
+    private void unindex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            groupAddressListeners.computeIfPresent(groupAddress, (ga, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+    }
+
+    /**
+     * Returns the listeners registered for the given group address.
+     *
+     * @param groupAddress the group address
+     * @return the listeners, may be empty
+     */
+    public Set<GroupAddressListener> getGroupAddressListeners(GroupAddress groupAddress) {
+        Set<GroupAddressListener> listeners = groupAddressListeners.get(groupAddress);
+        return listeners != null ? Collections.unmodifiableSet(listeners) : Collections.emptySet();
     }
 
     @Override
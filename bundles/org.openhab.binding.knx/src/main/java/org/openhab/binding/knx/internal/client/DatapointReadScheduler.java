@@ -0,0 +1,336 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Decides which datapoint is read from the KNX bus next, and when.
+ *
+ * <ul>
+ * <li>A group address is only read once, even if it is requested by several things. A read request is dropped if a
+ * value for its group address is seen on the bus before the request was sent.
+ * <li>Prioritized read requests (e.g. for channels linked to items) are sent before the others, due retries first.
+ * <li>Read requests do not wait for the response. Up to {@link #MAX_PARALLEL_READS} requests wait for their response
+ * at a time, a request without response within the response timeout is retried later.
+ * <li>The pause between two read requests adapts between the configured reading pause and
+ * {@link #MAX_PAUSE_FACTOR} times that pause. It grows if the link confirms requests slowly, sending fails or the bus
+ * is busy, and shrinks again otherwise.
+ * </ul>
+ *
+ * All times are in milliseconds.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class DatapointReadScheduler {
+
+    /**
+     * Bus load in telegrams per second above which the reads are slowed down
+     */
+    static final int BUS_LOAD_THRESHOLD = 20;
+
+    /**
+     * Confirmation latency of a read request above which the reads are slowed down
+     */
+    static final long SLOW_CONFIRMATION = 500;
+
+    static final int MAX_PAUSE_FACTOR = 20;
+
+    static final int MAX_PARALLEL_READS = 8;
+
+    private static final long BUS_LOAD_WINDOW = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(DatapointReadScheduler.class);
+
+    private final int minPause;
+    private final int maxPause;
+    private final long responseTimeout;
+    private final int retriesLimit;
+
+    // All datapoints to be read, queued or waiting for their response
+    private final Map<GroupAddress, ReadDatapoint> pending = new HashMap<>();
+    private final Deque<ReadDatapoint> priorityQueue = new ArrayDeque<>();
+    private final Deque<ReadDatapoint> queue = new ArrayDeque<>();
+    private final PriorityQueue<ReadDatapoint> retries = new PriorityQueue<>(
+            Comparator.comparingLong(ReadDatapoint::getDueTime));
+    // In the order the requests were sent
+    private final Map<GroupAddress, ReadDatapoint> awaitingResponse = new LinkedHashMap<>();
+
+    private int pause;
+    private long busLoadWindowStart;
+    private int busLoadWindowCount;
+    private int busLoad;
+
+    private long completedCount;
+    private long failedCount;
+    private long mergedCount;
+
+    /**
+     * @param readingPause minimum pause between two read requests
+     * @param responseTimeout time to wait for the response of a read request
+     * @param retriesLimit number of attempts to read a datapoint
+     */
+    public DatapointReadScheduler(int readingPause, long responseTimeout, int retriesLimit) {
+        this.minPause = Math.max(readingPause, 1);
+        this.maxPause = minPause * MAX_PAUSE_FACTOR;
+        this.responseTimeout = responseTimeout;
+        this.retriesLimit = retriesLimit;
+        this.pause = minPause;
+    }
+
+    /**
+     * Queue the given datapoint for reading.
+     *
+     * @param datapoint the datapoint
+     * @param priority true to read the datapoint before the not prioritized ones
+     * @return true if queued, false if the group address is already pending
+     */
+    public synchronized boolean add(Datapoint datapoint, boolean priority) {
+        GroupAddress groupAddress = datapoint.getMainAddress();
+        ReadDatapoint existing = pending.get(groupAddress);
+        if (existing != null) {
+            mergedCount++;
+            if (priority && !existing.isPriority() && queue.remove(existing)) {
+                existing.setPriority(true);
+                priorityQueue.add(existing);
+            }
+            return false;
+        }
+        ReadDatapoint readDatapoint = new ReadDatapoint(datapoint, retriesLimit);
+        readDatapoint.setPriority(priority);
+        pending.put(groupAddress, readDatapoint);
+        (priority ? priorityQueue : queue).add(readDatapoint);
+        return true;
+    }
+
+    /**
+     * Return the datapoint to be read now and mark it as sent.
+     *
+     * @param now the current time
+     * @return the datapoint or null if none is due or too many requests are waiting for their response
+     */
+    public synchronized @Nullable ReadDatapoint next(long now) {
+        expireResponses(now);
+        if (awaitingResponse.size() >= MAX_PARALLEL_READS) {
+            return null;
+        }
+        ReadDatapoint readDatapoint = pollDue(now);
+        if (readDatapoint != null) {
+            readDatapoint.incrementRetries();
+            readDatapoint.setSentTime(now);
+            awaitingResponse.put(readDatapoint.getDatapoint().getMainAddress(), readDatapoint);
+        }
+        return readDatapoint;
+    }
+
+    private @Nullable ReadDatapoint pollDue(long now) {
+        ReadDatapoint readDatapoint;
+        while ((readDatapoint = retries.peek()) != null && readDatapoint.getDueTime() <= now) {
+            retries.poll();
+            if (isPending(readDatapoint)) {
+                return readDatapoint;
+            }
+        }
+        while ((readDatapoint = priorityQueue.poll()) != null) {
+            if (isPending(readDatapoint)) {
+                return readDatapoint;
+            }
+        }
+        while ((readDatapoint = queue.poll()) != null) {
+            if (isPending(readDatapoint)) {
+                return readDatapoint;
+            }
+        }
+        return null;
+    }
+
+    private boolean isPending(ReadDatapoint readDatapoint) {
+        // not pending anymore if a value has been received in the meantime
+        return pending.get(readDatapoint.getDatapoint().getMainAddress()) == readDatapoint;
+    }
+
+    private void expireResponses(long now) {
+        Iterator<ReadDatapoint> iterator = awaitingResponse.values().iterator();
+        while (iterator.hasNext()) {
+            ReadDatapoint readDatapoint = iterator.next();
+            if (readDatapoint.getSentTime() + responseTimeout > now) {
+                return;
+            }
+            iterator.remove();
+            failed(readDatapoint, now, "no response");
+        }
+    }
+
+    private void failed(ReadDatapoint readDatapoint, long now, @Nullable String reason) {
+        GroupAddress groupAddress = readDatapoint.getDatapoint().getMainAddress();
+        if (readDatapoint.getRetries() < readDatapoint.getLimit()) {
+            readDatapoint.setDueTime(now + (long) pause * (1 << readDatapoint.getRetries()));
+            retries.add(readDatapoint);
+            logger.debug("Could not read value for datapoint {}: {}. Going to retry.", groupAddress, reason);
+        } else {
+            pending.remove(groupAddress);
+            failedCount++;
+            logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                    groupAddress, readDatapoint.getLimit());
+        }
+    }
+
+    /**
+     * The read request of the datapoint has been confirmed by the link.
+     *
+     * @param readDatapoint the datapoint returned by {@link #next(long)}
+     * @param latency time it took to send the request
+     */
+    public synchronized void sent(ReadDatapoint readDatapoint, long latency) {
+        if (latency > SLOW_CONFIRMATION) {
+            increasePause();
+        } else {
+            pause = Math.max(minPause, pause - Math.max(1, pause / 8));
+        }
+    }
+
+    /**
+     * The read request of the datapoint could not be sent.
+     *
+     * @param readDatapoint the datapoint returned by {@link #next(long)}
+     * @param now the current time
+     * @param reason the error message
+     */
+    public synchronized void sendFailed(ReadDatapoint readDatapoint, long now, @Nullable String reason) {
+        if (awaitingResponse.remove(readDatapoint.getDatapoint().getMainAddress()) == readDatapoint) {
+            failed(readDatapoint, now, reason);
+        }
+        increasePause();
+    }
+
+    private void increasePause() {
+        pause = Math.min(maxPause, pause * 2);
+    }
+
+    /**
+     * A value (GroupValueWrite or GroupValueResponse) has been seen on the bus for the group address.
+     *
+     * @param groupAddress the group address
+     */
+    public synchronized void valueReceived(GroupAddress groupAddress) {
+        ReadDatapoint readDatapoint = pending.remove(groupAddress);
+        if (readDatapoint == null) {
+            return;
+        }
+        if (awaitingResponse.remove(groupAddress) != null) {
+            completedCount++;
+        } else {
+            // not sent yet, the value is known already
+            mergedCount++;
+        }
+    }
+
+    /**
+     * A telegram has been seen on the bus, used to determine the bus load.
+     *
+     * @param now the current time
+     */
+    public synchronized void telegramReceived(long now) {
+        updateBusLoad(now);
+        busLoadWindowCount++;
+    }
+
+    private void updateBusLoad(long now) {
+        long elapsed = now - busLoadWindowStart;
+        if (elapsed >= BUS_LOAD_WINDOW) {
+            busLoad = elapsed < 2 * BUS_LOAD_WINDOW ? busLoadWindowCount : 0;
+            busLoadWindowStart = now;
+            busLoadWindowCount = 0;
+        }
+    }
+
+    /**
+     * Return the pause before the next read request, taking the current bus load into account.
+     *
+     * @param now the current time
+     */
+    public synchronized int getPause(long now) {
+        updateBusLoad(now);
+        if (busLoad > BUS_LOAD_THRESHOLD) {
+            return (int) Math.min(maxPause, (long) pause * busLoad / BUS_LOAD_THRESHOLD);
+        }
+        return pause;
+    }
+
+    /**
+     * Return the number of telegrams per second seen on the bus recently.
+     *
+     * @param now the current time
+     */
+    public synchronized int getBusLoad(long now) {
+        updateBusLoad(now);
+        return busLoad;
+    }
+
+    /**
+     * Drop all pending datapoints
+     */
+    public synchronized void clear() {
+        pending.clear();
+        priorityQueue.clear();
+        queue.clear();
+        retries.clear();
+        awaitingResponse.clear();
+        pause = minPause;
+    }
+
+    /**
+     * Return the number of datapoints queued or waiting for their response
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Return the number of datapoints read successfully
+     */
+    public synchronized long getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Return the number of datapoints given up after the maximum number of retries
+     */
+    public synchronized long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Return the number of read requests not sent, since the group address was already pending or its value was
+     * received in the meantime
+     */
+    public synchronized long getMergedCount() {
+        return mergedCount;
+    }
+}
@@ -61,7 +61,8 @@ public interface KNXClient {
     void restartNetworkDevice(@Nullable IndividualAddress address);
 
     /**
-     * Register the given listener to be informed on KNX bus traffic.
+     * Register the given listener to be informed on KNX bus traffic. Registering an already registered listener
+     * again updates the group addresses it listens to.
      *
      * @param listener the listener
      * @return {@code true} if it wasn't registered before
@@ -81,7 +82,17 @@ public interface KNXClient {
      *
      * @param datapoint the datapoint
      */
-    void readDatapoint(Datapoint datapoint);
+    default void readDatapoint(Datapoint datapoint) {
+        readDatapoint(datapoint, false);
+    }
+
+    /**
+     * Schedule the given data point for asynchronous reading.
+     *
+     * @param datapoint the datapoint
+     * @param priority {@code true} to read it before the not prioritized data points, e.g. if linked to an item
+     */
+    void readDatapoint(Datapoint datapoint, boolean priority);
 
     /**
      * Write a command to the KNX bus.
@@ -24,6 +24,9 @@ public class ReadDatapoint {
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private boolean priority;
+    private long sentTime;
+    private long dueTime;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
         this.datapoint = datapoint;
@@ -47,6 +50,36 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public boolean isPriority() {
+        return priority;
+    }
+
+    public void setPriority(boolean priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Time in milliseconds the last read request was sent
+     */
+    public long getSentTime() {
+        return sentTime;
+    }
+
+    public void setSentTime(long sentTime) {
+        this.sentTime = sentTime;
+    }
+
+    /**
+     * Time in milliseconds the next retry is due
+     */
+    public long getDueTime() {
+        return dueTime;
+    }
+
+    public void setDueTime(long dueTime) {
+        this.dueTime = dueTime;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
@@ -38,4 +40,11 @@ public interface StatusUpdateCallback {
      * @param status
      */
     void updateStatus(ThingStatus status, ThingStatusDetail thingStatusDetail, String message);
+
+    /**
+     * see BaseThingHandler
+     *
+     * @param properties
+     */
+    void updateProperties(Map<String, String> properties);
 }
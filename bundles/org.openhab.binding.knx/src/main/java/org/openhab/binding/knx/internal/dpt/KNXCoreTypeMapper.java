@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -95,6 +96,30 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     private static final String TIME_DAY_FORMAT = new String("EEE, HH:mm:ss");
     private static final String DATE_FORMAT = new String("yyyy-MM-dd");
 
+    /**
+     * Information about a datapoint type which is needed for every telegram, determined once per datapoint type id.
+     */
+    private static class DPTInfo {
+        private final String id;
+        private final int mainNumber;
+        private final int subNumber;
+        private final Class<? extends Type> typeClass;
+        /** The numeric values of all possible data of 8 bit unsigned types (main number 5), otherwise null */
+        private final double[] unsignedValues;
+
+        private DPTInfo(String id, int mainNumber, int subNumber, Class<? extends Type> typeClass,
+                double[] unsignedValues) {
+            this.id = id;
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            this.typeClass = typeClass;
+            this.unsignedValues = unsignedValues;
+        }
+    }
+
+    /** caches the datapoint type information per datapoint type id used by datapoints */
+    private final Map<String, DPTInfo> dptInfoMap = new ConcurrentHashMap<>();
+
     /**
      * stores the openHAB type class for (supported) KNX datapoint types in a generic way.
      * dptTypeMap stores more specific type class and exceptions.
@@ -673,23 +698,30 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
-
-            String id = translator.getType().getID();
+            DPTInfo dptInfo = getDPTInfo(datapoint.getMainNumber(), datapoint.getDPT());
             logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
 
-            int mainNumber = getMainNumber(id);
+            String id = dptInfo.id;
+            int mainNumber = dptInfo.mainNumber;
             if (mainNumber == -1) {
                 logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
                 return null;
             }
-            int subNumber = getSubNumber(id);
+            int subNumber = dptInfo.subNumber;
             if (subNumber == -1) {
                 logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
                 return null;
             }
+
+            Type directType = decode(dptInfo, data);
+            if (directType != null) {
+                return directType;
+            }
+
+            // Translators are not thread-safe, and only needed for the types not decoded directly
+            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            translator.setData(data);
+            String value = translator.getValue();
             /*
              * Following code section deals with specific mapping of values from KNX to openHAB types were the String
              * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
@@ -812,7 +844,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     break;
             }
 
-            Class<? extends Type> typeClass = toTypeClass(id);
+            Class<? extends Type> typeClass = dptInfo.typeClass;
             if (typeClass == null) {
                 return null;
             }
@@ -859,6 +891,106 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Returns the cached information about the datapoint type, creating it on first use.
+     *
+     * @param mainNumber the main number of the datapoint or 0
+     * @param dptId the datapoint type id of the datapoint
+     * @return the datapoint type information
+     * @throws KNXException if there is no translator for the datapoint type
+     */
+    private DPTInfo getDPTInfo(int mainNumber, String dptId) throws KNXException {
+        DPTInfo dptInfo = dptInfoMap.get(dptId);
+        if (dptInfo == null) {
+            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptId);
+            String id = translator.getType().getID();
+            int main = getMainNumber(id);
+            double[] unsignedValues = null;
+            if (main == 5) {
+                unsignedValues = new double[256];
+                for (int i = 0; i < unsignedValues.length; i++) {
+                    translator.setData(new byte[] { (byte) i });
+                    unsignedValues[i] = translator.getNumericValue();
+                }
+            }
+            dptInfo = new DPTInfo(id, main, getSubNumber(id), toTypeClass(id), unsignedValues);
+            dptInfoMap.put(dptId, dptInfo);
+        }
+        return dptInfo;
+    }
+
+    /**
+     * Decodes the data of the most common datapoint types directly, without a translator and its string
+     * representation of the value.
+     *
+     * @param dptInfo the datapoint type information
+     * @param data the data of the telegram
+     * @return the type or {@code null} if the data needs to be decoded by the translator
+     */
+    private Type decode(DPTInfo dptInfo, byte[] data) {
+        switch (dptInfo.mainNumber) {
+            case 1:
+                if (data.length < 1) {
+                    return null;
+                }
+                boolean value = (data[0] & 0x01) != 0;
+                switch (dptInfo.subNumber) {
+                    case 8:
+                        return value ? UpDownType.DOWN : UpDownType.UP;
+                    case 9:
+                        return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                    case 10:
+                        return value ? StopMoveType.MOVE : StopMoveType.STOP;
+                    case 19:
+                        return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                    case 22:
+                        return DecimalType.valueOf(value ? "1" : "0");
+                    default:
+                        return value ? OnOffType.ON : OnOffType.OFF;
+                }
+            case 5:
+                if (data.length < 1 || dptInfo.unsignedValues == null) {
+                    return null;
+                }
+                return toNumberType(dptInfo.typeClass, dptInfo.unsignedValues[data[0] & 0xFF]);
+            case 9:
+                if (data.length < 2) {
+                    return null;
+                }
+                // 2 byte float: sign, 4 bit exponent, 11 bit mantissa, value = 0.01 * mantissa * 2^exponent
+                int raw = ((data[0] & 0xFF) << 8) | (data[1] & 0xFF);
+                int mantissa = raw & 0x07FF;
+                if ((raw & 0x8000) != 0) {
+                    mantissa -= 0x0800;
+                }
+                return toNumberType(dptInfo.typeClass, 0.01 * mantissa * (1 << ((raw >> 11) & 0x0F)));
+            case 14:
+                if (data.length < 4) {
+                    return null;
+                }
+                int bits = ((data[0] & 0xFF) << 24) | ((data[1] & 0xFF) << 16) | ((data[2] & 0xFF) << 8)
+                        | (data[3] & 0xFF);
+                float f = Float.intBitsToFloat(bits);
+                if (Float.isNaN(f) || Float.isInfinite(f)) {
+                    // leave the handling of invalid values to the translator
+                    return null;
+                }
+                return toNumberType(dptInfo.typeClass, f);
+            default:
+                return null;
+        }
+    }
+
+    private Type toNumberType(Class<? extends Type> typeClass, double value) {
+        if (PercentType.class.equals(typeClass)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(value)));
+        }
+        if (DecimalType.class.equals(typeClass)) {
+            return new DecimalType(value);
+        }
+        return null;
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -867,6 +999,10 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
      */
     @Override
     public Class<? extends Type> toTypeClass(String dptId) {
+        DPTInfo dptInfo = dptInfoMap.get(dptId);
+        if (dptInfo != null) {
+            return dptInfo.typeClass;
+        }
         Class<? extends Type> ohClass = dptTypeMap.get(dptId);
         if (ohClass == null) {
             int mainNumber = getMainNumber(dptId);
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -33,4 +35,14 @@ public interface GroupAddressListener extends BusMessageListener {
      * @param destination
      */
     public boolean listensTo(GroupAddress destination);
+
+    /**
+     * Returns all the GroupAddresses the GroupAddressListener has an interest in.
+     *
+     * The KNX client indexes its listeners by these addresses when they are registered, a listener needs to register
+     * again when its addresses change.
+     *
+     * @return the group addresses
+     */
+    public Set<GroupAddress> getGroupAddresses();
 }
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -78,4 +79,9 @@ public abstract class KNXBridgeBaseThingHandler extends BaseBridgeHandler implem
     public void updateStatus(ThingStatus status, ThingStatusDetail statusDetail, @Nullable String description) {
         super.updateStatus(status, statusDetail, description);
     }
+
+    @Override
+    public void updateProperties(Map<String, String> properties) {
+        super.updateProperties(properties);
+    }
 }
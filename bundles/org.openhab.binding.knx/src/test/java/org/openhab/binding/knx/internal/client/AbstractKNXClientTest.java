@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.link.KNXNetworkLink;
+import tuwien.auto.calimero.process.ProcessCommunicator;
+import tuwien.auto.calimero.process.ProcessEvent;
+
+/**
+ * Tests cases for the group address listener index of {@link AbstractKNXClient}.
+ *
+ * @author agent - Initial contribution
+ */
+public class AbstractKNXClientTest {
+
+    private static final GroupAddress GA1 = new GroupAddress(1, 0, 1);
+    private static final GroupAddress GA2 = new GroupAddress(1, 0, 2);
+    private static final IndividualAddress SOURCE = new IndividualAddress(1, 1, 1);
+
+    /**
+     * Listener recording the destinations of the telegrams it receives
+     */
+    private static class RecordingListener implements GroupAddressListener {
+        private final Set<GroupAddress> groupAddresses = new HashSet<>();
+        private final List<GroupAddress> received = new ArrayList<>();
+
+        RecordingListener(GroupAddress... groupAddresses) {
+            Collections.addAll(this.groupAddresses, groupAddresses);
+        }
+
+        @Override
+        public boolean listensTo(GroupAddress destination) {
+            return groupAddresses.contains(destination);
+        }
+
+        @Override
+        public Set<GroupAddress> getGroupAddresses() {
+            return groupAddresses;
+        }
+
+        @Override
+        public void onGroupWrite(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+            received.add(destination);
+        }
+
+        @Override
+        public void onGroupRead(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+            received.add(destination);
+        }
+
+        @Override
+        public void onGroupReadResponse(AbstractKNXClient client, IndividualAddress source,
+                GroupAddress destination, byte[] asdu) {
+            received.add(destination);
+        }
+    }
+
+    private AbstractKNXClient client;
+
+    @Before
+    public void setup() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any(Runnable.class));
+        client = new AbstractKNXClient(0, new ThingUID("knx:ip:bridge"), 5, 50, 3, scheduler,
+                mock(StatusUpdateCallback.class)) {
+            @Override
+            protected KNXNetworkLink establishConnection() throws KNXException {
+                throw new KNXException("not connected in tests");
+            }
+        };
+    }
+
+    private void groupWrite(GroupAddress destination) {
+        client.processListener.groupWrite(
+                new ProcessEvent(mock(ProcessCommunicator.class), SOURCE, destination, 0x80, new byte[] { 1 }, true));
+    }
+
+    @Test
+    public void testTelegramIsDispatchedOnlyToListenersOfTheAddress() {
+        RecordingListener first = new RecordingListener(GA1);
+        RecordingListener second = new RecordingListener(GA2);
+        RecordingListener both = new RecordingListener(GA1, GA2);
+        assertTrue(client.registerGroupAddressListener(first));
+        assertTrue(client.registerGroupAddressListener(second));
+        assertTrue(client.registerGroupAddressListener(both));
+
+        groupWrite(GA1);
+        assertEquals(Collections.singletonList(GA1), first.received);
+        assertTrue(second.received.isEmpty());
+        assertEquals(Collections.singletonList(GA1), both.received);
+
+        // nobody listens to this address
+        groupWrite(new GroupAddress(1, 0, 3));
+        assertEquals(1, first.received.size());
+        assertTrue(second.received.isEmpty());
+        assertEquals(1, both.received.size());
+    }
+
+    @Test
+    public void testListenerIsReindexedWhenItsAddressesChange() {
+        RecordingListener listener = new RecordingListener(GA1);
+        assertTrue(client.registerGroupAddressListener(listener));
+
+        listener.groupAddresses.clear();
+        listener.groupAddresses.add(GA2);
+        // registering again updates the index, the listener was already registered
+        assertFalse(client.registerGroupAddressListener(listener));
+        assertTrue(client.getGroupAddressListeners(GA1).isEmpty());
+        assertEquals(Collections.singleton(listener), client.getGroupAddressListeners(GA2));
+
+        groupWrite(GA1);
+        groupWrite(GA2);
+        assertEquals(Collections.singletonList(GA2), listener.received);
+    }
+
+    @Test
+    public void testUnregisteredListenerIsRemovedFromIndex() {
+        RecordingListener listener = new RecordingListener(GA1, GA2);
+        RecordingListener other = new RecordingListener(GA2);
+        client.registerGroupAddressListener(listener);
+        client.registerGroupAddressListener(other);
+
+        assertTrue(client.unregisterGroupAddressListener(listener));
+        assertFalse(client.unregisterGroupAddressListener(listener));
+        assertTrue(client.getGroupAddressListeners(GA1).isEmpty());
+        assertEquals(Collections.singleton(other), client.getGroupAddressListeners(GA2));
+
+        groupWrite(GA1);
+        groupWrite(GA2);
+        assertTrue(listener.received.isEmpty());
+        assertEquals(Collections.singletonList(GA2), other.received);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Tests cases for {@link DatapointReadScheduler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DatapointReadSchedulerTest {
+
+    private static final int PAUSE = 50;
+    private static final long RESPONSE_TIMEOUT = 10000;
+
+    private DatapointReadScheduler scheduler;
+
+    @Before
+    public void setup() {
+        scheduler = new DatapointReadScheduler(PAUSE, RESPONSE_TIMEOUT, 3);
+    }
+
+    private static Datapoint datapoint(int subGroup) {
+        return new CommandDP(new GroupAddress(1, 0, subGroup), "dp" + subGroup);
+    }
+
+    private int nextSubGroup(long now) {
+        ReadDatapoint readDatapoint = scheduler.next(now);
+        assertNotNull(readDatapoint);
+        return readDatapoint.getDatapoint().getMainAddress().getSubGroup8();
+    }
+
+    @Test
+    public void testPrioritizedDatapointsAreReadFirst() {
+        scheduler.add(datapoint(1), false);
+        scheduler.add(datapoint(2), true);
+        scheduler.add(datapoint(3), false);
+        // an already queued datapoint requested with priority moves to the prioritized ones
+        assertFalse(scheduler.add(datapoint(3), true));
+
+        assertEquals(2, nextSubGroup(0));
+        assertEquals(3, nextSubGroup(0));
+        assertEquals(1, nextSubGroup(0));
+        assertNull(scheduler.next(0));
+        assertEquals(1, scheduler.getMergedCount());
+    }
+
+    @Test
+    public void testValueOnBusDropsQueuedRead() {
+        scheduler.add(datapoint(1), false);
+        scheduler.add(datapoint(2), false);
+        scheduler.valueReceived(new GroupAddress(1, 0, 1));
+
+        assertEquals(2, nextSubGroup(0));
+        scheduler.valueReceived(new GroupAddress(1, 0, 2));
+        assertNull(scheduler.next(0));
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(1, scheduler.getCompletedCount());
+        assertEquals(1, scheduler.getMergedCount());
+    }
+
+    @Test
+    public void testUnansweredReadIsRetriedFirstAfterBackoff() {
+        scheduler.add(datapoint(1), false);
+        scheduler.add(datapoint(2), false);
+        assertEquals(1, nextSubGroup(0));
+
+        long timeout = RESPONSE_TIMEOUT;
+        assertEquals(2, nextSubGroup(timeout));
+        // the retry of the first datapoint is due after the backoff only
+        assertNull(scheduler.next(timeout));
+        assertEquals(1, nextSubGroup(timeout + 2 * PAUSE));
+        assertEquals(2, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testReadIsGivenUpAfterRetriesLimit() {
+        scheduler.add(datapoint(1), false);
+        long now = 0;
+        for (int i = 0; i < 3; i++) {
+            ReadDatapoint readDatapoint = scheduler.next(now);
+            assertNotNull(readDatapoint);
+            scheduler.sendFailed(readDatapoint, now, "failed");
+            now += RESPONSE_TIMEOUT;
+        }
+        assertNull(scheduler.next(now));
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(1, scheduler.getFailedCount());
+    }
+
+    @Test
+    public void testParallelReadsAreLimited() {
+        for (int i = 0; i <= DatapointReadScheduler.MAX_PARALLEL_READS; i++) {
+            scheduler.add(datapoint(i), false);
+        }
+        for (int i = 0; i < DatapointReadScheduler.MAX_PARALLEL_READS; i++) {
+            assertNotNull(scheduler.next(0));
+        }
+        assertNull(scheduler.next(0));
+
+        scheduler.valueReceived(new GroupAddress(1, 0, 0));
+        assertEquals(DatapointReadScheduler.MAX_PARALLEL_READS, nextSubGroup(0));
+    }
+
+    @Test
+    public void testPauseAdaptsToConfirmationLatency() {
+        scheduler.add(datapoint(1), false);
+        ReadDatapoint readDatapoint = scheduler.next(0);
+        assertNotNull(readDatapoint);
+        assertEquals(PAUSE, scheduler.getPause(0));
+
+        scheduler.sent(readDatapoint, DatapointReadScheduler.SLOW_CONFIRMATION + 1);
+        assertEquals(2 * PAUSE, scheduler.getPause(0));
+        scheduler.sendFailed(readDatapoint, 0, "failed");
+        assertEquals(4 * PAUSE, scheduler.getPause(0));
+        for (int i = 0; i < 10; i++) {
+            scheduler.sent(readDatapoint, DatapointReadScheduler.SLOW_CONFIRMATION + 1);
+        }
+        assertEquals(DatapointReadScheduler.MAX_PAUSE_FACTOR * PAUSE, scheduler.getPause(0));
+
+        for (int i = 0; i < 100; i++) {
+            scheduler.sent(readDatapoint, 10);
+        }
+        assertEquals(PAUSE, scheduler.getPause(0));
+    }
+
+    @Test
+    public void testPauseGrowsWithBusLoad() {
+        int telegrams = 2 * DatapointReadScheduler.BUS_LOAD_THRESHOLD;
+        for (int i = 0; i < telegrams; i++) {
+            scheduler.telegramReceived(1000 + i);
+        }
+        assertEquals(PAUSE, scheduler.getPause(1500));
+
+        // the bus load of the previous second slows down the reads
+        assertEquals(telegrams, scheduler.getBusLoad(2000));
+        assertEquals(2 * PAUSE, scheduler.getPause(2000));
+
+        // a quiet bus does not
+        assertEquals(PAUSE, scheduler.getPause(5000));
+        assertEquals(0, scheduler.getBusLoad(5000));
+    }
+}
@@ -12,11 +12,18 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -29,4 +36,44 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
+
+    private Type toType(KNXCoreTypeMapper typeMapper, String dpt, byte[] data) {
+        return typeMapper.toType(new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dpt), data);
+    }
+
+    @Test
+    public void testToType_boolean() {
+        KNXCoreTypeMapper typeMapper = new KNXCoreTypeMapper();
+        assertEquals(OnOffType.ON, toType(typeMapper, "1.001", new byte[] { 0x01 }));
+        assertEquals(OnOffType.OFF, toType(typeMapper, "1.001", new byte[] { 0x00 }));
+        assertEquals(OpenClosedType.OPEN, toType(typeMapper, "1.019", new byte[] { 0x01 }));
+        assertNull(toType(typeMapper, "1.001", new byte[0]));
+    }
+
+    @Test
+    public void testToType_8BitUnsigned() {
+        KNXCoreTypeMapper typeMapper = new KNXCoreTypeMapper();
+        Type type = toType(typeMapper, "5.001", new byte[] { (byte) 0x80 });
+        assertTrue(type instanceof PercentType);
+        assertEquals(50, ((PercentType) type).intValue());
+        assertEquals(new DecimalType(360), toType(typeMapper, "5.003", new byte[] { (byte) 0xFF }));
+        assertEquals(new DecimalType(128), toType(typeMapper, "5.010", new byte[] { (byte) 0x80 }));
+    }
+
+    @Test
+    public void testToType_2ByteFloat() {
+        KNXCoreTypeMapper typeMapper = new KNXCoreTypeMapper();
+        assertEquals(new DecimalType("21.00"), toType(typeMapper, "9.001", new byte[] { 0x0C, 0x1A }));
+        assertEquals(new DecimalType("-0.50"), toType(typeMapper, "9.001", new byte[] { (byte) 0x87, (byte) 0xCE }));
+        Type type = toType(typeMapper, "9.007", new byte[] { 0x0C, 0x1A });
+        assertTrue(type instanceof PercentType);
+        assertEquals(21, ((PercentType) type).intValue());
+        assertNull(toType(typeMapper, "9.001", new byte[] { 0x0C }));
+    }
+
+    @Test
+    public void testToType_4ByteFloat() {
+        KNXCoreTypeMapper typeMapper = new KNXCoreTypeMapper();
+        assertEquals(new DecimalType("1000.5"), toType(typeMapper, "14.056", new byte[] { 0x44, 0x7A, 0x20, 0x00 }));
+    }
 }
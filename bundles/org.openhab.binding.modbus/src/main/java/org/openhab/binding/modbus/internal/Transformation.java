@@ -15,8 +15,11 @@ package org.openhab.binding.modbus.internal;
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -65,6 +68,13 @@ public class Transformation {
         DEFAULT_TYPES.add(OnOffType.class);
     }
 
+    /**
+     * Transformation services whose result only depends on the inline pattern and the input value. Services reading
+     * files (MAP, SCALE, XSLT, ...) or running scripts (JS, EXEC, ...) might return different results for the same
+     * input.
+     */
+    private static final Set<String> PURE_SERVICES = new HashSet<>(Arrays.asList("JSONPATH", "REGEX", "XPATH"));
+
     private final Logger logger = LoggerFactory.getLogger(Transformation.class);
 
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
@@ -167,6 +177,15 @@ public class Transformation {
         return TRANSFORM_DEFAULT.equalsIgnoreCase(this.transformation);
     }
 
+    /**
+     * Returns true if the transformation always returns the same result for the same input value. Identity and
+     * constant transformations are pure.
+     */
+    public boolean isPure() {
+        String transformationServiceName = this.transformationServiceName;
+        return transformationServiceName == null || PURE_SERVICES.contains(transformationServiceName.toUpperCase());
+    }
+
     public static Optional<Command> tryConvertToCommand(String transformed) {
         Optional<Command> transformedCommand = Optional.ofNullable(TypeParser.parseCommand(DEFAULT_TYPES, transformed));
         return transformedCommand;
@@ -37,6 +37,7 @@ public class ModbusSerialConfiguration {
     private int timeBetweenTransactionsMillis;
     private int connectMaxTries;
     private int connectTimeoutMillis;
+    private int coalescingMaxGap = -1;
     private boolean enableDiscovery;
 
     public @Nullable String getPort() {
@@ -151,6 +152,14 @@ public class ModbusSerialConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getCoalescingMaxGap() {
+        return coalescingMaxGap;
+    }
+
+    public void setCoalescingMaxGap(int coalescingMaxGap) {
+        this.coalescingMaxGap = coalescingMaxGap;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
@@ -31,6 +31,8 @@ public class ModbusTcpConfiguration {
     private int connectMaxTries;
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
+    private int coalescingMaxGap = -1;
+    private int maxInFlightTransactions = 1;
     private boolean enableDiscovery;
 
     public @Nullable String getHost() {
@@ -97,6 +99,22 @@ public class ModbusTcpConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getCoalescingMaxGap() {
+        return coalescingMaxGap;
+    }
+
+    public void setCoalescingMaxGap(int coalescingMaxGap) {
+        this.coalescingMaxGap = coalescingMaxGap;
+    }
+
+    public int getMaxInFlightTransactions() {
+        return maxInFlightTransactions;
+    }
+
+    public void setMaxInFlightTransactions(int maxInFlightTransactions) {
+        this.maxInFlightTransactions = maxInFlightTransactions;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
@@ -147,6 +147,12 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    /**
+     * Raw value (see {@link ModbusBitUtilities#extractRawValueFromRegisters}) behind channelLastState. Valid only when
+     * lastRawValueValid is true
+     */
+    private volatile long lastRawValue;
+    private volatile boolean lastRawValueValid;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -414,6 +420,21 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        lastRawValue = 0;
+        lastRawValueValid = false;
+    }
+
+    @Override
+    public synchronized void channelLinked(ChannelUID channelUID) {
+        // Set of updated channels is changing, process the next polled value fully
+        lastRawValueValid = false;
+        super.channelLinked(channelUID);
+    }
+
+    @Override
+    public synchronized void channelUnlinked(ChannelUID channelUID) {
+        lastRawValueValid = false;
+        super.channelUnlinked(channelUID);
     }
 
     @Override
@@ -702,10 +723,21 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
-                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(registers, extractIndex, readValueType);
+        @Nullable
+        Map<ChannelUID, State> unchangedValues = processUnchangedValue(rawValue);
+        if (unchangedValues != null) {
+            logger.debug(
+                    "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> raw value {} unchanged. Registers {} for request {}",
+                    thing.getUID(), unchangedValues, readValueType, readIndex, readSubIndex.orElse(0), extractIndex,
+                    rawValue, registers, request);
+            return;
+        }
+        numericState = ModbusBitUtilities.toDecimalType(rawValue, readValueType).map(state -> (State) state)
+                .orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        rememberRawValue(rawValue);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
@@ -719,8 +751,17 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        @Nullable
+        Map<ChannelUID, State> unchangedValues = processUnchangedValue(boolValue ? 1 : 0);
+        if (unchangedValues != null) {
+            logger.debug(
+                    "Thing {} channels updated: {}. readValueType={}, readIndex={} -> boolValue={} unchanged. Bits {} for request {}",
+                    thing.getUID(), unchangedValues, readValueType, readIndex, boolValue, bits, request);
+            return;
+        }
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        rememberRawValue(boolValue ? 1 : 0);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
@@ -888,6 +929,37 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         return states;
     }
 
+    /**
+     * Update linked channels re-using the states of previous poll, if the polled raw value has not changed
+     *
+     * Transformations and state objects are thus computed only when the polled data changes. Used only with pure
+     * transformations, see {@link Transformation#isPure()}.
+     *
+     * @param rawValue raw value as extracted from the polled data
+     * @return updated channel data, or null if the value has changed and should be processed with
+     *         {@link #processUpdatedValue(State, boolean)}
+     */
+    private @Nullable Map<ChannelUID, State> processUnchangedValue(long rawValue) {
+        if (!lastRawValueValid || lastRawValue != rawValue) {
+            return null;
+        }
+        Map<ChannelUID, State> states = new HashMap<>(channelLastState);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            states.put(lastReadSuccessUID, new DateTimeType());
+        }
+        updateExpiredChannels(states);
+        return states;
+    }
+
+    private void rememberRawValue(long rawValue) {
+        // Without transformation nothing was processed, do not consider the value known. Impure transformations
+        // (e.g. MAP reading a file) might give different result for the same value, and need to be run on every poll.
+        Transformation localReadTransformation = readTransformation;
+        lastRawValueValid = localReadTransformation != null && localReadTransformation.isPure();
+        lastRawValue = rawValue;
+    }
+
     private void updateExpiredChannels(Map<ChannelUID, State> states) {
         synchronized (this) {
             updateStatusIfChanged(ThingStatus.ONLINE);
@@ -59,6 +59,8 @@ public class ModbusTcpThingHandler
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
         poolConfiguration.setInterConnectDelayMillis(config.getTimeBetweenReconnectMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
+        poolConfiguration.setCoalescingMaxGap(config.getCoalescingMaxGap());
+        poolConfiguration.setMaxInFlightTransactions(config.getMaxInFlightTransactions());
         poolConfiguration.setReconnectAfterMillis(config.getReconnectAfterMillis());
     }
 
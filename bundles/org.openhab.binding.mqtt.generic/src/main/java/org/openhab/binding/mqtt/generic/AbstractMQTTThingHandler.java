@@ -23,12 +23,14 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelGroupUID;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
@@ -46,6 +48,7 @@ import org.openhab.binding.mqtt.generic.utils.FutureCollector;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
+import org.openhab.binding.mqtt.subscription.MqttTopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -198,6 +201,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
         // Start up (subscribe to MQTT topics). Limit with a timeout and catch exceptions.
         // We do not set the thing to ONLINE here in the AbstractBase, that is the responsibility of a derived
         // class.
+        prioritizeLinkedChannels();
         try {
             Collection<CompletableFuture<@Nullable Void>> futures = availabilityStates.values().stream().map(s -> {
                 if (s != null) {
@@ -212,12 +216,41 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getLocalizedMessage());
                 return null;
             }).get(subscribeTimeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException ignored) {
+        } catch (TimeoutException ignored) {
+            long pending = Stream
+                    .concat(thing.getChannels().stream().map(channel -> getChannelState(channel.getUID())),
+                            availabilityStates.values().stream())
+                    .filter(state -> state != null && state.isSubscribePending()).count();
+            if (pending > 0) {
+                // The subscriptions of this thing may just wait for their turn, e.g. after a broker reconnect.
+                // A failure still sets the thing OFFLINE, see above.
+                MqttTopicRouter router = MqttTopicRouter.of(connection);
+                logger.debug(
+                        "{} subscriptions of {} not completed within {} ms, {} subscriptions queued, {} in flight",
+                        pending, thing.getUID(), subscribeTimeout, router.getQueuedSubscribeCount(),
+                        router.getInflightSubscribeCount());
+            } else {
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                        "Did not receive all required topics");
+            }
+        } catch (InterruptedException | ExecutionException ignored) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                     "Did not receive all required topics");
         }
     }
 
+    /**
+     * Let the channels linked to items subscribe first, if the broker connection has to queue subscriptions.
+     */
+    private void prioritizeLinkedChannels() {
+        for (Channel channel : thing.getChannels()) {
+            ChannelState channelState = getChannelState(channel.getUID());
+            if (channelState != null) {
+                channelState.setPrioritySubscribe(isLinked(channel.getUID()));
+            }
+        }
+    }
+
     /**
      * Return the bride handler. The bridge is from the "MQTT" bundle.
      */
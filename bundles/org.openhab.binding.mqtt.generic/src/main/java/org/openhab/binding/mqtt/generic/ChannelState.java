@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -32,6 +33,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.binding.mqtt.generic.values.Value;
+import org.openhab.binding.mqtt.subscription.MqttTopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,8 +61,31 @@ public class ChannelState implements MqttMessageSubscriber {
     protected final List<ChannelStateTransformation> transformationsOut = new ArrayList<>();
     private @Nullable ChannelStateUpdateListener channelStateUpdateListener;
     protected boolean hasSubscribed = false;
+    private boolean prioritySubscribe = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+    private CompletableFuture<Boolean> subscribeFuture = CompletableFuture.completedFuture(true);
+    private @Nullable PayloadTransformationCache payloadCache;
+
+    // Result of the last processed payload, reused if the same payload is received again. Only used if all the
+    // incoming transformations are pure. Messages might be processed by different MQTT client threads.
+    private volatile @Nullable ProcessedPayload lastProcessed;
+    private volatile boolean pureTransformationsIn = true;
+
+    /**
+     * The transformed value and the parsed command of a payload
+     */
+    private static class ProcessedPayload {
+        final byte[] payload;
+        final @Nullable String value;
+        final @Nullable Command command;
+
+        ProcessedPayload(byte[] payload, @Nullable String value, @Nullable Command command) {
+            this.payload = payload;
+            this.value = value;
+            this.command = command;
+        }
+    }
 
     /**
      * Creates a new channel state.
@@ -92,6 +117,8 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public void addTransformation(ChannelStateTransformation transformation) {
         transformationsIn.add(transformation);
+        pureTransformationsIn = pureTransformationsIn && transformation.isPure();
+        lastProcessed = null;
     }
 
     /**
@@ -110,6 +137,8 @@ public class ChannelState implements MqttMessageSubscriber {
     public void clearTransformations() {
         transformationsIn.clear();
         transformationsOut.clear();
+        pureTransformationsIn = true;
+        lastProcessed = null;
     }
 
     /**
@@ -152,18 +181,26 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
-        for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
-            if (transformedValue != null) {
-                strValue = transformedValue;
-            } else {
-                logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue, t.serviceName);
-                receivedOrTimeout();
-                return;
+        // String value: Apply transformations, unless the payload is the same as the last one
+        final boolean reusable = pureTransformationsIn;
+        final @Nullable ProcessedPayload lastProcessed = reusable ? this.lastProcessed : null;
+        final @Nullable String strValue;
+        @Nullable
+        Command command;
+        if (lastProcessed != null && Arrays.equals(lastProcessed.payload, payload)) {
+            strValue = lastProcessed.value;
+            command = lastProcessed.command;
+        } else {
+            strValue = applyTransformations(topic, payload);
+            command = null;
+            if (reusable) {
+                this.lastProcessed = new ProcessedPayload(payload, strValue, null);
             }
         }
+        if (strValue == null) {
+            receivedOrTimeout();
+            return;
+        }
 
         // Is trigger?: Special handling
         if (config.trigger) {
@@ -172,12 +209,17 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
         if (command == null) {
-            logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
-                    cachedValue.getClass().getSimpleName());
-            receivedOrTimeout();
-            return;
+            command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+            if (command == null) {
+                logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
+                        cachedValue.getClass().getSimpleName());
+                receivedOrTimeout();
+                return;
+            }
+            if (reusable) {
+                this.lastProcessed = new ProcessedPayload(payload, strValue, command);
+            }
         }
 
         Command postOnlyCommand = cachedValue.isPostOnly(command);
@@ -205,6 +247,30 @@ public class ChannelState implements MqttMessageSubscriber {
         receivedOrTimeout();
     }
 
+    /**
+     * Decode the payload and apply the incoming transformations. If a {@link PayloadTransformationCache} is set, the
+     * decoded payload and the transformation results are shared with the other channels of the same topic.
+     *
+     * @return The transformed value or null if a transformation discarded the message
+     */
+    private @Nullable String applyTransformations(String topic, byte[] payload) {
+        final PayloadTransformationCache payloadCache = this.payloadCache;
+        final PayloadTransformationCache.@Nullable Message message = payloadCache != null
+                ? payloadCache.getMessage(topic, payload)
+                : null;
+        String strValue = message != null ? message.getValue() : new String(payload, StandardCharsets.UTF_8);
+        for (ChannelStateTransformation t : transformationsIn) {
+            String transformedValue = message != null ? message.processValue(t, strValue) : t.processValue(strValue);
+            if (transformedValue != null) {
+                strValue = transformedValue;
+            } else {
+                logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue, t.serviceName);
+                return null;
+            }
+        }
+        return strValue;
+    }
+
     /**
      * Returns the state topic. Might be an empty string if this is a stateless channel (TRIGGER kind channel).
      */
@@ -241,8 +307,9 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<@Nullable Void> stop() {
         final MqttBrokerConnection connection = this.connection;
-        if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
-            return connection.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
+        final MqttTopicRouter router = connection != null ? MqttTopicRouter.get(connection) : null;
+        if (router != null && StringUtils.isNotBlank(config.stateTopic)) {
+            return router.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
         } else {
             internalStop();
             return CompletableFuture.completedFuture(null);
@@ -254,6 +321,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        lastProcessed = null;
         cachedValue.resetState();
     }
 
@@ -301,7 +369,8 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         this.future = new CompletableFuture<>();
-        connection.subscribe(config.stateTopic, this).thenRun(() -> {
+        subscribeFuture = MqttTopicRouter.of(connection).subscribe(config.stateTopic, this, prioritySubscribe);
+        subscribeFuture.thenRun(() -> {
             hasSubscribed = true;
             logger.debug("Subscribed channel {} to topic: {}", this.channelUID, config.stateTopic);
             if (timeout > 0 && !future.isDone()) {
@@ -313,6 +382,24 @@ public class ChannelState implements MqttMessageSubscriber {
         return future;
     }
 
+    /**
+     * Subscribe ahead of other channels, if the broker connection has to queue subscriptions. Should be set for
+     * channels linked to items.
+     *
+     * @param prioritySubscribe True to prioritize the subscription of this channel
+     */
+    public void setPrioritySubscribe(boolean prioritySubscribe) {
+        this.prioritySubscribe = prioritySubscribe;
+    }
+
+    /**
+     * Return true if the subscription of this channel is still waiting for the broker, e.g. queued by the broker
+     * connection.
+     */
+    public boolean isSubscribePending() {
+        return !subscribeFuture.isDone();
+    }
+
     /**
      * Return true if this channel has subscribed to its MQTT topics.
      * You need to call {@link #start(MqttBrokerConnection, ScheduledExecutorService, int)} and
@@ -398,6 +485,15 @@ public class ChannelState implements MqttMessageSubscriber {
         this.channelStateUpdateListener = channelStateUpdateListener;
     }
 
+    /**
+     * Share decoded payloads and transformation results with the other channels using the same cache.
+     *
+     * @param payloadCache The cache, usually shared by all the channels of a thing
+     */
+    public void setPayloadCache(@Nullable PayloadTransformationCache payloadCache) {
+        this.payloadCache = payloadCache;
+    }
+
     public @Nullable MqttBrokerConnection getConnection() {
         return connection;
     }
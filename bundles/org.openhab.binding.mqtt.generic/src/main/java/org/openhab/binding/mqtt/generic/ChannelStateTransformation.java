@@ -13,6 +13,9 @@
 package org.openhab.binding.mqtt.generic;
 
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -28,6 +31,13 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class ChannelStateTransformation {
+    /**
+     * Transformation services whose result only depends on the inline pattern and the input value. Services reading
+     * files (MAP, SCALE, XSLT, ...) or running scripts (JS, EXEC, ...) might return different results for the same
+     * input.
+     */
+    private static final Set<String> PURE_SERVICES = new HashSet<>(Arrays.asList("JSONPATH", "REGEX", "XPATH"));
+
     private final Logger logger = LoggerFactory.getLogger(ChannelStateTransformation.class);
     private final TransformationServiceProvider provider;
     private WeakReference<@Nullable TransformationService> transformationService = new WeakReference<>(null);
@@ -70,6 +80,13 @@ public class ChannelStateTransformation {
         this.provider = provider;
     }
 
+    /**
+     * Returns true if the transformation always returns the same result for the same input value.
+     */
+    public boolean isPure() {
+        return PURE_SERVICES.contains(serviceName);
+    }
+
     /**
      * Will be called by the {@link ChannelState} for each incoming MQTT value.
      *
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Shares the work of processing a received MQTT message between all the {@link ChannelState}s subscribed to the
+ * same topic.
+ *
+ * The broker connection hands the same payload array to every subscriber of a message. The first channel decodes the
+ * payload and runs its transformations, the following channels reuse the decoded value and the results of identical
+ * transformations (same service, pattern and input) instead of running them again. Only the last message of each
+ * topic is kept.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PayloadTransformationCache {
+    /**
+     * Maximum number of topics kept in the cache. Only relevant for wildcard subscriptions.
+     */
+    static final int MAX_CACHED_TOPICS = 64;
+
+    private static class TransformationKey {
+        private final String serviceName;
+        private final String pattern;
+        private final String value;
+
+        private TransformationKey(String serviceName, String pattern, String value) {
+            this.serviceName = serviceName;
+            this.pattern = pattern;
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return (serviceName.hashCode() * 31 + pattern.hashCode()) * 31 + value.hashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TransformationKey)) {
+                return false;
+            }
+            TransformationKey other = (TransformationKey) obj;
+            return serviceName.equals(other.serviceName) && pattern.equals(other.pattern) && value.equals(other.value);
+        }
+    }
+
+    /**
+     * A received message, together with the transformation results computed for it so far
+     */
+    public static class Message {
+        private final byte[] payload;
+        private final String value;
+        private final Map<TransformationKey, @Nullable String> results = new HashMap<>();
+
+        private Message(byte[] payload) {
+            this.payload = payload;
+            this.value = new String(payload, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Returns the payload decoded as UTF8 text
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Apply the transformation on the given value, reusing the result if another channel already applied the same
+         * transformation on the same value for this message.
+         *
+         * @param transformation The transformation
+         * @param value The value to transform
+         * @return The transformed value or null if the transformation discarded the value
+         */
+        public @Nullable String processValue(ChannelStateTransformation transformation, String value) {
+            TransformationKey key = new TransformationKey(transformation.serviceName, transformation.pattern, value);
+            synchronized (results) {
+                if (results.containsKey(key)) {
+                    return results.get(key);
+                }
+            }
+            String result = transformation.processValue(value);
+            synchronized (results) {
+                results.put(key, result);
+            }
+            return result;
+        }
+    }
+
+    private final Map<String, Message> messages = new LinkedHashMap<String, Message>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Message> eldest) {
+            return size() > MAX_CACHED_TOPICS;
+        }
+    };
+
+    /**
+     * Returns the message for the given topic and payload. All the subscribers of a message receive the same payload
+     * array, a new message is created as soon as a different payload array is seen for the topic.
+     *
+     * @param topic The topic the message was received on
+     * @param payload The payload of the message
+     * @return The message shared by all the subscribers of the topic
+     */
+    public Message getMessage(String topic, byte[] payload) {
+        synchronized (messages) {
+            Message message = messages.get(topic);
+            if (message == null || message.payload != payload) {
+                message = new Message(payload);
+                messages.put(topic, message);
+            }
+            return message;
+        }
+    }
+
+    /**
+     * Drop all the cached messages
+     */
+    public void clear() {
+        synchronized (messages) {
+            messages.clear();
+        }
+    }
+}
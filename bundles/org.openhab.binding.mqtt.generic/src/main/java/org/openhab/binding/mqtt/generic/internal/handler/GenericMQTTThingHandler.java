@@ -37,6 +37,7 @@ import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.ChannelStateTransformation;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
+import org.openhab.binding.mqtt.generic.PayloadTransformationCache;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.generic.utils.FutureCollector;
 import org.openhab.binding.mqtt.generic.values.Value;
@@ -55,6 +56,8 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
     final Map<ChannelUID, ChannelState> channelStateByChannelUID = new HashMap<>();
     protected final MqttChannelStateDescriptionProvider stateDescProvider;
     protected final TransformationServiceProvider transformationServiceProvider;
+    // Shared by all channels, channels of the same state topic decode and transform a message only once
+    protected final PayloadTransformationCache payloadCache = new PayloadTransformationCache();
 
     /**
      * Creates a new Thing handler for generic MQTT channels.
@@ -91,6 +94,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
     @Override
     protected void stop() {
         channelStateByChannelUID.values().forEach(c -> c.getCache().resetState());
+        payloadCache.clear();
     }
 
     @Override
@@ -121,6 +125,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
      */
     protected ChannelState createChannelState(ChannelConfig channelConfig, ChannelUID channelUID, Value valueState) {
         ChannelState state = new ChannelState(channelConfig, channelUID, valueState, this);
+        state.setPayloadCache(payloadCache);
         String[] transformations;
 
         // Incoming value transformations
@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Collects objects until no new object was received for the specified delay, then calls the user back with the
+ * accumulated objects and starts over again.
+ *
+ * Adding an object does not cancel and reschedule a timer. Objects are added to a concurrent queue without taking a
+ * lock and a single timer is armed for the first object of a batch. When the timer expires while objects are still
+ * arriving, it is armed once more for the remaining quiet period. This keeps the scheduler load independent of the
+ * number of objects, e.g. during a discovery of thousands of retained topics. Draining the queue is synchronized, so
+ * that batches are delivered one after another and in order.
+ *
+ * Batches are bounded:
+ * <ul>
+ * <li>A batch is delivered at the latest <code>maxLatency</code> milliseconds after its first object, even if objects
+ * keep arriving.
+ * <li>A batch never contains more than <code>maxBatchSize</code> objects. Reaching this size delivers the batch
+ * immediately.
+ * </ul>
+ *
+ * Objects with equal keys are de-duplicated within a batch, the latest object wins.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> Any object
+ * @param <K> The key of an object
+ */
+@NonNullByDefault
+public class CoalescingBatchProcessing<T, K> implements Consumer<T> {
+    /**
+     * Default maximum latency, as multiple of the delay
+     */
+    public static final int DEFAULT_MAX_LATENCY_FACTOR = 10;
+
+    /**
+     * Default maximum number of objects per batch
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    private final long delayNanos;
+    private final long maxLatencyNanos;
+    private final int maxBatchSize;
+    private final Function<T, K> keyFunction;
+    private final Consumer<List<T>> consumer;
+    private final ScheduledExecutorService executor;
+    private final LongSupplier nanoTime;
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private volatile long batchStartNanos;
+    private volatile long lastAcceptNanos;
+    protected final AtomicReference<@Nullable ScheduledFuture<?>> futureRef = new AtomicReference<>();
+
+    /**
+     * Creates a {@link CoalescingBatchProcessing} with default maximum latency and batch size.
+     *
+     * @param delay A delay in milliseconds
+     * @param keyFunction Returns the key of an object, used for de-duplication
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public CoalescingBatchProcessing(int delay, Function<T, K> keyFunction, Consumer<List<T>> consumer,
+            ScheduledExecutorService executor) {
+        this(delay, delay * DEFAULT_MAX_LATENCY_FACTOR, DEFAULT_MAX_BATCH_SIZE, keyFunction, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link CoalescingBatchProcessing}.
+     *
+     * @param delay A delay in milliseconds. The batch is delivered if no new object was received for this time.
+     * @param maxLatency Maximum time in milliseconds between the first object of a batch and its delivery
+     * @param maxBatchSize Maximum number of objects in a batch
+     * @param keyFunction Returns the key of an object, used for de-duplication
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public CoalescingBatchProcessing(int delay, int maxLatency, int maxBatchSize, Function<T, K> keyFunction,
+            Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, maxLatency, maxBatchSize, keyFunction, consumer, executor, System::nanoTime);
+    }
+
+    /**
+     * Creates a {@link CoalescingBatchProcessing} with the given time source.
+     *
+     * @param nanoTime Returns the current time in nanoseconds, see {@link System#nanoTime()}
+     */
+    CoalescingBatchProcessing(int delay, int maxLatency, int maxBatchSize, Function<T, K> keyFunction,
+            Consumer<List<T>> consumer, ScheduledExecutorService executor, LongSupplier nanoTime) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay need to be greater than 0!");
+        }
+        if (maxLatency < delay) {
+            throw new IllegalArgumentException("Maximum latency need to be greater or equal to the delay!");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Maximum batch size need to be greater than 0!");
+        }
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delay);
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatency);
+        this.maxBatchSize = maxBatchSize;
+        this.keyFunction = keyFunction;
+        this.consumer = consumer;
+        this.executor = executor;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Add new object to the batch process list. The timer is only armed for the first object of a batch.
+     *
+     * @param t An object
+     */
+    @Override
+    public void accept(T t) {
+        final long now = nanoTime.getAsLong();
+        lastAcceptNanos = now;
+        queue.add(t);
+        final int size = queueSize.incrementAndGet();
+        if (armed.compareAndSet(false, true)) {
+            batchStartNanos = now;
+            futureRef.set(executor.schedule(this::timerExpired, delayNanos, TimeUnit.NANOSECONDS));
+        }
+        if (size == maxBatchSize) {
+            try {
+                executor.execute(this::process);
+            } catch (RejectedExecutionException e) {
+                // Executor is shutting down, the objects are delivered by the timer or join()
+            }
+        }
+    }
+
+    /**
+     * Return the so far accumulated objects (de-duplicated), but do not deliver them to the target consumer anymore.
+     *
+     * @return A list of accumulated objects
+     */
+    public List<T> join() {
+        cancel(futureRef.getAndSet(null));
+        armed.set(false);
+        synchronized (queue) {
+            return drain(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Return true if there is a delayed processing going on.
+     */
+    public boolean isArmed() {
+        return armed.get();
+    }
+
+    /**
+     * Deliver queued items now to the target consumer.
+     */
+    public void forceProcessNow() {
+        process();
+    }
+
+    private void timerExpired() {
+        final long now = nanoTime.getAsLong();
+        final long quiet = now - lastAcceptNanos;
+        final long age = now - batchStartNanos;
+        if (quiet < delayNanos && age < maxLatencyNanos) {
+            // Objects arrived in the meantime, wait for the rest of the quiet period
+            final long wait = Math.min(delayNanos - quiet, maxLatencyNanos - age);
+            futureRef.set(executor.schedule(this::timerExpired, wait, TimeUnit.NANOSECONDS));
+            return;
+        }
+        process();
+    }
+
+    private void process() {
+        cancel(futureRef.getAndSet(null));
+        // Disarm before draining: objects accepted from now on arm a new timer, even if they end up in this batch
+        armed.set(false);
+        synchronized (queue) {
+            List<T> batch;
+            while (!(batch = drain(maxBatchSize)).isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
+    }
+
+    /**
+     * Remove up to <code>max</code> objects from the queue, keeping only the latest object per key.
+     * Must be called with the queue lock held, so that batches are delivered in order.
+     */
+    private List<T> drain(int max) {
+        final Map<K, T> batch = new LinkedHashMap<>();
+        T t;
+        for (int i = 0; i < max && (t = queue.poll()) != null; i++) {
+            queueSize.decrementAndGet();
+            batch.put(keyFunction.apply(t), t);
+        }
+        return new ArrayList<>(batch.values());
+    }
+
+    private static void cancel(@Nullable ScheduledFuture<?> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -35,10 +36,14 @@ import org.eclipse.smarthome.core.library.types.HSBType;
 import org.eclipse.smarthome.core.library.types.RawType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.openhab.binding.mqtt.generic.values.ColorValue;
@@ -48,6 +53,7 @@ import org.openhab.binding.mqtt.generic.values.LocationValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
 import org.openhab.binding.mqtt.generic.values.PercentageValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
+import org.openhab.binding.mqtt.subscription.MqttTopicRouter;
 
 /**
  * Tests the {@link ChannelState} class.
@@ -89,15 +95,33 @@ public class ChannelStateTests {
     @After
     public void tearDown() {
         scheduler.shutdownNow();
+        MqttTopicRouter.release(connection);
+    }
+
+    /**
+     * Verify that the channel state is subscribed at the router of the connection, and receives the messages of the
+     * broker subscription held by the router.
+     *
+     * @return The subscriber of the router registered at the connection
+     */
+    private MqttMessageSubscriber verifyRouted(String topic, ChannelState c) {
+        ArgumentCaptor<MqttMessageSubscriber> route = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(connection).subscribe(eq(topic), route.capture());
+        assertThat(MqttTopicRouter.of(connection).getSubscribers(topic), is(Collections.singletonList(c)));
+
+        route.getValue().processMessage(topic, "routed".getBytes());
+        verify(c).processMessage(eq(topic), argThat(p -> Arrays.equals(p, "routed".getBytes())));
+        return route.getValue();
     }
 
     @Test
     public void noInteractionTimeoutTest() throws InterruptedException, ExecutionException, TimeoutException {
         ChannelState c = spy(new ChannelState(config, channelUID, textValue, channelStateUpdateListener));
         c.start(connection, scheduler, 50).get(100, TimeUnit.MILLISECONDS);
-        verify(connection).subscribe(eq("state"), eq(c));
+        MqttMessageSubscriber route = verifyRouted("state", c);
         c.stop().get();
-        verify(connection).unsubscribe(eq("state"), eq(c));
+        verify(connection).unsubscribe(eq("state"), eq(route));
+        assertThat(MqttTopicRouter.of(connection).getSubscribers("state").isEmpty(), is(true));
     }
 
     @Test
@@ -105,7 +129,7 @@ public class ChannelStateTests {
         ChannelState c = spy(new ChannelState(config, channelUID, textValue, channelStateUpdateListener));
 
         c.start(connection, scheduler, 0).get(50, TimeUnit.MILLISECONDS);
-        verify(connection).subscribe(eq("state"), eq(c));
+        MqttMessageSubscriber route = verifyRouted("state", c);
 
         c.publishValue(new StringType("UPDATE")).get();
         verify(connection).publish(eq("command"), argThat(p -> Arrays.equals(p, "UPDATE".getBytes())), anyInt(),
@@ -127,7 +151,7 @@ public class ChannelStateTests {
         verify(connection).publish(eq("command"), any(), anyInt(), eq(true));
 
         c.stop().get();
-        verify(connection).unsubscribe(eq("state"), eq(c));
+        verify(connection).unsubscribe(eq("state"), eq(route));
     }
 
     @Test
@@ -297,4 +321,58 @@ public class ChannelStateTests {
         assertThat(value.getChannelState(), is(instanceOf(RawType.class)));
         assertThat(((RawType) value.getChannelState()).getMimeType(), is("image/jpeg"));
     }
+
+    @Test
+    public void receiveSamePayloadSkipsTransformations() throws TransformationException {
+        TransformationService service = mock(TransformationService.class);
+        when(service.transform(eq("$.value"), any())).thenReturn("15");
+        ChannelState c = spy(new ChannelState(config, channelUID, textValue, channelStateUpdateListener));
+        c.addTransformation(new ChannelStateTransformation("JSONPATH", "$.value", name -> service));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "{\"value\":15}".getBytes());
+        c.processMessage("state", "{\"value\":15}".getBytes());
+
+        verify(service, times(1)).transform(any(), any());
+        verify(channelStateUpdateListener, times(2)).updateChannelState(eq(channelUID), any());
+        assertThat(textValue.getChannelState().toString(), is("15"));
+    }
+
+    @Test
+    public void receiveSamePayloadAppliesNonPureTransformations() throws TransformationException {
+        TransformationService service = mock(TransformationService.class);
+        when(service.transform(eq("time.js"), any())).thenReturn("15", "16");
+        ChannelState c = spy(new ChannelState(config, channelUID, textValue, channelStateUpdateListener));
+        c.addTransformation(new ChannelStateTransformation("JS", "time.js", name -> service));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "{\"value\":15}".getBytes());
+        c.processMessage("state", "{\"value\":15}".getBytes());
+
+        verify(service, times(2)).transform(any(), any());
+        assertThat(textValue.getChannelState().toString(), is("16"));
+    }
+
+    @Test
+    public void receiveSharedPayloadTransformedOnce() throws TransformationException {
+        TransformationService service = mock(TransformationService.class);
+        when(service.transform(eq("$.value"), any())).thenReturn("15");
+        PayloadTransformationCache payloadCache = new PayloadTransformationCache();
+        TextValue otherValue = new TextValue();
+        ChannelState c1 = new ChannelState(config, channelUID, textValue, channelStateUpdateListener);
+        ChannelState c2 = new ChannelState(config, channelUID, otherValue, channelStateUpdateListener);
+        for (ChannelState c : Arrays.asList(c1, c2)) {
+            c.addTransformation(new ChannelStateTransformation("JSONPATH", "$.value", name -> service));
+            c.setPayloadCache(payloadCache);
+            c.start(connection, mock(ScheduledExecutorService.class), 100);
+        }
+
+        byte[] payload = "{\"value\":15}".getBytes();
+        c1.processMessage("state", payload);
+        c2.processMessage("state", payload);
+
+        verify(service, times(1)).transform(any(), any());
+        assertThat(textValue.getChannelState().toString(), is("15"));
+        assertThat(otherValue.getChannelState().toString(), is("15"));
+    }
 }
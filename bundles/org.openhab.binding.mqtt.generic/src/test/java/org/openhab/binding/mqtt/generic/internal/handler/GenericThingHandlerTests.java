@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.mqtt.generic.internal.handler;
 
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,6 +46,7 @@ import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.binding.mqtt.generic.values.ValueFactory;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
+import org.openhab.binding.mqtt.subscription.MqttTopicRouter;
 
 /**
  * Tests cases for {@link GenericMQTTThingHandler}.
@@ -118,7 +120,9 @@ public class GenericThingHandlerTests {
         assertThat(channelConfig.getStateTopic(), is("test/state"));
         assertThat(channelConfig.getCommandTopic(), is("test/command"));
 
-        verify(connection).subscribe(eq(channelConfig.getStateTopic()), eq(channelConfig));
+        verify(connection).subscribe(eq(channelConfig.getStateTopic()), any());
+        assertThat(MqttTopicRouter.of(connection).getSubscribers(channelConfig.getStateTopic()),
+                hasItem(channelConfig));
 
         verify(callback).statusUpdated(eq(thing), argThat((arg) -> arg.getStatus().equals(ThingStatus.ONLINE)
                 && arg.getStatusDetail().equals(ThingStatusDetail.NONE)));
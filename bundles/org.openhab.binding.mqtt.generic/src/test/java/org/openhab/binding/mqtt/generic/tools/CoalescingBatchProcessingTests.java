@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests the {@link CoalescingBatchProcessing} class.
+ *
+ * The scheduler is a mock, scheduled and submitted tasks are run by the test with a simulated clock.
+ *
+ * @author agent - Initial contribution
+ */
+public class CoalescingBatchProcessingTests {
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+
+    private final List<Long> timerDelays = new ArrayList<>();
+    private final TreeMap<Long, Runnable> pendingTimers = new TreeMap<>();
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final List<List<String>> batches = new ArrayList<>();
+    private long now;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            long delay = ((TimeUnit) invocation.getArgument(2)).toMillis(invocation.getArgument(1));
+            timerDelays.add(delay);
+            pendingTimers.put(now + delay, invocation.getArgument(0));
+            return scheduledFuture;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        doAnswer(invocation -> submitted.add(invocation.getArgument(0))).when(scheduler).execute(any());
+    }
+
+    private <K> CoalescingBatchProcessing<String, K> processing(int delay, int maxLatency, int maxBatchSize,
+            Function<String, K> keyFunction) {
+        return new CoalescingBatchProcessing<>(delay, maxLatency, maxBatchSize, keyFunction, batches::add, scheduler,
+                () -> TimeUnit.MILLISECONDS.toNanos(now));
+    }
+
+    /**
+     * Advance the simulated clock, running the timers that expire in the meantime
+     */
+    private void advance(long millis) {
+        long end = now + millis;
+        Map.Entry<Long, Runnable> timer;
+        while ((timer = pendingTimers.firstEntry()) != null && timer.getKey() <= end) {
+            pendingTimers.remove(timer.getKey());
+            now = timer.getKey();
+            timer.getValue().run();
+        }
+        now = end;
+    }
+
+    @Test
+    public void singleTimerAndLatestValuePerKey() {
+        CoalescingBatchProcessing<String, Character> processing = processing(100, 1000, 1000, s -> s.charAt(0));
+        processing.accept("a1");
+        processing.accept("b1");
+        processing.accept("a2");
+        assertTrue(processing.isArmed());
+        assertThat(timerDelays.size(), is(1));
+
+        advance(100);
+        assertFalse(processing.isArmed());
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a2", "b1"))));
+    }
+
+    @Test
+    public void timerWaitsForQuietPeriod() {
+        CoalescingBatchProcessing<String, String> processing = processing(100, 1000, 1000, s -> s);
+        processing.accept("a");
+        advance(60);
+        processing.accept("b");
+        assertThat(timerDelays.size(), is(1));
+
+        // Object arrived 40ms before the timer expired, the timer is armed again for the rest of the quiet period
+        advance(40);
+        assertTrue(batches.isEmpty());
+        assertThat(timerDelays, is(Arrays.asList(100L, 60L)));
+
+        advance(60);
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+    }
+
+    @Test
+    public void maxBatchSize() {
+        CoalescingBatchProcessing<String, String> processing = processing(100, 1000, 2, s -> s);
+        processing.accept("a");
+        processing.accept("b");
+        processing.accept("c");
+
+        // Reaching the batch size delivers the batch without waiting for the delay
+        assertThat(submitted.size(), is(1));
+        submitted.get(0).run();
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"))));
+        verify(scheduledFuture).cancel(false);
+    }
+
+    @Test
+    public void maxLatency() {
+        CoalescingBatchProcessing<String, String> processing = processing(100, 300, 1000, s -> s);
+        // Keep objects arriving faster than the delay, the batch is delivered anyway
+        for (int i = 0; i <= 6; i++) {
+            processing.accept("object" + i);
+            advance(50);
+        }
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0).size(), is(6));
+    }
+
+    @Test
+    public void joinReturnsObjectsWithoutDelivering() {
+        CoalescingBatchProcessing<String, String> processing = processing(100, 1000, 1000, s -> s);
+        processing.accept("a");
+        processing.accept("a");
+        assertThat(processing.join(), is(Arrays.asList("a")));
+        assertFalse(processing.isArmed());
+        verify(scheduledFuture).cancel(false);
+        processing.forceProcessNow();
+        assertTrue(batches.isEmpty());
+    }
+}
@@ -41,7 +41,7 @@ import org.openhab.binding.mqtt.generic.AbstractMQTTThingHandler;
 import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
-import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.CoalescingBatchProcessing;
 import org.openhab.binding.mqtt.generic.utils.FutureCollector;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homeassistant.internal.AbstractComponent;
@@ -83,7 +83,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
 
     protected final MqttChannelTypeProvider channelTypeProvider;
     public final int attributeReceiveTimeout;
-    protected final DelayedBatchProcessing<AbstractComponent<?>> delayedProcessing;
+    protected final CoalescingBatchProcessing<AbstractComponent<?>, String> delayedProcessing;
     protected final DiscoverComponents discoverComponents;
 
     private final Gson gson;
@@ -113,7 +113,9 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         this.channelTypeProvider = channelTypeProvider;
         this.transformationServiceProvider = transformationServiceProvider;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, this, scheduler);
+        // Latest discovered configuration of a component wins
+        this.delayedProcessing = new CoalescingBatchProcessing<>(attributeReceiveTimeout,
+                component -> component.uid().getId(), this, scheduler);
         this.discoverComponents = new DiscoverComponents(thing.getUID(), scheduler, this, this, gson,
                 this.transformationServiceProvider);
     }
@@ -250,7 +252,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
     }
 
     /**
-     * Callback of {@link DelayedBatchProcessing}.
+     * Callback of {@link CoalescingBatchProcessing}.
      * Add all newly discovered components to the Thing and start the components.
      */
     @SuppressWarnings("null")
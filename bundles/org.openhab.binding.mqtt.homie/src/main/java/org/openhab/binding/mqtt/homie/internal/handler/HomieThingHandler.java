@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -29,7 +30,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.AbstractMQTTThingHandler;
 import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
-import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.CoalescingBatchProcessing;
 import org.openhab.binding.mqtt.homie.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homie.internal.homie300.Device;
 import org.openhab.binding.mqtt.homie.internal.homie300.DeviceAttributes;
@@ -57,7 +58,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
     protected final int subscribeTimeout;
     protected final int deviceTimeout;
     protected HandlerConfiguration config = new HandlerConfiguration();
-    protected DelayedBatchProcessing<Object> delayedProcessing;
+    protected CoalescingBatchProcessing<Object, Object> delayedProcessing;
     private @Nullable ScheduledFuture<?> heartBeatTimer;
 
     /**
@@ -79,18 +80,19 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         this.deviceTimeout = deviceTimeout;
         this.subscribeTimeout = subscribeTimeout;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, this, scheduler);
+        this.delayedProcessing = new CoalescingBatchProcessing<>(subscribeTimeout, Function.identity(), this,
+                scheduler);
         this.device = new Device(this.thing.getUID(), this, new DeviceAttributes());
     }
 
     /**
-     * Overwrite the {@link Device} and {@link DelayedBatchProcessing} object.
+     * Overwrite the {@link Device} and {@link CoalescingBatchProcessing} object.
      * Those are set in the constructor already, but require to be replaced for tests.
      *
      * @param device The device object
      * @param delayedProcessing The delayed processing object
      */
-    protected void setInternalObjects(Device device, DelayedBatchProcessing<Object> delayedProcessing) {
+    protected void setInternalObjects(Device device, CoalescingBatchProcessing<Object, Object> delayedProcessing) {
         this.device = device;
         this.delayedProcessing = delayedProcessing;
     }
@@ -210,7 +212,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
     }
 
     /**
-     * Callback of {@link DelayedBatchProcessing}.
+     * Callback of {@link CoalescingBatchProcessing}.
      * Add all newly discovered nodes and properties to the Thing and start subscribe to each channel state topic.
      */
     @Override
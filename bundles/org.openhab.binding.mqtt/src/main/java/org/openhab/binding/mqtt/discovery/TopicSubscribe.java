@@ -19,6 +19,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.subscription.MqttTopicRouter;
 
 /**
  * Represents a MQTT subscription for one specific topic. This is an immutable class.
@@ -69,7 +70,7 @@ public class TopicSubscribe implements MqttMessageSubscriber {
      */
     public CompletableFuture<Boolean> start() {
         CompletableFuture<Boolean> startFuture = connection == null ? CompletableFuture.completedFuture(true)
-                : connection.subscribe(topic, this);
+                : MqttTopicRouter.of(connection).subscribe(topic, this);
         isStarted = true;
         return startFuture;
     }
@@ -80,8 +81,9 @@ public class TopicSubscribe implements MqttMessageSubscriber {
      * @return Completes with true if successful. Exceptionally otherwise.
      */
     public CompletableFuture<Boolean> stop() {
-        CompletableFuture<Boolean> stopFuture = connection == null ? CompletableFuture.completedFuture(true)
-                : connection.unsubscribe(topic, this);
+        MqttTopicRouter router = connection == null ? null : MqttTopicRouter.get(connection);
+        CompletableFuture<Boolean> stopFuture = router == null ? CompletableFuture.completedFuture(true)
+                : router.unsubscribe(topic, this);
         isStarted = false;
         return stopFuture;
     }
@@ -32,6 +32,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.openhab.binding.mqtt.action.MQTTActions;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryParticipant;
 import org.openhab.binding.mqtt.discovery.TopicSubscribe;
+import org.openhab.binding.mqtt.subscription.MqttTopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -175,8 +176,10 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
             });
         });
 
+        final MqttBrokerConnection connection = this.connection;
         if (connection != null) {
             connection.removeConnectionObserver(this);
+            MqttTopicRouter.release(connection);
         } else {
             logger.warn("Trying to dispose handler {} but connection is already null. Most likely this is a bug.",
                     thing.getUID());
@@ -0,0 +1,537 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.subscription;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionObserver;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares broker subscriptions between the subscribers of the MQTT bindings.
+ *
+ * The broker connection issues a SUBSCRIBE for every subscriber, even if the same topic filter is already subscribed.
+ * The router instead holds a single broker subscription per distinct topic filter and dispatches the received messages
+ * to all the local subscribers of that filter. The filters are kept in a {@link TopicTrie}.
+ *
+ * Subscribers joining a filter before the broker acknowledged its SUBSCRIBE share the request, the broker sends the
+ * retained messages to all of them. A subscriber joining an already acknowledged filter gets a SUBSCRIBE request of its
+ * own, as only a new SUBSCRIBE makes the broker send the retained messages again. The retained flag is not passed to
+ * the subscribers by the connection, so the router can not replay them itself.
+ *
+ * The router also limits the number of SUBSCRIBE requests in flight per connection. After a (re-)connect all things
+ * subscribe at the same time, sending all requests at once makes the broker respond late and subscriptions time out.
+ * Requests above the limit are queued, prioritized requests (e.g. of channels linked to items) are sent first.
+ * After a reconnect the broker connection would resubscribe all its subscribers at once. The router therefore removes
+ * its subscriptions from the connection when it is disconnected, and subscribes them again through the limit when
+ * the connection is re-established. The subscribers were already told that their filter is subscribed, so a failed
+ * SUBSCRIBE after the reconnect is retried a few times, and again after the next reconnect.
+ *
+ * Use {@link #of(MqttBrokerConnection)} to get the router of a connection, and {@link #release(MqttBrokerConnection)}
+ * when the connection is not used anymore.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MqttTopicRouter {
+    /**
+     * Default maximum number of SUBSCRIBE requests in flight
+     */
+    public static final int DEFAULT_MAX_INFLIGHT_SUBSCRIBES = 10;
+
+    /**
+     * Number of times a failed SUBSCRIBE request after a reconnect is sent again
+     */
+    static final int MAX_RESUBSCRIBE_RETRIES = 3;
+
+    private static final Map<MqttBrokerConnection, MqttTopicRouter> ROUTERS = new HashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(MqttTopicRouter.class);
+
+    private final MqttBrokerConnection connection;
+    private final MqttConnectionObserver connectionObserver = this::connectionStateChanged;
+    private final TopicTrie<Route> routes = new TopicTrie<>();
+
+    // Routes waiting for their SUBSCRIBE request to be sent
+    private final Deque<Route> prioritySubscribes = new ArrayDeque<>();
+    private final Deque<Route> queuedSubscribes = new ArrayDeque<>();
+    private int maxInflightSubscribes = DEFAULT_MAX_INFLIGHT_SUBSCRIBES;
+    private int inflightSubscribes;
+    private boolean dispatching;
+    private boolean connected = true;
+    // Incremented on disconnect, SUBSCRIBE requests sent before are not accounted anymore
+    private int generation;
+    private long completedSubscribes;
+    private long failedSubscribes;
+
+    /**
+     * A broker subscription of one topic filter, together with its local subscribers.
+     *
+     * The route of a filter in the trie is shared by the subscribers. Subscribers joining after the broker acknowledged
+     * the shared route get a late route of their own, held by the shared route.
+     */
+    private class Route implements MqttMessageSubscriber {
+        private final String filter;
+        private final @Nullable Route shared;
+        private final List<MqttMessageSubscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final Map<MqttMessageSubscriber, Route> lateRoutes = new LinkedHashMap<>();
+        private final CompletableFuture<Boolean> subscribeFuture = new CompletableFuture<>();
+        private boolean priority;
+        private int resubscribeRetries;
+
+        private Route(String filter, @Nullable Route shared) {
+            this.filter = filter;
+            this.shared = shared;
+        }
+
+        private boolean isAcknowledged() {
+            return subscribeFuture.isDone() && !subscribeFuture.isCompletedExceptionally() && subscribeFuture.join();
+        }
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            for (MqttMessageSubscriber subscriber : subscribers) {
+                try {
+                    subscriber.processMessage(topic, payload);
+                } catch (RuntimeException e) {
+                    logger.warn("Subscriber {} of topic filter {} failed to process message on topic {}", subscriber,
+                            filter, topic, e);
+                }
+            }
+        }
+    }
+
+    private MqttTopicRouter(MqttBrokerConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Return the router of the given connection, creating it if necessary.
+     *
+     * @param connection A broker connection
+     * @return The router shared by all users of the connection
+     */
+    public static MqttTopicRouter of(MqttBrokerConnection connection) {
+        synchronized (ROUTERS) {
+            MqttTopicRouter router = ROUTERS.get(connection);
+            if (router == null) {
+                router = new MqttTopicRouter(connection);
+                connection.addConnectionObserver(router.connectionObserver);
+                ROUTERS.put(connection, router);
+            }
+            return router;
+        }
+    }
+
+    /**
+     * Return the router of the given connection without creating it.
+     *
+     * @param connection A broker connection
+     * @return The router or null if there is none, e.g. because the connection was released
+     */
+    public static @Nullable MqttTopicRouter get(MqttBrokerConnection connection) {
+        synchronized (ROUTERS) {
+            return ROUTERS.get(connection);
+        }
+    }
+
+    /**
+     * Remove the router of the given connection, if any. Broker subscriptions still held by the router are removed
+     * from the connection.
+     *
+     * @param connection A broker connection that is not used anymore
+     */
+    public static void release(MqttBrokerConnection connection) {
+        final MqttTopicRouter router;
+        synchronized (ROUTERS) {
+            router = ROUTERS.remove(connection);
+        }
+        if (router != null) {
+            connection.removeConnectionObserver(router.connectionObserver);
+            router.unsubscribeAll();
+        }
+    }
+
+    private void unsubscribeAll() {
+        final List<Route> all = new ArrayList<>();
+        synchronized (this) {
+            routes.forEach(route -> {
+                all.add(route);
+                all.addAll(route.lateRoutes.values());
+            });
+            routes.clear();
+            prioritySubscribes.clear();
+            queuedSubscribes.clear();
+        }
+        for (Route route : all) {
+            connection.unsubscribe(route.filter, route);
+            route.subscribeFuture.complete(false);
+        }
+    }
+
+    /**
+     * Subscribe to a topic filter. The broker is only contacted for the first subscriber of a filter, and for
+     * subscribers joining after the broker acknowledged the filter.
+     *
+     * @param filter The topic filter, may contain wildcards
+     * @param subscriber The subscriber
+     * @return Completes with true when the broker subscription is established or false if not connected yet.
+     *         Completes exceptionally if subscribing failed.
+     */
+    public CompletableFuture<Boolean> subscribe(String filter, MqttMessageSubscriber subscriber) {
+        return subscribe(filter, subscriber, false);
+    }
+
+    /**
+     * Subscribe to a topic filter. The broker is only contacted for the first subscriber of a filter, and for
+     * subscribers joining after the broker acknowledged the filter.
+     *
+     * @param filter The topic filter, may contain wildcards
+     * @param subscriber The subscriber
+     * @param priority True to send the SUBSCRIBE request ahead of the not prioritized queued requests
+     * @return Completes with true when the broker subscription is established or false if not connected yet.
+     *         Completes exceptionally if subscribing failed.
+     */
+    public CompletableFuture<Boolean> subscribe(String filter, MqttMessageSubscriber subscriber, boolean priority) {
+        final Route route;
+        synchronized (this) {
+            final Route existing = routes.get(filter);
+            if (existing == null) {
+                route = new Route(filter, null);
+                route.subscribers.add(subscriber);
+                routes.put(filter, route);
+                enqueue(route, priority);
+            } else if (existing.subscribers.contains(subscriber)) {
+                route = existing;
+            } else if (existing.lateRoutes.containsKey(subscriber)) {
+                route = existing.lateRoutes.get(subscriber);
+            } else if (!existing.isAcknowledged()) {
+                // The broker sends the retained messages to all the subscribers of the pending request
+                route = existing;
+                route.subscribers.add(subscriber);
+                if (priority && !route.priority && queuedSubscribes.remove(route)) {
+                    enqueue(route, true);
+                }
+            } else {
+                route = new Route(filter, existing);
+                route.subscribers.add(subscriber);
+                existing.lateRoutes.put(subscriber, route);
+                enqueue(route, priority);
+                logger.trace("Topic filter {} already subscribed, subscribing {} again for the retained messages",
+                        filter, subscriber);
+            }
+        }
+        dispatchSubscribes();
+        return route.subscribeFuture;
+    }
+
+    private void enqueue(Route route, boolean priority) {
+        route.priority = priority;
+        (priority ? prioritySubscribes : queuedSubscribes).add(route);
+    }
+
+    /**
+     * Send queued SUBSCRIBE requests as long as the in flight limit allows. Only one thread sends requests at a
+     * time, a thread finding another one sending returns immediately.
+     */
+    private void dispatchSubscribes() {
+        synchronized (this) {
+            if (dispatching) {
+                return;
+            }
+            dispatching = true;
+        }
+        while (true) {
+            final Route route;
+            final int generation;
+            synchronized (this) {
+                final boolean send = connected && inflightSubscribes < maxInflightSubscribes;
+                Route next = send ? prioritySubscribes.poll() : null;
+                if (next == null && send) {
+                    next = queuedSubscribes.poll();
+                }
+                if (next == null) {
+                    dispatching = false;
+                    return;
+                }
+                route = next;
+                generation = this.generation;
+                inflightSubscribes++;
+            }
+            CompletableFuture<Boolean> future;
+            try {
+                future = connection.subscribe(route.filter, route);
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            future.whenComplete((result, e) -> subscribeCompleted(route, generation, result, e));
+        }
+    }
+
+    private void subscribeCompleted(Route route, int generation, @Nullable Boolean result, @Nullable Throwable e) {
+        final int pending;
+        boolean retry = false;
+        boolean resubscribeFailed = false;
+        synchronized (this) {
+            if (generation != this.generation) {
+                // Sent before the connection was lost, the route is subscribed again after the reconnect
+                logger.trace("Ignoring completion of subscribe to topic filter {} before reconnect", route.filter);
+                return;
+            }
+            inflightSubscribes--;
+            if (e != null && route.subscribeFuture.isDone()) {
+                // Subscribing again after a reconnect failed. The subscribers can not be told through the completed
+                // future, keep the route and retry instead.
+                failedSubscribes++;
+                if (routes.get(route.filter) != route) {
+                    logger.trace("Topic filter {} was unsubscribed while subscribing it again", route.filter);
+                } else if (route.resubscribeRetries < MAX_RESUBSCRIBE_RETRIES) {
+                    route.resubscribeRetries++;
+                    enqueue(route, route.priority);
+                    retry = true;
+                } else {
+                    resubscribeFailed = true;
+                }
+            } else if (e != null) {
+                failedSubscribes++;
+                final Route shared = route.shared;
+                if (shared != null) {
+                    shared.lateRoutes.values().remove(route);
+                } else if (routes.get(route.filter) == route) {
+                    routes.remove(route.filter);
+                }
+            } else {
+                completedSubscribes++;
+                route.resubscribeRetries = 0;
+            }
+            pending = inflightSubscribes + prioritySubscribes.size() + queuedSubscribes.size();
+        }
+        if (retry || resubscribeFailed) {
+            // The connection keeps the subscriber of a failed SUBSCRIBE, remove it so that it is not added twice
+            connection.unsubscribe(route.filter, route);
+        }
+        if (retry) {
+            logger.debug("Subscribing topic filter {} again after reconnect failed, retrying ({}/{})", route.filter,
+                    route.resubscribeRetries, MAX_RESUBSCRIBE_RETRIES, e);
+        } else if (resubscribeFailed) {
+            logger.warn("Subscribing topic filter {} again after reconnect failed, its {} subscribers receive no "
+                    + "messages until the next reconnect", route.filter, route.subscribers.size(), e);
+        } else if (e != null) {
+            route.subscribeFuture.completeExceptionally(e);
+        } else {
+            route.subscribeFuture.complete(result != null && result);
+        }
+        logger.trace("Subscribe to topic filter {} completed, {} subscribe requests pending", route.filter, pending);
+        if (pending == 0) {
+            logger.debug("All subscribe requests completed: {} completed, {} failed in total", completedSubscribes,
+                    failedSubscribes);
+        }
+        dispatchSubscribes();
+    }
+
+    private void connectionStateChanged(MqttConnectionState state, @Nullable Throwable error) {
+        if (state == MqttConnectionState.DISCONNECTED) {
+            detachRoutes();
+        } else if (state == MqttConnectionState.CONNECTED) {
+            final int queued;
+            synchronized (this) {
+                if (connected) {
+                    return;
+                }
+                connected = true;
+                queued = prioritySubscribes.size() + queuedSubscribes.size();
+            }
+            logger.debug("Broker connection re-established, subscribing {} topic filters, at most {} at a time",
+                    queued, maxInflightSubscribes);
+            dispatchSubscribes();
+        }
+    }
+
+    /**
+     * Remove the subscriptions from the disconnected connection, and queue them to be sent after the reconnect. The
+     * late routes of a filter are merged into its shared route, the SUBSCRIBE after the reconnect makes the broker send
+     * the retained messages to all the subscribers.
+     */
+    private void detachRoutes() {
+        final List<Route> detached = new ArrayList<>();
+        final List<Route> merged = new ArrayList<>();
+        // Routes still queued were never sent to the connection
+        final Set<Route> queued = new HashSet<>();
+        synchronized (this) {
+            if (!connected) {
+                return;
+            }
+            connected = false;
+            generation++;
+            inflightSubscribes = 0;
+            queued.addAll(prioritySubscribes);
+            queued.addAll(queuedSubscribes);
+            prioritySubscribes.clear();
+            queuedSubscribes.clear();
+            routes.forEach(route -> {
+                boolean priority = route.priority;
+                for (Route late : route.lateRoutes.values()) {
+                    route.subscribers.addAll(late.subscribers);
+                    priority |= late.priority;
+                    merged.add(late);
+                }
+                route.lateRoutes.clear();
+                route.resubscribeRetries = 0;
+                if (!queued.contains(route)) {
+                    detached.add(route);
+                }
+                enqueue(route, priority);
+            });
+        }
+        logger.debug("Broker connection lost, {} topic filters are subscribed again after the reconnect",
+                getQueuedSubscribeCount());
+        for (Route route : detached) {
+            connection.unsubscribe(route.filter, route);
+        }
+        for (Route late : merged) {
+            if (!queued.contains(late)) {
+                connection.unsubscribe(late.filter, late);
+            }
+            // Subscribers of the late route are served by the shared route from now on
+            late.subscribeFuture.complete(false);
+        }
+    }
+
+    /**
+     * Unsubscribe from a topic filter. The broker is only contacted when the last subscriber of the filter is gone.
+     *
+     * @param filter The topic filter as used for subscribing
+     * @param subscriber The subscriber
+     * @return Completes with true if successful. Completes exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> unsubscribe(String filter, MqttMessageSubscriber subscriber) {
+        final List<Route> removed = new ArrayList<>();
+        synchronized (this) {
+            final Route shared = routes.get(filter);
+            if (shared == null) {
+                return CompletableFuture.completedFuture(true);
+            }
+            final Route late = shared.lateRoutes.remove(subscriber);
+            if (late != null) {
+                removed.add(late);
+            } else if (!shared.subscribers.remove(subscriber)) {
+                return CompletableFuture.completedFuture(true);
+            }
+            // The shared route is kept as long as there are late routes, the broker subscription is the same
+            if (shared.subscribers.isEmpty() && shared.lateRoutes.isEmpty()) {
+                routes.remove(filter);
+                removed.add(shared);
+            }
+        }
+        CompletableFuture<Boolean> future = CompletableFuture.completedFuture(true);
+        for (Route route : removed) {
+            future = future.thenCombine(unsubscribeRoute(route), (a, b) -> a && b);
+        }
+        return future;
+    }
+
+    private CompletableFuture<Boolean> unsubscribeRoute(Route route) {
+        synchronized (this) {
+            if (prioritySubscribes.remove(route) || queuedSubscribes.remove(route)) {
+                // The SUBSCRIBE request has not been sent yet
+                route.subscribeFuture.complete(false);
+                return CompletableFuture.completedFuture(true);
+            }
+        }
+        // Wait for an in flight SUBSCRIBE request before unsubscribing
+        return route.subscribeFuture.handle((result, e) -> route)
+                .thenCompose(r -> connection.unsubscribe(r.filter, r));
+    }
+
+    /**
+     * Set the maximum number of SUBSCRIBE requests in flight. Defaults to {@link #DEFAULT_MAX_INFLIGHT_SUBSCRIBES}.
+     *
+     * @param maxInflightSubscribes A positive number
+     */
+    public void setMaxInflightSubscribes(int maxInflightSubscribes) {
+        if (maxInflightSubscribes <= 0) {
+            throw new IllegalArgumentException("maxInflightSubscribes should be positive");
+        }
+        synchronized (this) {
+            this.maxInflightSubscribes = maxInflightSubscribes;
+        }
+        dispatchSubscribes();
+    }
+
+    /**
+     * Return the number of SUBSCRIBE requests waiting to be sent.
+     */
+    public synchronized int getQueuedSubscribeCount() {
+        return prioritySubscribes.size() + queuedSubscribes.size();
+    }
+
+    /**
+     * Return the number of SUBSCRIBE requests sent and not yet acknowledged by the broker.
+     */
+    public synchronized int getInflightSubscribeCount() {
+        return inflightSubscribes;
+    }
+
+    /**
+     * Return the number of completed SUBSCRIBE requests.
+     */
+    public synchronized long getCompletedSubscribeCount() {
+        return completedSubscribes;
+    }
+
+    /**
+     * Return the number of failed SUBSCRIBE requests.
+     */
+    public synchronized long getFailedSubscribeCount() {
+        return failedSubscribes;
+    }
+
+    /**
+     * Return the local subscribers of all the filters matching the given topic.
+     *
+     * @param topic A topic without wildcards
+     * @return The subscribers
+     */
+    public synchronized List<MqttMessageSubscriber> getSubscribers(String topic) {
+        List<MqttMessageSubscriber> subscribers = new ArrayList<>();
+        routes.match(topic, route -> {
+            subscribers.addAll(route.subscribers);
+            route.lateRoutes.values().forEach(late -> subscribers.addAll(late.subscribers));
+        });
+        return subscribers;
+    }
+
+    /**
+     * Return the number of distinct topic filters subscribed at the broker.
+     */
+    public synchronized int getBrokerSubscriptionCount() {
+        return routes.size();
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.subscription;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Stores values by MQTT topic filter, split into a tree by topic level.
+ *
+ * Finding all the filters matching a topic, including the single level (<code>+</code>) and multi level
+ * (<code>#</code>) wildcards, only visits the levels of the topic and is independent of the total number of filters.
+ * As defined by the MQTT specification, wildcards on the first level do not match topics starting with
+ * <code>$</code>, and <code>a/#</code> also matches <code>a</code>.
+ *
+ * This class is not thread-safe.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <V> The value stored per filter
+ */
+@NonNullByDefault
+public class TopicTrie<V> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private @Nullable V value;
+
+        private boolean isEmpty() {
+            return value == null && children.isEmpty();
+        }
+    }
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    private static String[] levels(String topic) {
+        return topic.split("/", -1);
+    }
+
+    /**
+     * Store a value for the given filter, replacing the previous one.
+     *
+     * @param filter A topic filter, may contain wildcards
+     * @param value The value
+     * @return The previous value or null
+     */
+    public @Nullable V put(String filter, V value) {
+        Node<V> node = root;
+        for (String level : levels(filter)) {
+            node = node.children.computeIfAbsent(level, l -> new Node<>());
+        }
+        V previous = node.value;
+        node.value = value;
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Return the value of exactly this filter (no wildcard matching).
+     *
+     * @param filter A topic filter
+     * @return The value or null
+     */
+    public @Nullable V get(String filter) {
+        Node<V> node = root;
+        for (String level : levels(filter)) {
+            node = node.children.get(level);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Remove the value of exactly this filter.
+     *
+     * @param filter A topic filter
+     * @return The removed value or null
+     */
+    public @Nullable V remove(String filter) {
+        return remove(root, levels(filter), 0);
+    }
+
+    private @Nullable V remove(Node<V> node, String[] levels, int index) {
+        if (index == levels.length) {
+            V previous = node.value;
+            if (previous != null) {
+                node.value = null;
+                size--;
+            }
+            return previous;
+        }
+        Node<V> child = node.children.get(levels[index]);
+        if (child == null) {
+            return null;
+        }
+        V previous = remove(child, levels, index + 1);
+        if (child.isEmpty()) {
+            node.children.remove(levels[index]);
+        }
+        return previous;
+    }
+
+    /**
+     * Pass the values of all the filters matching the given topic to the consumer.
+     *
+     * @param topic A topic without wildcards
+     * @param consumer Receives the value of each matching filter
+     */
+    public void match(String topic, Consumer<V> consumer) {
+        String[] levels = levels(topic);
+        match(root, levels, 0, !levels[0].startsWith("$"), consumer);
+    }
+
+    private void match(Node<V> node, String[] levels, int index, boolean wildcards, Consumer<V> consumer) {
+        if (wildcards) {
+            Node<V> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+            V value = multiLevel != null ? multiLevel.value : null;
+            if (value != null) {
+                consumer.accept(value);
+            }
+        }
+        if (index == levels.length) {
+            V value = node.value;
+            if (value != null) {
+                consumer.accept(value);
+            }
+            return;
+        }
+        Node<V> child = node.children.get(levels[index]);
+        if (child != null) {
+            match(child, levels, index + 1, true, consumer);
+        }
+        if (wildcards) {
+            Node<V> singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+            if (singleLevel != null) {
+                match(singleLevel, levels, index + 1, true, consumer);
+            }
+        }
+    }
+
+    /**
+     * Pass the values of all the filters to the consumer.
+     *
+     * @param consumer Receives the value of each filter
+     */
+    public void forEach(Consumer<V> consumer) {
+        forEach(root, consumer);
+    }
+
+    private void forEach(Node<V> node, Consumer<V> consumer) {
+        V value = node.value;
+        if (value != null) {
+            consumer.accept(value);
+        }
+        for (Node<V> child : node.children.values()) {
+            forEach(child, consumer);
+        }
+    }
+
+    /**
+     * Remove all the filters.
+     */
+    public void clear() {
+        root.children.clear();
+        root.value = null;
+        size = 0;
+    }
+
+    /**
+     * Return the number of stored filters.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.subscription;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionObserver;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link MqttTopicRouter}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MqttTopicRouterTest {
+    /**
+     * Connection recording the SUBSCRIBE requests, completed manually by the test
+     */
+    private static class RecordingConnection extends MqttBrokerConnection {
+        private final Map<String, CompletableFuture<Boolean>> subscribes = new LinkedHashMap<>();
+        private final Map<String, List<MqttMessageSubscriber>> subscribers = new LinkedHashMap<>();
+        private int subscribeRequests;
+        private int unsubscribes;
+        private @Nullable MqttConnectionObserver observer;
+
+        RecordingConnection() {
+            super("localhost", null, false, "router");
+        }
+
+        @Override
+        public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            subscribeRequests++;
+            subscribes.put(topic, future);
+            subscribers.computeIfAbsent(topic, t -> new ArrayList<>()).add(subscriber);
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+            unsubscribes++;
+            subscribers.get(topic).remove(subscriber);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public boolean addConnectionObserver(MqttConnectionObserver connectionObserver) {
+            observer = connectionObserver;
+            return true;
+        }
+
+        @Override
+        public boolean removeConnectionObserver(MqttConnectionObserver connectionObserver) {
+            observer = null;
+            return true;
+        }
+
+        void connectionStateChanged(MqttConnectionState state) {
+            MqttConnectionObserver observer = this.observer;
+            if (observer != null) {
+                observer.connectionStateChanged(state, null);
+            }
+        }
+
+        /**
+         * Deliver a message to all the subscribers of the topic filter, like the broker does for each subscription
+         */
+        void receive(String filter, String topic, String payload) {
+            for (MqttMessageSubscriber subscriber : new ArrayList<>(subscribers.get(filter))) {
+                subscriber.processMessage(topic, payload.getBytes());
+            }
+        }
+    }
+
+    private final RecordingConnection connection = new RecordingConnection();
+    private final MqttTopicRouter router = MqttTopicRouter.of(connection);
+
+    @After
+    public void tearDown() {
+        MqttTopicRouter.release(connection);
+    }
+
+    @Test
+    public void sharedSubscription() {
+        List<String> received = new ArrayList<>();
+        MqttMessageSubscriber first = (topic, payload) -> received.add("first " + new String(payload));
+        MqttMessageSubscriber second = (topic, payload) -> received.add("second " + new String(payload));
+
+        // The second subscriber joins before the broker acknowledged the filter and shares the SUBSCRIBE
+        router.subscribe("a/+", first);
+        CompletableFuture<Boolean> future = router.subscribe("a/+", second);
+        assertThat(connection.subscribeRequests, is(1));
+        assertThat(future.isDone(), is(false));
+        connection.subscribes.get("a/+").complete(true);
+        assertThat(future.isDone(), is(true));
+
+        assertThat(router.getSubscribers("a/b"), is(Arrays.asList(first, second)));
+        connection.receive("a/+", "a/b", "1");
+        assertThat(received, is(Arrays.asList("first 1", "second 1")));
+
+        router.unsubscribe("a/+", first);
+        assertThat(connection.unsubscribes, is(0));
+        router.unsubscribe("a/+", second);
+        assertThat(connection.unsubscribes, is(1));
+        assertThat(router.getBrokerSubscriptionCount(), is(0));
+    }
+
+    @Test
+    public void lateSubscriberSubscribesAgain() {
+        List<String> received = new ArrayList<>();
+        MqttMessageSubscriber first = (topic, payload) -> received.add("first " + new String(payload));
+        MqttMessageSubscriber late = (topic, payload) -> received.add("late " + new String(payload));
+
+        router.subscribe("a/+", first);
+        connection.subscribes.get("a/+").complete(true);
+        connection.receive("a/+", "a/b", "1");
+
+        // Only a SUBSCRIBE makes the broker send the retained messages to the late subscriber
+        CompletableFuture<Boolean> future = router.subscribe("a/+", late);
+        assertThat(connection.subscribeRequests, is(2));
+        assertThat(future.isDone(), is(false));
+        connection.subscribes.get("a/+").complete(true);
+        assertThat(future.isDone(), is(true));
+        assertThat(router.getBrokerSubscriptionCount(), is(1));
+        assertThat(router.getSubscribers("a/b"), is(Arrays.asList(first, late)));
+
+        connection.receive("a/+", "a/b", "2");
+        assertThat(received, is(Arrays.asList("first 1", "first 2", "late 2")));
+
+        // The shared subscription is kept until the late subscriber is gone as well
+        router.unsubscribe("a/+", first);
+        assertThat(router.getSubscribers("a/b"), is(Arrays.asList(late)));
+        router.unsubscribe("a/+", late);
+        assertThat(connection.unsubscribes, is(2));
+        assertThat(connection.subscribers.get("a/+").isEmpty(), is(true));
+        assertThat(router.getBrokerSubscriptionCount(), is(0));
+    }
+
+    @Test
+    public void releaseRemovesRouterAndSubscriptions() {
+        MqttMessageSubscriber subscriber = (topic, payload) -> {
+        };
+        router.subscribe("a", subscriber);
+        connection.subscribes.get("a").complete(true);
+
+        MqttTopicRouter.release(connection);
+        assertThat(MqttTopicRouter.get(connection), is(nullValue()));
+        assertThat(connection.subscribers.get("a").isEmpty(), is(true));
+        assertThat(MqttTopicRouter.of(connection), is(not(sameInstance(router))));
+    }
+
+    @Test
+    public void limitedInflightSubscribes() {
+        MqttMessageSubscriber subscriber = (topic, payload) -> {
+        };
+        router.setMaxInflightSubscribes(2);
+        for (int i = 0; i < 4; i++) {
+            router.subscribe("topic" + i, subscriber);
+        }
+        router.subscribe("linked", subscriber, true);
+        assertThat(new ArrayList<>(connection.subscribes.keySet()), is(Arrays.asList("topic0", "topic1")));
+        assertThat(router.getQueuedSubscribeCount(), is(3));
+        assertThat(router.getInflightSubscribeCount(), is(2));
+
+        // A prioritized subscription is sent first
+        connection.subscribes.get("topic0").complete(true);
+        assertThat(connection.subscribes.containsKey("linked"), is(true));
+        assertThat(connection.subscribes.containsKey("topic2"), is(false));
+
+        // A queued subscription without subscribers is never sent
+        router.unsubscribe("topic3", subscriber);
+        connection.subscribes.get("topic1").completeExceptionally(new Exception("failed"));
+        connection.subscribes.get("linked").complete(true);
+        connection.subscribes.get("topic2").complete(true);
+        assertThat(connection.subscribes.containsKey("topic3"), is(false));
+        assertThat(router.getQueuedSubscribeCount(), is(0));
+        assertThat(router.getInflightSubscribeCount(), is(0));
+        assertThat(router.getCompletedSubscribeCount(), is(3L));
+        assertThat(router.getFailedSubscribeCount(), is(1L));
+        assertThat(router.getBrokerSubscriptionCount(), is(3));
+    }
+
+    @Test
+    public void reconnectResubscribesThroughLimit() {
+        List<String> received = new ArrayList<>();
+        MqttMessageSubscriber first = (topic, payload) -> received.add("first " + new String(payload));
+        MqttMessageSubscriber late = (topic, payload) -> received.add("late " + new String(payload));
+        router.setMaxInflightSubscribes(1);
+        router.subscribe("a", first);
+        connection.subscribes.get("a").complete(true);
+        router.subscribe("a", late);
+        router.subscribe("b", first, true);
+        router.subscribe("c", first);
+        assertThat(connection.subscribeRequests, is(2));
+
+        // The subscriptions are removed from the connection, so that it does not resubscribe them all at once
+        connection.connectionStateChanged(MqttConnectionState.DISCONNECTED);
+        assertThat(connection.subscribers.get("a").isEmpty(), is(true));
+        assertThat(router.getInflightSubscribeCount(), is(0));
+        assertThat(router.getQueuedSubscribeCount(), is(3));
+        // The completion of a subscribe sent before the disconnect does not dispatch anything
+        connection.subscribes.get("a").complete(true);
+        assertThat(connection.subscribeRequests, is(2));
+
+        connection.subscribes.clear();
+        connection.connectionStateChanged(MqttConnectionState.CONNECTED);
+        assertThat(new ArrayList<>(connection.subscribes.keySet()), is(Arrays.asList("b")));
+        connection.subscribes.get("b").complete(true);
+        assertThat(new ArrayList<>(connection.subscribes.keySet()), is(Arrays.asList("b", "a")));
+        connection.subscribes.get("a").complete(true);
+        connection.subscribes.get("c").complete(true);
+        assertThat(router.getQueuedSubscribeCount(), is(0));
+        assertThat(router.getBrokerSubscriptionCount(), is(3));
+
+        // The late subscriber shares the subscription of the filter again
+        assertThat(connection.subscribers.get("a").size(), is(1));
+        connection.receive("a", "a", "1");
+        assertThat(received, is(Arrays.asList("first 1", "late 1")));
+    }
+
+    @Test
+    public void failedResubscribeIsRetried() {
+        List<String> received = new ArrayList<>();
+        MqttMessageSubscriber subscriber = (topic, payload) -> received.add(new String(payload));
+        CompletableFuture<Boolean> future = router.subscribe("a", subscriber);
+        connection.subscribes.get("a").complete(true);
+        assertThat(future.join(), is(true));
+
+        connection.connectionStateChanged(MqttConnectionState.DISCONNECTED);
+        connection.connectionStateChanged(MqttConnectionState.CONNECTED);
+        for (int i = 0; i < MqttTopicRouter.MAX_RESUBSCRIBE_RETRIES; i++) {
+            connection.subscribes.get("a").completeExceptionally(new IllegalStateException("not authorized"));
+        }
+        assertThat(connection.subscribeRequests, is(2 + MqttTopicRouter.MAX_RESUBSCRIBE_RETRIES));
+        connection.subscribes.get("a").complete(true);
+        assertThat(router.getFailedSubscribeCount(), is((long) MqttTopicRouter.MAX_RESUBSCRIBE_RETRIES));
+        assertThat(router.getBrokerSubscriptionCount(), is(1));
+
+        // The subscriber of the failed requests was removed from the connection, messages are received once
+        connection.receive("a", "a", "1");
+        assertThat(received, is(Arrays.asList("1")));
+    }
+
+    @Test
+    public void resubscribeIsRetriedOnlyLimitedTimes() {
+        MqttMessageSubscriber subscriber = (topic, payload) -> {
+        };
+        router.subscribe("a", subscriber);
+        connection.subscribes.get("a").complete(true);
+
+        connection.connectionStateChanged(MqttConnectionState.DISCONNECTED);
+        connection.connectionStateChanged(MqttConnectionState.CONNECTED);
+        for (int i = 0; i <= MqttTopicRouter.MAX_RESUBSCRIBE_RETRIES; i++) {
+            connection.subscribes.get("a").completeExceptionally(new IllegalStateException("not authorized"));
+        }
+        assertThat(connection.subscribeRequests, is(2 + MqttTopicRouter.MAX_RESUBSCRIBE_RETRIES));
+        assertThat(router.getQueuedSubscribeCount(), is(0));
+        assertThat(router.getInflightSubscribeCount(), is(0));
+        // The filter is kept, and subscribed again after the next reconnect
+        assertThat(router.getSubscribers("a"), is(Arrays.asList(subscriber)));
+        connection.connectionStateChanged(MqttConnectionState.DISCONNECTED);
+        connection.connectionStateChanged(MqttConnectionState.CONNECTED);
+        assertThat(connection.subscribeRequests, is(3 + MqttTopicRouter.MAX_RESUBSCRIBE_RETRIES));
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.subscription;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link TopicTrie}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicTrieTest {
+    private final TopicTrie<String> trie = new TopicTrie<>();
+
+    private Set<String> match(String topic) {
+        Set<String> matches = new TreeSet<>();
+        trie.match(topic, matches::add);
+        return matches;
+    }
+
+    @Before
+    public void setUp() {
+        for (String filter : new String[] { "a/b/c", "a/+/c", "a/#", "+/b/+", "#", "a/b", "$SYS/#" }) {
+            trie.put(filter, filter);
+        }
+    }
+
+    @Test
+    public void matchWildcards() {
+        assertThat(match("a/b/c"), is(new TreeSet<>(Arrays.asList("a/b/c", "a/+/c", "a/#", "+/b/+", "#"))));
+        assertThat(match("a/x/c"), is(new TreeSet<>(Arrays.asList("a/+/c", "a/#", "#"))));
+        assertThat(match("a/b"), is(new TreeSet<>(Arrays.asList("a/b", "a/#", "#"))));
+        // a/# also matches the parent level
+        assertThat(match("a"), is(new TreeSet<>(Arrays.asList("a/#", "#"))));
+        assertThat(match("x/b/y/z"), is(new TreeSet<>(Arrays.asList("#"))));
+    }
+
+    @Test
+    public void wildcardsDoNotMatchSystemTopics() {
+        assertThat(match("$SYS/broker/uptime"), is(new TreeSet<>(Arrays.asList("$SYS/#"))));
+    }
+
+    @Test
+    public void putGetRemove() {
+        assertThat(trie.size(), is(7));
+        assertThat(trie.get("a/+/c"), is("a/+/c"));
+        assertThat(trie.get("a/x/c"), is(nullValue()));
+        assertThat(trie.put("a/b", "other"), is("a/b"));
+        assertThat(trie.size(), is(7));
+
+        assertThat(trie.remove("a/b/c"), is("a/b/c"));
+        assertThat(trie.remove("a/b/c"), is(nullValue()));
+        assertThat(trie.size(), is(6));
+        assertThat(match("a/b/c"), is(new TreeSet<>(Arrays.asList("a/+/c", "a/#", "+/b/+", "#"))));
+        assertThat(trie.get("a/b"), is("other"));
+    }
+}
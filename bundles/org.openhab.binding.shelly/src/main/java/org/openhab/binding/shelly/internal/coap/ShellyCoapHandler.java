@@ -17,11 +17,12 @@ import static org.openhab.binding.shelly.internal.api.ShellyApiJsonDTO.*;
 import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.*;
 import static org.openhab.binding.shelly.internal.util.ShellyUtils.*;
 
+import java.io.IOException;
+import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.californium.core.CoapClient;
@@ -48,9 +49,7 @@ import org.openhab.binding.shelly.internal.api.ShellyDeviceProfile;
 import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrBlk;
 import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrSen;
 import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDevDescription;
-import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotGenericSensorList;
-import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensor;
-import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensorTypeAdapter;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapSensorTable.CoIotSensorEntry;
 import org.openhab.binding.shelly.internal.config.ShellyThingConfiguration;
 import org.openhab.binding.shelly.internal.handler.ShellyBaseHandler;
 import org.openhab.binding.shelly.internal.handler.ShellyColorUtils;
@@ -83,10 +82,14 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     private Request reqDescription = new Request(Code.GET, Type.CON);
     private Request reqStatus = new Request(Code.GET, Type.CON);
 
+    private String deviceId = "";
     private int lastSerial = -1;
     private String lastPayload = "";
     private Map<String, CoIotDescrBlk> blockMap = new LinkedHashMap<>();
     private LinkedHashMap<String, CoIotDescrSen> sensorMap = new LinkedHashMap<>();
+    private final ShellyCoapSensorTable sensorTable = new ShellyCoapSensorTable();
+    private boolean fullUpdate = true; // process all sensors and publish all channels with the next status update
+    private @Nullable ShellyDeviceProfile lastProfile;
 
     private static final byte[] EMPTY_BYTE = new byte[0];
 
@@ -94,8 +97,8 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         this.thingHandler = thingHandler;
         this.coapServer = coapServer;
         this.thingName = thingHandler.thingName;
+        sensorTable.setThingName(thingName);
 
-        gsonBuilder.registerTypeAdapter(CoIotGenericSensorList.class, new CoIotSensorTypeAdapter());
         gsonBuilder.setPrettyPrinting();
         gson = gsonBuilder.create();
     }
@@ -115,6 +118,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         try {
             this.thingName = thingName;
             this.config = config;
+            sensorTable.setThingName(thingName);
 
             reqDescription = sendRequest(reqDescription, config.deviceIp, COLOIT_URI_DEVDESC, Type.CON);
 
@@ -122,7 +126,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                 logger.debug("{}: Starting CoAP Listener", thingName);
                 reqDescription = sendRequest(reqDescription, config.deviceIp, COLOIT_URI_DEVDESC, Type.CON);
 
-                coapServer.start(config.localIp, this);
+                coapServer.start(config.localIp, InetAddress.getByName(config.deviceIp), this);
                 statusClient = new CoapClient(completeUrl(config.deviceIp, COLOIT_URI_DEVSTATUS))
                         .setTimeout((long) SHELLY_API_TIMEOUT_MS).useNONs().setEndpoint(coapServer.getEndpoint());
             }
@@ -145,10 +149,6 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     @Override
     public void processResponse(@Nullable Response response) {
         if (response == null) {
-            return; // other device instance
-        }
-        String ip = response.getSourceContext().getPeerAddress().toString();
-        if (!ip.contains(config.deviceIp)) {
             return;
         }
 
@@ -208,6 +208,11 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                     }
                     i++;
                 }
+                if (!devId.isEmpty() && !devId.equals(deviceId)) {
+                    // allows the server to dispatch packets by device id if the device IP changes
+                    deviceId = devId;
+                    coapServer.setDeviceId(devId, this);
+                }
 
                 // If we received a CoAP message successful the thing must be online
                 thingHandler.setThingOnline();
@@ -279,6 +284,9 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             }
         }
 
+        // Compile the sensor definitions, status updates are decoded using the sensor table
+        sensorTable.compile(sensorMap, blockMap);
+
         // Save to thing properties
         thingHandler.updateProperties(PROPERTY_COAP_DESCR, payload);
     }
@@ -332,59 +340,47 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             logger.debug("{}: Device description for {} restored: {}", thingName, devId, savedDescr);
         }
 
-        // Parse Json,
-        CoIotGenericSensorList list = gson.fromJson(payload, CoIotGenericSensorList.class);
-        if (list.generic == null) {
+        // Decode Json, only the sensors changed since the last update are returned
+        boolean all = fullUpdate || (thingHandler.getProfile() != lastProfile);
+        List<CoIotSensorEntry> sensorUpdates;
+        try {
+            sensorUpdates = sensorTable.update(payload, all);
+        } catch (IOException e) {
+            logger.debug("{}: Sensor list has invalid format! Payload: {}", devId, payload, e);
+            return;
+        }
+        if (sensorUpdates == null) {
             logger.debug("{}: Sensor list has invalid format! Payload: {}", devId, payload);
             return;
         }
-        List<CoIotSensor> sensorUpdates = list.generic;
 
         ShellyDeviceProfile profile = thingHandler.getProfile();
-        Map<String, State> updates = new TreeMap<String, State>();
-        logger.debug("{}: {} CoAP sensor updates received", thingName, sensorUpdates.size());
+        Map<String, State> updates = new LinkedHashMap<>();
+        logger.debug("{}: {} CoAP sensor updates received", thingName, sensorUpdates.size());
         thingHandler.restartWatchdog(); // every CoAP message restarts the watchdog
-        for (int i = 0; i < sensorUpdates.size(); i++) {
+        for (CoIotSensorEntry entry : sensorUpdates) {
             try {
-                CoIotSensor s = sensorUpdates.get(i);
-                if (!sensorMap.containsKey(s.id)) {
-                    logger.debug("{}: Invalid index in sensor description: {}", thingName, i);
-                    continue;
-                }
-                CoIotDescrSen sen = sensorMap.get(s.id);
-                // find matching sensor definition from device description, use the Link ID as index
-                sen = fixDescription(sen);
-                if (!blockMap.containsKey(sen.links)) {
-                    logger.debug("{}: Invalid CoAP description: sen.links({}", thingName, getString(sen.links));
-                    continue;
-                }
-
-                if (!blockMap.containsKey(sen.links)) {
-                    logger.debug("{}: Unable to find BLK for link {} from sen.id={}", thingName, sen.links, sen.id);
-                    continue;
-                }
-                CoIotDescrBlk element = blockMap.get(sen.links);
-                logger.trace("{}:  Sensor value[{}]: id={}, Value={} ({}, Type={}, Range={}, Link={}: {})", thingName,
-                        i, s.id, s.value, sen.desc, sen.type, sen.range, sen.links, element.desc);
+                CoIotDescrSen sen = entry.sen;
+                logger.trace("{}:  Sensor value: id={}, Value={} ({}, Type={}, Range={}, Link={}: {})", thingName,
+                        sen.id, entry.value, sen.desc, sen.type, sen.range, sen.links, entry.blk.desc);
 
                 // Process status information and convert into channel updates
-                Integer rIndex = Integer.parseInt(sen.links) + 1;
                 String rGroup = profile.numRelays <= 1 ? CHANNEL_GROUP_RELAY_CONTROL
-                        : CHANNEL_GROUP_RELAY_CONTROL + rIndex;
+                        : CHANNEL_GROUP_RELAY_CONTROL + entry.rIndex;
 
-                switch (sen.type.toLowerCase()) {
+                switch (entry.type) {
                     case "b" /* BatteryLevel */:
                         updateChannel(updates, CHANNEL_GROUP_BATTERY, CHANNEL_SENSOR_BAT_LEVEL,
-                                toQuantityType(s.value, DIGITS_PERCENT, SmartHomeUnits.PERCENT));
+                                toQuantityType(entry.value, DIGITS_PERCENT, SmartHomeUnits.PERCENT));
                         break;
                     case "t" /* Temperature */:
-                        Double value = getDouble(s.value);
-                        switch (sen.desc.toLowerCase()) {
+                        Double value = getDouble(entry.value);
+                        switch (entry.desc) {
                             case "temperature": // Sensor Temp
                                 if (getString(profile.settings.temperatureUnits)
                                         .equalsIgnoreCase(SHELLY_TEMP_FAHRENHEIT)) {
                                     value = ImperialUnits.FAHRENHEIT.getConverterTo(Units.CELSIUS)
-                                            .convert(getDouble(s.value)).doubleValue();
+                                            .convert(getDouble(entry.value)).doubleValue();
                                 }
                                 updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_TEMP,
                                         toQuantityType(value, DIGITS_TEMP, SIUnits.CELSIUS));
@@ -401,7 +397,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                                 break;
                             case "external temperature c": // Shelly 1/1PM external temp sensors
                             case "external_temperature":
-                                int idx = getExtTempId(sen.id);
+                                int idx = entry.extTempId;
                                 if (idx > 0) {
                                     updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_TEMP + idx,
                                             toQuantityType(value, DIGITS_TEMP, SIUnits.CELSIUS));
@@ -416,136 +412,144 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                         break;
                     case "h" /* Humidity */:
                         updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_HUM,
-                                toQuantityType(s.value, DIGITS_PERCENT, SmartHomeUnits.PERCENT));
+                                toQuantityType(entry.value, DIGITS_PERCENT, SmartHomeUnits.PERCENT));
                         break;
                     case "m" /* Motion */:
                         updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_MOTION,
-                                s.value == 1 ? OnOffType.ON : OnOffType.OFF);
+                                entry.value == 1 ? OnOffType.ON : OnOffType.OFF);
                         break;
                     case "l" /* Luminosity */:
                         updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_LUX,
-                                toQuantityType(s.value, DIGITS_LUX, SmartHomeUnits.LUX));
+                                toQuantityType(entry.value, DIGITS_LUX, SmartHomeUnits.LUX));
                         break;
                     case "p" /* Power/Watt */:
-                        String mGroup = profile.numMeters == 1 ? CHANNEL_GROUP_METER : CHANNEL_GROUP_METER + rIndex;
-                        updateChannel(updates, mGroup, CHANNEL_METER_CURRENTWATTS,
-                                toQuantityType(s.value, DIGITS_WATT, SmartHomeUnits.WATT));
-                        updateChannel(updates, mGroup, CHANNEL_LAST_UPDATE, getTimestamp());
+                        updateChannel(updates, getMeterGroup(profile, entry), CHANNEL_METER_CURRENTWATTS,
+                                toQuantityType(entry.value, DIGITS_WATT, SmartHomeUnits.WATT));
                         break;
                     case "s" /* CatchAll */:
-                        String senValue = sen.desc.toLowerCase();
-                        switch (senValue) {
+                        switch (entry.desc) {
                             case "state":
                             case "output":
-                                updatePower(profile, updates, rIndex, sen, s, sensorUpdates);
+                                updatePower(profile, updates, entry);
                                 break;
                             case "brightness":
-                                // already handled by state/output
+                                // handled together with state/output
+                                if (profile.isLight || profile.isDimmer) {
+                                    updatePower(profile, updates, entry);
+                                }
                                 break;
                             case "overtemp":
-                                if (s.value == 1) {
+                                if (entry.value == 1) {
                                     thingHandler.postEvent(ALARM_TYPE_OVERTEMP, true);
                                 }
                                 break;
                             case "energy counter 0 [w-min]":
                                 updateChannel(updates, rGroup, CHANNEL_METER_LASTMIN1,
-                                        toQuantityType(s.value, DIGITS_WATT, SmartHomeUnits.WATT));
+                                        toQuantityType(entry.value, DIGITS_WATT, SmartHomeUnits.WATT));
                                 break;
                             case "energy counter 1 [w-min]":
                                 updateChannel(updates, rGroup, CHANNEL_METER_LASTMIN2,
-                                        toQuantityType(s.value, DIGITS_WATT, SmartHomeUnits.WATT));
+                                        toQuantityType(entry.value, DIGITS_WATT, SmartHomeUnits.WATT));
                                 break;
                             case "energy counter 2 [w-min]":
                                 updateChannel(updates, rGroup, CHANNEL_METER_LASTMIN3,
-                                        toQuantityType(s.value, DIGITS_WATT, SmartHomeUnits.WATT));
+                                        toQuantityType(entry.value, DIGITS_WATT, SmartHomeUnits.WATT));
                                 break;
                             case "energy counter total [w-h]": // EM3 reports W/h
                             case "energy counter total [w-min]":
-                                Double total = profile.isEMeter ? s.value / 1000 : s.value / 60 / 1000;
+                                Double total = profile.isEMeter ? entry.value / 1000 : entry.value / 60 / 1000;
                                 updateChannel(updates, rGroup, CHANNEL_METER_TOTALKWH,
                                         toQuantityType(total, DIGITS_KWH, SmartHomeUnits.KILOWATT_HOUR));
                                 break;
                             case "voltage":
                                 updateChannel(updates, rGroup, CHANNEL_EMETER_VOLTAGE,
-                                        toQuantityType(getDouble(s.value), DIGITS_VOLT, SmartHomeUnits.VOLT));
+                                        toQuantityType(getDouble(entry.value), DIGITS_VOLT, SmartHomeUnits.VOLT));
                                 break;
                             case "current":
                                 updateChannel(updates, rGroup, CHANNEL_EMETER_CURRENT,
-                                        toQuantityType(getDouble(s.value), DIGITS_VOLT, SmartHomeUnits.AMPERE));
+                                        toQuantityType(getDouble(entry.value), DIGITS_VOLT, SmartHomeUnits.AMPERE));
                                 break;
                             case "pf":
-                                updateChannel(updates, rGroup, CHANNEL_EMETER_PFACTOR, getDecimal(s.value));
+                                updateChannel(updates, rGroup, CHANNEL_EMETER_PFACTOR, getDecimal(entry.value));
                                 break;
                             case "position":
                                 // work around: Roller reports 101% instead max 100
-                                double pos = Math.max(SHELLY_MIN_ROLLER_POS, Math.min(s.value, SHELLY_MAX_ROLLER_POS));
+                                double pos = Math.max(SHELLY_MIN_ROLLER_POS,
+                                        Math.min(entry.value, SHELLY_MAX_ROLLER_POS));
                                 updateChannel(updates, CHANNEL_GROUP_ROL_CONTROL, CHANNEL_ROL_CONTROL_CONTROL,
                                         toQuantityType(SHELLY_MAX_ROLLER_POS - pos, SmartHomeUnits.PERCENT));
                                 updateChannel(updates, CHANNEL_GROUP_ROL_CONTROL, CHANNEL_ROL_CONTROL_POS,
                                         toQuantityType(pos, SmartHomeUnits.PERCENT));
                                 break;
                             case "input":
-                                handleInput(sen, s, rGroup, updates);
+                                handleInput(entry, rGroup, updates);
                                 break;
                             case "flood":
                                 updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_FLOOD,
-                                        s.value == 1 ? OnOffType.ON : OnOffType.OFF);
+                                        entry.value == 1 ? OnOffType.ON : OnOffType.OFF);
                                 break;
                             case "tilt": // DW with FW1.6.5+
                                 updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_TILT,
-                                        toQuantityType(s.value, DIGITS_NONE, SmartHomeUnits.DEGREE_ANGLE));
+                                        toQuantityType(entry.value, DIGITS_NONE, SmartHomeUnits.DEGREE_ANGLE));
                                 break;
                             case "vibration": // DW with FW1.6.5+
                                 updateChannel(updates, CHANNEL_GROUP_SENSOR, CHANNEL_SENSOR_VIBRATION,
-                                        s.value == 1 ? OnOffType.ON : OnOffType.OFF);
+                                        entry.value == 1 ? OnOffType.ON : OnOffType.OFF);
                                 break;
                             case "charger": // Sense
                                 updateChannel(updates, CHANNEL_GROUP_DEV_STATUS, CHANNEL_DEVST_CHARGER,
-                                        s.value == 1 ? OnOffType.ON : OnOffType.OFF);
+                                        entry.value == 1 ? OnOffType.ON : OnOffType.OFF);
                                 break;
                             // RGBW2/Bulb
                             case "red":
                                 updateChannel(updates, CHANNEL_GROUP_COLOR_CONTROL, CHANNEL_COLOR_RED,
-                                        ShellyColorUtils.toPercent((int) s.value));
+                                        ShellyColorUtils.toPercent((int) entry.value));
                                 break;
                             case "green":
                                 updateChannel(updates, CHANNEL_GROUP_COLOR_CONTROL, CHANNEL_COLOR_GREEN,
-                                        ShellyColorUtils.toPercent((int) s.value));
+                                        ShellyColorUtils.toPercent((int) entry.value));
                                 break;
                             case "blue":
                                 updateChannel(updates, CHANNEL_GROUP_COLOR_CONTROL, CHANNEL_COLOR_BLUE,
-                                        ShellyColorUtils.toPercent((int) s.value));
+                                        ShellyColorUtils.toPercent((int) entry.value));
                                 break;
                             case "white":
                                 updateChannel(updates, CHANNEL_GROUP_COLOR_CONTROL, CHANNEL_COLOR_WHITE,
-                                        ShellyColorUtils.toPercent((int) s.value));
+                                        ShellyColorUtils.toPercent((int) entry.value));
                                 break;
                             case "gain":
-                                updateChannel(updates, CHANNEL_GROUP_COLOR_CONTROL, CHANNEL_COLOR_GAIN,
-                                        ShellyColorUtils.toPercent((int) s.value, SHELLY_MIN_GAIN, SHELLY_MAX_GAIN));
+                                updateChannel(updates, CHANNEL_GROUP_COLOR_CONTROL, CHANNEL_COLOR_GAIN, ShellyColorUtils
+                                        .toPercent((int) entry.value, SHELLY_MIN_GAIN, SHELLY_MAX_GAIN));
                                 break;
                             case "temp": // Shelly Bulb
                             case "colortemperature": // Shelly Duo
                                 updateChannel(updates,
                                         profile.inColor ? CHANNEL_GROUP_COLOR_CONTROL : CHANNEL_GROUP_WHITE_CONTROL,
-                                        CHANNEL_COLOR_TEMP,
-                                        ShellyColorUtils.toPercent((int) s.value, profile.minTemp, profile.maxTemp));
+                                        CHANNEL_COLOR_TEMP, ShellyColorUtils.toPercent((int) entry.value,
+                                                profile.minTemp, profile.maxTemp));
                                 break;
                             default:
                                 logger.debug(
                                         "{}: Update for unknown sensor with id {}, type {}/{} received, value={}, payload={}",
-                                        thingName, sen.id, sen.type, sen.desc, s.value, payload);
+                                        thingName, sen.id, sen.type, sen.desc, entry.value, payload);
                         }
                         break;
                     default:
                         logger.debug("{}: Sensor data for id {}, type {}/{} not processed, value={}; payload={}",
-                                thingName, sen.id, sen.type, sen.desc, s.value, payload);
+                                thingName, sen.id, sen.type, sen.desc, entry.value, payload);
                 }
             } catch (IllegalArgumentException | NullPointerException | ArrayIndexOutOfBoundsException e) {
                 // even the processing of one value failed we continue with the next one (sometimes this is caused by
                 // buggy formats provided by the device
-                logger.debug("{}: Unable to process data from sensor[{}], devId={}, payload={}", thingName, i, devId,
-                        payload, e);
+                logger.debug("{}: Unable to process data from sensor {}, devId={}, payload={}", thingName,
+                        entry.sen.id, devId, payload, e);
+            }
+        }
+
+        // Only changed sensors are decoded, but every status report refreshes the meters
+        for (CoIotSensorEntry entry : sensorTable.getEntries()) {
+            if ("p".equals(entry.type) && !Double.isNaN(entry.value)) {
+                updateChannel(updates, getMeterGroup(profile, entry), CHANNEL_LAST_UPDATE, getTimestamp());
             }
         }
 
@@ -561,7 +565,9 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             if (updated > 0) {
                 logger.debug("{}: {} channels updated from CoIoT status", thingName, updated);
             }
+        }
 
+        if (!sensorTable.isEmpty()) {
             // Old firmware release are lacking various status values, which are not updated using CoIoT.
             // In this case we keep a refresh so it gets polled using REST. Beginning with Firmware 1.6 most
             // of the values are available
@@ -572,14 +578,20 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             }
         }
 
+        fullUpdate = false;
+        lastProfile = profile;
         // Remember serial, new packets with same serial will be ignored
         lastSerial = serial;
         lastPayload = payload;
     }
 
-    private void handleInput(CoIotDescrSen sen, CoIotSensor s, String rGroup, Map<String, State> updates) {
+    private static String getMeterGroup(ShellyDeviceProfile profile, CoIotSensorEntry entry) {
+        return profile.numMeters == 1 ? CHANNEL_GROUP_METER : CHANNEL_GROUP_METER + entry.rIndex;
+    }
+
+    private void handleInput(CoIotSensorEntry s, String rGroup, Map<String, State> updates) {
         final ShellyDeviceProfile profile = thingHandler.getProfile();
-        int idx = getSensorNumber("Input", sen.id);
+        int idx = s.inputNumber;
         if (idx <= 0) {
             return;
         }
@@ -633,13 +645,10 @@ public class ShellyCoapHandler implements ShellyCoapListener {
      *
      * @param profile Device profile, required to select the channel group and name
      * @param updates List of updates. updatePower will add brightness$Switch and brightness&Value if changed
-     * @param id Sensor id from the update
-     * @param sen Sensor description from the update
-     * @param s New sensor value
-     * @param allUpdatesList of updates. This is required, because we need to update both values at the same time
+     * @param s Sensor entry with the new value
      */
-    private void updatePower(ShellyDeviceProfile profile, Map<String, State> updates, Integer id, CoIotDescrSen sen,
-            CoIotSensor s, List<CoIotSensor> allUpdates) {
+    private void updatePower(ShellyDeviceProfile profile, Map<String, State> updates, CoIotSensorEntry s) {
+        int id = s.rIndex;
         String group = "";
         String channel = CHANNEL_BRIGHTNESS;
         String checkL = ""; // RGBW-white uses 4 different Power, Brightness, VSwitch values
@@ -653,24 +662,23 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                 group = CHANNEL_GROUP_RELAY_CONTROL;
             } else if (profile.isRGBW2) {
                 group = CHANNEL_GROUP_LIGHT_CHANNEL + id;
-                checkL = String.valueOf(id.intValue() - 1); // id is 1-based, L is 0-based
+                checkL = String.valueOf(id - 1); // id is 1-based, L is 0-based
                 logger.trace("{}: updatePower() for L={}", thingName, checkL);
             }
 
             // We need to update brigthtess and on/off state at the same time to avoid "flipping brightness slider" in
-            // the UI
+            // the UI. The sensor table has the last value of both sensors.
             Double brightness = -1.0;
             Double power = -1.0;
-            for (CoIotSensor update : allUpdates) {
-                CoIotDescrSen d = fixDescription(sensorMap.get(update.id));
-                if (!checkL.isEmpty() && !d.links.equals(checkL)) {
+            for (CoIotSensorEntry entry : sensorTable.getEntries()) {
+                if (Double.isNaN(entry.value) || (!checkL.isEmpty() && !entry.sen.links.equals(checkL))) {
                     // continue until we find the correct one
                     continue;
                 }
-                if (d.desc.equalsIgnoreCase("brightness")) {
-                    brightness = new Double(update.value);
-                } else if (d.desc.equalsIgnoreCase("output") || d.desc.equalsIgnoreCase("state")) {
-                    power = new Double(update.value);
+                if (entry.desc.equals("brightness")) {
+                    brightness = entry.value;
+                } else if (entry.desc.equals("output") || entry.desc.equals("state")) {
+                    power = entry.value;
                 }
             }
             if (power != -1) {
@@ -906,55 +914,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     private void resetSerial() {
         lastSerial = -1;
         lastPayload = "";
-    }
-
-    /**
-     * Find index of Input id, which is required to map to channel name
-     *
-     * @parm sensorDesc D field from sensor update
-     * @param sensorId The id from the sensor update
-     * @return Index of found entry (+1 will be the suffix for the channel name) or null if sensorId is not found
-     */
-    private int getSensorNumber(String sensorDesc, String sensorId) {
-        int idx = 0;
-        for (Map.Entry<String, CoIotDescrSen> se : sensorMap.entrySet()) {
-            CoIotDescrSen sen = se.getValue();
-            if (sen.desc.equalsIgnoreCase(sensorDesc)) {
-                idx++; // iterate from input1..2..n
-            }
-            if (sen.id.equalsIgnoreCase(sensorId) && blockMap.containsKey(sen.links)) {
-                CoIotDescrBlk blk = blockMap.get(sen.links);
-                if (StringUtils.substring(blk.desc, 5).equalsIgnoreCase("Relay")) {
-                    idx = Integer.parseInt(StringUtils.substringAfter(blk.desc, "Relay"));
-                }
-                return idx;
-            }
-        }
-        logger.debug("{}: sensorId {} not found in sensorMap!", thingName, sensorId);
-        return -1;
-    }
-
-    /**
-     *
-     * Get matching sensorId for updates on "External Temperature" - there might be more than 1 sensor.
-     *
-     * @param sensorId sensorId to map into a channel index
-     * @return Index of the corresponding channel (e.g. 0 build temperature1, 1->temperagture2...)
-     */
-    private int getExtTempId(String sensorId) {
-        int idx = 0;
-        for (Map.Entry<String, CoIotDescrSen> se : sensorMap.entrySet()) {
-            CoIotDescrSen sen = se.getValue();
-            if (sen.desc.equalsIgnoreCase("external_temperature")
-                    || sen.desc.equalsIgnoreCase("external temperature c")) {
-                idx++; // iterate from temperature1..2..n
-            }
-            if (sen.id.equalsIgnoreCase(sensorId)) {
-                return idx;
-            }
-        }
-        logger.debug("{}: sensorId {} not found in sensorMap!", thingName, sensorId);
-        return -1;
+        fullUpdate = true;
     }
 
     /**
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_TAG_GENERIC;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrBlk;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrSen;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link ShellyCoapSensorTable} is the compiled form of the CoIoT device description. Each sensor gets an entry
+ * with the fixed description, the linked block and the derived channel indexes. The entries are sorted by sensor id,
+ * so a status update is decoded without any lookup by string. The table also keeps the last value of each sensor to
+ * find the sensors, which have changed since the last status update.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ShellyCoapSensorTable {
+    private final Logger logger = LoggerFactory.getLogger(ShellyCoapSensorTable.class);
+
+    /**
+     * A compiled sensor definition and its last value.
+     */
+    public static class CoIotSensorEntry {
+        public final CoIotDescrSen sen;
+        public final CoIotDescrBlk blk;
+        public final String type; // sensor type in lower case
+        public final String desc; // sensor description in lower case
+        public final int rIndex; // index of the relay/meter, link + 1
+        public final int inputNumber; // index of the input channel
+        public final int extTempId; // index of the external temperature channel
+        public final boolean event; // value triggers an event, process every update
+
+        public double value = Double.NaN;
+
+        private CoIotSensorEntry(CoIotDescrSen sen, CoIotDescrBlk blk, int inputNumber, int extTempId) {
+            this.sen = sen;
+            this.blk = blk;
+            this.type = sen.type.toLowerCase();
+            this.desc = sen.desc.toLowerCase();
+            this.rIndex = Integer.parseInt(sen.links) + 1;
+            this.inputNumber = inputNumber;
+            this.extTempId = extTempId;
+            this.event = desc.equals("input") || desc.equals("overtemp");
+        }
+    }
+
+    private String thingName = "";
+    private int[] ids = new int[0];
+    private CoIotSensorEntry[] entries = new CoIotSensorEntry[0];
+
+    public void setThingName(String thingName) {
+        this.thingName = thingName;
+    }
+
+    /**
+     * Compile the (fixed) sensor definitions. All values are reset, so the next status update is processed as a
+     * whole.
+     *
+     * @param sensorMap Sensor definitions from the device description in the order they were received
+     * @param blockMap Block definitions from the device description
+     */
+    public synchronized void compile(Map<String, CoIotDescrSen> sensorMap, Map<String, CoIotDescrBlk> blockMap) {
+        List<CoIotSensorEntry> list = new ArrayList<>();
+        for (CoIotDescrSen sen : sensorMap.values()) {
+            try {
+                Integer.parseInt(sen.id);
+                CoIotDescrBlk blk = blockMap.get(sen.links);
+                if (blk == null) {
+                    logger.debug("{}: Invalid CoAP description: sen.links({}) for sen.id={}", thingName, sen.links,
+                            sen.id);
+                    continue;
+                }
+                list.add(new CoIotSensorEntry(sen, blk, getSensorNumber(sensorMap, blockMap, "Input", sen.id),
+                        getExtTempId(sensorMap, sen.id)));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                logger.debug("{}: Unable to compile sensor definition for id {} -> skip", thingName, sen.id, e);
+            }
+        }
+
+        list.sort((a, b) -> Integer.compare(Integer.parseInt(a.sen.id), Integer.parseInt(b.sen.id)));
+        ids = new int[list.size()];
+        entries = list.toArray(new CoIotSensorEntry[list.size()]);
+        for (int i = 0; i < entries.length; i++) {
+            ids[i] = Integer.parseInt(entries[i].sen.id);
+        }
+        logger.debug("{}: {} sensor definitions compiled", thingName, entries.length);
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    /**
+     * Forget the last values, the next status update will return all sensors.
+     */
+    public synchronized void reset() {
+        for (CoIotSensorEntry entry : entries) {
+            entry.value = Double.NaN;
+        }
+    }
+
+    /**
+     * @return all sensor entries ordered by sensor id
+     */
+    public synchronized List<CoIotSensorEntry> getEntries() {
+        return Arrays.asList(entries);
+    }
+
+    /**
+     * Decode a status update and store the new values.
+     *
+     * @param payload CoAP payload (Json format), example: {"G":[[0,112,0]]}
+     * @param all true: return all sensors included in the update, false: return only changed sensors and sensors
+     *            triggering events
+     * @return Sensors to be processed in the order of the payload or null if the payload has no sensor list
+     * @throws IOException The payload is not a valid status update, the next update will return all sensors
+     */
+    public synchronized @Nullable List<CoIotSensorEntry> update(String payload, boolean all) throws IOException {
+        List<CoIotSensorEntry> changed = null;
+        try (JsonReader in = new JsonReader(new StringReader(payload))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals(COIOT_TAG_GENERIC)) {
+                    in.skipValue();
+                    continue;
+                }
+                changed = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    in.beginArray();
+                    in.nextInt(); // always 0
+                    int id = in.nextInt();
+                    double value = in.nextDouble();
+                    while (in.hasNext()) {
+                        in.skipValue();
+                    }
+                    in.endArray();
+
+                    int i = Arrays.binarySearch(ids, id);
+                    if (i < 0) {
+                        logger.debug("{}: Invalid index in sensor description: {}", thingName, id);
+                        continue;
+                    }
+                    CoIotSensorEntry entry = entries[i];
+                    if (all || entry.event || Double.compare(entry.value, value) != 0) {
+                        entry.value = value;
+                        changed.add(entry);
+                    }
+                }
+                in.endArray();
+            }
+            in.endObject();
+        } catch (IOException e) {
+            reset(); // values may be partially updated
+            throw e;
+        } catch (IllegalStateException | NumberFormatException e) {
+            reset();
+            throw new IOException(e.getMessage(), e);
+        }
+        return changed;
+    }
+
+    /**
+     * Find index of Input id, which is required to map to channel name
+     *
+     * @parm sensorDesc D field from sensor update
+     * @param sensorId The id from the sensor update
+     * @return Index of found entry (+1 will be the suffix for the channel name) or null if sensorId is not found
+     */
+    private static int getSensorNumber(Map<String, CoIotDescrSen> sensorMap, Map<String, CoIotDescrBlk> blockMap,
+            String sensorDesc, String sensorId) {
+        int idx = 0;
+        for (CoIotDescrSen sen : sensorMap.values()) {
+            if (sen.desc.equalsIgnoreCase(sensorDesc)) {
+                idx++; // iterate from input1..2..n
+            }
+            if (sen.id.equalsIgnoreCase(sensorId) && blockMap.containsKey(sen.links)) {
+                CoIotDescrBlk blk = blockMap.get(sen.links);
+                if (StringUtils.substring(blk.desc, 5).equalsIgnoreCase("Relay")) {
+                    idx = Integer.parseInt(StringUtils.substringAfter(blk.desc, "Relay"));
+                }
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     *
+     * Get matching sensorId for updates on "External Temperature" - there might be more than 1 sensor.
+     *
+     * @param sensorId sensorId to map into a channel index
+     * @return Index of the corresponding channel (e.g. 0 build temperature1, 1->temperagture2...)
+     */
+    private static int getExtTempId(Map<String, CoIotDescrSen> sensorMap, String sensorId) {
+        int idx = 0;
+        for (CoIotDescrSen sen : sensorMap.values()) {
+            if (sen.desc.equalsIgnoreCase("external_temperature")
+                    || sen.desc.equalsIgnoreCase("external temperature c")) {
+                idx++; // iterate from temperature1..2..n
+            }
+            if (sen.id.equalsIgnoreCase(sensorId)) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+}
@@ -12,18 +12,21 @@
  */
 package org.openhab.binding.shelly.internal.coap;
 
-import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_PORT;
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.*;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.californium.core.CoapResource;
 import org.eclipse.californium.core.CoapServer;
 import org.eclipse.californium.core.coap.CoAP;
 import org.eclipse.californium.core.coap.CoAP.Code;
 import org.eclipse.californium.core.coap.CoAP.ResponseCode;
+import org.eclipse.californium.core.coap.Option;
 import org.eclipse.californium.core.coap.Request;
 import org.eclipse.californium.core.coap.Response;
 import org.eclipse.californium.core.network.CoapEndpoint;
@@ -39,6 +42,10 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link ShellyCoapServer} implements the UDP listener and status event processor (for /cit/s messages)
  *
+ * Every device registers its IP address when it starts, so each CoIoT packet is dispatched to the handler of the
+ * sending device only. Packets from an unknown address (e.g. the device got a new IP) are dispatched by the global
+ * device id, once the handler has seen the device id.
+ *
  * @author Markus Michels - Initial contribution
  */
 @NonNullByDefault
@@ -50,6 +57,8 @@ public class ShellyCoapServer {
     private @Nullable UdpMulticastConnector statusConnector;
     private final CoapServer server = new CoapServer(NetworkConfig.getStandard(), COIOT_PORT);;
     private final Set<ShellyCoapListener> coapListeners = new ConcurrentHashSet<>();
+    private final Map<InetAddress, ShellyCoapListener> listenersByAddress = new ConcurrentHashMap<>();
+    private final Map<String, ShellyCoapListener> listenersByDeviceId = new ConcurrentHashMap<>();
 
     protected class ShellyStatusListener extends CoapResource {
 
@@ -77,7 +86,16 @@ public class ShellyCoapServer {
         }
     }
 
-    public synchronized void start(String localIp, ShellyCoapListener listener) throws UnknownHostException {
+    /**
+     * Start the CoIoT listener (if not yet started) and register the listener for the packets of a device
+     *
+     * @param localIp local IP address to join the multicast group
+     * @param deviceAddress address of the device, packets from this address are dispatched to the listener
+     * @param listener listener of the device
+     * @throws UnknownHostException
+     */
+    public synchronized void start(String localIp, InetAddress deviceAddress, ShellyCoapListener listener)
+            throws UnknownHostException {
         if (!started) {
             logger.debug("Initializing CoIoT listener (local IP={}:{})", localIp, COIOT_PORT);
             NetworkConfig nc = NetworkConfig.getStandard();
@@ -95,13 +113,62 @@ public class ShellyCoapServer {
             started = true;
         }
 
+        addListener(deviceAddress, listener);
+    }
+
+    // package visibility for testing
+    void addListener(InetAddress deviceAddress, ShellyCoapListener listener) {
         if (!coapListeners.contains(listener)) {
             coapListeners.add(listener);
         }
+        listenersByAddress.values().removeIf(l -> l == listener);
+        listenersByAddress.put(deviceAddress, listener);
+    }
+
+    /**
+     * Register the global device id (CoIoT option 3332) of a device, used to dispatch packets from an unknown
+     * address.
+     *
+     * @param deviceId global device id
+     * @param listener listener of the device
+     */
+    public void setDeviceId(String deviceId, ShellyCoapListener listener) {
+        if (coapListeners.contains(listener)) {
+            listenersByDeviceId.put(deviceId, listener);
+        }
     }
 
     protected void processResponse(Response response) {
-        coapListeners.forEach(listener -> listener.processResponse(response));
+        ShellyCoapListener listener = getListener(response);
+        if (listener != null) {
+            listener.processResponse(response);
+        }
+    }
+
+    /**
+     * Find the listener of the device, which sent the packet
+     *
+     * @param response CoIoT packet
+     * @return listener or null if the device is unknown
+     */
+    protected @Nullable ShellyCoapListener getListener(Response response) {
+        InetSocketAddress peer = response.getSourceContext().getPeerAddress();
+        ShellyCoapListener listener = listenersByAddress.get(peer.getAddress());
+        if (listener == null && !listenersByDeviceId.isEmpty()) {
+            for (Option opt : response.getOptions().getOthers()) {
+                if (opt.getNumber() == COIOT_OPTION_GLOBAL_DEVID) {
+                    listener = listenersByDeviceId.get(opt.getStringValue());
+                    break;
+                }
+            }
+            if (listener != null) {
+                logger.debug("CoIoT packet from {} dispatched by device id", peer);
+            }
+        }
+        if (listener == null) {
+            logger.trace("CoIoT packet from unknown device {} discarded", peer);
+        }
+        return listener;
     }
 
     public static Response createResponse(Request request) {
@@ -124,6 +191,8 @@ public class ShellyCoapServer {
      */
     public void stop(ShellyCoapListener listener) {
         coapListeners.remove(listener);
+        listenersByAddress.values().removeIf(l -> l == listener);
+        listenersByDeviceId.values().removeIf(l -> l == listener);
         if (coapListeners.isEmpty()) {
             stop();
         }
@@ -135,6 +204,8 @@ public class ShellyCoapServer {
             server.stop();
             statusEndpoint.stop();
             coapListeners.clear();
+            listenersByAddress.clear();
+            listenersByDeviceId.clear();
             started = false;
             logger.debug("CoAP Listener stopped");
         }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrBlk;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrSen;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapSensorTable.CoIotSensorEntry;
+
+/**
+ * Tests cases for {@link ShellyCoapSensorTable}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ShellyCoapSensorTableTest {
+
+    private final ShellyCoapSensorTable table = new ShellyCoapSensorTable();
+
+    private static void addBlock(Map<String, CoIotDescrBlk> blocks, String id, String desc) {
+        CoIotDescrBlk blk = new CoIotDescrBlk();
+        blk.id = id;
+        blk.desc = desc;
+        blocks.put(id, blk);
+    }
+
+    private static void addSensor(Map<String, CoIotDescrSen> sensors, String id, String type, String desc,
+            String links) {
+        CoIotDescrSen sen = new CoIotDescrSen();
+        sen.id = id;
+        sen.type = type;
+        sen.desc = desc;
+        sen.links = links;
+        sensors.put(id, sen);
+    }
+
+    @Before
+    public void setup() {
+        Map<String, CoIotDescrBlk> blocks = new LinkedHashMap<>();
+        addBlock(blocks, "0", "Relay0");
+        addBlock(blocks, "1", "Relay1");
+        Map<String, CoIotDescrSen> sensors = new LinkedHashMap<>();
+        addSensor(sensors, "118", "S", "Input", "0");
+        addSensor(sensors, "119", "S", "Input", "1");
+        addSensor(sensors, "120", "T", "External_temperature", "0");
+        addSensor(sensors, "121", "T", "External_temperature", "1");
+        addSensor(sensors, "112", "S", "Output", "0");
+        addSensor(sensors, "130", "S", "Output", "5"); // unknown block
+        table.compile(sensors, blocks);
+    }
+
+    private static List<String> ids(List<CoIotSensorEntry> entries) {
+        return entries.stream().map(entry -> entry.sen.id).collect(Collectors.toList());
+    }
+
+    private CoIotSensorEntry entry(String id) {
+        return table.getEntries().stream().filter(entry -> entry.sen.id.equals(id)).findFirst().get();
+    }
+
+    @Test
+    public void testEntriesAreSortedBySensorId() {
+        assertThat(ids(table.getEntries()), is(Arrays.asList("112", "118", "119", "120", "121")));
+    }
+
+    @Test
+    public void testIndexesAreDerivedFromDescription() {
+        assertThat(entry("118").inputNumber, is(1));
+        assertThat(entry("119").inputNumber, is(2));
+        assertThat(entry("119").rIndex, is(2));
+        assertThat(entry("120").extTempId, is(1));
+        assertThat(entry("121").extTempId, is(2));
+        assertThat(entry("118").event, is(true));
+        assertThat(entry("112").event, is(false));
+        assertThat(entry("112").desc, is("output"));
+    }
+
+    @Test
+    public void testOnlyChangedSensorsAndEventsAreReturned() throws IOException {
+        assertThat(ids(table.update("{\"G\":[[0,112,1],[0,118,0],[0,120,21.5]]}", false)),
+                is(Arrays.asList("112", "118", "120")));
+
+        // inputs trigger events, so they are returned even if unchanged
+        assertThat(ids(table.update("{\"G\":[[0,112,1],[0,118,0],[0,120,21.5]]}", false)),
+                is(Arrays.asList("118")));
+        assertThat(ids(table.update("{\"G\":[[0,120,22],[0,112,1],[0,999,1]]}", false)), is(Arrays.asList("120")));
+        assertThat(entry("120").value, is(22.0));
+
+        assertThat(ids(table.update("{\"G\":[[0,112,1],[0,120,22]]}", true)), is(Arrays.asList("112", "120")));
+        assertThat(table.update("{\"other\":1}", false), is(nullValue()));
+    }
+
+    @Test
+    public void testValuesAreResetOnInvalidPayload() throws IOException {
+        table.update("{\"G\":[[0,112,1],[0,120,21.5]]}", false);
+        try {
+            table.update("{\"G\":[[0,112,0],[0,120,\"x\"]]}", false);
+            fail("invalid payload accepted");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertThat(Double.isNaN(entry("112").value), is(true));
+        assertThat(ids(table.update("{\"G\":[[0,112,0],[0,120,21.5]]}", false)), is(Arrays.asList("112", "120")));
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.eclipse.californium.core.coap.CoAP.ResponseCode;
+import org.eclipse.californium.core.coap.Option;
+import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.core.network.config.NetworkConfig;
+import org.eclipse.californium.elements.AddressEndpointContext;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests cases for the dispatching of CoIoT packets by {@link ShellyCoapServer}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ShellyCoapServerTest {
+
+    private static final String DEVICE_ID_1 = "SHSW-1#A4CF12F3A1B2#1";
+    private static final String DEVICE_ID_2 = "SHSW-25#A4CF12F3C3D4#2";
+
+    private final ShellyCoapListener listener1 = response -> {
+    };
+    private final ShellyCoapListener listener2 = response -> {
+    };
+
+    private ShellyCoapServer server;
+    private InetAddress address1;
+    private InetAddress address2;
+
+    @BeforeClass
+    public static void setupNetworkConfig() {
+        // don't create a Californium.properties file in the working directory
+        NetworkConfig.setStandard(NetworkConfig.createStandardWithoutFile());
+    }
+
+    @Before
+    public void setup() throws UnknownHostException {
+        server = new ShellyCoapServer();
+        address1 = InetAddress.getByName("192.168.1.11");
+        address2 = InetAddress.getByName("192.168.1.12");
+        server.addListener(address1, listener1);
+        server.addListener(address2, listener2);
+    }
+
+    private static Response packet(InetAddress address, String deviceId) {
+        Response response = new Response(ResponseCode.CONTENT);
+        response.setSourceContext(new AddressEndpointContext(address, COIOT_PORT));
+        if (!deviceId.isEmpty()) {
+            response.getOptions().addOption(new Option(COIOT_OPTION_GLOBAL_DEVID, deviceId));
+        }
+        return response;
+    }
+
+    @Test
+    public void packetIsDispatchedByPeerAddress() {
+        assertThat(server.getListener(packet(address1, DEVICE_ID_2)), is(sameInstance(listener1)));
+        assertThat(server.getListener(packet(address2, "")), is(sameInstance(listener2)));
+    }
+
+    @Test
+    public void packetFromUnknownAddressIsDispatchedByDeviceId() throws UnknownHostException {
+        server.setDeviceId(DEVICE_ID_1, listener1);
+        InetAddress newAddress = InetAddress.getByName("192.168.1.99");
+
+        assertThat(server.getListener(packet(newAddress, DEVICE_ID_1)), is(sameInstance(listener1)));
+        assertThat(server.getListener(packet(newAddress, DEVICE_ID_2)), is(nullValue()));
+    }
+
+    @Test
+    public void packetFromUnknownAddressIsDiscarded() throws UnknownHostException {
+        InetAddress unknownAddress = InetAddress.getByName("192.168.1.99");
+
+        assertThat(server.getListener(packet(unknownAddress, "")), is(nullValue()));
+        assertThat(server.getListener(packet(unknownAddress, DEVICE_ID_1)), is(nullValue()));
+    }
+
+    @Test
+    public void deviceIdOfUnregisteredListenerIsIgnored() throws UnknownHostException {
+        server.setDeviceId(DEVICE_ID_1, response -> {
+        });
+
+        assertThat(server.getListener(packet(InetAddress.getByName("192.168.1.99"), DEVICE_ID_1)), is(nullValue()));
+    }
+
+    @Test
+    public void addressChangeReplacesPreviousAddress() throws UnknownHostException {
+        InetAddress newAddress = InetAddress.getByName("192.168.1.99");
+        server.addListener(newAddress, listener1);
+
+        assertThat(server.getListener(packet(newAddress, "")), is(sameInstance(listener1)));
+        assertThat(server.getListener(packet(address1, "")), is(nullValue()));
+    }
+
+    @Test
+    public void stoppedListenerIsRemovedFromIndexes() throws UnknownHostException {
+        server.setDeviceId(DEVICE_ID_1, listener1);
+        server.setDeviceId(DEVICE_ID_2, listener2);
+
+        server.stop(listener1);
+
+        InetAddress newAddress = InetAddress.getByName("192.168.1.99");
+        assertThat(server.getListener(packet(address1, DEVICE_ID_1)), is(nullValue()));
+        assertThat(server.getListener(packet(newAddress, DEVICE_ID_1)), is(nullValue()));
+        assertThat(server.getListener(packet(address2, "")), is(sameInstance(listener2)));
+        assertThat(server.getListener(packet(newAddress, DEVICE_ID_2)), is(sameInstance(listener2)));
+    }
+}
@@ -13,15 +13,19 @@
 package org.openhab.binding.sonos.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +52,10 @@ public class SonosXMLParser {
 
     static final Logger LOGGER = LoggerFactory.getLogger(SonosXMLParser.class);
 
+    private static final int MAX_POOLED_READERS = 8;
+    private static final BlockingQueue<XMLReader> READER_POOL = new ArrayBlockingQueue<>(MAX_POOLED_READERS);
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
     private static final MessageFormat METADATA_FORMAT = new MessageFormat(
             "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
                     + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
@@ -83,6 +91,45 @@ public class SonosXMLParser {
         desc
     }
 
+    /**
+     * The last parsed zone group topology
+     */
+    private static class ZoneGroupState {
+        private final String xml;
+        private final List<SonosZoneGroup> groups;
+
+        private ZoneGroupState(String xml, List<SonosZoneGroup> groups) {
+            this.xml = xml;
+            this.groups = Collections.unmodifiableList(groups);
+        }
+    }
+
+    private static volatile @Nullable ZoneGroupState lastZoneGroupState;
+
+    /**
+     * Parses the input with a pooled {@link XMLReader}. Creating a reader costs more than parsing most of the event
+     * payloads, so the readers are reused. A reader is only returned to the pool after a successful parse.
+     *
+     * @param input
+     * @param handler the content handler receiving the parse events
+     * @throws IOException
+     * @throws SAXException
+     */
+    private static void parse(InputSource input, DefaultHandler handler) throws IOException, SAXException {
+        XMLReader reader = READER_POOL.poll();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+        }
+        reader.setContentHandler(handler);
+        reader.parse(input);
+        reader.setContentHandler(NO_HANDLER); // don't keep the handler and its results alive
+        READER_POOL.offer(reader);
+    }
+
+    private static void parse(String xml, DefaultHandler handler) throws IOException, SAXException {
+        parse(new InputSource(new StringReader(xml)), handler);
+    }
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -92,9 +139,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -112,9 +157,7 @@ public class SonosXMLParser {
     public static List<SonosEntry> getEntriesFromString(String xml) {
         EntryHandler handler = new EntryHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
@@ -133,11 +176,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static @Nullable SonosResourceMetaData getResourceMetaData(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         ResourceMetaDataHandler handler = new ResourceMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Resource MetaData from String '{}'", xml);
         } catch (SAXException s) {
@@ -154,27 +195,33 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
+        // All players of a household receive the same topology, it is parsed only once
+        ZoneGroupState state = lastZoneGroupState;
+        if (state != null && state.xml.equals(xml)) {
+            return state.groups;
+        }
+
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
+            return handler.getGroups();
         } catch (SAXException s) {
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
+            return handler.getGroups();
         }
 
-        return handler.getGroups();
+        state = new ZoneGroupState(xml, handler.getGroups());
+        lastZoneGroupState = state;
+        return state.groups;
     }
 
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -188,9 +235,7 @@ public class SonosXMLParser {
     public static Map<String, @Nullable String> getRenderingControlFromXML(String xml) {
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
@@ -203,9 +248,7 @@ public class SonosXMLParser {
     public static Map<String, @Nullable String> getAVTransportFromXML(String xml) {
         AVTransportEventHandler handler = new AVTransportEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
@@ -218,9 +261,7 @@ public class SonosXMLParser {
     public static SonosMetaData getMetaDataFromXML(String xml) {
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
@@ -234,9 +275,7 @@ public class SonosXMLParser {
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -548,6 +587,8 @@ public class SonosXMLParser {
 
     private static class ZoneGroupHandler extends DefaultHandler {
 
+        private static final Pattern HOME_THEATER_MEMBER_PATTERN = Pattern.compile("(RINCON_\\w+)");
+
         private final List<SonosZoneGroup> groups = new ArrayList<>();
         private final List<String> currentGroupPlayers = new ArrayList<>();
         private final List<String> currentGroupPlayerZones = new ArrayList<>();
@@ -589,7 +630,7 @@ public class SonosXMLParser {
 
         private Set<String> getAllHomeTheaterMembers(String homeTheaterDescription) {
             Set<String> homeTheaterMembers = new HashSet<>();
-            Matcher matcher = Pattern.compile("(RINCON_\\w+)").matcher(homeTheaterDescription);
+            Matcher matcher = HOME_THEATER_MEMBER_PATTERN.matcher(homeTheaterDescription);
             while (matcher.find()) {
                 String member = matcher.group();
                 homeTheaterMembers.add(member);
@@ -655,7 +696,8 @@ public class SonosXMLParser {
         }
     }
 
-    private static class AVTransportEventHandler extends DefaultHandler {
+    // package-private, the event benchmark compares it with a new reader per payload
+    static class AVTransportEventHandler extends DefaultHandler {
 
         /*
          * <Event xmlns="urn:schemas-upnp-org:metadata-1-0/AVT/" xmlns:r="urn:schemas-rinconnetworks-com:metadata-1-0/">
@@ -919,10 +961,10 @@ public class SonosXMLParser {
     public static @Nullable String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            try (InputStream in = url.openStream()) {
+                parse(new InputSource(in), roomNameHandler);
+            }
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -958,10 +1000,10 @@ public class SonosXMLParser {
     public static @Nullable String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            try (InputStream in = url.openStream()) {
+                parse(new InputSource(in), modelNameHandler);
+            }
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
@@ -15,8 +15,10 @@ package org.openhab.binding.sonos.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * The {@link SonosZoneGroup} is data structure to describe
@@ -58,4 +60,40 @@ public class SonosZoneGroup {
     public String getId() {
         return id;
     }
+
+    /**
+     * Returns the members of this group, which have to be updated with the values of the coordinator after this group
+     * replaced the previous group of a player. These are all other members if the coordinator has changed, and only
+     * the members which joined the group otherwise.
+     *
+     * @param previousGroup the previous group of the player, null if not known
+     * @param player the UDN of the player, never part of the result
+     * @return the members to update
+     */
+    public List<String> getMembersToUpdate(@Nullable SonosZoneGroup previousGroup, String player) {
+        List<String> result = new ArrayList<>(members);
+        result.remove(player);
+        if (previousGroup != null && previousGroup.coordinator.equals(coordinator)) {
+            result.removeAll(previousGroup.members);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SonosZoneGroup)) {
+            return false;
+        }
+        SonosZoneGroup other = (SonosZoneGroup) obj;
+        return id.equals(other.id) && coordinator.equals(other.coordinator) && members.equals(other.members)
+                && memberZoneNames.equals(other.memberZoneNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, coordinator, members, memberZoneNames);
+    }
 }
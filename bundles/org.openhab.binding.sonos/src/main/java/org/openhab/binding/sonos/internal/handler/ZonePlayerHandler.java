@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -128,7 +129,12 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     private final Object stateLock = new Object();
     private final Object jobLock = new Object();
 
-    private final Map<String, @Nullable String> stateMap = Collections.synchronizedMap(new HashMap<>());
+    private final Map<String, @Nullable String> stateMap = new ConcurrentHashMap<>();
+
+    /**
+     * Zone group of this player as of the last processed ZoneGroupState event
+     */
+    private @Nullable SonosZoneGroup appliedZoneGroup;
 
     private @Nullable ScheduledFuture<?> pollingJob;
     private @Nullable SonosZonePlayerState savedState;
@@ -458,19 +464,31 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                     updateChannel(ZONENAME);
                     break;
                 case "ZoneGroupState":
+                    // The topology of the whole household is sent, only a change of our own group is applied
+                    SonosZoneGroup oldGroup = appliedZoneGroup;
+                    SonosZoneGroup newGroup = getCurrentZoneGroup();
+                    appliedZoneGroup = newGroup;
+                    if (newGroup != null && newGroup.equals(oldGroup)) {
+                        logger.trace("Zone group of thing '{}' has not changed", getThing().getUID());
+                        break;
+                    }
                     updateChannel(COORDINATOR);
                     // Update coordinator after a change is made to the grouping of Sonos players
                     updateGroupCoordinator();
                     updateMediaInformation();
+                    // Only the members which joined the group need the coordinator values, unless the coordinator
+                    // has changed
+                    List<String> changedMembers = newGroup != null ? newGroup.getMembersToUpdate(oldGroup, getUDN())
+                            : getOtherZoneGroupMembers();
                     // Update state and control channels for the group members with the coordinator values
                     String transportState = getTransportState();
                     if (transportState != null) {
-                        dispatchOnAllGroupMembers("TransportState", transportState, "AVTransport");
+                        dispatchOnGroupMembers(changedMembers, "TransportState", transportState, "AVTransport");
                     }
                     // Update shuffle and repeat channels for the group members with the coordinator values
                     String playMode = getPlayMode();
                     if (playMode != null) {
-                        dispatchOnAllGroupMembers("CurrentPlayMode", playMode, "AVTransport");
+                        dispatchOnGroupMembers(changedMembers, "CurrentPlayMode", playMode, "AVTransport");
                     }
                     break;
                 case "LocalGroupUUID":
@@ -586,8 +604,12 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     }
 
     private void dispatchOnAllGroupMembers(String variable, String value, String service) {
-        if (isCoordinator()) {
-            for (String member : getOtherZoneGroupMembers()) {
+        dispatchOnGroupMembers(getOtherZoneGroupMembers(), variable, value, service);
+    }
+
+    private void dispatchOnGroupMembers(Collection<String> members, String variable, String value, String service) {
+        if (isCoordinator() && !members.isEmpty()) {
+            for (String member : members) {
                 try {
                     ZonePlayerHandler memberHandler = getHandlerByName(member);
                     if (ThingStatus.ONLINE.equals(memberHandler.getThing().getStatus())) {
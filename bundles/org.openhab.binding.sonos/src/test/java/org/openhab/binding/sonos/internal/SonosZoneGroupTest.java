@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for the handling of ZoneGroupState events, see {@link SonosZoneGroup}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosZoneGroupTest {
+
+    private static final String KITCHEN = "RINCON_000000000001400";
+    private static final String LIVING = "RINCON_000000000002400";
+    private static final String BATH = "RINCON_000000000003400";
+
+    private static String member(String uuid) {
+        return "<ZoneGroupMember UUID=\"" + uuid + "\" ZoneName=\"" + uuid + "\"/>";
+    }
+
+    private static String zoneGroupState(String coordinator, String... members) {
+        StringBuilder xml = new StringBuilder("<ZoneGroupState><ZoneGroups>");
+        xml.append("<ZoneGroup Coordinator=\"").append(coordinator).append("\" ID=\"").append(coordinator)
+                .append(":1\">");
+        for (String member : members) {
+            xml.append(member(member));
+        }
+        xml.append("</ZoneGroup></ZoneGroups></ZoneGroupState>");
+        return xml.toString();
+    }
+
+    private static SonosZoneGroup group(String coordinator, String... members) {
+        List<SonosZoneGroup> groups = SonosXMLParser.getZoneGroupFromXML(zoneGroupState(coordinator, members));
+        assertThat(groups.size(), is(1));
+        return groups.get(0);
+    }
+
+    @Test
+    public void unchangedGroupIsEqual() {
+        // every event contains the topology of the whole household, the players skip it if their group is unchanged
+        assertThat(group(KITCHEN, KITCHEN, LIVING), is(group(KITCHEN, KITCHEN, LIVING)));
+        assertThat(group(KITCHEN, KITCHEN, LIVING), is(not(group(KITCHEN, KITCHEN, LIVING, BATH))));
+        assertThat(group(KITCHEN, KITCHEN, LIVING), is(not(group(LIVING, KITCHEN, LIVING))));
+    }
+
+    @Test
+    public void onlyJoinedMemberIsUpdated() {
+        SonosZoneGroup newGroup = group(KITCHEN, KITCHEN, LIVING, BATH);
+
+        assertThat(newGroup.getMembersToUpdate(group(KITCHEN, KITCHEN, LIVING), KITCHEN),
+                is(Collections.singletonList(BATH)));
+        assertThat(newGroup.getMembersToUpdate(group(KITCHEN, KITCHEN, LIVING, BATH), KITCHEN).isEmpty(), is(true));
+    }
+
+    @Test
+    public void allMembersAreUpdatedIfCoordinatorChanged() {
+        SonosZoneGroup newGroup = group(LIVING, LIVING, KITCHEN, BATH);
+
+        assertThat(newGroup.getMembersToUpdate(group(KITCHEN, KITCHEN, LIVING, BATH), LIVING),
+                is(Arrays.asList(KITCHEN, BATH)));
+    }
+
+    @Test
+    public void allMembersAreUpdatedWithoutPreviousGroup() {
+        SonosZoneGroup newGroup = group(KITCHEN, KITCHEN, LIVING);
+
+        assertThat(newGroup.getMembersToUpdate(null, KITCHEN), is(Collections.singletonList(LIVING)));
+    }
+}
@@ -197,7 +197,7 @@ public class SysteminfoBindingConstants {
     public static final String CHANNEL_CPU_DESCRIPTION = "cpu#description";
 
     /**
-     * Average recent CPU load
+     * CPU load in percent since the last refresh
      */
     public static final String CHANNEL_CPU_LOAD = "cpu#load";
 
@@ -231,6 +231,11 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_CPU_THREADS = "cpu#threads";
 
+    /**
+     * Time needed to sample the system information at the last refresh in milliseconds
+     */
+    public static final String CHANNEL_CPU_SAMPLING_TIME = "cpu#samplingTime";
+
     /**
      * Information about the display device
      */
@@ -251,11 +256,21 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_NETWORK_DATA_SENT = "network#dataSent";
 
+    /**
+     * Network data sent rate
+     */
+    public static final String CHANNEL_NETWORK_DATA_SENT_RATE = "network#dataSentRate";
+
     /**
      * Network data received
      */
     public static final String CHANNEL_NETWORK_DATA_RECEIVED = "network#dataReceived";
 
+    /**
+     * Network data received rate
+     */
+    public static final String CHANNEL_NETWORK_DATA_RECEIVED_RATE = "network#dataReceivedRate";
+
     /**
      * Network packets sent
      */
@@ -17,6 +17,7 @@ import static org.openhab.binding.systeminfo.internal.SysteminfoBindingConstants
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
@@ -90,6 +92,12 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     private SysteminfoInterface systeminfo;
 
+    /**
+     * Time in milliseconds needed to sample the system information at the last refresh of the priority group of the
+     * sampling time channel.
+     */
+    private volatile double samplingTime;
+
     private @Nullable ScheduledFuture<?> highPriorityTasks;
     private @Nullable ScheduledFuture<?> mediumPriorityTasks;
 
@@ -236,17 +244,43 @@ public class SysteminfoHandler extends BaseThingHandler {
         }, WAIT_TIME_CHANNEL_ITEM_LINK_INIT, TimeUnit.SECONDS);
     }
 
-    private void publishData(Set<ChannelUID> channels) {
+    /**
+     * Publish the state of the linked channels. All channels read the same snapshot of the system information, the
+     * states are published after sampling. The sampling time channel gets the time needed by this refresh, if it is
+     * part of the channels.
+     *
+     * @param channels the channels of one priority group
+     */
+    private synchronized void publishData(Set<ChannelUID> channels) {
+        long startTime = System.nanoTime();
+        systeminfo.takeSnapshot();
+        Map<ChannelUID, State> states = new LinkedHashMap<>();
+        @Nullable
+        ChannelUID samplingTimeChannel = null;
         Iterator<ChannelUID> iter = channels.iterator();
         while (iter.hasNext()) {
             ChannelUID channeUID = iter.next();
-            if (isLinked(channeUID.getId())) {
-                publishDataForChannel(channeUID);
+            if (!isLinked(channeUID.getId())) {
+                continue;
             }
+            if (CHANNEL_CPU_SAMPLING_TIME.equals(channeUID.getId())) {
+                samplingTimeChannel = channeUID;
+            } else {
+                states.put(channeUID, getInfoForChannel(channeUID));
+            }
+        }
+        double time = (System.nanoTime() - startTime) / 1000000D;
+        logger.trace("Sampled {} channels in {} ms.", states.size(), time);
+        if (samplingTimeChannel != null) {
+            samplingTime = time;
+            states.put(samplingTimeChannel, getInfoForChannel(samplingTimeChannel));
         }
+
+        states.forEach((channelUID, state) -> updateState(channelUID.getId(), state));
     }
 
-    private void publishDataForChannel(ChannelUID channelUID) {
+    private synchronized void publishDataForChannel(ChannelUID channelUID) {
+        systeminfo.takeSnapshot();
         State state = getInfoForChannel(channelUID);
         String channelID = channelUID.getId();
         updateState(channelID, state);
@@ -311,6 +345,9 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_SENSORS_FAN_SPEED:
                     state = systeminfo.getSensorsFanSpeed(deviceIndex);
                     break;
+                case CHANNEL_CPU_LOAD:
+                    state = systeminfo.getCpuLoad();
+                    break;
                 case CHANNEL_CPU_LOAD_1:
                     state = systeminfo.getCpuLoad1();
                     break;
@@ -326,6 +363,9 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_CPU_THREADS:
                     state = systeminfo.getCpuThreads();
                     break;
+                case CHANNEL_CPU_SAMPLING_TIME:
+                    state = new DecimalType(new BigDecimal(samplingTime).setScale(1, BigDecimal.ROUND_HALF_UP));
+                    break;
                 case CHANNEL_CPU_DESCRIPTION:
                     state = systeminfo.getCpuDescription();
                     break;
@@ -413,6 +453,12 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_NETWORK_DATA_RECEIVED:
                     state = systeminfo.getNetworkDataReceived(deviceIndex);
                     break;
+                case CHANNEL_NETWORK_DATA_SENT_RATE:
+                    state = systeminfo.getNetworkDataSentRate(deviceIndex);
+                    break;
+                case CHANNEL_NETWORK_DATA_RECEIVED_RATE:
+                    state = systeminfo.getNetworkDataReceivedRate(deviceIndex);
+                    break;
                 case CHANNEL_NETWORK_PACKETS_RECEIVED:
                     state = systeminfo.getNetworkPacketsReceived(deviceIndex);
                     break;
@@ -13,6 +13,10 @@
 package org.openhab.binding.systeminfo.internal.model;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -75,6 +79,102 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     public static final int PRECISION_AFTER_DECIMAL_SIGN = 1;
 
+    /**
+     * The kind of a value sampled by a snapshot. Together with the device index it identifies the value within the
+     * snapshot.
+     */
+    enum SampleType {
+        MEMORY,
+        SWAP,
+        CPU_LOAD,
+        LOAD_AVERAGE,
+        CPU_TEMPERATURE,
+        CPU_VOLTAGE,
+        FAN_SPEEDS,
+        FILE_STORE,
+        NETWORK,
+        POWER_SOURCE,
+        PROCESS
+    }
+
+    /**
+     * The counters of a network at the time of the snapshot and the rates since the previous query of the network.
+     */
+    static class NetworkSample {
+        private final String[] ipv4;
+        private final long timeStamp;
+        private final long bytesSent;
+        private final long bytesReceived;
+        private final long packetsSent;
+        private final long packetsReceived;
+        private final double sentRate; // bytes per second, NaN if unknown
+        private final double receivedRate; // bytes per second, NaN if unknown
+
+        NetworkSample(NetworkIF network, long @Nullable [] lastCounters) {
+            ipv4 = network.getIPv4addr();
+            bytesSent = network.getBytesSent();
+            bytesReceived = network.getBytesRecv();
+            packetsSent = network.getPacketsSent();
+            packetsReceived = network.getPacketsRecv();
+            timeStamp = network.getTimeStamp();
+            if (lastCounters != null && timeStamp > lastCounters[0]) {
+                double seconds = (timeStamp - lastCounters[0]) / 1000D;
+                // the counters are reset when the interface goes down
+                sentRate = Math.max(0, bytesSent - lastCounters[1]) / seconds;
+                receivedRate = Math.max(0, bytesReceived - lastCounters[2]) / seconds;
+            } else {
+                sentRate = Double.NaN;
+                receivedRate = Double.NaN;
+            }
+        }
+
+        long[] getCounters() {
+            return new long[] { timeStamp, bytesSent, bytesReceived };
+        }
+
+        double getSentRate() {
+            return sentRate;
+        }
+
+        double getReceivedRate() {
+            return receivedRate;
+        }
+    }
+
+    /**
+     * A process at the time of the snapshot and its CPU usage since the previous query of the process.
+     */
+    static class ProcessSample {
+        private final OSProcess process;
+        private final double cpuUsage; // fraction of the time of one CPU
+
+        ProcessSample(OSProcess process, @Nullable OSProcess lastProcess) {
+            this.process = process;
+            long cpuTime = process.getKernelTime() + process.getUserTime();
+            if (lastProcess != null && lastProcess.getStartTime() == process.getStartTime()
+                    && process.getUpTime() > lastProcess.getUpTime()) {
+                long lastCpuTime = lastProcess.getKernelTime() + lastProcess.getUserTime();
+                cpuUsage = (double) (cpuTime - lastCpuTime) / (process.getUpTime() - lastProcess.getUpTime());
+            } else {
+                cpuUsage = process.getUpTime() > 0 ? (double) cpuTime / process.getUpTime() : 0;
+            }
+        }
+
+        double getCpuUsage() {
+            return cpuUsage;
+        }
+    }
+
+    /**
+     * Values sampled by the current snapshot, see {@link #sample(SampleType, int, Supplier)}.
+     */
+    private Map<Long, Object> snapshot = new HashMap<>();
+
+    // Values of the previous query of a device, used to calculate rates
+    private long @Nullable [] lastCpuTicks;
+    private final Map<Integer, long[]> lastNetworkCounters = new HashMap<>();
+    private final Map<Integer, OSProcess> lastProcesses = new HashMap<>();
+
     /**
      * Some of the methods used in this constructor execute native code and require execute permissions
      *
@@ -102,6 +202,68 @@ public class OSHISysteminfo implements SysteminfoInterface {
         fileStores = operatingSystem.getFileSystem().getFileStores();
         powerSources = hal.getPowerSources();
         drives = hal.getDiskStores();
+
+        takeSnapshot();
+    }
+
+    @Override
+    public synchronized void takeSnapshot() {
+        snapshot = new HashMap<>();
+    }
+
+    /**
+     * Get a value of the current snapshot. The value is sampled on the first request within the snapshot.
+     *
+     * @param type the kind of the value
+     * @param index the index of the device or 0, if there is only one device
+     * @param sampler queries the value from OSHI
+     * @return the value of the current snapshot
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> T sample(SampleType type, int index, Supplier<T> sampler) {
+        Long key = ((long) type.ordinal() << 32) | (index & 0xFFFFFFFFL);
+        Object value = snapshot.get(key);
+        if (value == null) {
+            value = sampler.get();
+            snapshot.put(key, value);
+        }
+        return (T) value;
+    }
+
+    private long[] getMemorySample() {
+        return sample(SampleType.MEMORY, 0, () -> new long[] { memory.getTotal(), memory.getAvailable() });
+    }
+
+    private long[] getSwapSample() {
+        return sample(SampleType.SWAP, 0, () -> new long[] { memory.getVirtualMemory().getSwapTotal(),
+                memory.getVirtualMemory().getSwapUsed() });
+    }
+
+    private long[] getFileStoreSample(int index) throws DeviceNotFoundException {
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        return sample(SampleType.FILE_STORE, index, () -> {
+            fileStore.updateAtrributes();
+            return new long[] { fileStore.getTotalSpace(), fileStore.getUsableSpace() };
+        });
+    }
+
+    private NetworkSample getNetworkSample(int index) throws DeviceNotFoundException {
+        NetworkIF network = (NetworkIF) getDevice(networks, index);
+        return sample(SampleType.NETWORK, index, () -> {
+            network.updateAttributes();
+            NetworkSample networkSample = new NetworkSample(network, lastNetworkCounters.get(index));
+            lastNetworkCounters.put(index, networkSample.getCounters());
+            return networkSample;
+        });
+    }
+
+    private double[] getPowerSourceSample(int index) throws DeviceNotFoundException {
+        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
+        return sample(SampleType.POWER_SOURCE, index, () -> {
+            powerSource.updateAttributes();
+            return new double[] { powerSource.getTimeRemainingEstimated(),
+                    powerSource.getRemainingCapacityPercent() };
+        });
     }
 
     private Object getDevice(Object @Nullable [] devices, int index) throws DeviceNotFoundException {
@@ -111,12 +273,17 @@ public class OSHISysteminfo implements SysteminfoInterface {
         return devices[index];
     }
 
-    private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
-        if (process == null) {
-            throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
-        }
-        return process;
+    private ProcessSample getProcess(int pid) throws DeviceNotFoundException {
+        Optional<ProcessSample> processSample = sample(SampleType.PROCESS, pid, () -> {
+            OSProcess process = operatingSystem.getProcess(pid);
+            if (process == null) {
+                lastProcesses.remove(pid);
+                return Optional.empty();
+            }
+            return Optional.of(new ProcessSample(process, lastProcesses.put(pid, process)));
+        });
+        return processSample.orElseThrow(
+                () -> new DeviceNotFoundException("Error while getting information for process with PID " + pid));
     }
 
     @Override
@@ -172,22 +339,23 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryTotal() {
-        long totalMemory = memory.getTotal();
+        long totalMemory = getMemorySample()[0];
         totalMemory = getSizeInMB(totalMemory);
         return new DecimalType(totalMemory);
     }
 
     @Override
     public DecimalType getMemoryAvailable() {
-        long availableMemory = memory.getAvailable();
+        long availableMemory = getMemorySample()[1];
         availableMemory = getSizeInMB(availableMemory);
         return new DecimalType(availableMemory);
     }
 
     @Override
     public DecimalType getMemoryUsed() {
-        long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
+        long[] memorySample = getMemorySample();
+        long totalMemory = memorySample[0];
+        long availableMemory = memorySample[1];
         long usedMemory = totalMemory - availableMemory;
         usedMemory = getSizeInMB(usedMemory);
         return new DecimalType(usedMemory);
@@ -195,28 +363,23 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
-        long totalSpace = fileStore.getTotalSpace();
+        long totalSpace = getFileStoreSample(index)[0];
         totalSpace = getSizeInMB(totalSpace);
         return new DecimalType(totalSpace);
     }
 
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
-        long freeSpace = fileStore.getUsableSpace();
+        long freeSpace = getFileStoreSample(index)[1];
         freeSpace = getSizeInMB(freeSpace);
         return new DecimalType(freeSpace);
     }
 
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
-        long totalSpace = fileStore.getTotalSpace();
-        long freeSpace = fileStore.getUsableSpace();
+        long[] fileStoreSample = getFileStoreSample(index);
+        long totalSpace = fileStoreSample[0];
+        long freeSpace = fileStoreSample[1];
         long usedSpace = totalSpace - freeSpace;
         usedSpace = getSizeInMB(usedSpace);
         return new DecimalType(usedSpace);
@@ -224,10 +387,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        fileStore.updateAtrributes();
-        long totalSpace = fileStore.getTotalSpace();
-        long freeSpace = fileStore.getUsableSpace();
+        long[] fileStoreSample = getFileStoreSample(deviceIndex);
+        long totalSpace = fileStoreSample[0];
+        long freeSpace = fileStoreSample[1];
         if (totalSpace > 0) {
             double freePercentDecimal = (double) freeSpace / (double) totalSpace;
             BigDecimal freePercent = getPercentsValue(freePercentDecimal);
@@ -239,10 +401,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getStorageUsedPercent(int deviceIndex) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        fileStore.updateAtrributes();
-        long totalSpace = fileStore.getTotalSpace();
-        long freeSpace = fileStore.getUsableSpace();
+        long[] fileStoreSample = getFileStoreSample(deviceIndex);
+        long totalSpace = fileStoreSample[0];
+        long freeSpace = fileStoreSample[1];
         long usedSpace = totalSpace - freeSpace;
         if (totalSpace > 0) {
             double usedPercentDecimal = (double) usedSpace / (double) totalSpace;
@@ -276,9 +437,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getNetworkIp(int index) throws DeviceNotFoundException {
-        NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
-        netInterface.updateAttributes();
-        String[] ipAddresses = netInterface.getIPv4addr();
+        String[] ipAddresses = getNetworkSample(index).ipv4;
         String ipv4 = (String) getDevice(ipAddresses, 0);
         return new StringType(ipv4);
     }
@@ -315,30 +474,28 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSensorsCpuTemperature() {
-        BigDecimal cpuTemp = new BigDecimal(sensors.getCpuTemperature());
+        BigDecimal cpuTemp = new BigDecimal(sample(SampleType.CPU_TEMPERATURE, 0, sensors::getCpuTemperature));
         cpuTemp = cpuTemp.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuTemp.signum() == 1 ? new DecimalType(cpuTemp) : null;
     }
 
     @Override
     public @Nullable DecimalType getSensorsCpuVoltage() {
-        BigDecimal cpuVoltage = new BigDecimal(sensors.getCpuVoltage());
+        BigDecimal cpuVoltage = new BigDecimal(sample(SampleType.CPU_VOLTAGE, 0, sensors::getCpuVoltage));
         cpuVoltage = cpuVoltage.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuVoltage.signum() == 1 ? new DecimalType(cpuVoltage) : null;
     }
 
     @Override
     public @Nullable DecimalType getSensorsFanSpeed(int index) throws DeviceNotFoundException {
-        int[] fanSpeeds = sensors.getFanSpeeds();
+        int[] fanSpeeds = sample(SampleType.FAN_SPEEDS, 0, sensors::getFanSpeeds);
         int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds), index);
         return speed > 0 ? new DecimalType(speed) : null;
     }
 
     @Override
     public @Nullable DecimalType getBatteryRemainingTime(int index) throws DeviceNotFoundException {
-        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
-        powerSource.updateAttributes();
-        double remainingTimeInSeconds = powerSource.getTimeRemainingEstimated();
+        double remainingTimeInSeconds = getPowerSourceSample(index)[0];
         // The getTimeRemaining() method returns (-1.0) if is calculating or (-2.0) if the time is unlimited.
         BigDecimal remainingTime = getTimeInMinutes(remainingTimeInSeconds);
         return remainingTime.signum() == 1 ? new DecimalType(remainingTime) : null;
@@ -346,9 +503,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getBatteryRemainingCapacity(int index) throws DeviceNotFoundException {
-        PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
-        powerSource.updateAttributes();
-        double remainingCapacity = powerSource.getRemainingCapacityPercent();
+        double remainingCapacity = getPowerSourceSample(index)[1];
         BigDecimal remainingCapacityPercents = getPercentsValue(remainingCapacity);
         return new DecimalType(remainingCapacityPercents);
     }
@@ -362,8 +517,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getMemoryAvailablePercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        long[] memorySample = getMemorySample();
+        long availableMemory = memorySample[1];
+        long totalMemory = memorySample[0];
         if (totalMemory > 0) {
             double freePercentDecimal = (double) availableMemory / (double) totalMemory;
             BigDecimal freePercent = getPercentsValue(freePercentDecimal);
@@ -375,8 +531,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getMemoryUsedPercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        long[] memorySample = getMemorySample();
+        long availableMemory = memorySample[1];
+        long totalMemory = memorySample[0];
         long usedMemory = totalMemory - availableMemory;
         if (totalMemory > 0) {
             double usedPercentDecimal = (double) usedMemory / (double) totalMemory;
@@ -410,15 +567,16 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapTotal() {
-        long swapTotal = memory.getVirtualMemory().getSwapTotal();
+        long swapTotal = getSwapSample()[0];
         swapTotal = getSizeInMB(swapTotal);
         return new DecimalType(swapTotal);
     }
 
     @Override
     public @Nullable DecimalType getSwapAvailable() {
-        long swapTotal = memory.getVirtualMemory().getSwapTotal();
-        long swapUsed = memory.getVirtualMemory().getSwapUsed();
+        long[] swapSample = getSwapSample();
+        long swapTotal = swapSample[0];
+        long swapUsed = swapSample[1];
         long swapAvailable = swapTotal - swapUsed;
         swapAvailable = getSizeInMB(swapAvailable);
         return new DecimalType(swapAvailable);
@@ -426,15 +584,16 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapUsed() {
-        long swapUsed = memory.getVirtualMemory().getSwapUsed();
+        long swapUsed = getSwapSample()[1];
         swapUsed = getSizeInMB(swapUsed);
         return new DecimalType(swapUsed);
     }
 
     @Override
     public @Nullable DecimalType getSwapAvailablePercent() {
-        long swapTotal = memory.getVirtualMemory().getSwapTotal();
-        long swapUsed = memory.getVirtualMemory().getSwapUsed();
+        long[] swapSample = getSwapSample();
+        long swapTotal = swapSample[0];
+        long swapUsed = swapSample[1];
         long swapAvailable = swapTotal - swapUsed;
         if (swapTotal > 0) {
             double swapAvailablePercentDecimal = (double) swapAvailable / (double) swapTotal;
@@ -447,8 +606,9 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public @Nullable DecimalType getSwapUsedPercent() {
-        long swapTotal = memory.getVirtualMemory().getSwapTotal();
-        long swapUsed = memory.getVirtualMemory().getSwapUsed();
+        long[] swapSample = getSwapSample();
+        long swapTotal = swapSample[0];
+        long swapUsed = swapSample[1];
         if (swapTotal > 0) {
             double swapUsedPercentDecimal = (double) swapUsed / (double) swapTotal;
             BigDecimal swapUsedPercent = getPercentsValue(swapUsedPercentDecimal);
@@ -468,12 +628,33 @@ public class OSHISysteminfo implements SysteminfoInterface {
         return result;
     }
 
+    private @Nullable DecimalType getRateInKB(double bytesPerSecond) {
+        if (Double.isNaN(bytesPerSecond)) {
+            return null;
+        }
+        BigDecimal rate = new BigDecimal(bytesPerSecond / 1024);
+        rate = rate.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
+        return new DecimalType(rate);
+    }
+
     private BigDecimal getTimeInMinutes(double timeInSeconds) {
         BigDecimal timeInMinutes = new BigDecimal(timeInSeconds / 60);
         timeInMinutes = timeInMinutes.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_UP);
         return timeInMinutes;
     }
 
+    @Override
+    public DecimalType getCpuLoad() {
+        double cpuLoad = sample(SampleType.CPU_LOAD, 0, () -> {
+            long[] ticks = cpu.getSystemCpuLoadTicks();
+            long[] lastTicks = lastCpuTicks;
+            lastCpuTicks = ticks;
+            // the ticks are counted since the system start
+            return cpu.getSystemCpuLoadBetweenTicks(lastTicks != null ? lastTicks : new long[ticks.length]);
+        });
+        return new DecimalType(getPercentsValue(cpuLoad));
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -523,7 +704,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
+        double processorLoads[] = sample(SampleType.LOAD_AVERAGE, 0, () -> cpu.getSystemLoadAverage(3));
         BigDecimal result = new BigDecimal(processorLoads[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
@@ -550,40 +731,42 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
-        long packRecv = network.getPacketsRecv();
+        long packRecv = getNetworkSample(networkIndex).packetsReceived;
         return new DecimalType(packRecv);
     }
 
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
-        long packSent = network.getPacketsSent();
+        long packSent = getNetworkSample(networkIndex).packetsSent;
         return new DecimalType(packSent);
     }
 
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
-        long bytesSent = network.getBytesSent();
+        long bytesSent = getNetworkSample(networkIndex).bytesSent;
         return new DecimalType(getSizeInMB(bytesSent));
     }
 
+    @Override
+    public @Nullable DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException {
+        return getRateInKB(getNetworkSample(networkIndex).sentRate);
+    }
+
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
-        long bytesRecv = network.getBytesRecv();
+        long bytesRecv = getNetworkSample(networkIndex).bytesReceived;
         return new DecimalType(getSizeInMB(bytesRecv));
     }
 
+    @Override
+    public @Nullable DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException {
+        return getRateInKB(getNetworkSample(networkIndex).receivedRate);
+    }
+
     @Override
     public @Nullable StringType getProcessName(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
-            OSProcess process = getProcess(pid);
+            OSProcess process = getProcess(pid).process;
             String name = process.getName();
             return new StringType(name);
         } else {
@@ -594,8 +777,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getProcessCpuUsage(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
-            OSProcess process = getProcess(pid);
-            double cpuUsageRaw = (process.getKernelTime() + process.getUserTime()) / process.getUpTime();
+            double cpuUsageRaw = getProcess(pid).cpuUsage;
             BigDecimal cpuUsage = getPercentsValue(cpuUsageRaw);
             return new DecimalType(cpuUsage);
         } else {
@@ -606,7 +788,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getProcessMemoryUsage(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
-            OSProcess process = getProcess(pid);
+            OSProcess process = getProcess(pid).process;
             long memortInBytes = process.getResidentSetSize();
             long memoryInMB = getSizeInMB(memortInBytes);
             return new DecimalType(memoryInMB);
@@ -618,7 +800,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable StringType getProcessPath(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
-            OSProcess process = getProcess(pid);
+            OSProcess process = getProcess(pid).process;
             String path = process.getPath();
             return new StringType(path);
         } else {
@@ -629,7 +811,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getProcessThreads(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
-            OSProcess process = getProcess(pid);
+            OSProcess process = getProcess(pid).process;
             int threadCount = process.getThreadCount();
             return new DecimalType(threadCount);
         } else {
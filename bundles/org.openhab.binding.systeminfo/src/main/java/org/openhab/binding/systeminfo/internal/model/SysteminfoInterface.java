@@ -31,6 +31,13 @@ public interface SysteminfoInterface {
      */
     public void initializeSysteminfo();
 
+    /**
+     * Take a new snapshot of the dynamic system information. Until the next snapshot, all methods return the values of
+     * this snapshot. Each device is queried only once per snapshot, on the first request of one of its values. Rates
+     * are calculated between consecutive snapshots, which queried the same device.
+     */
+    public void takeSnapshot();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -71,6 +78,14 @@ public interface SysteminfoInterface {
      */
     public DecimalType getCpuPhysicalCores();
 
+    /**
+     * Returns the CPU load since the previous snapshot, which queried the CPU load. The first snapshot returns the
+     * average load since the system start.
+     *
+     * @return percentage value /0-100/
+     */
+    public DecimalType getCpuLoad();
+
     /**
      * Returns the system load average for the last minute.
      *
@@ -328,6 +343,15 @@ public interface SysteminfoInterface {
      */
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException;
 
+    /**
+     * Get the rate of data sent in kB/s for this network since the previous snapshot, which queried this network
+     *
+     * @param networkIndex - the index of the network
+     * @return the rate or null, if the network has not been queried before
+     * @throws DeviceNotFoundException
+     */
+    public @Nullable DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException;
+
     /**
      * Get data received in MB for this network
      *
@@ -336,6 +360,15 @@ public interface SysteminfoInterface {
      */
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException;
 
+    /**
+     * Get the rate of data received in kB/s for this network since the previous snapshot, which queried this network
+     *
+     * @param networkIndex - the index of the network
+     * @return the rate or null, if the network has not been queried before
+     * @throws DeviceNotFoundException
+     */
+    public @Nullable DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException;
+
     // Display info
     /**
      * Get information about the display device as product number, manufacturer, serial number, width and height in cm";
@@ -405,7 +438,8 @@ public interface SysteminfoInterface {
     public @Nullable StringType getProcessName(int pid) throws DeviceNotFoundException;
 
     /**
-     * Returns the CPU usage of the process
+     * Returns the CPU usage of the process since the previous snapshot, which queried this process. The first snapshot
+     * returns the average usage since the start of the process.
      *
      * @param pid - the PID of the process
      * @return - percentage value /0-100/
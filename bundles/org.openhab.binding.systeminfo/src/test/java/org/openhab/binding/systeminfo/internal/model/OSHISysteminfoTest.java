@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.systeminfo.internal.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openhab.binding.systeminfo.internal.model.OSHISysteminfo.NetworkSample;
+import org.openhab.binding.systeminfo.internal.model.OSHISysteminfo.ProcessSample;
+import org.openhab.binding.systeminfo.internal.model.OSHISysteminfo.SampleType;
+
+import oshi.hardware.NetworkIF;
+import oshi.software.os.OSProcess;
+
+/**
+ * Tests cases for the snapshot and the rates of {@link OSHISysteminfo}.
+ *
+ * @author agent - Initial contribution
+ */
+public class OSHISysteminfoTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static NetworkIF network(long timeStamp, long bytesSent, long bytesReceived) {
+        NetworkIF network = mock(NetworkIF.class);
+        when(network.getIPv4addr()).thenReturn(new String[0]);
+        when(network.getTimeStamp()).thenReturn(timeStamp);
+        when(network.getBytesSent()).thenReturn(bytesSent);
+        when(network.getBytesRecv()).thenReturn(bytesReceived);
+        return network;
+    }
+
+    private static OSProcess process(long startTime, long upTime, long kernelTime, long userTime) {
+        OSProcess process = mock(OSProcess.class);
+        when(process.getStartTime()).thenReturn(startTime);
+        when(process.getUpTime()).thenReturn(upTime);
+        when(process.getKernelTime()).thenReturn(kernelTime);
+        when(process.getUserTime()).thenReturn(userTime);
+        return process;
+    }
+
+    @Test
+    public void deviceIsQueriedOncePerSnapshot() {
+        OSHISysteminfo systeminfo = new OSHISysteminfo();
+        AtomicInteger queries = new AtomicInteger();
+
+        systeminfo.takeSnapshot();
+        assertThat(systeminfo.sample(SampleType.NETWORK, 1, queries::incrementAndGet), is(1));
+        assertThat(systeminfo.sample(SampleType.NETWORK, 1, queries::incrementAndGet), is(1));
+        // another device or another kind of value is queried separately
+        assertThat(systeminfo.sample(SampleType.NETWORK, 2, queries::incrementAndGet), is(2));
+        assertThat(systeminfo.sample(SampleType.FILE_STORE, 1, queries::incrementAndGet), is(3));
+
+        systeminfo.takeSnapshot();
+        assertThat(systeminfo.sample(SampleType.NETWORK, 1, queries::incrementAndGet), is(4));
+        assertThat(queries.get(), is(4));
+    }
+
+    @Test
+    public void networkRatesAreCalculatedSinceLastQuery() {
+        NetworkSample first = new NetworkSample(network(10000, 1000, 5000), null);
+        assertThat(Double.isNaN(first.getSentRate()), is(true));
+        assertThat(Double.isNaN(first.getReceivedRate()), is(true));
+
+        NetworkSample second = new NetworkSample(network(12000, 3000, 6000), first.getCounters());
+        assertThat(second.getSentRate(), is(1000.0));
+        assertThat(second.getReceivedRate(), is(500.0));
+
+        // the counters restart when the interface goes down
+        NetworkSample reset = new NetworkSample(network(13000, 100, 200), second.getCounters());
+        assertThat(reset.getSentRate(), is(0.0));
+        assertThat(reset.getReceivedRate(), is(0.0));
+
+        // no rate without elapsed time
+        NetworkSample same = new NetworkSample(network(13000, 300, 400), reset.getCounters());
+        assertThat(Double.isNaN(same.getSentRate()), is(true));
+    }
+
+    @Test
+    public void processCpuUsageIsCalculatedSinceLastQuery() {
+        OSProcess last = process(100, 10000, 1000, 1000);
+        assertThat(new ProcessSample(last, null).getCpuUsage(), is(0.2));
+
+        ProcessSample sample = new ProcessSample(process(100, 12000, 1500, 1500), last);
+        assertThat(Math.abs(sample.getCpuUsage() - 0.5) < DELTA, is(true));
+
+        // a new process with the same pid is measured since its start
+        ProcessSample restarted = new ProcessSample(process(20000, 1000, 100, 150), last);
+        assertThat(restarted.getCpuUsage(), is(0.25));
+    }
+}
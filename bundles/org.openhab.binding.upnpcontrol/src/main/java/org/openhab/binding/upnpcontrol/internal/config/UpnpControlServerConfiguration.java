@@ -22,4 +22,6 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 public class UpnpControlServerConfiguration extends UpnpControlConfiguration {
     public boolean filter = false;
     public String sortcriteria = "+dc:title";
+    public int pagesize = 500;
+    public int cachesize = 20;
 }
@@ -18,11 +18,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -64,6 +67,9 @@ public class UpnpServerHandler extends UpnpHandler {
 
     private static final String DIRECTORY_ROOT = "0";
     private static final String UP = "..";
+    private static final String MORE = "...";
+
+    private static final int SUBSCRIPTION_DURATION_SECONDS = 3600;
 
     private final Logger logger = LoggerFactory.getLogger(UpnpServerHandler.class);
 
@@ -76,16 +82,108 @@ public class UpnpServerHandler extends UpnpHandler {
 
     private volatile UpnpEntry currentEntry = new UpnpEntry(DIRECTORY_ROOT, DIRECTORY_ROOT, DIRECTORY_ROOT,
             "object.container");
-    private volatile List<UpnpEntry> entries = Collections.synchronizedList(new ArrayList<>()); // current entry list in
-                                                                                                // selection
+    private volatile List<UpnpEntry> entries = Collections.emptyList(); // current entry list in selection
     private volatile Map<String, UpnpEntry> parentMap = new HashMap<>(); // store parents in hierarchy separately to be
                                                                          // able to move up in directory structure
 
+    private volatile @Nullable ContainerListing currentListing; // listing shown in the selection
+    private final Map<String, ContainerListing> listingCache = new LinkedHashMap<String, ContainerListing>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, ContainerListing> eldest) {
+            return size() > Math.max(config.cachesize, 0);
+        }
+    };
+    private volatile String systemUpdateId = "";
+    private volatile boolean containerUpdates; // server sends ContainerUpdateIDs events
+
+    private volatile boolean upnpSubscribed;
+    private volatile @Nullable ScheduledFuture<?> subscriptionRefreshJob;
+    private final Runnable subscriptionRefresh = () -> {
+        removeSubscription("ContentDirectory");
+        addSubscription("ContentDirectory", SUBSCRIPTION_DURATION_SECONDS);
+    };
+
     private UpnpDynamicStateDescriptionProvider upnpStateDescriptionProvider;
     private UpnpDynamicCommandDescriptionProvider upnpCommandDescriptionProvider;
 
     protected @NonNullByDefault({}) UpnpControlServerConfiguration config;
 
+    /**
+     * The children of a container or the result of a search, as far as they have been loaded from the server. The
+     * entries are loaded page by page when the selection advances.
+     */
+    private static class ContainerListing {
+        private final String id;
+        private final @Nullable String searchCriteria;
+        private List<UpnpEntry> entries = Collections.emptyList(); // copy on write, can be used without locking
+        private final Set<String> ids = new HashSet<>(); // ids and refIds of earlier pages, to remove duplicates
+        private final Set<String> refIds = new HashSet<>();
+        private int requested; // number of objects requested from the server, before removing duplicates
+        private boolean complete;
+        private boolean loading;
+
+        private ContainerListing(String id, @Nullable String searchCriteria) {
+            this.id = id;
+            this.searchCriteria = searchCriteria;
+        }
+
+        /**
+         * Add a page of entries received from the server.
+         *
+         * @param page entries of the page, without duplicates
+         * @param numberReturned number of objects returned by the server
+         * @param totalMatches total number of objects, 0 if unknown to the server
+         * @param pageSize requested number of objects, 0 for all
+         */
+        private synchronized void addPage(List<UpnpEntry> page, int numberReturned, int totalMatches, int pageSize) {
+            List<UpnpEntry> newEntries = new ArrayList<>(entries.size() + page.size());
+            newEntries.addAll(entries);
+            for (UpnpEntry entry : page) {
+                // duplicates within the page are already removed, also remove references to entries of earlier pages
+                String refId = entry.getRefId();
+                if (refId.isEmpty() || (!ids.contains(refId) && !refIds.contains(refId))) {
+                    newEntries.add(entry);
+                }
+                ids.add(entry.getId());
+                if (!refId.isEmpty()) {
+                    refIds.add(refId);
+                }
+            }
+            entries = Collections.unmodifiableList(newEntries);
+            requested += numberReturned;
+            if (pageSize <= 0 || numberReturned == 0) {
+                complete = true;
+            } else if (totalMatches > 0) {
+                complete = requested >= totalMatches;
+            } else {
+                complete = numberReturned < pageSize;
+            }
+        }
+
+        private synchronized List<UpnpEntry> getEntries() {
+            return entries;
+        }
+
+        private synchronized boolean hasMore() {
+            return !complete;
+        }
+
+        private synchronized boolean startLoading() {
+            if (loading || complete) {
+                return false;
+            }
+            loading = true;
+            return true;
+        }
+
+        private synchronized void stopLoading() {
+            loading = false;
+        }
+    }
+
     public UpnpServerHandler(Thing thing, UpnpIOService upnpIOService,
             ConcurrentMap<String, UpnpRendererHandler> upnpRenderers,
             UpnpDynamicStateDescriptionProvider upnpStateDescriptionProvider,
@@ -145,13 +243,45 @@ public class UpnpServerHandler extends UpnpHandler {
         }
         updateStateDescription(rendererChannelUID, rendererStateOptionList);
 
+        if (!upnpSubscribed) {
+            addSubscription("ContentDirectory", SUBSCRIPTION_DURATION_SECONDS);
+            upnpSubscribed = true;
+
+            subscriptionRefreshJob = scheduler.scheduleWithFixedDelay(subscriptionRefresh,
+                    SUBSCRIPTION_DURATION_SECONDS / 2, SUBSCRIPTION_DURATION_SECONDS / 2, TimeUnit.SECONDS);
+        }
+
         getProtocolInfo();
 
-        browse(currentEntry.getId(), "BrowseDirectChildren", "*", "0", "0", config.sortcriteria);
+        browseContainer(currentEntry.getId());
 
         updateStatus(ThingStatus.ONLINE);
     }
 
+    @Override
+    public void dispose() {
+        cancelSubscriptionRefreshJob();
+        removeSubscription("ContentDirectory");
+
+        synchronized (listingCache) {
+            listingCache.clear();
+        }
+        currentListing = null;
+
+        super.dispose();
+    }
+
+    private void cancelSubscriptionRefreshJob() {
+        ScheduledFuture<?> refreshJob = subscriptionRefreshJob;
+
+        if (refreshJob != null) {
+            refreshJob.cancel(true);
+        }
+        subscriptionRefreshJob = null;
+
+        upnpSubscribed = false;
+    }
+
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         logger.debug("Handle command {} for channel {} on server {}", command, channelUID, thing.getLabel());
@@ -160,9 +290,10 @@ public class UpnpServerHandler extends UpnpHandler {
             case UPNPRENDERER:
                 if (command instanceof StringType) {
                     currentRendererHandler = (upnpRenderers.get(((StringType) command).toString()));
-                    if (config.filter) {
-                        // only refresh title list if filtering by renderer capabilities
-                        browse(currentEntry.getId(), "BrowseDirectChildren", "*", "0", "0", config.sortcriteria);
+                    ContainerListing listing = currentListing;
+                    if (config.filter && listing != null) {
+                        // only refresh title list if filtering by renderer capabilities, the listing is not reloaded
+                        updateTitleSelection(listing, true);
                     }
                 } else if (command instanceof RefreshType) {
                     UpnpRendererHandler renderer = currentRendererHandler;
@@ -181,23 +312,31 @@ public class UpnpServerHandler extends UpnpHandler {
                 }
                 logger.debug("Setting currentId to {}", currentId);
                 if (!currentId.isEmpty()) {
-                    browse(currentId, "BrowseDirectChildren", "*", "0", "0", config.sortcriteria);
+                    browseContainer(currentId);
                 }
+                break;
             case BROWSE:
                 if (command instanceof StringType) {
                     String browseTarget = command.toString();
+                    if (MORE.equals(browseTarget)) {
+                        // load the next page of the current listing
+                        ContainerListing listing = currentListing;
+                        if (listing != null) {
+                            // the media queue of the renderer is kept, the next page only extends the selection
+                            loadNextPage(listing, false);
+                        }
+                        break;
+                    }
                     if (browseTarget != null) {
                         if (!UP.equals(browseTarget)) {
                             final String target = browseTarget;
-                            synchronized (entries) {
-                                Optional<UpnpEntry> current = entries.stream()
-                                        .filter(entry -> target.equals(entry.getId())).findFirst();
-                                if (current.isPresent()) {
-                                    currentEntry = current.get();
-                                } else {
-                                    logger.info("Trying to browse invalid target {}", browseTarget);
-                                    browseTarget = UP; // move up on invalid target
-                                }
+                            Optional<UpnpEntry> current = entries.stream()
+                                    .filter(entry -> target.equals(entry.getId())).findFirst();
+                            if (current.isPresent()) {
+                                currentEntry = current.get();
+                            } else {
+                                logger.info("Trying to browse invalid target {}", browseTarget);
+                                browseTarget = UP; // move up on invalid target
                             }
                         }
                         if (UP.equals(browseTarget)) {
@@ -211,7 +350,7 @@ public class UpnpServerHandler extends UpnpHandler {
                         }
                         updateState(CURRENTID, StringType.valueOf(currentEntry.getId()));
                         logger.debug("Browse target {}", browseTarget);
-                        browse(browseTarget, "BrowseDirectChildren", "*", "0", "0", config.sortcriteria);
+                        browseContainer(browseTarget);
                     }
                 }
                 break;
@@ -231,7 +370,7 @@ public class UpnpServerHandler extends UpnpHandler {
                         }
                         updateState(CURRENTID, StringType.valueOf(currentEntry.getId()));
                         logger.debug("Search container {} for {}", searchContainer, criteria);
-                        search(searchContainer, criteria, "*", "0", "0", config.sortcriteria);
+                        searchContainer(searchContainer, criteria);
                     }
                 }
                 break;
@@ -271,7 +410,14 @@ public class UpnpServerHandler extends UpnpHandler {
         logger.debug("Renderer option {} removed from {}", key, thing.getLabel());
     }
 
-    private void updateTitleSelection(List<UpnpEntry> titleList) {
+    /**
+     * Show the loaded entries of the listing in the selection.
+     *
+     * @param listing
+     * @param serve true to serve the media of the listing to the renderer, false if the listing only got more entries
+     */
+    private void updateTitleSelection(ContainerListing listing, boolean serve) {
+        List<UpnpEntry> titleList = listing.getEntries();
         logger.debug("Navigating to node {} on server {}", currentEntry.getId(), thing.getLabel());
 
         // Optionally, filter only items that can be played on the renderer
@@ -287,20 +433,24 @@ public class UpnpServerHandler extends UpnpHandler {
             logger.debug("UP added to selection list on server {}", thing.getLabel());
         }
 
-        synchronized (entries) {
-            entries.clear(); // always only keep the current selection in the entry map to keep memory usage down
-            resultList.forEach((value) -> {
-                CommandOption commandOption = new CommandOption(value.getId(), value.getTitle());
-                commandOptionList.add(commandOption);
-                logger.trace("{} added to selection list on server {}", value.getId(), thing.getLabel());
+        resultList.forEach((value) -> {
+            CommandOption commandOption = new CommandOption(value.getId(), value.getTitle());
+            commandOptionList.add(commandOption);
+            logger.trace("{} added to selection list on server {}", value.getId(), thing.getLabel());
 
-                // Keep the entries in a map so we can find the parent and container for the current selection to go
-                // back up
-                if (value.isContainer()) {
-                    parentMap.put(value.getId(), value);
-                }
-                entries.add(value);
-            });
+            // Keep the entries in a map so we can find the parent and container for the current selection to go
+            // back up
+            if (value.isContainer()) {
+                parentMap.put(value.getId(), value);
+            }
+        });
+        // the listing is shared with the cache, it is never modified
+        entries = resultList;
+
+        // Add a selector to load the next page, if the server has more entries
+        if (listing.hasMore()) {
+            commandOptionList.add(new CommandOption(MORE, MORE));
+            logger.debug("{} added to selection list on server {}", MORE, thing.getLabel());
         }
 
         // Set the currentId to the parent of the first entry in the list
@@ -311,7 +461,9 @@ public class UpnpServerHandler extends UpnpHandler {
         logger.debug("{} entries added to selection list on server {}", commandOptionList.size(), thing.getLabel());
         updateCommandDescription(currentSelectionChannelUID, commandOptionList);
 
-        serveMedia();
+        if (serve) {
+            serveMedia();
+        }
     }
 
     /**
@@ -349,8 +501,131 @@ public class UpnpServerHandler extends UpnpHandler {
     }
 
     /**
-     * Method that does a UPnP browse on a content directory. Results will be retrieved in the {@link onValueReceived}
-     * method.
+     * Show the children of a container in the selection. The children are taken from the cache or the first page is
+     * loaded from the server.
+     *
+     * @param objectID content directory container
+     */
+    private void browseContainer(String objectID) {
+        ContainerListing listing;
+        synchronized (listingCache) {
+            listing = listingCache.get(objectID);
+            if (listing == null) {
+                listing = new ContainerListing(objectID, null);
+                listingCache.put(objectID, listing);
+            }
+        }
+        currentListing = listing;
+        if (listing.getEntries().isEmpty() && listing.hasMore()) {
+            loadNextPage(listing, true);
+        } else {
+            logger.debug("Container {} on server {} taken from cache", objectID, thing.getLabel());
+            updateTitleSelection(listing, true);
+        }
+    }
+
+    /**
+     * Show the result of a search in the selection. Search results are not cached.
+     *
+     * @param containerID content directory container
+     * @param searchCriteria search criteria
+     */
+    private void searchContainer(String containerID, String searchCriteria) {
+        ContainerListing listing = new ContainerListing(containerID, searchCriteria);
+        currentListing = listing;
+        loadNextPage(listing, true);
+    }
+
+    /**
+     * Load the shown listing again from the server, e.g. because its content changed on the server. The media queue
+     * of the renderer is not changed.
+     *
+     * @param listing the listing shown in the selection
+     */
+    private void reloadListing(ContainerListing listing) {
+        ContainerListing reloaded = new ContainerListing(listing.id, listing.searchCriteria);
+        if (reloaded.searchCriteria == null) {
+            synchronized (listingCache) {
+                listingCache.put(reloaded.id, reloaded);
+            }
+        }
+        if (currentListing == listing) {
+            logger.debug("Reloading container {} shown on server {}", listing.id, thing.getLabel());
+            currentListing = reloaded;
+            loadNextPage(reloaded, false);
+        }
+    }
+
+    /**
+     * Load the next page of a listing from the server. The selection is updated if the listing is still shown.
+     *
+     * @param listing
+     * @param serve true to serve the media of the listing to the renderer after loading the page
+     */
+    private void loadNextPage(ContainerListing listing, boolean serve) {
+        if (!listing.startLoading()) {
+            return;
+        }
+        scheduler.submit(() -> {
+            try {
+                String startingIndex = String.valueOf(listing.requested);
+                String requestedCount = String.valueOf(Math.max(config.pagesize, 0));
+                String searchCriteria = listing.searchCriteria;
+                Map<String, String> result = searchCriteria == null
+                        ? browse(listing.id, "BrowseDirectChildren", "*", startingIndex, requestedCount,
+                                config.sortcriteria)
+                        : search(listing.id, searchCriteria, "*", startingIndex, requestedCount, config.sortcriteria);
+
+                String value = result.get("Result");
+                if (value == null) {
+                    logger.debug("No result for {} on server {}", listing.id, thing.getLabel());
+                    invalidateContainer(listing.id);
+                    if (listing.getEntries().isEmpty()) {
+                        listing.addPage(Collections.emptyList(), 0, 0, 0);
+                    } else {
+                        return;
+                    }
+                } else {
+                    List<UpnpEntry> page = value.isEmpty() ? Collections.emptyList()
+                            : removeDuplicates(UpnpXMLParser.getEntriesFromXML(value));
+                    listing.addPage(page, parseCount(result.get("NumberReturned"), page.size()),
+                            parseCount(result.get("TotalMatches"), 0), config.pagesize);
+                    logger.debug("Loaded {} entries from {} of {} on server {}", page.size(), startingIndex,
+                            listing.id, thing.getLabel());
+                }
+            } finally {
+                listing.stopLoading();
+            }
+            if (listing == currentListing) {
+                updateTitleSelection(listing, serve);
+            }
+        });
+    }
+
+    private int parseCount(@Nullable String value, int defaultValue) {
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Remove a container listing from the cache, e.g. because its content changed on the server.
+     *
+     * @param objectID content directory container
+     */
+    private void invalidateContainer(String objectID) {
+        synchronized (listingCache) {
+            if (listingCache.remove(objectID) != null) {
+                logger.debug("Container {} on server {} removed from cache", objectID, thing.getLabel());
+            }
+        }
+    }
+
+    /**
+     * Method that does a UPnP browse on a content directory. The call is blocking and returns the result of the
+     * action.
      *
      * @param objectID content directory object
      * @param browseFlag BrowseMetaData or BrowseDirectChildren
@@ -359,8 +634,8 @@ public class UpnpServerHandler extends UpnpHandler {
      * @param requestedCount number of objects to return, 0 for all
      * @param sortCriteria sort criteria, example: +dc:title
      */
-    public void browse(String objectID, String browseFlag, String filter, String startingIndex, String requestedCount,
-            String sortCriteria) {
+    public Map<String, String> browse(String objectID, String browseFlag, String filter, String startingIndex,
+            String requestedCount, String sortCriteria) {
         Map<String, String> inputs = new HashMap<>();
         inputs.put("ObjectID", objectID);
         inputs.put("BrowseFlag", browseFlag);
@@ -369,12 +644,12 @@ public class UpnpServerHandler extends UpnpHandler {
         inputs.put("RequestedCount", requestedCount);
         inputs.put("SortCriteria", sortCriteria);
 
-        invokeAction("ContentDirectory", "Browse", inputs);
+        return invokeContentDirectoryAction("Browse", inputs);
     }
 
     /**
-     * Method that does a UPnP search on a content directory. Results will be retrieved in the {@link onValueReceived}
-     * method.
+     * Method that does a UPnP search on a content directory. The call is blocking and returns the result of the
+     * action.
      *
      * @param containerID content directory container
      * @param searchCriteria search criteria, examples:
@@ -387,8 +662,8 @@ public class UpnpServerHandler extends UpnpHandler {
      * @param requestedCount number of objects to return, 0 for all
      * @param sortCriteria sort criteria, example: +dc:title
      */
-    public void search(String containerID, String searchCriteria, String filter, String startingIndex,
-            String requestedCount, String sortCriteria) {
+    public Map<String, String> search(String containerID, String searchCriteria, String filter,
+            String startingIndex, String requestedCount, String sortCriteria) {
         Map<String, String> inputs = new HashMap<>();
         inputs.put("ContainerID", containerID);
         inputs.put("SearchCriteria", searchCriteria);
@@ -397,7 +672,18 @@ public class UpnpServerHandler extends UpnpHandler {
         inputs.put("RequestedCount", requestedCount);
         inputs.put("SortCriteria", sortCriteria);
 
-        invokeAction("ContentDirectory", "Search", inputs);
+        return invokeContentDirectoryAction("Search", inputs);
+    }
+
+    private Map<String, String> invokeContentDirectoryAction(String actionId, Map<String, String> inputs) {
+        Map<String, String> result = service.invokeAction(this, "ContentDirectory", actionId, inputs);
+        logger.debug("Upnp device {} invoke upnp action {} on service ContentDirectory with inputs {}",
+                thing.getLabel(), actionId, inputs);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Upnp device {} invoke upnp action {} on service ContentDirectory reply {}",
+                    thing.getLabel(), actionId, result);
+        }
+        return result;
     }
 
     @Override
@@ -420,11 +706,36 @@ public class UpnpServerHandler extends UpnpHandler {
             return;
         }
         switch (variable) {
-            case "Result":
-                if (!((value == null) || (value.isEmpty()))) {
-                    updateTitleSelection(removeDuplicates(UpnpXMLParser.getEntriesFromXML(value)));
-                } else {
-                    updateTitleSelection(new ArrayList<UpnpEntry>());
+            case "ContainerUpdateIDs":
+                // comma separated pairs of container id and update id
+                containerUpdates = true;
+                if (value != null && !value.isEmpty()) {
+                    ContainerListing shown = currentListing;
+                    boolean shownChanged = false;
+                    String[] updates = value.split(",");
+                    for (int i = 0; i < updates.length; i += 2) {
+                        invalidateContainer(updates[i]);
+                        shownChanged |= shown != null && shown.id.equals(updates[i]);
+                    }
+                    if (shown != null && shownChanged) {
+                        reloadListing(shown);
+                    }
+                }
+                break;
+            case "SystemUpdateID":
+                // changes with every change of the content directory, only used if the server does not tell which
+                // containers have changed
+                String lastUpdateId = systemUpdateId;
+                systemUpdateId = value == null ? "" : value;
+                if (!containerUpdates && !lastUpdateId.isEmpty() && !lastUpdateId.equals(systemUpdateId)) {
+                    synchronized (listingCache) {
+                        listingCache.clear();
+                    }
+                    logger.debug("Content of server {} changed, cache cleared", thing.getLabel());
+                    ContainerListing shown = currentListing;
+                    if (shown != null) {
+                        reloadListing(shown);
+                    }
                 }
                 break;
             case "Source":
@@ -14,8 +14,6 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -101,6 +99,33 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
+        return toDecimalType(extractRawValueFromRegisters(registers, index, type), type);
+    }
+
+    /**
+     * Read data from registers and return it as primitive <tt>long</tt>, without allocating any objects
+     *
+     * The registers are interpreted the same way as in
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}. The returned value is
+     * - numeric value of the item with BIT, INT8, UINT8, INT16, UINT16, INT32, UINT32, INT64 and their swapped variants
+     * - all 64 bits of the item with UINT64 and UINT64_SWAP. The value should be interpreted as unsigned, e.g. with
+     * {@link Long#toUnsignedString(long)}
+     * - IEEE 754 bits of the item with FLOAT32 and FLOAT32_SWAP. Use {@link Float#intBitsToFloat(int)} to convert
+     * the value to floating point number
+     *
+     * The raw value can be converted to <tt>DecimalType</tt> using
+     * {@link #toDecimalType(long, ModbusConstants.ValueType)}. Two items of same type have the same raw value if and
+     * only if they are represented by the same bits, making the raw value suitable for detecting changes.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, see
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return raw value of the item
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static long extractRawValueFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
         int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
         // each register has 16 bits
         int lastValidIndex = registers.size() * 16 - 1;
@@ -111,107 +136,116 @@ public class ModbusBitUtilities {
         }
         switch (type) {
             case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
+                return (registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1;
             case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
+                return (byte) (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2)));
             case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
+                return (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getRegister(index).toUnsignedShort();
             case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
+                return registers.getRegister(index).toUnsignedShort();
+            case INT32:
+                return registersToInt(registers, index, index + 1);
+            case UINT32:
+            case FLOAT32:
+                return registersToInt(registers, index, index + 1) & 0xffffffffL;
+            case INT32_SWAP:
+                return registersToInt(registers, index + 1, index);
+            case UINT32_SWAP:
+            case FLOAT32_SWAP:
+                return registersToInt(registers, index + 1, index) & 0xffffffffL;
+            case INT64:
+            case UINT64:
+                return ((long) registersToInt(registers, index, index + 1) << 32)
+                        | (registersToInt(registers, index + 2, index + 3) & 0xffffffffL);
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return ((long) registersToInt(registers, index + 3, index + 2) << 32)
+                        | (registersToInt(registers, index + 1, index) & 0xffffffffL);
+            default:
+                throw new IllegalArgumentException(type.getConfigValue());
+        }
+    }
+
+    /**
+     * Read data from registers and return it as primitive <tt>double</tt>, without allocating any objects
+     *
+     * The registers are interpreted the same way as in
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}. Note that 64 bit
+     * integers might not be represented exactly.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type
+     * @return numeric value of the item. Floating point NaN and infinity are returned as is.
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static double extractDoubleFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        long rawValue = extractRawValueFromRegisters(registers, index, type);
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return Float.intBitsToFloat((int) rawValue);
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawValue >= 0) {
+                    return rawValue;
                 }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
+                // unsigned value does not fit to long, halve to keep the magnitude and compensate the dropped bit
+                return (double) ((rawValue >>> 1) | (rawValue & 1)) * 2.0;
+            default:
+                return rawValue;
+        }
+    }
+
+    /**
+     * Convert raw value returned by
+     * {@link #extractRawValueFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * to <tt>DecimalType</tt>
+     *
+     * @param rawValue raw value of the item
+     * @param type item type
+     * @return number representation of the value, <tt>DecimalType</tt>. Empty optional is returned
+     *         with NaN and infinity floating point values
+     */
+    public static Optional<DecimalType> toDecimalType(long rawValue, ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
             case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
+                float value = Float.intBitsToFloat((int) rawValue);
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
                     // floating point NaN or infinity encountered
                     return Optional.empty();
                 }
+                return Optional.of(new DecimalType(value));
             }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawValue < 0) {
+                    return Optional
+                            .of(new DecimalType(new BigDecimal(new BigInteger(Long.toUnsignedString(rawValue)))));
+                }
+                return Optional.of(new DecimalType(rawValue));
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                return Optional.of(new DecimalType(rawValue));
         }
     }
 
+    /**
+     * Combine two registers to 32 bit integer
+     *
+     * @param registers registers
+     * @param highIndex index of the register containing the most significant 16 bits
+     * @param lowIndex index of the register containing the least significant 16 bits
+     * @return integer
+     */
+    private static int registersToInt(ModbusRegisterArray registers, int highIndex, int lowIndex) {
+        return (registers.getRegister(highIndex).toUnsignedShort() << 16)
+                | registers.getRegister(lowIndex).toUnsignedShort();
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
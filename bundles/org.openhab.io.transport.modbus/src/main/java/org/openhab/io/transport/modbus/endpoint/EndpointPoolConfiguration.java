@@ -61,6 +61,20 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * Maximum number of unused registers (or coils/discrete inputs) between two regular polls to still merge them into
+     * single read request. Only polls with same slave id, function code and poll period are merged. Negative value
+     * (default) disables merging of polls.
+     */
+    private int coalescingMaxGap = -1;
+
+    /**
+     * How many requests can be sent to the endpoint before receiving the responses. Applies only to merged regular
+     * polls (see coalescingMaxGap) of Modbus TCP endpoints, the responses are matched to requests using transaction
+     * id. Default of 1 means that the next request is sent only after receiving the response of the previous one.
+     */
+    private int maxInFlightTransactions = 1;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -107,10 +121,27 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getCoalescingMaxGap() {
+        return coalescingMaxGap;
+    }
+
+    public void setCoalescingMaxGap(int coalescingMaxGap) {
+        this.coalescingMaxGap = coalescingMaxGap;
+    }
+
+    public int getMaxInFlightTransactions() {
+        return maxInFlightTransactions;
+    }
+
+    public void setMaxInFlightTransactions(int maxInFlightTransactions) {
+        this.maxInFlightTransactions = maxInFlightTransactions;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).append(coalescingMaxGap)
+                .append(maxInFlightTransactions).toHashCode();
     }
 
     @Override
@@ -119,7 +150,8 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis).append("coalescingMaxGap", coalescingMaxGap)
+                .append("maxInFlightTransactions", maxInFlightTransactions).toString();
     }
 
     @Override
@@ -137,6 +169,7 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).append(coalescingMaxGap, rhs.coalescingMaxGap)
+                .append(maxInFlightTransactions, rhs.maxInFlightTransactions).isEquals();
     }
 }
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.exception;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Exception for operations rejected since too many operations are already queued for the endpoint
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ModbusEndpointQueueFullException extends ModbusTransportException {
+
+    private static final long serialVersionUID = 2497423720311829524L;
+    private ModbusSlaveEndpoint endpoint;
+
+    /**
+     *
+     * @param endpoint endpoint associated with this exception
+     */
+    public ModbusEndpointQueueFullException(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Get endpoint with the full queue
+     *
+     * @return endpoint with the full queue
+     */
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Too many operations queued for endpoint %s", endpoint);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModbusEndpointQueueFullException(Too many operations queued for endpoint=%s)",
+                endpoint);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.exception;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Exception for queued operations discarded without executing them, e.g. when the manager is deactivated
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ModbusOperationDiscardedException extends ModbusTransportException {
+
+    private static final long serialVersionUID = -4217935184651620372L;
+    private ModbusSlaveEndpoint endpoint;
+
+    /**
+     *
+     * @param endpoint endpoint associated with this exception
+     */
+    public ModbusOperationDiscardedException(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Get endpoint of the discarded operation
+     *
+     * @return endpoint of the discarded operation
+     */
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Operation queued for endpoint %s was discarded before execution", endpoint);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModbusOperationDiscardedException(Operation discarded before execution, endpoint=%s)",
+                endpoint);
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PollTask} executing a merged read request on behalf of several regular poll tasks.
+ *
+ * The result of the merged request is split and passed to the callbacks of the original tasks. Similarly, errors are
+ * passed to the failure callbacks of all the original tasks, unless the failures are deferred. Deferred failure is
+ * only recorded, allowing the caller to read the original tasks individually instead (see
+ * {@link #getDeferredFailure()}). Tasks that have been unregistered while the merged request was executing are
+ * skipped.
+ *
+ * Instances are compared by identity, they are never registered with the manager themselves.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(CoalescedPollTask.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+    private final ModbusReadCallback resultCallback;
+    private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+
+    private final Predicate<PollTask> registered;
+    private volatile @Nullable Exception deferredFailure;
+
+    /**
+     * Constructs new merged poll task
+     *
+     * @param endpoint endpoint of the poll tasks
+     * @param plannedRead merged read request and the original tasks it serves
+     * @param registered predicate telling whether the original task is still registered, and should receive the
+     *            result
+     */
+    public CoalescedPollTask(ModbusSlaveEndpoint endpoint, ModbusReadRequestPlanner.PlannedRead plannedRead,
+            Predicate<PollTask> registered) {
+        this(endpoint, plannedRead, registered, false);
+    }
+
+    /**
+     * Constructs new merged poll task
+     *
+     * @param endpoint endpoint of the poll tasks
+     * @param plannedRead merged read request and the original tasks it serves
+     * @param registered predicate telling whether the original task is still registered, and should receive the
+     *            result
+     * @param deferFailures whether to record the failure of the merged request instead of passing it to the original
+     *            tasks
+     */
+    public CoalescedPollTask(ModbusSlaveEndpoint endpoint, ModbusReadRequestPlanner.PlannedRead plannedRead,
+            Predicate<PollTask> registered, boolean deferFailures) {
+        this.endpoint = endpoint;
+        this.request = plannedRead.getRequest();
+        this.tasks = plannedRead.getTasks();
+        this.registered = registered;
+        this.resultCallback = result -> {
+            for (PollTask task : tasks) {
+                if (!registered.test(task)) {
+                    logger.trace("Poll task {} was unregistered, not delivering merged poll result", task);
+                    continue;
+                }
+                try {
+                    task.getResultCallback().handle(ModbusReadRequestPlanner.sliceResult(result, task.getRequest()));
+                } catch (RuntimeException e) {
+                    // Do not let one misbehaving callback prevent delivering the data to the rest
+                    logger.warn("Result callback of poll task {} failed unexpectedly", task, e);
+                }
+            }
+        };
+        this.failureCallback = failure -> {
+            if (deferFailures) {
+                deferredFailure = failure.getCause();
+            } else {
+                deliverFailure(failure.getCause());
+            }
+        };
+    }
+
+    /**
+     * Pass the error to the failure callbacks of the original tasks that are still registered
+     *
+     * @param cause error to pass
+     */
+    public void deliverFailure(Exception cause) {
+        for (PollTask task : tasks) {
+            if (!registered.test(task)) {
+                logger.trace("Poll task {} was unregistered, not delivering merged poll failure", task);
+                continue;
+            }
+            try {
+                task.getFailureCallback().handle(new AsyncModbusFailure<>(task.getRequest(), cause));
+            } catch (RuntimeException e) {
+                logger.warn("Failure callback of poll task {} failed unexpectedly", task, e);
+            }
+        }
+    }
+
+    /**
+     * Get the failure recorded with the last execution, when failures are deferred
+     *
+     * @return cause of the failure, or null if the merged request did not fail
+     */
+    public @Nullable Exception getDeferredFailure() {
+        return deferredFailure;
+    }
+
+    /**
+     * Get the original poll tasks served by this task
+     *
+     * @return poll tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Check whether any of the original poll tasks is still registered
+     *
+     * @return true if the merged request still needs to be executed
+     */
+    public boolean hasRegisteredTasks() {
+        return tasks.stream().anyMatch(registered);
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusReadCallback getResultCallback() {
+        return resultCallback;
+    }
+
+    @Override
+    public ModbusFailureCallback<ModbusReadRequestBlueprint> getFailureCallback() {
+        return failureCallback;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serialized execution lane for the operations of a single endpoint.
+ *
+ * Operations submitted to the lane are queued and executed one at a time using the shared executor. This way a slow
+ * endpoint (e.g. serial slave with long timeouts) occupies at most one thread of the shared executor, and operations
+ * of other endpoints do not need to wait behind it.
+ *
+ * The queue is bounded, operations submitted to a full lane are rejected. Operations can be submitted with a key
+ * (e.g. poll task), in which case new submission is dropped while an operation with an equal key is still pending.
+ * Operations can also have a discard callback, called when the operation is dropped from the queue by {@link #clear()}
+ * without executing it.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointLane {
+
+    private static class Entry {
+        private final @Nullable Object key;
+        private final Runnable runnable;
+        private final @Nullable Runnable discarded;
+
+        private Entry(@Nullable Object key, Runnable runnable, @Nullable Runnable discarded) {
+            this.key = key;
+            this.runnable = runnable;
+            this.discarded = discarded;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusEndpointLane.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+    private final int maxQueueSize;
+
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final Set<Object> pendingKeys = new HashSet<>();
+    private boolean draining;
+
+    private long executedCount;
+    private long mergedCount;
+    private long rejectedCount;
+    private int maxQueueDepth;
+
+    /**
+     * Constructs new lane
+     *
+     * @param endpoint endpoint of this lane, used for logging
+     * @param executor executor used to execute the operations
+     * @param maxQueueSize maximum number of pending operations
+     */
+    public ModbusEndpointLane(ModbusSlaveEndpoint endpoint, Executor executor, int maxQueueSize) {
+        if (maxQueueSize <= 0) {
+            throw new IllegalArgumentException("maxQueueSize should be positive");
+        }
+        this.endpoint = endpoint;
+        this.executor = executor;
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Submit operation for execution
+     *
+     * @param key key identifying the operation, or null if the operation should never be merged with pending
+     *            operations
+     * @param runnable the operation
+     * @return true if the operation was queued, false if it was merged with pending operation or rejected due to full
+     *         queue
+     */
+    public boolean submit(@Nullable Object key, Runnable runnable) {
+        return submit(key, runnable, null);
+    }
+
+    /**
+     * Submit operation for execution
+     *
+     * @param key key identifying the operation, or null if the operation should never be merged with pending
+     *            operations
+     * @param runnable the operation
+     * @param discarded called if the queued operation is dropped by {@link #clear()} without executing it, or null
+     * @return true if the operation was queued, false if it was merged with pending operation or rejected due to full
+     *         queue
+     */
+    public boolean submit(@Nullable Object key, Runnable runnable, @Nullable Runnable discarded) {
+        synchronized (this) {
+            if (key != null && pendingKeys.contains(key)) {
+                mergedCount++;
+                logger.trace("Operation {} already pending for endpoint {}, not queuing it again", key, endpoint);
+                return false;
+            }
+            if (queue.size() >= maxQueueSize) {
+                rejectedCount++;
+                logger.warn("Queue of endpoint {} is full ({} operations), rejecting operation {}", endpoint,
+                        queue.size(), key);
+                return false;
+            }
+            queue.add(new Entry(key, runnable, discarded));
+            if (key != null) {
+                pendingKeys.add(key);
+            }
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+            if (draining) {
+                return true;
+            }
+            draining = true;
+        }
+        scheduleNext();
+        return true;
+    }
+
+    private void scheduleNext() {
+        try {
+            executor.execute(this::runNext);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Executor rejected operation of endpoint {}, clearing lane", endpoint);
+            clear();
+        }
+    }
+
+    /**
+     * Execute single operation and re-submit to the executor if more operations are pending. Re-submitting (instead
+     * of looping) lets operations of other lanes to interleave fairly.
+     */
+    private void runNext() {
+        Entry entry;
+        synchronized (this) {
+            entry = queue.poll();
+            if (entry == null) {
+                draining = false;
+                return;
+            }
+            Object key = entry.key;
+            if (key != null) {
+                pendingKeys.remove(key);
+            }
+        }
+        try {
+            entry.runnable.run();
+        } catch (RuntimeException e) {
+            logger.warn("Unexpected error executing operation {} of endpoint {}", entry.key, endpoint, e);
+        } finally {
+            boolean more;
+            synchronized (this) {
+                executedCount++;
+                more = !queue.isEmpty();
+                if (!more) {
+                    draining = false;
+                }
+            }
+            if (more) {
+                scheduleNext();
+            }
+        }
+    }
+
+    /**
+     * Drop all pending operations, calling the discard callbacks of the dropped operations
+     */
+    public void clear() {
+        List<Entry> dropped;
+        synchronized (this) {
+            dropped = new ArrayList<>(queue);
+            queue.clear();
+            pendingKeys.clear();
+            draining = false;
+        }
+        for (Entry entry : dropped) {
+            Runnable discarded = entry.discarded;
+            if (discarded == null) {
+                continue;
+            }
+            try {
+                discarded.run();
+            } catch (RuntimeException e) {
+                logger.warn("Unexpected error discarding operation {} of endpoint {}", entry.key, endpoint, e);
+            }
+        }
+    }
+
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get number of pending operations
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Get maximum number of pending operations observed
+     */
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * Get number of executed operations
+     */
+    public synchronized long getExecutedCount() {
+        return executedCount;
+    }
+
+    /**
+     * Get number of operations dropped since equal operation was already pending
+     */
+    public synchronized long getMergedCount() {
+        return mergedCount;
+    }
+
+    /**
+     * Get number of operations rejected due to full queue
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new StringBuilder("ModbusEndpointLane(endpoint=").append(endpoint).append(", queueDepth=")
+                .append(queue.size()).append(", maxQueueDepth=").append(maxQueueDepth).append(", executed=")
+                .append(executedCount).append(", merged=").append(mergedCount).append(", rejected=")
+                .append(rejectedCount).append(")").toString();
+    }
+}
@@ -14,17 +14,27 @@ package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.imageio.IIOException;
 
@@ -42,6 +52,7 @@ import org.openhab.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.io.transport.modbus.ModbusFailureCallback;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusResultCallback;
 import org.openhab.io.transport.modbus.ModbusWriteCallback;
@@ -56,9 +67,12 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
 import org.openhab.io.transport.modbus.exception.ModbusConnectionException;
+import org.openhab.io.transport.modbus.exception.ModbusEndpointQueueFullException;
+import org.openhab.io.transport.modbus.exception.ModbusOperationDiscardedException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseFunctionCodeException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseSizeException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedTransactionIdException;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner.PlannedRead;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -74,6 +88,7 @@ import net.wimpi.modbus.io.ModbusTransaction;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.ModbusResponse;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
 
 /**
  * Main implementation of ModbusManager
@@ -96,6 +111,143 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
+    /**
+     * Regular poll tasks that are executed together, sharing the same scheduled job.
+     *
+     * Tasks belonging to the same group have the same endpoint, slave id, function code and poll period. Also the
+     * merging and pipelining configuration used when registering the tasks must be equal.
+     *
+     * @author agent - Initial contribution
+     */
+    private static class CoalescedPollGroup {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+        private final int maxGap;
+        private final int maxInFlightTransactions;
+        private final Set<PollTask> tasks = new CopyOnWriteArraySet<>();
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        public CoalescedPollGroup(PollTask task, long pollPeriodMillis, int maxGap, int maxInFlightTransactions) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.functionCode = task.getRequest().getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.maxGap = maxGap;
+            this.maxInFlightTransactions = maxInFlightTransactions;
+        }
+
+        public boolean accepts(PollTask task, long pollPeriodMillis, int maxGap, int maxInFlightTransactions) {
+            return this.pollPeriodMillis == pollPeriodMillis && this.maxGap == maxGap
+                    && this.maxInFlightTransactions == maxInFlightTransactions && endpoint.equals(task.getEndpoint())
+                    && unitId == task.getRequest().getUnitID() && functionCode == task.getRequest().getFunctionCode();
+        }
+    }
+
+    /**
+     * Future of a regular poll executed in the lane of the endpoint.
+     *
+     * The next execution is scheduled only after the lane has executed the previous one, so that the poll period is
+     * the delay between the executions, like with {@link ScheduledExecutorService#scheduleWithFixedDelay}.
+     *
+     * @author agent - Initial contribution
+     */
+    private class LanePollFuture implements ScheduledFuture<@Nullable Object> {
+        private final ScheduledExecutorService executor;
+        private final ModbusSlaveEndpoint endpoint;
+        private final Object key;
+        private final Runnable operation;
+        private final long delayMillis;
+        private final CountDownLatch canceled = new CountDownLatch(1);
+        private volatile @Nullable ScheduledFuture<?> next;
+
+        public LanePollFuture(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint, Object key,
+                Runnable operation, long delayMillis) {
+            this.executor = executor;
+            this.endpoint = endpoint;
+            this.key = key;
+            this.operation = operation;
+            this.delayMillis = delayMillis;
+        }
+
+        private synchronized void schedule(long delay) {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                next = executor.schedule(this::submitToLane, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Executor rejected poll {} of endpoint {}, manager is shutting down", key, endpoint);
+            }
+        }
+
+        private void submitToLane() {
+            boolean queued = executeInLane(endpoint, key, () -> {
+                try {
+                    operation.run();
+                } finally {
+                    schedule(delayMillis);
+                }
+            });
+            if (!queued) {
+                // lane is full, try again after the poll period
+                schedule(delayMillis);
+            }
+        }
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            ScheduledFuture<?> next = this.next;
+            return next == null ? 0 : next.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            return other == null ? 1
+                    : Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            if (isCancelled()) {
+                return false;
+            }
+            canceled.countDown();
+            ScheduledFuture<?> next = this.next;
+            if (next != null) {
+                next.cancel(mayInterruptIfRunning);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return canceled.getCount() == 0;
+        }
+
+        @Override
+        public boolean isDone() {
+            // regular poll completes only by canceling it
+            return isCancelled();
+        }
+
+        @Override
+        public @Nullable Object get() throws InterruptedException {
+            canceled.await();
+            throw new CancellationException();
+        }
+
+        @Override
+        public @Nullable Object get(long timeout, @Nullable TimeUnit unit)
+                throws InterruptedException, TimeoutException {
+            if (!canceled.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            throw new CancellationException();
+        }
+    }
+
     @FunctionalInterface
     private interface ModbusOperation<T> {
 
@@ -150,7 +302,7 @@ public class ModbusManagerImpl implements ModbusManager {
      * @throws ModbusUnexpectedResponseFunctionCodeException when response function code does not match the request
      *             (ill-behaving slave)
      */
-    private <R> void checkFunctionCode(ModbusResponse response, ModbusRequest libRequest, String operationId)
+    static void checkFunctionCode(ModbusResponse response, ModbusRequest libRequest, String operationId)
             throws ModbusUnexpectedResponseFunctionCodeException {
         if ((response.getFunctionCode() != libRequest.getFunctionCode())) {
             throw new ModbusUnexpectedResponseFunctionCodeException(libRequest.getTransactionID(),
@@ -173,7 +325,7 @@ public class ModbusManagerImpl implements ModbusManager {
      * @param operationId operation id for logging
      * @throws ModbusUnexpectedResponseSizeException when data length of the response and request do not match
      */
-    private <R> void checkResponseSize(ModbusResponse response, ModbusReadRequestBlueprint request, String operationId)
+    static void checkResponseSize(ModbusResponse response, ModbusReadRequestBlueprint request, String operationId)
             throws ModbusUnexpectedResponseSizeException {
         final int responseCount = ModbusLibraryWrapper.getNumberOfItemsInResponse(response, request);
         if (responseCount < request.getDataLength()) {
@@ -294,7 +446,25 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
+    /**
+     * Configuration property to execute the operations of each endpoint serially in a dedicated lane, see
+     * {@link ModbusEndpointLane}. Disabled by default.
+     */
+    private static final String CONFIG_ENDPOINT_LANES = "endpointLanes";
+
+    /**
+     * Configuration property for the maximum number of pending operations per endpoint lane
+     */
+    private static final String CONFIG_LANE_MAX_QUEUE_SIZE = "laneMaxQueueSize";
+    private static final int DEFAULT_LANE_MAX_QUEUE_SIZE = 100;
+
+    /**
+     * Maximum value of MBAP transaction id (2 bytes)
+     */
+    private static final int MAX_TRANSACTION_ID = 0xFFFF;
+
     private final PollOperation pollOperation = new PollOperation();
+    private final AtomicInteger pipelinedTransactionId = new AtomicInteger();
     private final WriteOperation writeOperation = new WriteOperation();
 
     private volatile long lastQueueMonitorLog = -1;
@@ -312,12 +482,20 @@ public class ModbusManagerImpl implements ModbusManager {
     private volatile @Nullable KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool;
     private volatile @Nullable ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Groups of regular polls executed with merged read requests. Tasks of these groups are also in
+     * scheduledPollTasks, mapped to the future of the group.
+     */
+    private volatile Set<CoalescedPollGroup> coalescedPollGroups = new CopyOnWriteArraySet<>();
     /**
      * Executor for requests
      */
     private volatile @Nullable ScheduledExecutorService scheduledThreadPoolExecutor;
     private volatile @Nullable ScheduledFuture<?> monitorFuture;
     private volatile Set<ModbusCommunicationInterfaceImpl> communicationInterfaces = new ConcurrentHashSet<>();
+    private volatile boolean endpointLanesEnabled;
+    private volatile int laneMaxQueueSize = DEFAULT_LANE_MAX_QUEUE_SIZE;
+    private volatile Map<ModbusSlaveEndpoint, ModbusEndpointLane> endpointLanes = new ConcurrentHashMap<>();
 
     private void constructConnectionPool() {
         ModbusSlaveConnectionFactoryImpl connectionFactory = new ModbusSlaveConnectionFactoryImpl();
@@ -500,8 +678,17 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    private boolean isTaskRegistered(PollTask task) {
+        if (task instanceof CoalescedPollTask) {
+            // merged request is still relevant as long as some of the original tasks is registered. The result is
+            // delivered only to the tasks that are still registered at the time of the callback
+            return ((CoalescedPollTask) task).hasRegisteredTasks();
+        }
+        return scheduledPollTasks.containsKey(task);
+    }
+
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        if (!isTaskRegistered(task)) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -748,7 +935,7 @@ public class ModbusManagerImpl implements ModbusManager {
             long scheduleTime = System.currentTimeMillis();
             BasicPollTask task = new BasicPollTask(endpoint, request, resultCallback, failureCallback);
             logger.debug("Scheduling one-off poll task {}", task);
-            Future<?> future = executor.submit(() -> {
+            Future<?> future = submitOneTimeOperation(executor, task, () -> {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
@@ -774,7 +961,20 @@ public class ModbusManagerImpl implements ModbusManager {
                     logger.trace("Unregistering previous poll task (possibly with different period)");
                     unregisterRegularPoll(task);
                 }
-                ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
+                ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
+                Objects.requireNonNull(localConnectionFactory, "Not activated!");
+                EndpointPoolConfiguration poolConfiguration = localConnectionFactory
+                        .getEndpointPoolConfiguration(endpoint);
+                if (poolConfiguration != null && poolConfiguration.getCoalescingMaxGap() >= 0) {
+                    ScheduledFuture<?> future = registerCoalescedPoll(executor, task, pollPeriodMillis,
+                            initialDelayMillis, poolConfiguration);
+                    scheduledPollTasks.put(task, future);
+                    pollTasksRegisteredByThisCommInterface.add(task);
+                    logger.trace("Registered poll task {} with period {} to be merged with other polls ({})", task,
+                            pollPeriodMillis, poolConfiguration);
+                    return task;
+                }
+                Runnable poll = () -> {
                     long started = System.currentTimeMillis();
                     logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
                             started);
@@ -793,7 +993,9 @@ public class ModbusManagerImpl implements ModbusManager {
                     logger.debug(
                             "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
                             pollPeriodMillis, task, finished, started, finished - started);
-                }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+                };
+                ScheduledFuture<?> future = scheduleWithFixedDelayInLane(executor, endpoint, task, poll,
+                        initialDelayMillis, pollPeriodMillis);
 
                 scheduledPollTasks.put(task, future);
                 pollTasksRegisteredByThisCommInterface.add(task);
@@ -822,6 +1024,10 @@ public class ModbusManagerImpl implements ModbusManager {
                     logger.warn("Caller tried to unregister nonexisting poll task {}", task);
                     return false;
                 }
+                if (removeFromCoalescedPollGroup(task)) {
+                    logger.debug("Poll task {} removed from merged polls", task);
+                    return true;
+                }
                 logger.debug("Unregistering regular poll task {} (interrupting if necessary)", task);
                 future.cancel(true);
                 logger.debug("Poll task {} canceled", task);
@@ -840,7 +1046,7 @@ public class ModbusManagerImpl implements ModbusManager {
             WriteTask task = new BasicWriteTask(endpoint, request, resultCallback, failureCallback);
             long scheduleTime = System.currentTimeMillis();
             logger.debug("Scheduling one-off write task {}", task);
-            Future<?> future = localScheduledThreadPoolExecutor.submit(() -> {
+            Future<?> future = submitOneTimeOperation(localScheduledThreadPoolExecutor, task, () -> {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
@@ -873,6 +1079,236 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Add the task to a group of merged polls, scheduling the group if necessary
+     *
+     * @return future of the group
+     */
+    private ScheduledFuture<?> registerCoalescedPoll(ScheduledExecutorService executor, PollTask task,
+            long pollPeriodMillis, long initialDelayMillis, EndpointPoolConfiguration poolConfiguration) {
+        int maxGap = poolConfiguration.getCoalescingMaxGap();
+        int maxInFlightTransactions = poolConfiguration.getMaxInFlightTransactions();
+        CoalescedPollGroup group = coalescedPollGroups.stream()
+                .filter(g -> g.accepts(task, pollPeriodMillis, maxGap, maxInFlightTransactions)).findFirst()
+                .orElseGet(() -> {
+                    CoalescedPollGroup newGroup = new CoalescedPollGroup(task, pollPeriodMillis, maxGap,
+                            maxInFlightTransactions);
+                    coalescedPollGroups.add(newGroup);
+                    return newGroup;
+                });
+        group.tasks.add(task);
+        ScheduledFuture<?> future = group.future;
+        if (future == null) {
+            group.future = future = scheduleWithFixedDelayInLane(executor, group.endpoint, group,
+                    () -> executeCoalescedPoll(group), initialDelayMillis, pollPeriodMillis);
+        }
+        return future;
+    }
+
+    /**
+     * Remove task from a group of merged polls. Group is canceled when its last task is removed.
+     *
+     * @return whether the task belonged to a group
+     */
+    private boolean removeFromCoalescedPollGroup(PollTask task) {
+        for (CoalescedPollGroup group : coalescedPollGroups) {
+            if (!group.tasks.remove(task)) {
+                continue;
+            }
+            if (group.tasks.isEmpty()) {
+                coalescedPollGroups.remove(group);
+                ScheduledFuture<?> future = group.future;
+                if (future != null) {
+                    logger.debug("Last merged poll task removed, canceling poll of {} (interrupting if necessary)",
+                            group.endpoint);
+                    future.cancel(true);
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Execute the operation right away, or queue it to the lane of the endpoint when lanes are enabled
+     *
+     * @param endpoint endpoint of the operation
+     * @param key key identifying the operation, operation is dropped if equal operation is already pending in the
+     *            lane. Use null with operations that should not be dropped.
+     * @param operation operation to execute
+     * @return false if the operation was dropped by the lane
+     */
+    private boolean executeInLane(ModbusSlaveEndpoint endpoint, @Nullable Object key, Runnable operation) {
+        return executeInLane(endpoint, key, operation, null);
+    }
+
+    /**
+     * Execute the operation right away, or queue it to the lane of the endpoint when lanes are enabled
+     *
+     * @param endpoint endpoint of the operation
+     * @param key key identifying the operation, operation is dropped if equal operation is already pending in the
+     *            lane. Use null with operations that should not be dropped.
+     * @param operation operation to execute
+     * @param discarded called if the queued operation is discarded when the lane is cleared, or null
+     * @return false if the operation was dropped by the lane
+     */
+    private boolean executeInLane(ModbusSlaveEndpoint endpoint, @Nullable Object key, Runnable operation,
+            @Nullable Runnable discarded) {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        if (!endpointLanesEnabled || executor == null) {
+            operation.run();
+            return true;
+        }
+        ModbusEndpointLane lane = endpointLanes.computeIfAbsent(endpoint,
+                e -> new ModbusEndpointLane(e, executor, laneMaxQueueSize));
+        return lane.submit(key, operation, discarded);
+    }
+
+    /**
+     * Schedule regular operation, executed in the lane of the endpoint when lanes are enabled
+     *
+     * With lanes, the delay is counted from the end of the previous execution in the lane, not from queuing it.
+     *
+     * @param executor executor used for scheduling
+     * @param endpoint endpoint of the operation
+     * @param key key identifying the operation in the lane
+     * @param operation operation to execute
+     * @param initialDelayMillis delay before first execution
+     * @param delayMillis delay between the end of execution and start of the next
+     * @return future of the regular operation
+     */
+    private ScheduledFuture<?> scheduleWithFixedDelayInLane(ScheduledExecutorService executor,
+            ModbusSlaveEndpoint endpoint, Object key, Runnable operation, long initialDelayMillis, long delayMillis) {
+        if (!endpointLanesEnabled) {
+            return executor.scheduleWithFixedDelay(operation, initialDelayMillis, delayMillis, TimeUnit.MILLISECONDS);
+        }
+        LanePollFuture future = new LanePollFuture(executor, endpoint, key, operation, delayMillis);
+        future.schedule(initialDelayMillis);
+        return future;
+    }
+
+    private <R> Future<?> submitOneTimeOperation(ScheduledExecutorService executor,
+            TaskWithEndpoint<R, ?, ? extends ModbusFailureCallback<R>> task, Runnable operation) {
+        if (!endpointLanesEnabled) {
+            return executor.submit(operation);
+        }
+        FutureTask<@Nullable Object> future = new FutureTask<>(operation, null);
+        Runnable discarded = () -> {
+            // lane was cleared before executing the operation, e.g. the manager is deactivated
+            future.cancel(false);
+            invokeCallbackWithError(task.getRequest(), task.getFailureCallback(),
+                    new ModbusOperationDiscardedException(task.getEndpoint()));
+        };
+        if (!executeInLane(task.getEndpoint(), null, future, discarded)) {
+            // lane is full, fail the operation instead of executing it
+            return executor.submit(() -> invokeCallbackWithError(task.getRequest(), task.getFailureCallback(),
+                    new ModbusEndpointQueueFullException(task.getEndpoint())));
+        }
+        return future;
+    }
+
+    private void executeCoalescedPoll(CoalescedPollGroup group) {
+        long started = System.currentTimeMillis();
+        List<PlannedRead> plannedReads = ModbusReadRequestPlanner.plan(group.tasks, group.maxGap);
+        logger.debug("Executing scheduled ({}ms) merged poll of {} tasks using {} requests. Current millis: {}",
+                group.pollPeriodMillis, group.tasks.size(), plannedReads.size(), started);
+        List<PollTask> tasks = plannedReads.stream()
+                .map(plannedRead -> plannedRead.getTasks().size() == 1 ? plannedRead.getTasks().get(0)
+                        : new CoalescedPollTask(group.endpoint, plannedRead, scheduledPollTasks::containsKey, true))
+                .collect(Collectors.toList());
+        if (group.maxInFlightTransactions > 1 && tasks.size() > 1
+                && group.endpoint instanceof ModbusTCPSlaveEndpoint) {
+            // Tasks not completed with pipelining are executed one by one below, using normal retry logic
+            tasks = executePipelined(group.endpoint, tasks, group.maxInFlightTransactions);
+        }
+        for (PollTask task : tasks) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                executeOperation(task, false, pollOperation);
+                if (task instanceof CoalescedPollTask) {
+                    executeIndividuallyIfFailed((CoalescedPollTask) task);
+                }
+            } catch (RuntimeException e) {
+                // Catch all unexpected exceptions since those would halt the polling, see registerRegularPoll
+                logger.warn(
+                        "Execution of scheduled ({}ms) poll task {} failed unexpectedly. Ignoring exception, polling again according to poll interval.",
+                        group.pollPeriodMillis, task, e);
+            }
+        }
+        long finished = System.currentTimeMillis();
+        logger.debug("Execution of scheduled ({}ms) merged poll finished at {} (=duration of {} millis)",
+                group.pollPeriodMillis, finished, finished - started);
+    }
+
+    /**
+     * Read the original tasks of a failed merged request one by one, so that e.g. an unmapped register in the gap
+     * between the tasks does not fail all of them. Connection errors are passed to the original tasks right away, since
+     * individual reads would not succeed either.
+     */
+    private void executeIndividuallyIfFailed(CoalescedPollTask task) {
+        Exception failure = task.getDeferredFailure();
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof ModbusConnectionException) {
+            task.deliverFailure(failure);
+            return;
+        }
+        logger.debug("Merged poll task {} failed ({} {}), reading its {} tasks individually", task,
+                failure.getClass().getSimpleName(), failure.getMessage(), task.getTasks().size());
+        for (PollTask originalTask : task.getTasks()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (scheduledPollTasks.containsKey(originalTask)) {
+                executeOperation(originalTask, false, pollOperation);
+            }
+        }
+    }
+
+    /**
+     * Execute the poll tasks by pipelining the requests over single connection, see {@link ModbusRequestPipeline}.
+     *
+     * @return poll tasks that were not completed successfully, to be executed without pipelining
+     */
+    private List<PollTask> executePipelined(ModbusSlaveEndpoint endpoint, List<PollTask> tasks, int maxInFlight) {
+        Optional<ModbusSlaveConnection> connection = borrowConnection(endpoint);
+        if (!connection.isPresent() || !(connection.get() instanceof TCPMasterConnection)) {
+            returnConnection(endpoint, connection);
+            return tasks;
+        }
+        ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
+        @SuppressWarnings("null") // since cfg in lambda cannot be really null
+        long interTransactionDelayMillis = Optional.ofNullable(localConnectionFactory)
+                .map(factory -> factory.getEndpointPoolConfiguration(endpoint))
+                .map(cfg -> cfg.getInterTransactionDelayMillis()).orElse(0L);
+        ModbusRequestPipeline pipeline = new ModbusRequestPipeline(
+                ((TCPMasterConnection) connection.get()).getModbusTransport(), maxInFlight,
+                interTransactionDelayMillis, this::nextPipelinedTransactionId, this::isTaskRegistered);
+        boolean connectionValid = false;
+        try {
+            List<PollTask> failed = pipeline.execute(tasks);
+            connectionValid = !pipeline.isTransportBroken();
+            if (!connectionValid) {
+                logger.debug("Pipelined execution with endpoint {} failed, invalidating the connection", endpoint);
+            }
+            return failed;
+        } finally {
+            if (connectionValid) {
+                returnConnection(endpoint, connection);
+            } else {
+                // State of the connection is unknown, e.g. unread responses might be still coming
+                invalidate(endpoint, connection);
+            }
+        }
+    }
+
+    private int nextPipelinedTransactionId() {
+        return pipelinedTransactionId.updateAndGet(id -> id >= MAX_TRANSACTION_ID ? 1 : id + 1);
+    }
+
     @Override
     public ModbusCommunicationInterface newModbusCommunicationInterface(ModbusSlaveEndpoint endpoint,
             @Nullable EndpointPoolConfiguration configuration) throws IllegalArgumentException {
@@ -909,6 +1345,11 @@ public class ModbusManagerImpl implements ModbusManager {
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
             // is usually pretty soon as transactions should be relatively short-lived)
+            ModbusEndpointLane lane = endpointLanes.remove(endpoint);
+            if (lane != null) {
+                lane.clear();
+            }
+
             ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
             if (localConnectionFactory != null) {
                 localConnectionFactory.disconnectOnReturn(endpoint, System.currentTimeMillis());
@@ -928,6 +1369,24 @@ public class ModbusManagerImpl implements ModbusManager {
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            Object endpointLanesConfig = configProperties.get(CONFIG_ENDPOINT_LANES);
+            endpointLanesEnabled = endpointLanesConfig != null
+                    && Boolean.parseBoolean(endpointLanesConfig.toString());
+            Object laneMaxQueueSizeConfig = configProperties.get(CONFIG_LANE_MAX_QUEUE_SIZE);
+            try {
+                laneMaxQueueSize = laneMaxQueueSizeConfig == null ? DEFAULT_LANE_MAX_QUEUE_SIZE
+                        : Integer.parseInt(laneMaxQueueSizeConfig.toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} '{}', using default {}", CONFIG_LANE_MAX_QUEUE_SIZE, laneMaxQueueSizeConfig,
+                        DEFAULT_LANE_MAX_QUEUE_SIZE);
+                laneMaxQueueSize = DEFAULT_LANE_MAX_QUEUE_SIZE;
+            }
+            if (laneMaxQueueSize <= 0) {
+                logger.warn("{} should be positive, using default {}", CONFIG_LANE_MAX_QUEUE_SIZE,
+                        DEFAULT_LANE_MAX_QUEUE_SIZE);
+                laneMaxQueueSize = DEFAULT_LANE_MAX_QUEUE_SIZE;
+            }
+            logger.debug("Endpoint lanes enabled: {} (max queue size {})", endpointLanesEnabled, laneMaxQueueSize);
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -967,6 +1426,8 @@ public class ModbusManagerImpl implements ModbusManager {
                 monitorFuture.cancel(true);
                 monitorFuture = null;
             }
+            endpointLanes.values().forEach(ModbusEndpointLane::clear);
+            endpointLanes.clear();
             // Note that it is not allowed to shutdown the executor, since they will be reused when
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
@@ -1006,6 +1467,15 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            this.endpointLanes.values().forEach(lane -> {
+                pollMonitorLogger.trace("POLL MONITOR: {}", lane);
+                if (lane.getQueueDepth() >= laneMaxQueueSize) {
+                    pollMonitorLogger.warn(
+                            "Queue of endpoint {} is full ({} operations). The endpoint might be too slow for the configured poll intervals.",
+                            lane.getEndpoint(), lane.getQueueDepth());
+                }
+            });
+
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
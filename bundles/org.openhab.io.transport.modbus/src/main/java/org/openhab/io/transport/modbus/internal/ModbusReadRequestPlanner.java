@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+
+/**
+ * Planner merging read requests of several poll tasks into fewer, larger read requests.
+ *
+ * Requests are merged when they share slave id and function code, and when they overlap or are separated by at most
+ * <code>maxGap</code> unused registers (or bits). The merged request never exceeds the maximum amount of items
+ * allowed in single read request by the Modbus specification (125 registers, 2000 coils/discrete inputs).
+ *
+ * The response of the merged request can be split back to the original requests using
+ * {@link #sliceResult(AsyncModbusReadResult, ModbusReadRequestBlueprint)}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusReadRequestPlanner {
+
+    /**
+     * Maximum number of registers in single read request (function codes 3 and 4)
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in single read request (function codes 1 and 2)
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    /**
+     * Merged read request, together with the poll tasks it serves
+     */
+    public static class PlannedRead {
+        private final ModbusReadRequestBlueprint request;
+        private final List<PollTask> tasks;
+
+        private PlannedRead(ModbusReadRequestBlueprint request, List<PollTask> tasks) {
+            this.request = request;
+            this.tasks = tasks;
+        }
+
+        /**
+         * Get the (possibly merged) request to send to the slave
+         *
+         * @return request covering the requests of all the tasks
+         */
+        public ModbusReadRequestBlueprint getRequest() {
+            return request;
+        }
+
+        /**
+         * Get the poll tasks served by this request
+         *
+         * @return poll tasks, ordered by start address
+         */
+        public List<PollTask> getTasks() {
+            return tasks;
+        }
+
+        @Override
+        public String toString() {
+            return new StringBuilder("PlannedRead(request=").append(request).append(", tasks=").append(tasks.size())
+                    .append(")").toString();
+        }
+    }
+
+    private ModbusReadRequestPlanner() {
+    }
+
+    /**
+     * Get maximum number of items that can be read with single request using the given function code
+     *
+     * @param functionCode function code of the read request
+     * @return maximum number of registers or bits
+     */
+    public static int getMaxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            default:
+                return MAX_REGISTERS_PER_READ;
+        }
+    }
+
+    /**
+     * Plan read requests for the given poll tasks
+     *
+     * Tasks that have different slave id or function code are never merged. Each task is served by exactly one
+     * planned read.
+     *
+     * @param tasks poll tasks to plan reads for
+     * @param maxGap maximum number of unused registers (or bits) between two requests to still merge them. Negative
+     *            value disables merging, each task is then served by its own request.
+     * @return planned reads
+     */
+    public static List<PlannedRead> plan(Collection<PollTask> tasks, int maxGap) {
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.<PollTask> comparingInt(task -> task.getRequest().getUnitID())
+                .thenComparing(task -> task.getRequest().getFunctionCode())
+                .thenComparingInt(task -> task.getRequest().getReference())
+                .thenComparingInt(task -> task.getRequest().getDataLength()));
+
+        List<PlannedRead> plannedReads = new ArrayList<>();
+        List<PollTask> currentTasks = new ArrayList<>();
+        @Nullable
+        ModbusReadRequestBlueprint first = null;
+        int currentStart = 0;
+        int currentEnd = 0; // exclusive
+        int currentMaxTries = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int start = request.getReference();
+            int end = start + request.getDataLength();
+            if (first != null && canMerge(first, request, currentStart, currentEnd, maxGap)) {
+                currentEnd = Math.max(currentEnd, end);
+                currentMaxTries = Math.max(currentMaxTries, request.getMaxTries());
+                currentTasks.add(task);
+                continue;
+            }
+            if (first != null) {
+                plannedReads.add(toPlannedRead(first, currentStart, currentEnd, currentMaxTries, currentTasks));
+            }
+            first = request;
+            currentStart = start;
+            currentEnd = end;
+            currentMaxTries = request.getMaxTries();
+            currentTasks = new ArrayList<>();
+            currentTasks.add(task);
+        }
+        if (first != null) {
+            plannedReads.add(toPlannedRead(first, currentStart, currentEnd, currentMaxTries, currentTasks));
+        }
+        return plannedReads;
+    }
+
+    private static boolean canMerge(ModbusReadRequestBlueprint first, ModbusReadRequestBlueprint request,
+            int currentStart, int currentEnd, int maxGap) {
+        if (maxGap < 0) {
+            return false;
+        }
+        if (first.getUnitID() != request.getUnitID() || first.getFunctionCode() != request.getFunctionCode()) {
+            return false;
+        }
+        int start = request.getReference();
+        int end = start + request.getDataLength();
+        if (start - currentEnd > maxGap) {
+            return false;
+        }
+        return Math.max(currentEnd, end) - currentStart <= getMaxDataLength(request.getFunctionCode());
+    }
+
+    private static PlannedRead toPlannedRead(ModbusReadRequestBlueprint first, int start, int end, int maxTries,
+            List<PollTask> tasks) {
+        if (tasks.size() == 1) {
+            // Nothing merged, use the original request as is
+            return new PlannedRead(tasks.get(0).getRequest(), Collections.singletonList(tasks.get(0)));
+        }
+        ModbusReadRequestBlueprint merged = new ModbusReadRequestBlueprint(first.getUnitID(), first.getFunctionCode(),
+                start, end - start, maxTries);
+        return new PlannedRead(merged, Collections.unmodifiableList(tasks));
+    }
+
+    /**
+     * Extract the data of an original request from the result of the merged request
+     *
+     * @param mergedResult result of the merged request
+     * @param request original request, fully covered by the merged request
+     * @return result containing only the data of the original request
+     * @throws IllegalArgumentException when the merged request does not cover the original request
+     */
+    public static AsyncModbusReadResult sliceResult(AsyncModbusReadResult mergedResult,
+            ModbusReadRequestBlueprint request) {
+        ModbusReadRequestBlueprint mergedRequest = mergedResult.getRequest();
+        int offset = request.getReference() - mergedRequest.getReference();
+        int length = request.getDataLength();
+        if (offset < 0 || offset + length > mergedRequest.getDataLength()) {
+            throw new IllegalArgumentException(
+                    String.format("Request %s is not covered by merged request %s", request, mergedRequest));
+        }
+        if (mergedResult.getRegisters().isPresent()) {
+            ModbusRegisterArray registers = mergedResult.getRegisters().get();
+            ModbusRegister[] slice = new ModbusRegister[length];
+            for (int i = 0; i < length; i++) {
+                slice[i] = registers.getRegister(offset + i);
+            }
+            return new AsyncModbusReadResult(request, new ModbusRegisterArray(slice));
+        } else if (mergedResult.getBits().isPresent()) {
+            BitArray bits = mergedResult.getBits().get();
+            BitArray slice = new BitArray(length);
+            for (int i = 0; i < length; i++) {
+                slice.setBit(i, bits.getBit(offset + i));
+            }
+            return new AsyncModbusReadResult(request, slice);
+        } else {
+            throw new IllegalArgumentException("Result contains neither registers nor bits");
+        }
+    }
+}
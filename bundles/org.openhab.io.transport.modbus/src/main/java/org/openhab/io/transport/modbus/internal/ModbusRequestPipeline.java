@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseFunctionCodeException;
+import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseSizeException;
+import org.openhab.io.transport.modbus.exception.ModbusUnexpectedTransactionIdException;
+import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+
+/**
+ * Executes poll tasks by keeping up to maxInFlight requests outstanding over single transport, and dispatching the
+ * responses by transaction id. New request is sent as soon as a response is received, respecting the delay between
+ * transactions of the endpoint.
+ *
+ * Pipelining is aborted on the first error or unexpected response, in which case the transport should not be used
+ * anymore since its state is unknown (see {@link #isTransportBroken()}). No retries are made here. Pipelining is also
+ * stopped when the thread is interrupted, handing the unfinished tasks back to the caller.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusRequestPipeline {
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusRequestPipeline.class);
+
+    private final ModbusTransport transport;
+    private final int maxInFlight;
+    private final long interTransactionDelayMillis;
+    private final IntSupplier transactionIds;
+    private final Predicate<PollTask> registered;
+    private boolean transportBroken;
+
+    /**
+     * Constructs new pipeline
+     *
+     * @param transport transport of the connection
+     * @param maxInFlight maximum number of requests sent without receiving the response
+     * @param interTransactionDelayMillis minimum delay between sending the requests
+     * @param transactionIds supplier of transaction ids for the requests
+     * @param registered predicate telling whether the poll task is still registered, unregistered tasks are skipped
+     */
+    public ModbusRequestPipeline(ModbusTransport transport, int maxInFlight, long interTransactionDelayMillis,
+            IntSupplier transactionIds, Predicate<PollTask> registered) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight should be positive");
+        }
+        this.transport = transport;
+        this.maxInFlight = maxInFlight;
+        this.interTransactionDelayMillis = interTransactionDelayMillis;
+        this.transactionIds = transactionIds;
+        this.registered = registered;
+    }
+
+    /**
+     * Execute the poll tasks
+     *
+     * @param tasks poll tasks to execute
+     * @return poll tasks that were not completed successfully, to be executed without pipelining. When interrupted,
+     *         the tasks not completed yet.
+     */
+    public List<PollTask> execute(List<PollTask> tasks) {
+        Deque<PollTask> pending = new ArrayDeque<>(tasks);
+        Map<Integer, PollTask> inFlight = new LinkedHashMap<>();
+        Map<Integer, ModbusRequest> libRequests = new HashMap<>();
+        List<PollTask> failed = new ArrayList<>();
+        @Nullable
+        Long lastSentMillis = null;
+        try {
+            while (!pending.isEmpty() || !inFlight.isEmpty()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                // refill the window
+                while (inFlight.size() < maxInFlight && !pending.isEmpty()) {
+                    PollTask task = pending.peek();
+                    if (!registered.test(task)) {
+                        logger.debug("Poll task {} is unregistered, not pipelining it", task);
+                        pending.poll();
+                        continue;
+                    }
+                    ModbusSlaveConnectionFactoryImpl.waitAtleast(lastSentMillis, interTransactionDelayMillis);
+                    pending.poll();
+                    ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(task.getRequest());
+                    int transactionId = transactionIds.getAsInt();
+                    libRequest.setTransactionID(transactionId);
+                    logger.trace("Pipelining request (FC={}, transaction ID={}): {}",
+                            task.getRequest().getFunctionCode(), transactionId, libRequest.getHexMessage());
+                    inFlight.put(transactionId, task);
+                    libRequests.put(transactionId, libRequest);
+                    transport.writeMessage(libRequest);
+                    lastSentMillis = System.currentTimeMillis();
+                }
+                if (inFlight.isEmpty()) {
+                    // only unregistered tasks were pending
+                    continue;
+                }
+                ModbusResponse response = transport.readResponse();
+                logger.trace("Pipelined response (FC={}, transaction ID={}): {}", response.getFunctionCode(),
+                        response.getTransactionID(), response.getHexMessage());
+                @Nullable
+                ModbusRequest libRequest = libRequests.remove(response.getTransactionID());
+                @Nullable
+                PollTask task = inFlight.remove(response.getTransactionID());
+                if (task == null || libRequest == null) {
+                    throw new ModbusUnexpectedTransactionIdException(inFlight.keySet().iterator().next(),
+                            response.getTransactionID());
+                }
+                if (response instanceof ExceptionResponse) {
+                    // slave error response, let the normal execution handle retries and error callbacks
+                    logger.debug("Pipelined request of {} got exception response {}", task, response.getHexMessage());
+                    failed.add(task);
+                    continue;
+                }
+                ModbusManagerImpl.checkFunctionCode(response, libRequest, "pipelined");
+                ModbusManagerImpl.checkResponseSize(response, task.getRequest(), "pipelined");
+                try {
+                    ModbusLibraryWrapper.invokeCallbackWithResponse(task.getRequest(), task.getResultCallback(),
+                            response);
+                } catch (RuntimeException e) {
+                    logger.warn("Result callback of poll task {} failed unexpectedly", task, e);
+                }
+            }
+        } catch (ModbusIOException | ModbusUnexpectedTransactionIdException
+                | ModbusUnexpectedResponseFunctionCodeException | ModbusUnexpectedResponseSizeException e) {
+            logger.debug("Pipelined execution failed ({} {}), falling back to serialized execution of {} requests",
+                    e.getClass().getSimpleName(), e.getMessage(), inFlight.size() + pending.size());
+            // Unread responses might be still coming, transport cannot be used anymore
+            transportBroken = true;
+            failed.addAll(inFlight.values());
+            failed.addAll(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.debug("Pipelined execution interrupted, handing back {} unfinished requests",
+                    inFlight.size() + pending.size());
+            // Responses of the in-flight requests are left unread
+            transportBroken = !inFlight.isEmpty();
+            failed.addAll(inFlight.values());
+            failed.addAll(pending);
+        }
+        return failed;
+    }
+
+    /**
+     * Whether the pipelining was aborted due to an error, leaving the transport in unknown state
+     *
+     * @return true if the connection of the transport should be invalidated
+     */
+    public boolean isTransportBroken() {
+        return transportBroken;
+    }
+}
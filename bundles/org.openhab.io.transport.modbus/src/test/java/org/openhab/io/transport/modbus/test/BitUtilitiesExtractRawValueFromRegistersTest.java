@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class BitUtilitiesExtractRawValueFromRegistersTest {
+
+    private static final ModbusRegisterArray REGISTERS = new ModbusRegisterArray(0xFFFF, 0xFFFE, 0x8000, 0x0001,
+            0x4049, 0x0FDB);
+
+    private static long raw(int index, ValueType type) {
+        return ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, index, type);
+    }
+
+    @Test
+    public void testIntegerTypes() {
+        assertThat(raw(1, ValueType.BIT), is(equalTo(1L)));
+        assertThat(raw(16, ValueType.BIT), is(equalTo(0L)));
+        assertThat(raw(2, ValueType.INT8), is(equalTo(-2L)));
+        assertThat(raw(2, ValueType.UINT8), is(equalTo(0xFEL)));
+        assertThat(raw(3, ValueType.UINT8), is(equalTo(0xFFL)));
+        assertThat(raw(1, ValueType.INT16), is(equalTo(-2L)));
+        assertThat(raw(1, ValueType.UINT16), is(equalTo(0xFFFEL)));
+        assertThat(raw(2, ValueType.INT32), is(equalTo(-0x7FFFFFFFL)));
+        assertThat(raw(2, ValueType.UINT32), is(equalTo(0x80000001L)));
+        assertThat(raw(2, ValueType.INT32_SWAP), is(equalTo(0x18000L)));
+        assertThat(raw(0, ValueType.INT64), is(equalTo(0xFFFFFFFE80000001L)));
+        assertThat(raw(0, ValueType.INT64_SWAP), is(equalTo(0x00018000FFFEFFFFL)));
+    }
+
+    @Test
+    public void testUnsigned64BitValueIsReturnedAsRawBits() {
+        long value = raw(0, ValueType.UINT64);
+        assertThat(value, is(equalTo(0xFFFFFFFE80000001L)));
+        assertThat(ModbusBitUtilities.toDecimalType(value, ValueType.UINT64),
+                is(equalTo(Optional.of(new DecimalType("18446744067267100673")))));
+        assertThat(ModbusBitUtilities.extractDoubleFromRegisters(REGISTERS, 0, ValueType.UINT64),
+                is(equalTo(18446744067267100673.0)));
+    }
+
+    @Test
+    public void testFloatIsReturnedAsRawBits() {
+        long value = raw(4, ValueType.FLOAT32);
+        assertThat(value, is(equalTo(0x40490FDBL)));
+        assertThat(ModbusBitUtilities.extractDoubleFromRegisters(REGISTERS, 4, ValueType.FLOAT32),
+                is(equalTo((double) (float) Math.PI)));
+        assertThat(ModbusBitUtilities.toDecimalType(value, ValueType.FLOAT32),
+                is(equalTo(Optional.of(new DecimalType((float) Math.PI)))));
+        // NaN
+        assertThat(ModbusBitUtilities.toDecimalType(0x7FC00000L, ValueType.FLOAT32_SWAP),
+                is(equalTo(Optional.empty())));
+    }
+
+    private static void assertDecoded(int index, ValueType type, String expected) {
+        DecimalType expectedState = new DecimalType(expected);
+        assertThat(String.format("index=%d, type=%s", index, type),
+                ModbusBitUtilities.toDecimalType(raw(index, type), type), is(equalTo(Optional.of(expectedState))));
+        assertThat(String.format("index=%d, type=%s", index, type),
+                ModbusBitUtilities.extractStateFromRegisters(REGISTERS, index, type),
+                is(equalTo(Optional.of(expectedState))));
+    }
+
+    private static void assertDecodedFloat(int index, ValueType type, float expected) {
+        assertThat(String.format("index=%d, type=%s", index, type),
+                ModbusBitUtilities.toDecimalType(raw(index, type), type).get().floatValue(), is(equalTo(expected)));
+        assertThat(String.format("index=%d, type=%s", index, type),
+                ModbusBitUtilities.extractStateFromRegisters(REGISTERS, index, type).get().floatValue(),
+                is(equalTo(expected)));
+    }
+
+    @Test
+    public void testDecodedStates() {
+        assertDecoded(1, ValueType.BIT, "1");
+        assertDecoded(31, ValueType.BIT, "1");
+        assertDecoded(32, ValueType.BIT, "0");
+        assertDecoded(2, ValueType.INT8, "-2");
+        assertDecoded(2, ValueType.UINT8, "254");
+        assertDecoded(4, ValueType.INT8, "0");
+        assertDecoded(5, ValueType.INT8, "-128");
+        assertDecoded(5, ValueType.UINT8, "128");
+        assertDecoded(2, ValueType.INT16, "-32768");
+        assertDecoded(2, ValueType.UINT16, "32768");
+        assertDecoded(3, ValueType.INT32, "81993");
+        assertDecoded(1, ValueType.INT32, "-98304");
+        assertDecoded(1, ValueType.UINT32, "4294868992");
+        assertDecoded(3, ValueType.INT32_SWAP, "1078525953");
+        assertDecoded(0, ValueType.INT32_SWAP, "-65537");
+        assertDecoded(0, ValueType.UINT32_SWAP, "4294901759");
+        assertDecoded(0, ValueType.INT64, "-6442450943");
+        assertDecoded(0, ValueType.UINT64, "18446744067267100673");
+        assertDecoded(2, ValueType.INT64, "-9223372031481278501");
+        assertDecoded(2, ValueType.UINT64, "9223372042228273115");
+        assertDecoded(0, ValueType.INT64_SWAP, "422216759967743");
+        assertDecoded(0, ValueType.UINT64_SWAP, "422216759967743");
+        assertDecodedFloat(4, ValueType.FLOAT32, 3.1415927f);
+        assertDecodedFloat(4, ValueType.FLOAT32_SWAP, 2.1619829E-29f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfBounds() {
+        raw(3, ValueType.INT64);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusEndpointLane;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EndpointLaneTest {
+
+    /**
+     * Executor collecting the submitted runnables, executed manually with {@link #runAll()}
+     */
+    private final Queue<Runnable> submitted = new LinkedList<>();
+
+    private void runAll() {
+        Runnable runnable;
+        while ((runnable = submitted.poll()) != null) {
+            runnable.run();
+        }
+    }
+
+    private final ModbusEndpointLane lane = new ModbusEndpointLane(new ModbusTCPSlaveEndpoint("localhost", 502),
+            submitted::add, 3);
+
+    @Test
+    public void testOperationsAreExecutedOneAtATimeInOrder() {
+        List<Integer> executed = new ArrayList<>();
+        lane.submit(null, () -> executed.add(1));
+        lane.submit(null, () -> executed.add(2));
+        lane.submit(null, () -> executed.add(3));
+        // only single operation is handed to the executor at a time
+        assertThat(submitted.size(), is(equalTo(1)));
+        runAll();
+        assertThat(executed, is(equalTo(Arrays.asList(1, 2, 3))));
+        assertThat(lane.getQueueDepth(), is(equalTo(0)));
+        assertThat(lane.getExecutedCount(), is(equalTo(3L)));
+        assertThat(lane.getMaxQueueDepth(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testPendingOperationWithSameKeyIsMerged() {
+        List<Integer> executed = new ArrayList<>();
+        assertThat(lane.submit("poll", () -> executed.add(1)), is(true));
+        assertThat(lane.submit("poll", () -> executed.add(2)), is(false));
+        runAll();
+        assertThat(executed, is(equalTo(Arrays.asList(1))));
+        assertThat(lane.getMergedCount(), is(equalTo(1L)));
+
+        // once executed, the same key can be queued again
+        assertThat(lane.submit("poll", () -> executed.add(3)), is(true));
+        runAll();
+        assertThat(executed, is(equalTo(Arrays.asList(1, 3))));
+    }
+
+    @Test
+    public void testFullQueueRejects() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(lane.submit(null, () -> {
+            }), is(true));
+        }
+        assertThat(lane.submit(null, () -> {
+        }), is(false));
+        assertThat(lane.getRejectedCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testFailingOperationDoesNotBlockLane() {
+        List<Integer> executed = new ArrayList<>();
+        lane.submit(null, () -> {
+            throw new IllegalStateException();
+        });
+        lane.submit(null, () -> executed.add(2));
+        runAll();
+        assertThat(executed, is(equalTo(Arrays.asList(2))));
+    }
+
+    @Test
+    public void testClearCallsDiscardCallbacksOfPendingOperations() {
+        List<Integer> executed = new ArrayList<>();
+        List<Integer> discarded = new ArrayList<>();
+        lane.submit(null, () -> executed.add(1), () -> discarded.add(1));
+        lane.submit(null, () -> executed.add(2), () -> discarded.add(2));
+        lane.submit("poll", () -> executed.add(3));
+        lane.clear();
+        runAll();
+        assertThat(executed.isEmpty(), is(true));
+        assertThat(discarded, is(equalTo(Arrays.asList(1, 2))));
+        assertThat(lane.getQueueDepth(), is(equalTo(0)));
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.exception.ModbusConnectionException;
+import org.openhab.io.transport.modbus.internal.BasicPollTask;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner.PlannedRead;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ReadRequestPlannerTest {
+
+    private static final ModbusTCPSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private static PollTask task(int slaveId, ModbusReadFunctionCode functionCode, int start, int length) {
+        return new BasicPollTask(ENDPOINT, new ModbusReadRequestBlueprint(slaveId, functionCode, start, length, 1),
+                result -> {
+                }, failure -> {
+                });
+    }
+
+    private static PollTask registers(int start, int length) {
+        return task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length);
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingRequestsAreMerged() {
+        List<PlannedRead> plan = ModbusReadRequestPlanner.plan(
+                Arrays.asList(registers(10, 2), registers(0, 5), registers(5, 5), registers(3, 4)), 0);
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(12)));
+        assertThat(plan.get(0).getTasks().size(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testGapTolerance() {
+        List<PollTask> tasks = Arrays.asList(registers(0, 2), registers(5, 2));
+        assertThat(ModbusReadRequestPlanner.plan(tasks, 2).size(), is(equalTo(2)));
+        List<PlannedRead> plan = ModbusReadRequestPlanner.plan(tasks, 3);
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(7)));
+    }
+
+    @Test
+    public void testNegativeGapDisablesMerging() {
+        List<PlannedRead> plan = ModbusReadRequestPlanner.plan(Arrays.asList(registers(0, 2), registers(2, 2)), -1);
+        assertThat(plan.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testDifferentSlaveOrFunctionCodeNotMerged() {
+        List<PlannedRead> plan = ModbusReadRequestPlanner.plan(
+                Arrays.asList(registers(0, 2), task(2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2),
+                        task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 2, 2)),
+                10);
+        assertThat(plan.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testMaximumRequestLengthRespected() {
+        List<PlannedRead> plan = ModbusReadRequestPlanner
+                .plan(Arrays.asList(registers(0, 100), registers(100, 25), registers(125, 1)), 0);
+        assertThat(plan.size(), is(equalTo(2)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(125)));
+        assertThat(plan.get(1).getRequest().getReference(), is(equalTo(125)));
+
+        plan = ModbusReadRequestPlanner
+                .plan(Arrays.asList(task(1, ModbusReadFunctionCode.READ_COILS, 0, 1000),
+                        task(1, ModbusReadFunctionCode.READ_COILS, 1000, 1000)), 0);
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(2000)));
+    }
+
+    @Test
+    public void testUnmergedRequestIsKeptAsIs() {
+        PollTask task = registers(3, 2);
+        List<PlannedRead> plan = ModbusReadRequestPlanner.plan(Arrays.asList(task), 0);
+        assertThat(plan.get(0).getRequest(), is(sameInstance(task.getRequest())));
+    }
+
+    @Test
+    public void testSliceRegisters() {
+        ModbusReadRequestBlueprint merged = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 5, 1);
+        ModbusReadRequestBlueprint original = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 12, 2, 1);
+        AsyncModbusReadResult result = ModbusReadRequestPlanner
+                .sliceResult(new AsyncModbusReadResult(merged, new ModbusRegisterArray(1, 2, 3, 4, 5)), original);
+        assertThat(result.getRequest(), is(sameInstance(original)));
+        assertThat(result.getRegisters().get().size(), is(equalTo(2)));
+        assertThat(result.getRegisters().get().getRegister(0).getValue(), is(equalTo(3)));
+        assertThat(result.getRegisters().get().getRegister(1).getValue(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testSliceBits() {
+        ModbusReadRequestBlueprint merged = new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_COILS, 0, 4,
+                1);
+        ModbusReadRequestBlueprint original = new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_COILS, 1,
+                3, 1);
+        AsyncModbusReadResult result = ModbusReadRequestPlanner
+                .sliceResult(new AsyncModbusReadResult(merged, new BitArray(true, false, true, true)), original);
+        assertThat(result.getBits().get(), is(equalTo(new BitArray(false, true, true))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSliceOutsideMergedRequest() {
+        ModbusReadRequestBlueprint merged = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, 1);
+        ModbusReadRequestBlueprint original = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 2, 1);
+        ModbusReadRequestPlanner.sliceResult(new AsyncModbusReadResult(merged, new ModbusRegisterArray(1, 2)),
+                original);
+    }
+
+    @Test
+    public void testMergedResultDeliveredOnlyToRegisteredTasks() {
+        List<Integer> delivered = new ArrayList<>();
+        PollTask first = new BasicPollTask(ENDPOINT,
+                new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, 1),
+                result -> delivered.add(result.getRegisters().get().getRegister(0).getValue()), failure -> {
+                });
+        PollTask second = new BasicPollTask(ENDPOINT,
+                new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, 1),
+                result -> delivered.add(result.getRegisters().get().getRegister(0).getValue()), failure -> {
+                });
+        List<PlannedRead> plan = ModbusReadRequestPlanner.plan(Arrays.asList(first, second), 0);
+        assertThat(plan.size(), is(equalTo(1)));
+
+        Set<PollTask> registered = new HashSet<>(Arrays.asList(first, second));
+        CoalescedPollTask merged = new CoalescedPollTask(ENDPOINT, plan.get(0), registered::contains);
+        // second task is unregistered while the merged request is executing
+        registered.remove(second);
+        assertThat(merged.hasRegisteredTasks(), is(true));
+        merged.getResultCallback().handle(
+                new AsyncModbusReadResult(merged.getRequest(), new ModbusRegisterArray(10, 11, 12, 13)));
+        assertThat(delivered, is(equalTo(Collections.singletonList(10))));
+
+        registered.remove(first);
+        assertThat(merged.hasRegisteredTasks(), is(false));
+    }
+
+    @Test
+    public void testDeferredFailureIsNotDeliveredToTasks() {
+        List<Exception> failures = new ArrayList<>();
+        PollTask first = new BasicPollTask(ENDPOINT,
+                new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, 1), result -> {
+                }, failure -> failures.add(failure.getCause()));
+        PollTask second = new BasicPollTask(ENDPOINT,
+                new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, 1), result -> {
+                }, failure -> failures.add(failure.getCause()));
+        List<PlannedRead> plan = ModbusReadRequestPlanner.plan(Arrays.asList(first, second), 0);
+        Set<PollTask> registered = new HashSet<>(Arrays.asList(first, second));
+        CoalescedPollTask merged = new CoalescedPollTask(ENDPOINT, plan.get(0), registered::contains, true);
+
+        ModbusConnectionException error = new ModbusConnectionException(ENDPOINT);
+        merged.getFailureCallback().handle(new AsyncModbusFailure<>(merged.getRequest(), error));
+        assertThat(failures.isEmpty(), is(true));
+        assertThat(merged.getDeferredFailure(), is(sameInstance(error)));
+
+        registered.remove(second);
+        merged.deliverFailure(error);
+        assertThat(failures, is(equalTo(Collections.singletonList(error))));
+    }
+}
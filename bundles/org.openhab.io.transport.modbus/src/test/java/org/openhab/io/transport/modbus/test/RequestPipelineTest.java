@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.BasicPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusRequestPipeline;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusMessage;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersResponse;
+import net.wimpi.modbus.procimg.Register;
+import net.wimpi.modbus.procimg.SimpleRegister;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class RequestPipelineTest {
+
+    private static final ModbusTCPSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private final ModbusTransport transport = mock(ModbusTransport.class);
+    /**
+     * Requests written to the transport, and not yet responded
+     */
+    private final LinkedList<ReadMultipleRegistersRequest> outstanding = new LinkedList<>();
+    private final AtomicInteger transactionId = new AtomicInteger();
+    private final Map<Integer, Integer> received = new HashMap<>();
+    private int maxOutstanding;
+    private boolean respondInReverseOrder;
+
+    @Before
+    public void setUp() throws ModbusIOException {
+        doAnswer(invocation -> {
+            outstanding.add(invocation.getArgument(0));
+            maxOutstanding = Math.max(maxOutstanding, outstanding.size());
+            return null;
+        }).when(transport).writeMessage(any(ModbusMessage.class));
+        when(transport.readResponse()).thenAnswer(invocation -> {
+            ReadMultipleRegistersRequest request = respondInReverseOrder ? outstanding.removeLast()
+                    : outstanding.removeFirst();
+            return response(request);
+        });
+    }
+
+    /**
+     * Response with the register values equal to the register addresses
+     */
+    private static ModbusResponse response(ReadMultipleRegistersRequest request) {
+        Register[] registers = new Register[request.getWordCount()];
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = new SimpleRegister(request.getReference() + i);
+        }
+        ModbusResponse response = new ReadMultipleRegistersResponse(registers);
+        response.setTransactionID(request.getTransactionID());
+        return response;
+    }
+
+    private PollTask registers(int start) {
+        return new BasicPollTask(ENDPOINT,
+                new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, 1, 1),
+                result -> received.put(start, result.getRegisters().get().getRegister(0).getValue()), failure -> {
+                });
+    }
+
+    private ModbusRequestPipeline pipeline(int maxInFlight) {
+        return new ModbusRequestPipeline(transport, maxInFlight, 0, transactionId::incrementAndGet, task -> true);
+    }
+
+    @Test
+    public void testInFlightRequestsLimited() {
+        List<PollTask> tasks = Arrays.asList(registers(0), registers(10), registers(20), registers(30),
+                registers(40));
+        ModbusRequestPipeline pipeline = pipeline(2);
+
+        assertThat(pipeline.execute(tasks), is(equalTo(Collections.emptyList())));
+        assertThat(pipeline.isTransportBroken(), is(false));
+        assertThat(maxOutstanding, is(equalTo(2)));
+        assertThat(received.size(), is(equalTo(5)));
+    }
+
+    @Test
+    public void testOutOfOrderResponsesAreDispatchedByTransactionId() {
+        respondInReverseOrder = true;
+        List<PollTask> tasks = Arrays.asList(registers(0), registers(10), registers(20));
+        ModbusRequestPipeline pipeline = pipeline(3);
+
+        assertThat(pipeline.execute(tasks), is(equalTo(Collections.emptyList())));
+        assertThat(maxOutstanding, is(equalTo(3)));
+        assertThat(received.get(0), is(equalTo(0)));
+        assertThat(received.get(10), is(equalTo(10)));
+        assertThat(received.get(20), is(equalTo(20)));
+    }
+
+    @Test
+    public void testExceptionResponseIsReturnedForSerializedExecution() throws ModbusIOException {
+        PollTask failing = registers(10);
+        doAnswer(invocation -> {
+            ReadMultipleRegistersRequest request = outstanding.removeFirst();
+            if (request.getReference() != 10) {
+                return response(request);
+            }
+            ModbusResponse response = new ExceptionResponse(request.getFunctionCode(), 2);
+            response.setTransactionID(request.getTransactionID());
+            return response;
+        }).when(transport).readResponse();
+        ModbusRequestPipeline pipeline = pipeline(2);
+
+        assertThat(pipeline.execute(Arrays.asList(registers(0), failing, registers(20))),
+                is(equalTo(Collections.singletonList(failing))));
+        // slave error response does not leave the connection in unknown state
+        assertThat(pipeline.isTransportBroken(), is(false));
+        assertThat(received.keySet(), is(equalTo(new HashSet<>(Arrays.asList(0, 20)))));
+    }
+
+    @Test
+    public void testUnexpectedTransactionIdAbortsPipelining() throws ModbusIOException {
+        doAnswer(invocation -> {
+            ModbusResponse response = response(outstanding.removeFirst());
+            response.setTransactionID(9999);
+            return response;
+        }).when(transport).readResponse();
+        List<PollTask> tasks = Arrays.asList(registers(0), registers(10), registers(20));
+        ModbusRequestPipeline pipeline = pipeline(2);
+
+        List<PollTask> failed = pipeline.execute(tasks);
+        assertThat(pipeline.isTransportBroken(), is(true));
+        // in-flight and pending tasks are left for serialized execution
+        assertThat(failed.size(), is(equalTo(3)));
+        assertThat(received.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testIOErrorAbortsPipelining() throws ModbusIOException {
+        List<PollTask> tasks = Arrays.asList(registers(0), registers(10), registers(20));
+        List<Integer> reads = new ArrayList<>();
+        doAnswer(invocation -> {
+            reads.add(reads.size());
+            if (reads.size() == 2) {
+                throw new ModbusIOException("Connection reset");
+            }
+            return response(outstanding.removeFirst());
+        }).when(transport).readResponse();
+        ModbusRequestPipeline pipeline = pipeline(2);
+
+        List<PollTask> failed = pipeline.execute(tasks);
+        assertThat(pipeline.isTransportBroken(), is(true));
+        assertThat(failed, is(equalTo(Arrays.asList(tasks.get(1), tasks.get(2)))));
+        assertThat(received.keySet(), is(equalTo(Collections.singleton(0))));
+    }
+
+    @Test
+    public void testUnregisteredTasksAreSkipped() throws ModbusIOException {
+        PollTask unregistered = registers(10);
+        ModbusRequestPipeline pipeline = new ModbusRequestPipeline(transport, 2, 0, transactionId::incrementAndGet,
+                task -> task != unregistered);
+
+        assertThat(pipeline.execute(Arrays.asList(registers(0), unregistered)),
+                is(equalTo(Collections.emptyList())));
+        verify(transport, times(1)).writeMessage(any(ModbusMessage.class));
+        assertThat(received.keySet(), is(equalTo(Collections.singleton(0))));
+    }
+
+    @Test
+    public void testWindowIsRefilledAsResponsesArrive() throws ModbusIOException {
+        List<String> events = new ArrayList<>();
+        doAnswer(invocation -> {
+            events.add("write");
+            outstanding.add(invocation.getArgument(0));
+            return null;
+        }).when(transport).writeMessage(any(ModbusMessage.class));
+        doAnswer(invocation -> {
+            events.add("read");
+            return response(outstanding.removeFirst());
+        }).when(transport).readResponse();
+
+        assertThat(pipeline(2).execute(Arrays.asList(registers(0), registers(10), registers(20))),
+                is(equalTo(Collections.emptyList())));
+        assertThat(events, is(equalTo(Arrays.asList("write", "write", "read", "write", "read", "read"))));
+    }
+
+    @Test
+    public void testDelayBetweenTransactionsIsRespected() {
+        ModbusRequestPipeline pipeline = new ModbusRequestPipeline(transport, 3, 50, transactionId::incrementAndGet,
+                task -> true);
+
+        long start = System.currentTimeMillis();
+        assertThat(pipeline.execute(Arrays.asList(registers(0), registers(10), registers(20))),
+                is(equalTo(Collections.emptyList())));
+        assertThat(System.currentTimeMillis() - start >= 100, is(true));
+    }
+
+    @Test
+    public void testInterruptHandsBackUnfinishedTasks() throws ModbusIOException {
+        List<PollTask> tasks = Arrays.asList(registers(0), registers(10), registers(20));
+        doAnswer(invocation -> {
+            Thread.currentThread().interrupt();
+            return response(outstanding.removeFirst());
+        }).when(transport).readResponse();
+        ModbusRequestPipeline pipeline = pipeline(2);
+
+        try {
+            List<PollTask> unfinished = pipeline.execute(tasks);
+            assertThat(Thread.currentThread().isInterrupted(), is(true));
+            assertThat(unfinished, is(equalTo(Arrays.asList(tasks.get(1), tasks.get(2)))));
+            // response of the second request was not read
+            assertThat(pipeline.isTransportBroken(), is(true));
+            assertThat(received.keySet(), is(equalTo(Collections.singleton(0))));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -14,16 +14,25 @@ package org.openhab.transform.bin2json.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import com.igormaznitsa.jbbp.JBBPParser;
 import com.igormaznitsa.jbbp.exceptions.JBBPException;
 import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
@@ -66,6 +75,11 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  * json.toString() = {"a":3,"b":-6,"c":255}
  * </pre>
  *
+ * <p>
+ * When only the JSON string is needed, {@link #convertToString(String)} writes the parsed fields directly to the
+ * output, without building the intermediate {@link JsonObject}. The prepared parser is immutable, so a single instance
+ * can be reused for converting any number of messages.
+ *
  * @author Pauli Anttila - Initial contribution
  *
  */
@@ -73,7 +87,7 @@ public class Bin2Json {
 
     private final Logger logger = LoggerFactory.getLogger(Bin2Json.class);
 
-    private JBBPParser parser;
+    private final JBBPParser parser;
 
     /**
      *
@@ -137,103 +151,328 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Convert {@link String} in hexadecimal string format to JSON string.
+     *
+     * The output is identical to <code>convert(hexString).toString()</code>.
+     *
+     * @param hexString Data in hexadecimal string format. Example data: 03FAFF
+     * @return JSON string
+     * @throws ConversionException
+     */
+    public String convertToString(String hexString) throws ConversionException {
+        try {
+            return convertToString(HexUtils.hexToBytes(hexString));
+        } catch (IllegalArgumentException e) {
+            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Convert byte array to JSON string.
+     *
+     * The output is identical to <code>convert(data).toString()</code>.
+     *
+     * @param data Data in byte array format.
+     * @return JSON string
+     * @throws ConversionException
+     */
+    public String convertToString(byte[] data) throws ConversionException {
+        try {
+            return convertToString(parser.parse(data));
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
+    private String convertToString(JBBPFieldStruct data) throws ConversionException {
+        try {
+            LocalDateTime start = LocalDateTime.now();
+            final StringWriter out = new StringWriter();
+            final JsonWriter writer = new JsonWriter(out);
+            // same settings as used by JsonElement.toString()
+            writer.setLenient(true);
+            writeStructFields(new JsonStreamOutput(writer), data);
+            writer.flush();
+            final String json = out.toString();
+            if (logger.isTraceEnabled()) {
+                Duration duration = Duration.between(start, LocalDateTime.now());
+                logger.trace("Conversion time={}, json={}", duration, json);
+            }
+            return json;
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
         try {
             LocalDateTime start = LocalDateTime.now();
-            final JsonObject json = convertToJSon(data);
+            final JsonTreeOutput out = new JsonTreeOutput();
+            writeStructFields(out, data);
+            final JsonObject json = out.getRoot();
             if (logger.isTraceEnabled()) {
                 Duration duration = Duration.between(start, LocalDateTime.now());
                 logger.trace("Conversion time={}, json={}", duration, json.toString());
             }
             return json;
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
         } catch (JBBPException e) {
             throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
         }
     }
 
-    private JsonObject convertToJSon(final JBBPAbstractField field) throws ConversionException {
-        return convertToJSon(null, field);
+    private static String getFieldName(final JBBPAbstractField field) {
+        return field.getFieldName() == null ? "nonamed" : field.getFieldName();
     }
 
-    private JsonObject convertToJSon(final JsonObject json, final JBBPAbstractField field) throws ConversionException {
-        JsonObject jsn = json == null ? new JsonObject() : json;
+    /**
+     * Write fields of the structure as JSON object.
+     *
+     * Follows the semantics of {@link JsonObject#add(String, com.google.gson.JsonElement)}: when several fields share
+     * the same name (e.g. unnamed fields), the value of the last one is written at the position of the first one.
+     */
+    private void writeStructFields(final JsonOutput out, final JBBPFieldStruct struct)
+            throws IOException, ConversionException {
+        final JBBPAbstractField[] fields = struct.getArray();
+        out.beginObject();
+        if (hasDuplicateNames(fields)) {
+            final Map<String, JBBPAbstractField> lastByName = new LinkedHashMap<>();
+            for (final JBBPAbstractField f : fields) {
+                lastByName.put(getFieldName(f), f);
+            }
+            for (final JBBPAbstractField f : lastByName.values()) {
+                writeField(out, f);
+            }
+        } else {
+            for (final JBBPAbstractField f : fields) {
+                writeField(out, f);
+            }
+        }
+        out.endObject();
+    }
 
-        final String fieldName = field.getFieldName() == null ? "nonamed" : field.getFieldName();
+    private static boolean hasDuplicateNames(final JBBPAbstractField[] fields) {
+        if (fields.length < 2) {
+            return false;
+        }
+        final Set<String> names = new HashSet<>();
+        for (final JBBPAbstractField f : fields) {
+            if (!names.add(getFieldName(f))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeField(final JsonOutput out, final JBBPAbstractField field)
+            throws IOException, ConversionException {
+        out.name(getFieldName(field));
         if (field instanceof JBBPAbstractArrayField) {
-            final JsonArray jsonArray = new JsonArray();
+            out.beginArray();
             if (field instanceof JBBPFieldArrayBit) {
                 for (final byte b : ((JBBPFieldArrayBit) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    out.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayBoolean) {
                 for (final boolean b : ((JBBPFieldArrayBoolean) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    out.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayByte) {
                 for (final byte b : ((JBBPFieldArrayByte) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    out.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayInt) {
                 for (final int b : ((JBBPFieldArrayInt) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    out.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayLong) {
                 for (final long b : ((JBBPFieldArrayLong) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    out.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayShort) {
                 for (final short b : ((JBBPFieldArrayShort) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b));
+                    out.value(b);
                 }
             } else if (field instanceof JBBPFieldArrayStruct) {
                 final JBBPFieldArrayStruct array = (JBBPFieldArrayStruct) field;
                 for (int i = 0; i < array.size(); i++) {
-                    jsonArray.add(convertToJSon(new JsonObject(), array.getElementAt(i)));
+                    // each element is wrapped to an object holding the element by its name
+                    final JBBPFieldStruct element = array.getElementAt(i);
+                    out.beginObject();
+                    out.name(getFieldName(element));
+                    writeStructFields(out, element);
+                    out.endObject();
                 }
             } else if (field instanceof JBBPFieldArrayUByte) {
                 for (final byte b : ((JBBPFieldArrayUByte) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b & 0xFF));
+                    out.value(b & 0xFF);
                 }
             } else if (field instanceof JBBPFieldArrayUShort) {
                 for (final short b : ((JBBPFieldArrayUShort) field).getArray()) {
-                    jsonArray.add(new JsonPrimitive(b & 0xFFFF));
+                    out.value(b & 0xFFFF);
                 }
             } else {
                 throw new ConversionException(String.format("Unexpected field type '%s'", field));
             }
-            jsn.add(fieldName, jsonArray);
+            out.endArray();
         } else {
             if (field instanceof JBBPFieldBit) {
-                jsn.addProperty(fieldName, ((JBBPFieldBit) field).getAsInt());
+                out.value(((JBBPFieldBit) field).getAsInt());
             } else if (field instanceof JBBPFieldBoolean) {
-                jsn.addProperty(fieldName, ((JBBPFieldBoolean) field).getAsBool());
+                out.value(((JBBPFieldBoolean) field).getAsBool());
             } else if (field instanceof JBBPFieldByte) {
-                jsn.addProperty(fieldName, ((JBBPFieldByte) field).getAsInt());
+                out.value(((JBBPFieldByte) field).getAsInt());
             } else if (field instanceof JBBPFieldInt) {
-                jsn.addProperty(fieldName, ((JBBPFieldInt) field).getAsInt());
+                out.value(((JBBPFieldInt) field).getAsInt());
             } else if (field instanceof JBBPFieldLong) {
-                jsn.addProperty(fieldName, ((JBBPFieldLong) field).getAsLong());
+                out.value(((JBBPFieldLong) field).getAsLong());
             } else if (field instanceof JBBPFieldShort) {
-                jsn.addProperty(fieldName, ((JBBPFieldShort) field).getAsInt());
+                out.value(((JBBPFieldShort) field).getAsInt());
             } else if (field instanceof JBBPFieldStruct) {
-                final JBBPFieldStruct struct = (JBBPFieldStruct) field;
-                final JsonObject obj = new JsonObject();
-                for (final JBBPAbstractField f : struct.getArray()) {
-                    convertToJSon(obj, f);
-                }
-                if (json == null) {
-                    return obj;
-                } else {
-                    jsn.add(fieldName, obj);
-                }
+                writeStructFields(out, (JBBPFieldStruct) field);
             } else if (field instanceof JBBPFieldUByte) {
-                jsn.addProperty(fieldName, ((JBBPFieldUByte) field).getAsInt());
+                out.value(((JBBPFieldUByte) field).getAsInt());
             } else if (field instanceof JBBPFieldUShort) {
-                jsn.addProperty(fieldName, ((JBBPFieldUShort) field).getAsInt());
+                out.value(((JBBPFieldUShort) field).getAsInt());
             } else {
                 throw new ConversionException(String.format("Unexpected field '%s'", field));
             }
         }
-        return jsn;
+    }
+
+    /**
+     * Target of the conversion, receiving the JSON structure of the parsed fields in document order.
+     */
+    private interface JsonOutput {
+        void beginObject() throws IOException;
+
+        void endObject() throws IOException;
+
+        void beginArray() throws IOException;
+
+        void endArray() throws IOException;
+
+        void name(String name) throws IOException;
+
+        void value(long value) throws IOException;
+
+        void value(boolean value) throws IOException;
+    }
+
+    /**
+     * Writes the JSON structure directly as a string.
+     */
+    private static class JsonStreamOutput implements JsonOutput {
+        private final JsonWriter writer;
+
+        JsonStreamOutput(JsonWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            writer.beginObject();
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            writer.endObject();
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            writer.beginArray();
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            writer.endArray();
+        }
+
+        @Override
+        public void name(String name) throws IOException {
+            writer.name(name);
+        }
+
+        @Override
+        public void value(long value) throws IOException {
+            writer.value(value);
+        }
+
+        @Override
+        public void value(boolean value) throws IOException {
+            writer.value(value);
+        }
+    }
+
+    /**
+     * Builds the {@link JsonObject} of the JSON structure.
+     */
+    private static class JsonTreeOutput implements JsonOutput {
+        private final Deque<JsonElement> stack = new ArrayDeque<>();
+        private JsonObject root = new JsonObject();
+        private String pendingName = "";
+
+        JsonObject getRoot() {
+            return root;
+        }
+
+        @Override
+        public void beginObject() {
+            final JsonObject object = new JsonObject();
+            if (stack.isEmpty()) {
+                root = object;
+            } else {
+                add(object);
+            }
+            stack.push(object);
+        }
+
+        @Override
+        public void endObject() {
+            stack.pop();
+        }
+
+        @Override
+        public void beginArray() {
+            final JsonArray array = new JsonArray();
+            add(array);
+            stack.push(array);
+        }
+
+        @Override
+        public void endArray() {
+            stack.pop();
+        }
+
+        @Override
+        public void name(String name) {
+            pendingName = name;
+        }
+
+        @Override
+        public void value(long value) {
+            add(new JsonPrimitive(value));
+        }
+
+        @Override
+        public void value(boolean value) {
+            add(new JsonPrimitive(value));
+        }
+
+        private void add(JsonElement element) {
+            final JsonElement parent = stack.peek();
+            if (parent instanceof JsonArray) {
+                ((JsonArray) parent).add(element);
+            } else {
+                ((JsonObject) parent).add(pendingName, element);
+            }
+        }
     }
 }
@@ -12,6 +12,10 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
@@ -32,6 +36,25 @@ public class Bin2JsonTransformationService implements TransformationService {
 
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    /**
+     * Maximum number of prepared parsers kept in the cache
+     */
+    static final int MAX_CACHED_PARSERS = 64;
+
+    /**
+     * Converters with prepared parser, keyed by the syntax. Least recently used evicted first.
+     */
+    private final Map<String, Bin2Json> cache = new LinkedHashMap<String, Bin2Json>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bin2Json> eldest) {
+            return size() > MAX_CACHED_PARSERS;
+        }
+    };
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -46,7 +69,7 @@ public class Bin2JsonTransformationService implements TransformationService {
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            result = getConverter(syntax).convertToString(source);
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +79,46 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    /**
+     * Get converter for the syntax, from cache if possible
+     *
+     * @param syntax Java Binary Block Parser syntax
+     * @return converter with prepared parser
+     * @throws ConversionException if the syntax is not valid
+     */
+    private Bin2Json getConverter(String syntax) throws ConversionException {
+        Bin2Json converter;
+        synchronized (cache) {
+            converter = cache.get(syntax);
+        }
+        if (converter != null) {
+            cacheHits.incrementAndGet();
+            return converter;
+        }
+        cacheMisses.incrementAndGet();
+        converter = new Bin2Json(syntax);
+        synchronized (cache) {
+            cache.put(syntax, converter);
+        }
+        return converter;
+    }
+
+    /**
+     * Get number of transformations served with already prepared parser
+     *
+     * @return number of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Get number of transformations that needed to prepare the parser
+     *
+     * @return number of cache misses
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
 }
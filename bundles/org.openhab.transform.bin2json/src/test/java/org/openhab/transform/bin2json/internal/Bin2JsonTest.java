@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    private static void assertConversions(String rule, String data, String expectedJson) throws ConversionException {
+        Bin2Json bin2json = new Bin2Json(rule);
+        JsonObject json = bin2json.convert(data);
+        String string = bin2json.convertToString(data);
+
+        assertEquals(new JsonParser().parse(expectedJson), json);
+        // streaming writer output is identical to the string of the object
+        assertEquals(json.toString(), string);
+    }
+
+    @Test
+    public void testPrimitiveFields() throws ConversionException {
+        assertConversions("byte a; byte b; ubyte c;", "03FAFF", "{\"a\":3,\"b\":-6,\"c\":255}");
+        assertConversions("short a; ushort b; int c; long d;", "FFFEFFFE000000010000000000000002",
+                "{\"a\":-2,\"b\":65534,\"c\":1,\"d\":2}");
+        assertConversions("bit:4 a; bit:4 b; bool c;", "2101", "{\"a\":1,\"b\":2,\"c\":true}");
+    }
+
+    @Test
+    public void testArrayFields() throws ConversionException {
+        assertConversions("byte[2] a; ubyte[2] b; ushort[1] c; bool[2] d; bit:4[2] e;", "FF01FF01FFFF000112",
+                "{\"a\":[-1,1],\"b\":[255,1],\"c\":[65535],\"d\":[false,true],\"e\":[2,1]}");
+        assertConversions("short[1] a; int[1] b; long[1] c;", "FFFF000000020000000000000003",
+                "{\"a\":[-1],\"b\":[2],\"c\":[3]}");
+    }
+
+    @Test
+    public void testStructFields() throws ConversionException {
+        assertConversions("byte a; s { byte b; t { ubyte c; } }", "0102FF",
+                "{\"a\":1,\"s\":{\"b\":2,\"t\":{\"c\":255}}}");
+        // elements of struct array are wrapped to an object holding the element by its name
+        assertConversions("ubyte n; s [n] { byte v; }", "020304",
+                "{\"n\":2,\"s\":[{\"s\":{\"v\":3}},{\"s\":{\"v\":4}}]}");
+    }
+
+    @Test
+    public void testDuplicateNamesKeepLastValue() throws ConversionException {
+        assertConversions("byte; byte a; byte;", "010203", "{\"nonamed\":3,\"a\":2}");
+    }
+}
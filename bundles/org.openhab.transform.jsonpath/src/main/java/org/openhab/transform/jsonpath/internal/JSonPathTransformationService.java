@@ -12,7 +12,12 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +29,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -33,6 +39,12 @@ import com.jayway.jsonpath.PathNotFoundException;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * <p>
+ * Compiled expressions are cached. Typically a single JSON message is transformed with several expressions in
+ * quick succession (one per channel), therefore recently parsed documents are cached for a short while as well, and
+ * the message is parsed only once. The document cache is bounded both by the number of documents and their total
+ * size.
+ *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
  *
@@ -43,6 +55,77 @@ public class JSonPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    /**
+     * Maximum number of compiled expressions kept in the cache
+     */
+    static final int MAX_CACHED_PATHS = 256;
+
+    /**
+     * Maximum number of parsed documents kept in the cache
+     */
+    static final int MAX_CACHED_DOCUMENTS = 16;
+
+    /**
+     * Maximum total length (in characters) of the sources of the parsed documents kept in the cache. Larger documents
+     * are not cached at all.
+     */
+    static final int MAX_CACHED_DOCUMENTS_LENGTH = 64 * 1024;
+
+    /**
+     * Time parsed documents are kept in the cache
+     */
+    static final long DOCUMENT_CACHE_EXPIRY_MILLIS = 1000;
+
+    private static class ParsedDocument {
+        private final Object document;
+        private final long parsedMillis;
+
+        private ParsedDocument(Object document, long parsedMillis) {
+            this.document = document;
+            this.parsedMillis = parsedMillis;
+        }
+    }
+
+    private final Configuration configuration = Configuration.defaultConfiguration();
+
+    /**
+     * Compiled expressions, least recently used evicted first
+     */
+    private final Map<String, JsonPath> pathCache = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    /**
+     * Recently parsed documents, keyed by the JSON source, least recently used evicted first
+     */
+    private final Map<String, ParsedDocument> documentCache = new LinkedHashMap<>(16, 0.75f, true);
+    private int documentCacheLength;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong pathCacheHits = new AtomicLong();
+    private final AtomicLong pathCacheMisses = new AtomicLong();
+    private final AtomicLong documentCacheHits = new AtomicLong();
+    private final AtomicLong documentCacheMisses = new AtomicLong();
+
+    public JSonPathTransformationService() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * For testing, thus package visibility by design
+     *
+     * @param clock supplier of the current time in milliseconds, used to expire the parsed documents
+     */
+    JSonPathTransformationService(LongSupplier clock) {
+        this.clock = clock;
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +143,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = compile(jsonPathExpression).read(parse(source), configuration);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +159,118 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath compile(String jsonPathExpression) {
+        JsonPath path;
+        synchronized (pathCache) {
+            path = pathCache.get(jsonPathExpression);
+        }
+        if (path != null) {
+            pathCacheHits.incrementAndGet();
+            return path;
+        }
+        pathCacheMisses.incrementAndGet();
+        path = JsonPath.compile(jsonPathExpression);
+        synchronized (pathCache) {
+            pathCache.put(jsonPathExpression, path);
+        }
+        return path;
+    }
+
+    /**
+     * Parse the JSON document, or use recently parsed document with equal source
+     *
+     * The parsed documents are only read by JsonPath, never modified, so they can be shared between transformations.
+     */
+    private Object parse(String source) {
+        long now = clock.getAsLong();
+        ParsedDocument parsed;
+        synchronized (documentCache) {
+            expireDocuments(now);
+            parsed = documentCache.get(source);
+        }
+        if (parsed != null) {
+            documentCacheHits.incrementAndGet();
+            return parsed.document;
+        }
+        documentCacheMisses.incrementAndGet();
+        Object document = configuration.jsonProvider().parse(source);
+        if (source.length() <= MAX_CACHED_DOCUMENTS_LENGTH) {
+            synchronized (documentCache) {
+                if (documentCache.put(source, new ParsedDocument(document, now)) == null) {
+                    documentCacheLength += source.length();
+                }
+                evictDocuments();
+            }
+        }
+        return document;
+    }
+
+    private void expireDocuments(long now) {
+        Iterator<Map.Entry<String, ParsedDocument>> iterator = documentCache.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ParsedDocument> entry = iterator.next();
+            if (now - entry.getValue().parsedMillis > DOCUMENT_CACHE_EXPIRY_MILLIS) {
+                documentCacheLength -= entry.getKey().length();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evictDocuments() {
+        Iterator<String> iterator = documentCache.keySet().iterator();
+        while (documentCache.size() > MAX_CACHED_DOCUMENTS || documentCacheLength > MAX_CACHED_DOCUMENTS_LENGTH) {
+            documentCacheLength -= iterator.next().length();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Get number of parsed documents in the cache
+     *
+     * @return number of cached documents
+     */
+    int getCachedDocuments() {
+        synchronized (documentCache) {
+            return documentCache.size();
+        }
+    }
+
+    /**
+     * Get number of transformations served with already compiled expression
+     *
+     * @return number of expression cache hits
+     */
+    public long getPathCacheHits() {
+        return pathCacheHits.get();
+    }
+
+    /**
+     * Get number of transformations that needed to compile the expression
+     *
+     * @return number of expression cache misses
+     */
+    public long getPathCacheMisses() {
+        return pathCacheMisses.get();
+    }
+
+    /**
+     * Get number of transformations served with already parsed document
+     *
+     * @return number of document cache hits
+     */
+    public long getDocumentCacheHits() {
+        return documentCacheHits.get();
+    }
+
+    /**
+     * Get number of transformations that needed to parse the document
+     *
+     * @return number of document cache misses
+     */
+    public long getDocumentCacheMisses() {
+        return documentCacheMisses.get();
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -14,6 +14,8 @@ package org.openhab.transform.jsonpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -24,11 +26,12 @@ import org.junit.Test;
  */
 public class JSonPathTransformationServiceTest {
 
+    private final AtomicLong now = new AtomicLong();
     private JSonPathTransformationService processor;
 
     @Before
     public void init() {
-        processor = new JSonPathTransformationService();
+        processor = new JSonPathTransformationService(now::get);
     }
 
     @Test
@@ -128,4 +131,61 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testDocumentIsParsedOnceForSeveralPaths() throws TransformationException {
+        final String json = "{\"AM2301\":{\"Temperature\":21.4,\"Humidity\":47.2},\"TempUnit\":\"C\"}";
+        assertEquals("21.4", processor.transform("$.AM2301.Temperature", json));
+        assertEquals("47.2", processor.transform("$.AM2301.Humidity", json));
+        assertEquals("C", processor.transform("$.TempUnit", new String(json.toCharArray())));
+        assertEquals(1, processor.getDocumentCacheMisses());
+        assertEquals(2, processor.getDocumentCacheHits());
+
+        assertEquals("21.4", processor.transform("$.AM2301.Temperature", json));
+        assertEquals(3, processor.getPathCacheMisses());
+        assertEquals(1, processor.getPathCacheHits());
+    }
+
+    @Test
+    public void testDifferentDocumentsAreParsedSeparately() throws TransformationException {
+        assertEquals("1", processor.transform("$.id", "{\"id\":1}"));
+        assertEquals("2", processor.transform("$.id", "{\"id\":2}"));
+        assertEquals(2, processor.getDocumentCacheMisses());
+        assertEquals(0, processor.getDocumentCacheHits());
+    }
+
+    @Test
+    public void testParsedDocumentExpires() throws TransformationException {
+        final String json = "{\"id\":1}";
+        assertEquals("1", processor.transform("$.id", json));
+        now.addAndGet(JSonPathTransformationService.DOCUMENT_CACHE_EXPIRY_MILLIS);
+        assertEquals("1", processor.transform("$.id", json));
+        assertEquals(1, processor.getDocumentCacheHits());
+
+        now.incrementAndGet();
+        assertEquals("1", processor.transform("$.id", json));
+        assertEquals(2, processor.getDocumentCacheMisses());
+    }
+
+    @Test
+    public void testDocumentCacheIsBounded() throws TransformationException {
+        for (int i = 0; i < JSonPathTransformationService.MAX_CACHED_DOCUMENTS + 1; i++) {
+            assertEquals(String.valueOf(i), processor.transform("$.id", "{\"id\":" + i + "}"));
+        }
+        assertEquals(JSonPathTransformationService.MAX_CACHED_DOCUMENTS, processor.getCachedDocuments());
+
+        StringBuilder padding = new StringBuilder();
+        while (padding.length() < JSonPathTransformationService.MAX_CACHED_DOCUMENTS_LENGTH / 2) {
+            padding.append("0123456789");
+        }
+        String large = "{\"id\":1,\"padding\":\"" + padding + "\"}";
+        assertEquals("1", processor.transform("$.id", large));
+        assertEquals("2", processor.transform("$.id", large.replace("\"id\":1", "\"id\":2")));
+        // the total size of the sources is bounded as well, only the latest large document fits
+        assertEquals(1, processor.getCachedDocuments());
+
+        assertEquals("3", processor.transform("$.id", "{\"id\":3,\"padding\":\"" + padding + padding + "\"}"));
+        // documents larger than the limit are not cached
+        assertEquals(1, processor.getCachedDocuments());
+    }
 }
@@ -12,6 +12,9 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,6 +43,44 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /**
+     * Maximum number of compiled expressions kept in the cache
+     */
+    static final int MAX_CACHED_EXPRESSIONS = 256;
+
+    /**
+     * Regular expression of the transformation, compiled and parsed to its parts
+     */
+    private static class CompiledExpression {
+        /**
+         * Pattern to match against. With substitution form, the pattern to replace.
+         */
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean replaceAll;
+
+        private CompiledExpression(Pattern pattern, @Nullable String substitution, boolean replaceAll) {
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.replaceAll = replaceAll;
+        }
+    }
+
+    /**
+     * Compiled expressions, least recently used evicted first
+     */
+    private final Map<String, CompiledExpression> cache = new LinkedHashMap<String, CompiledExpression>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+            return size() > MAX_CACHED_EXPRESSIONS;
+        }
+    };
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -50,23 +91,20 @@ public class RegExTransformationService implements TransformationService {
 
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        CompiledExpression expression = compile(regExpression);
+        String substitution = expression.substitution;
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+            Matcher substMatcher = expression.pattern.matcher(source.trim());
+            if (expression.replaceAll) {
+                result = substMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
+                result = substMatcher.replaceFirst(substitution);
             }
+            return result;
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = expression.pattern.matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +132,65 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    /**
+     * Get compiled form of the expression, from cache if possible
+     *
+     * @param regExpression expression of the transformation
+     * @return compiled expression
+     * @throws java.util.regex.PatternSyntaxException if the expression is not valid
+     */
+    private CompiledExpression compile(String regExpression) {
+        CompiledExpression expression;
+        synchronized (cache) {
+            expression = cache.get(regExpression);
+        }
+        if (expression != null) {
+            cacheHits.incrementAndGet();
+            return expression;
+        }
+        cacheMisses.incrementAndGet();
+
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            expression = new CompiledExpression(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    substMatcher.group(3).equals("g"));
+        } else {
+            expression = new CompiledExpression(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null,
+                    false);
+        }
+        synchronized (cache) {
+            cache.put(regExpression, expression);
+        }
+        return expression;
+    }
+
+    /**
+     * Get number of transformations served with already compiled expression
+     *
+     * @return number of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Get number of transformations that needed to compile the expression
+     *
+     * @return number of cache misses
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Get number of compiled expressions currently cached
+     *
+     * @return cache size
+     */
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
 }
@@ -75,4 +75,30 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testCompiledExpressionIsCached() throws TransformationException {
+        assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+        assertEquals("Reset(0)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:Reset,ARG:0"));
+        assertEquals("8", processor.transform(".*?<temp_c data=\"(.*?)\".*", source));
+        assertEquals("8", processor.transform(".*?<temp_c data=\"(.*?)\".*", source));
+
+        // Asserts
+        assertEquals(2, processor.getCacheMisses());
+        assertEquals(2, processor.getCacheHits());
+        assertEquals(2, processor.getCacheSize());
+    }
+
+    @Test
+    public void testCacheIsBounded() throws TransformationException {
+        for (int i = 0; i < RegExTransformationService.MAX_CACHED_EXPRESSIONS + 10; i++) {
+            processor.transform("(" + i + ")", String.valueOf(i));
+        }
+
+        // Asserts
+        assertEquals(RegExTransformationService.MAX_CACHED_EXPRESSIONS, processor.getCacheSize());
+        // least recently used expression was evicted
+        processor.transform("(0)", "0");
+        assertEquals(RegExTransformationService.MAX_CACHED_EXPRESSIONS + 11, processor.getCacheMisses());
+    }
 }
@@ -13,12 +13,17 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +40,48 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Compiled expressions are cached and shared between the threads. Compiled expressions are not thread-safe, therefore
+ * each expression is evaluated by one thread at a time. The {@link DocumentBuilder} and {@link XPath} are not
+ * thread-safe either, and are created for each transformation.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled expressions kept in the cache
+     */
+    static final int MAX_CACHED_EXPRESSIONS = 64;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+    private final XPathFactory xpathFactory = XPathFactory.newInstance();
+
+    /**
+     * Compiled expressions, least recently used evicted first
+     */
+    private final Map<String, XPathExpression> expressions = new LinkedHashMap<String, XPathExpression>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+            return size() > MAX_CACHED_EXPRESSIONS;
+        }
+    };
+
+    private final AtomicLong expressionCacheHits = new AtomicLong();
+    private final AtomicLong expressionCacheMisses = new AtomicLong();
+
+    public XPathTransformationService() {
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,34 +90,68 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
-
-        try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
-            stringReader = new StringReader(source);
+        try (StringReader stringReader = new StringReader(source)) {
             InputSource inputSource = new InputSource(stringReader);
             inputSource.setEncoding("UTF-8");
+            Document doc = newDocumentBuilder().parse(inputSource);
+            XPathExpression expr = compile(xpathExpression);
 
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult;
+            synchronized (expr) {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
             return transformationResult;
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
-            }
         }
     }
+
+    private DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        // factories are not guaranteed to be thread-safe
+        synchronized (domFactory) {
+            return domFactory.newDocumentBuilder();
+        }
+    }
+
+    private XPathExpression compile(String xpathExpression) throws XPathExpressionException {
+        XPathExpression expr;
+        synchronized (expressions) {
+            expr = expressions.get(xpathExpression);
+        }
+        if (expr != null) {
+            expressionCacheHits.incrementAndGet();
+            return expr;
+        }
+        expressionCacheMisses.incrementAndGet();
+        XPath xpath;
+        synchronized (xpathFactory) {
+            xpath = xpathFactory.newXPath();
+        }
+        expr = xpath.compile(xpathExpression);
+        synchronized (expressions) {
+            expressions.put(xpathExpression, expr);
+        }
+        return expr;
+    }
+
+    /**
+     * Get number of transformations served with already compiled expression
+     *
+     * @return number of expression cache hits
+     */
+    public long getExpressionCacheHits() {
+        return expressionCacheHits.get();
+    }
+
+    /**
+     * Get number of transformations that needed to compile the expression
+     *
+     * @return number of expression cache misses
+     */
+    public long getExpressionCacheMisses() {
+        return expressionCacheMisses.get();
+    }
 }
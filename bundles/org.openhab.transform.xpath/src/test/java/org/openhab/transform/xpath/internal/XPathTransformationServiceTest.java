@@ -14,6 +14,13 @@ package org.openhab.transform.xpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,4 +45,47 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testExpressionIsCompiledOnce() throws TransformationException {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("46", processor.transform("//current_conditions/temp_f/@data", source));
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+
+        // Asserts
+        assertEquals(2, processor.getExpressionCacheMisses());
+        assertEquals(1, processor.getExpressionCacheHits());
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidDocument() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@data", "<xml_api_reply>");
+    }
+
+    @Test
+    public void testTransformAfterInvalidDocument() throws TransformationException {
+        try {
+            processor.transform("//current_conditions/temp_c/@data", "<xml_api_reply>");
+        } catch (TransformationException e) {
+            // expected
+        }
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
+
+    @Test
+    public void testSharedExpressionIsEvaluatedConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<String>> transformations = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                transformations.add(() -> processor.transform("//current_conditions/temp_c/@data", source));
+            }
+            for (Future<String> result : executor.invokeAll(transformations)) {
+                assertEquals("8", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(200, processor.getExpressionCacheMisses() + processor.getExpressionCacheHits());
+    }
 }
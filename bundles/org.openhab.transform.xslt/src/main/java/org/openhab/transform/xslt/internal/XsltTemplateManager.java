@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for compiled XSLT stylesheets.
+ *
+ * Stylesheets are compiled to {@link Templates} once, and each thread transforms with its own {@link Transformer}
+ * instance created from the templates.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = XsltTemplateManager.class)
+public class XsltTemplateManager {
+
+    public static final String TRANSFORM_FOLDER = ConfigConstants.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
+    private static class CompiledStylesheet {
+        private final Templates templates;
+        private final ThreadLocal<@Nullable Transformer> transformers = new ThreadLocal<>();
+
+        private CompiledStylesheet(Templates templates) {
+            this.templates = templates;
+        }
+
+        private Transformer getTransformer() throws TransformerConfigurationException {
+            Transformer transformer = transformers.get();
+            if (transformer == null) {
+                transformer = templates.newTransformer();
+                transformers.set(transformer);
+            }
+            return transformer;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(XsltTemplateManager.class);
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    private final Map<String, CompiledStylesheet> compiledStylesheetMap = new ConcurrentHashMap<>();
+
+    /**
+     * Get transformer of the stylesheet for the calling thread. If the stylesheet is not in the cache, then load it
+     * from storage and put the compiled version into the cache.
+     *
+     * The returned transformer must not be shared with other threads.
+     *
+     * @param filename name of the XSLT file, relative to the transform folder
+     * @return transformer of the stylesheet
+     * @throws TransformerConfigurationException if the stylesheet cannot be read or compiled
+     */
+    protected Transformer getTransformer(String filename) throws TransformerConfigurationException {
+        CompiledStylesheet stylesheet = compiledStylesheetMap.get(filename);
+        if (stylesheet == null) {
+            stylesheet = compile(filename);
+        }
+        return stylesheet.getTransformer();
+    }
+
+    private CompiledStylesheet compile(String filename) throws TransformerConfigurationException {
+        synchronized (transformerFactory) {
+            CompiledStylesheet stylesheet = compiledStylesheetMap.get(filename);
+            if (stylesheet != null) {
+                return stylesheet;
+            }
+            File file = new File(TRANSFORM_FOLDER + File.separator + filename);
+            logger.debug("Loading stylesheet {} from storage", file);
+            stylesheet = new CompiledStylesheet(transformerFactory.newTemplates(new StreamSource(file)));
+            compiledStylesheetMap.put(filename, stylesheet);
+            return stylesheet;
+        }
+    }
+
+    /**
+     * Remove compiled stylesheets of the file from cache.
+     *
+     * @param fileName name of the modified or deleted file. Stylesheets with same name in any subfolder are removed.
+     */
+    protected void removeFromCache(String fileName) {
+        compiledStylesheetMap.keySet().removeIf(cachedFileName -> {
+            if (fileName.equals(String.valueOf(Paths.get(cachedFileName).getFileName()))) {
+                logger.debug("Removing stylesheet {} from cache.", cachedFileName);
+                return true;
+            }
+            return false;
+        });
+    }
+}
@@ -28,6 +28,7 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
     @Before
     public void init() {
         processor = new XsltTransformationService();
+        processor.setXsltTemplateManager(new XsltTemplateManager());
     }
 
     @Test
@@ -38,4 +39,11 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testRepeatedTransformByXSLT() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        }
+    }
 }
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -545,6 +546,44 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @Test
+    public void testOnRegistersUnchangedValueIsNotTransformedAgain() {
+        AtomicInteger transformations = new AtomicInteger();
+        MultiplyTransformation multiply = new MultiplyTransformation();
+        mockTransformation("MULTIPLY", (function, source) -> {
+            transformations.incrementAndGet();
+            return multiply.transform(function, source);
+        });
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "0", "MULTIPLY(10)", ModbusConstants.ValueType.INT16, null,
+                new ModbusRegisterArray(new ModbusRegister[] { new ModbusRegister((byte) 0xff, (byte) 0xfd) }), null,
+                bundleContext);
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(-30));
+        int transformationsOfFirstPoll = transformations.get();
+        assertTrue(transformationsOfFirstPoll > 0);
+
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+
+        // Same raw value again: no transformations, and no channel updates before updateUnchangedValuesEveryMillis
+        dataHandler.onReadResult(new AsyncModbusReadResult(request,
+                new ModbusRegisterArray(new ModbusRegister[] { new ModbusRegister((byte) 0xff, (byte) 0xfd) })));
+        assertThat(transformations.get(), is(equalTo(transformationsOfFirstPoll)));
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(-30));
+
+        // Changed raw value is processed fully
+        dataHandler.onReadResult(new AsyncModbusReadResult(request,
+                new ModbusRegisterArray(new ModbusRegister[] { new ModbusRegister((byte) 0xff, (byte) 0xfe) })));
+        assertTrue(transformations.get() > transformationsOfFirstPoll);
+        waitForAssert(() -> {
+            List<State> updates = getStateUpdates(
+                    getItemName(new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER)));
+            assertThat(updates, is(notNullValue()));
+            assertThat(updates.get(updates.size() - 1), is(equalTo(new DecimalType(-20))));
+        });
+    }
+
     @Test
     public void testOnRegistersNaNFloatInRegisters() throws InvalidSyntaxException {
         ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
@@ -345,6 +345,18 @@ public class SysteminfoOSGiTest extends JavaOSGiTest {
         assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY, UnDefType.UNDEF);
     }
 
+    @Test
+    public void assertChannelCpuLoadIsUpdated() {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_CPU_LOAD;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedCpuLoadValue = new DecimalType(10.5);
+        when(mockedSystemInfo.getCpuLoad()).thenReturn(mockedCpuLoadValue);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY, mockedCpuLoadValue);
+    }
+
     @Test
     public void assertChannelCpuLoad1IsUpdated() {
         String channnelID = SysteminfoBindingConstants.CHANNEL_CPU_LOAD_1;
@@ -799,6 +811,33 @@ public class SysteminfoOSGiTest extends JavaOSGiTest {
                 mockedNetworkDataReceiveed);
     }
 
+    @Test
+    public void assertChannelNetworkDataSentRateIsUpdated() throws DeviceNotFoundException {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_SENT_RATE;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedNetworkDataSentRate = new DecimalType(12.5);
+        when(mockedSystemInfo.getNetworkDataSentRate(DEFAULT_DEVICE_INDEX)).thenReturn(mockedNetworkDataSentRate);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedNetworkDataSentRate);
+    }
+
+    @Test
+    public void assertChannelNetworkDataReceivedRateIsUpdated() throws DeviceNotFoundException {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_RECEIVED_RATE;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedNetworkDataReceivedRate = new DecimalType(80.5);
+        when(mockedSystemInfo.getNetworkDataReceivedRate(DEFAULT_DEVICE_INDEX))
+                .thenReturn(mockedNetworkDataReceivedRate);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedNetworkDataReceivedRate);
+    }
+
     @Test
     public void assertChannelNetworkPacketsSentIsUpdated() throws DeviceNotFoundException {
         String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_PACKETS_SENT;
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.communicator.server.BinRpcNetworkService;
+import org.openhab.binding.homematic.internal.communicator.server.RpcEventListener;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replays a stream of BIN-RPC event messages, like the gateway sends it after a reconnect.
+ *
+ * The stream is either read from the file given with the <code>capture</code> parameter, containing the raw BIN-RPC
+ * requests of the gateway one after another (e.g. the payload of a recorded TCP stream to the callback port), or a
+ * synthetic stream of <code>system.multicall</code> event messages is generated. Every benchmark invocation processes
+ * the whole stream, the score is the number of streams per second.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventStreamBenchmark {
+    private static final String ENCODING = "ISO-8859-1";
+    private static final String[] DATAPOINTS = { "LEVEL", "STATE", "ACTUAL_TEMPERATURE", "SET_TEMPERATURE",
+            "HUMIDITY", "WORKING", "UNREACH", "LOWBAT" };
+
+    /**
+     * File with a captured event stream, empty for a synthetic stream.
+     */
+    @Param({ "" })
+    public String capture;
+
+    /**
+     * Number of messages of the synthetic stream.
+     */
+    @Param({ "500" })
+    public int messages;
+
+    /**
+     * Number of events per message of the synthetic stream.
+     */
+    @Param({ "10" })
+    public int eventsPerMessage;
+
+    private byte[] stream;
+    private int messageCount;
+    private List<Object> eventCalls;
+
+    private final AtomicInteger receivedEvents = new AtomicInteger();
+    private HomematicConfig config;
+    private BinRpcNetworkService networkService;
+    private Socket socket;
+    private OutputStream socketOut;
+    private DataInputStream socketIn;
+
+    @Setup
+    public void setUp() throws IOException {
+        eventCalls = createEventCalls(0);
+        stream = capture.isEmpty() ? createStream() : Files.readAllBytes(Paths.get(capture));
+        messageCount = countMessages();
+
+        config = new HomematicConfig();
+        config.setBindAddress("127.0.0.1");
+        config.setSocketMaxAlive(Integer.MAX_VALUE / 1000);
+        try (ServerSocket freePort = new ServerSocket(0)) {
+            config.setBinCallbackPort(freePort.getLocalPort());
+        }
+        networkService = new BinRpcNetworkService(new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                receivedEvents.incrementAndGet();
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        }, config);
+        new Thread(networkService, "HomematicRpcServerBenchmark").start();
+        socket = new Socket("127.0.0.1", config.getBinCallbackPort());
+        socket.setTcpNoDelay(true);
+        socketOut = socket.getOutputStream();
+        socketIn = new DataInputStream(socket.getInputStream());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        socket.close();
+        networkService.shutdown();
+    }
+
+    private List<Object> createEventCalls(int offset) {
+        Object[] calls = new Object[eventsPerMessage];
+        for (int i = 0; i < eventsPerMessage; i++) {
+            int event = offset + i;
+            Map<String, Object> call = new HashMap<>();
+            call.put("methodName", "event");
+            String datapoint = DATAPOINTS[event % DATAPOINTS.length];
+            Object value = event % 2 == 0 ? Boolean.valueOf(event % 4 == 0) : Double.valueOf(event % 1000 / 10.0);
+            call.put("params", Arrays.asList("openHAB-RF", String.format("NEQ%07d:1", event % 200), datapoint, value));
+            calls[i] = call;
+        }
+        return Arrays.asList(calls);
+    }
+
+    private byte[] createStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < messages; i++) {
+            BinRpcMessage message = new BinRpcMessage("system.multicall", ENCODING);
+            message.addArg(createEventCalls(i * eventsPerMessage));
+            out.write(message.createMessage());
+        }
+        return out.toByteArray();
+    }
+
+    private int countMessages() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(stream);
+        int count = 0;
+        while (buffer.hasRemaining()) {
+            buffer.position(buffer.position() + BinRpcMessage.HEADER_LENGTH + BinRpcMessage.getMessageLength(buffer));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Decodes all messages of the stream from a {@link ByteBuffer}, like the BIN-RPC server.
+     */
+    @Benchmark
+    public int decodeFromBuffer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(stream);
+        int values = 0;
+        while (buffer.hasRemaining()) {
+            int end = buffer.position() + BinRpcMessage.HEADER_LENGTH + BinRpcMessage.getMessageLength(buffer);
+            ByteBuffer message = buffer.duplicate();
+            message.limit(end);
+            values += new BinRpcMessage(message, true, ENCODING).getResponseData().length;
+            buffer.position(end);
+        }
+        return values;
+    }
+
+    /**
+     * Decodes all messages of the stream from an {@link InputStream}, like the BIN-RPC client.
+     */
+    @Benchmark
+    public int decodeFromStream() throws IOException {
+        InputStream in = new ByteArrayInputStream(stream);
+        int values = 0;
+        for (int i = 0; i < messageCount; i++) {
+            values += new BinRpcMessage(in, true, ENCODING).getResponseData().length;
+        }
+        return values;
+    }
+
+    /**
+     * Encodes a <code>system.multicall</code> message with the events of one message of the synthetic stream.
+     */
+    @Benchmark
+    public byte[] encodeMulticall() {
+        BinRpcMessage message = new BinRpcMessage("system.multicall", ENCODING);
+        message.addArg(eventCalls);
+        return message.createMessage();
+    }
+
+    /**
+     * Sends the stream over a local connection to the BIN-RPC server and waits for all responses.
+     */
+    @Benchmark
+    public int replayToServer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(stream);
+        while (buffer.hasRemaining()) {
+            int length = BinRpcMessage.HEADER_LENGTH + BinRpcMessage.getMessageLength(buffer);
+            socketOut.write(stream, buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            new BinRpcMessage(socketIn, false, ENCODING);
+        }
+        return receivedEvents.get();
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.types.Type;
+import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
+/**
+ * Throughput of the conversion of received group telegrams into openHAB states.
+ *
+ * Like the device thing handler, a new {@link Datapoint} is created for every telegram. The <code>translator*</code>
+ * benchmarks create a Calimero translator and read the value as string for every telegram, which is the baseline the
+ * type mapper is compared to. Allocation rate can be measured by running with <code>-prof gc</code>.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelegramDecodingBenchmark {
+
+    private static final GroupAddress GROUP_ADDRESS = new GroupAddress(1, 2, 3);
+
+    private static final byte[] SWITCH_ON = { 0x01 };
+    private static final byte[] DIMMING_VALUE = { (byte) 0x80 };
+    private static final byte[] TEMPERATURE = { 0x0C, 0x1A };
+    private static final byte[] POWER = { 0x44, 0x7A, 0x20, 0x00 };
+
+    private KNXCoreTypeMapper typeMapper;
+
+    @Setup
+    public void setUp() {
+        typeMapper = new KNXCoreTypeMapper();
+    }
+
+    private Type decode(String dpt, byte[] data) {
+        return typeMapper.toType(new CommandDP(GROUP_ADDRESS, "benchmark", 0, dpt), data);
+    }
+
+    private String translate(String dpt, byte[] data) throws KNXException {
+        DPTXlator translator = TranslatorTypes.createTranslator(0, dpt);
+        translator.setData(data);
+        return translator.getValue();
+    }
+
+    @Benchmark
+    public Type switchState() {
+        return decode("1.001", SWITCH_ON);
+    }
+
+    @Benchmark
+    public Type dimmingValue() {
+        return decode("5.001", DIMMING_VALUE);
+    }
+
+    @Benchmark
+    public Type temperature() {
+        return decode("9.001", TEMPERATURE);
+    }
+
+    @Benchmark
+    public Type power() {
+        return decode("14.056", POWER);
+    }
+
+    @Benchmark
+    public String translatorSwitchState() throws KNXException {
+        return translate("1.001", SWITCH_ON);
+    }
+
+    @Benchmark
+    public String translatorTemperature() throws KNXException {
+        return translate("9.001", TEMPERATURE);
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.benchmark;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.openhab.io.transport.modbus.ModbusConstants;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Register decoding as it was implemented in ModbusBitUtilities before the primitive decoders, kept as the baseline
+ * of {@link RegisterDecodingBenchmark}.
+ *
+ * @author agent - Initial contribution
+ */
+class LegacyBitUtilities {
+
+    /**
+     * Read data from registers and convert the result to DecimalType, using ByteBuffer and BigInteger
+     */
+    public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
+        // each register has 16 bits
+        int lastValidIndex = registers.size() * 16 - 1;
+        if (endBitIndex > lastValidIndex || index < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
+                            registers.size()));
+        }
+        switch (type) {
+            case BIT:
+                return Optional
+                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
+            case INT8:
+                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
+            case UINT8:
+                return Optional.of(new DecimalType(
+                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
+            case INT16: {
+                ByteBuffer buff = ByteBuffer.allocate(2);
+                buff.put(registers.getRegister(index).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
+            }
+            case UINT16:
+                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
+            case INT32: {
+                ByteBuffer buff = ByteBuffer.allocate(4);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
+            }
+            case UINT32: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.position(4);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            }
+            case FLOAT32: {
+                ByteBuffer buff = ByteBuffer.allocate(4);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                try {
+                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
+                } catch (NumberFormatException e) {
+                    // floating point NaN or infinity encountered
+                    return Optional.empty();
+                }
+            }
+            case INT64: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index + 2).getBytes());
+                buff.put(registers.getRegister(index + 3).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            }
+            case UINT64: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index + 2).getBytes());
+                buff.put(registers.getRegister(index + 3).getBytes());
+                return Optional.of(
+                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
+            }
+            case INT32_SWAP: {
+                ByteBuffer buff = ByteBuffer.allocate(4);
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
+            }
+            case UINT32_SWAP: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.position(4);
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            }
+            case FLOAT32_SWAP: {
+                ByteBuffer buff = ByteBuffer.allocate(4);
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index).getBytes());
+                try {
+                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
+                } catch (NumberFormatException e) {
+                    // floating point NaN or infinity encountered
+                    return Optional.empty();
+                }
+            }
+            case INT64_SWAP: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.put(registers.getRegister(index + 3).getBytes());
+                buff.put(registers.getRegister(index + 2).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            }
+            case UINT64_SWAP: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.put(registers.getRegister(index + 3).getBytes());
+                buff.put(registers.getRegister(index + 2).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index).getBytes());
+                return Optional.of(
+                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
+            }
+            default:
+                throw new IllegalArgumentException(type.getConfigValue());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of decoding a polled value from Modbus registers.
+ *
+ * <code>legacyState</code> is the ByteBuffer/BigInteger based decoding used before, <code>state</code> the current
+ * {@link ModbusBitUtilities#extractStateFromRegisters}. <code>rawValue</code> is the primitive decoding the data thing
+ * handler does on every poll, and <code>unchangedValue</code> adds the comparison with the previous raw value, which
+ * is all the handler does when the polled value has not changed. Allocation rate can be measured by running with
+ * <code>-prof gc</code>.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegisterDecodingBenchmark {
+
+    private static final ModbusRegisterArray REGISTERS = new ModbusRegisterArray(0xFFFF, 0xFFFE, 0x4049, 0x0FDB);
+
+    @Param({ "INT16", "UINT32", "FLOAT32", "INT64_SWAP", "UINT64" })
+    public String valueType;
+
+    private ValueType type;
+    private long lastRawValue;
+    private Optional<DecimalType> lastState;
+
+    @Setup
+    public void setUp() {
+        type = ValueType.valueOf(valueType);
+        lastRawValue = ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, type);
+        lastState = ModbusBitUtilities.toDecimalType(lastRawValue, type);
+    }
+
+    @Benchmark
+    public Optional<DecimalType> legacyState() {
+        return LegacyBitUtilities.extractStateFromRegisters(REGISTERS, 0, type);
+    }
+
+    @Benchmark
+    public Optional<DecimalType> state() {
+        return ModbusBitUtilities.extractStateFromRegisters(REGISTERS, 0, type);
+    }
+
+    @Benchmark
+    public long rawValue() {
+        return ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, type);
+    }
+
+    @Benchmark
+    public Optional<DecimalType> unchangedValue() {
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, type);
+        if (rawValue == lastRawValue) {
+            return lastState;
+        }
+        lastRawValue = rawValue;
+        lastState = ModbusBitUtilities.toDecimalType(rawValue, type);
+        return lastState;
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.californium.core.coap.CoAP.Code;
+import org.eclipse.californium.core.coap.CoAP.Type;
+import org.eclipse.californium.core.coap.Message;
+import org.eclipse.californium.core.coap.Option;
+import org.eclipse.californium.core.coap.Request;
+import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.core.network.serialization.UdpDataParser;
+import org.eclipse.californium.elements.AddressEndpointContext;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the dispatching of CoIoT status frames to the device handlers.
+ *
+ * The frames are either read from the file given with the <code>capture</code> parameter or generated for the
+ * configured number of devices. A capture file contains one frame per line: the IP address of the device and the UDP
+ * payload as hex string, separated by a blank (e.g. exported from a Wireshark trace of the CoIoT multicast group).
+ * The devices of a capture file are the source addresses of the frames.
+ *
+ * The <code>broadcast</code> benchmark passes each frame to all handlers, which compare the peer address with their
+ * device IP, like the server did before. It is the baseline for the dispatching by address. The benchmark is in the
+ * package of the server to access the dispatching without a network endpoint.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoIotDispatchBenchmark {
+    private static final String[] PAYLOADS = { //
+            "{\"G\":[[0,112,1],[0,111,0],[0,118,0]]}", // Shelly 1
+            "{\"G\":[[0,111,42.53],[0,112,1],[1,111,0],[1,112,0],[0,113,0],[0,114,0],[0,115,52.3]]}", // Shelly 2.5
+            "{\"G\":[[0,33,21.37],[0,44,48.1],[0,77,92]]}", // Shelly H&T
+            "{\"G\":[[0,111,11.24],[0,112,1],[0,113,23.44],[0,114,0]]}" }; // Shelly Plug S
+    private static final String[] DEVICE_TYPES = { "SHSW-1", "SHSW-25", "SHHT-1", "SHPLG-S" };
+
+    /**
+     * File with captured CoIoT frames, empty for generated frames.
+     */
+    @Param({ "" })
+    public String capture;
+
+    /**
+     * Number of devices for generated frames.
+     */
+    @Param({ "10", "150" })
+    public int devices;
+
+    private ShellyCoapServer server;
+    private final List<DeviceListener> listeners = new ArrayList<>();
+    private final List<Response> frames = new ArrayList<>();
+
+    /**
+     * Counts the frames of a device, the broadcast compares the peer address like the handler did before.
+     */
+    private static class DeviceListener implements ShellyCoapListener {
+        private final String deviceIp;
+        private int frames;
+
+        private DeviceListener(String deviceIp) {
+            this.deviceIp = deviceIp;
+        }
+
+        @Override
+        public void processResponse(@Nullable Response response) {
+            frames++;
+        }
+
+        private void processBroadcast(Response response) {
+            String ip = response.getSourceContext().getPeerAddress().toString();
+            if (ip.contains(deviceIp)) {
+                frames++;
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new ShellyCoapServer();
+        if (capture.isEmpty()) {
+            for (int i = 0; i < devices; i++) {
+                String ip = String.format("10.0.%d.%d", i / 200, i % 200 + 10);
+                register(ip);
+                frames.add(createFrame(ip, i));
+            }
+        } else {
+            UdpDataParser parser = new UdpDataParser();
+            for (String line : Files.readAllLines(Paths.get(capture))) {
+                String[] frame = line.trim().split("\\s+");
+                if (frame.length < 2) {
+                    continue;
+                }
+                if (listeners.stream().noneMatch(listener -> listener.deviceIp.equals(frame[0]))) {
+                    register(frame[0]);
+                }
+                Message message = parser.parseMessage(toBytes(frame[1]));
+                if (message instanceof Request) {
+                    message.setSourceContext(new AddressEndpointContext(InetAddress.getByName(frame[0]), COIOT_PORT));
+                    frames.add(ShellyCoapServer.createResponse((Request) message));
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.dispose();
+    }
+
+    private void register(String ip) throws IOException {
+        DeviceListener listener = new DeviceListener(ip);
+        listeners.add(listener);
+        server.start("127.0.0.1", InetAddress.getByName(ip), listener);
+    }
+
+    private Response createFrame(String ip, int device) throws IOException {
+        int type = device % DEVICE_TYPES.length;
+        Request request = new Request(Code.CUSTOM_30, Type.NON);
+        request.getOptions().setUriPath("cit/s");
+        request.getOptions().addOption(new Option(COIOT_OPTION_GLOBAL_DEVID,
+                String.format("%s#%012X#1", DEVICE_TYPES[type], 0xA4CF12000000L + device)));
+        request.getOptions().addOption(new Option(COIOT_OPTION_STATUS_VALIDITY, 38400));
+        request.getOptions().addOption(new Option(COIOT_OPTION_STATUS_SERIAL, device));
+        request.setPayload(PAYLOADS[type]);
+        request.setSourceContext(
+                new AddressEndpointContext(new InetSocketAddress(InetAddress.getByName(ip), COIOT_PORT)));
+        return ShellyCoapServer.createResponse(request);
+    }
+
+    private static byte[] toBytes(String hex) {
+        byte[] data = new byte[hex.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return data;
+    }
+
+    /**
+     * Dispatches all frames by the peer address.
+     */
+    @Benchmark
+    public int dispatch() {
+        for (Response frame : frames) {
+            server.processResponse(frame);
+        }
+        return listeners.get(0).frames;
+    }
+
+    /**
+     * Passes all frames to all handlers, which discard the frames of other devices.
+     */
+    @Benchmark
+    public int broadcast() {
+        for (Response frame : frames) {
+            for (DeviceListener listener : listeners) {
+                listener.processBroadcast(frame);
+            }
+        }
+        return listeners.get(0).frames;
+    }
+}
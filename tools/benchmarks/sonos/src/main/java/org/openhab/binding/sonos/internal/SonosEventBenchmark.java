@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+/**
+ * Throughput of the decoding of Sonos GENA event payloads.
+ *
+ * The payloads are either read from the files given with the <code>zoneGroupState</code> and <code>lastChange</code>
+ * parameters or generated for the configured number of zones. A file contains the unescaped value of the state
+ * variable, e.g. the ZoneGroupState of the ZoneGroupTopology service or the LastChange of the AVTransport service.
+ *
+ * <ul>
+ * <li><code>zoneGroupStateChanged</code> parses a new topology on every call, it alternates between two topologies.
+ * <li><code>zoneGroupStateAllPlayers</code> decodes the same topology once per zone, like the players of a household
+ * do when they receive the same event.
+ * <li><code>lastChangePooled</code> and <code>lastChangeNewReader</code> compare the pooled readers with a new reader
+ * per payload.
+ * </ul>
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SonosEventBenchmark {
+
+    /**
+     * File with a captured ZoneGroupState, empty for a generated topology.
+     */
+    @Param({ "" })
+    public String zoneGroupState;
+
+    /**
+     * File with a captured AVTransport LastChange, empty for a generated event.
+     */
+    @Param({ "" })
+    public String lastChange;
+
+    /**
+     * Number of zones of a generated topology.
+     */
+    @Param({ "14" })
+    public int zones;
+
+    private String[] topologies = new String[2];
+    private String[] playerCopies = new String[0];
+    private String lastChangeXml = "";
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (zoneGroupState.isEmpty()) {
+            topologies[0] = createZoneGroupState(zones, false);
+            topologies[1] = createZoneGroupState(zones, true);
+        } else {
+            topologies[0] = read(zoneGroupState);
+            // the same topology with another group id, the content is parsed again
+            topologies[1] = topologies[0].replaceFirst("ID=\"", "ID=\"X");
+        }
+        lastChangeXml = lastChange.isEmpty() ? createLastChange() : read(lastChange);
+
+        // every player holds its own copy of the event payload
+        int players = Math.max(1, SonosXMLParser.getZoneGroupFromXML(topologies[0]).stream()
+                .mapToInt(group -> group.getMembers().size()).sum());
+        playerCopies = new String[players];
+        for (int i = 0; i < players; i++) {
+            playerCopies[i] = new String(topologies[0].toCharArray());
+        }
+    }
+
+    @Benchmark
+    public List<SonosZoneGroup> zoneGroupStateChanged() {
+        next ^= 1;
+        return SonosXMLParser.getZoneGroupFromXML(topologies[next]);
+    }
+
+    @Benchmark
+    public int zoneGroupStateAllPlayers() {
+        int groups = 0;
+        for (String copy : playerCopies) {
+            groups += SonosXMLParser.getZoneGroupFromXML(copy).size();
+        }
+        return groups;
+    }
+
+    @Benchmark
+    public Map<String, ?> lastChangePooled() {
+        return SonosXMLParser.getAVTransportFromXML(lastChangeXml);
+    }
+
+    @Benchmark
+    public Map<String, ?> lastChangeNewReader() throws IOException, SAXException {
+        SonosXMLParser.AVTransportEventHandler handler = new SonosXMLParser.AVTransportEventHandler();
+        XMLReader reader = XMLReaderFactory.createXMLReader();
+        reader.setContentHandler(handler);
+        reader.parse(new InputSource(new StringReader(lastChangeXml)));
+        return handler.getChanges();
+    }
+
+    private static String read(String file) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+    }
+
+    private static String createZoneGroupState(int zones, boolean grouped) {
+        StringBuilder xml = new StringBuilder("<ZoneGroupState><ZoneGroups>");
+        for (int i = 0; i < zones; i++) {
+            String uuid = String.format("RINCON_%012X01400", i);
+            if (!grouped || i % 2 == 0) {
+                if (i > 0) {
+                    xml.append("</ZoneGroup>");
+                }
+                xml.append("<ZoneGroup Coordinator=\"").append(uuid).append("\" ID=\"").append(uuid).append(":")
+                        .append(grouped ? 2 : 1).append("\">");
+            }
+            xml.append("<ZoneGroupMember UUID=\"").append(uuid).append("\" Location=\"http://192.168.1.")
+                    .append(100 + i).append(":1400/xml/device_description.xml\" ZoneName=\"Zone ").append(i)
+                    .append("\" Icon=\"x-rincon-roomicon:living\" Configuration=\"1\" SoftwareVersion=\"56.0-76060\"")
+                    .append(" SWGen=\"1\" MinCompatibleVersion=\"55.0-00000\" LegacyCompatibleVersion=\"36.0-00000\"")
+                    .append(" BootSeq=\"114\" TVConfigurationError=\"0\" HdmiCecAvailable=\"0\" WirelessMode=\"0\"")
+                    .append(" WirelessLeafOnly=\"0\" HasConfiguredSSID=\"0\" ChannelFreq=\"2412\"")
+                    .append(" BehindWifiExtender=\"0\"")
+                    .append(" WifiEnabled=\"1\" Orientation=\"0\" RoomCalibrationState=\"4\" SecureRegState=\"3\"")
+                    .append(" VoiceConfigState=\"0\" MicEnabled=\"0\" AirPlayEnabled=\"1\" IdleState=\"1\"")
+                    .append(" MoreInfo=\"\"/>");
+        }
+        xml.append("</ZoneGroup></ZoneGroups><VanishedDevices></VanishedDevices></ZoneGroupState>");
+        return xml.toString();
+    }
+
+    private static String createLastChange() {
+        return "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\" "
+                + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\"><InstanceID val=\"0\">"
+                + "<TransportState val=\"PLAYING\"/><CurrentPlayMode val=\"NORMAL\"/><CurrentCrossfadeMode val=\"0\"/>"
+                + "<NumberOfTracks val=\"29\"/><CurrentTrack val=\"12\"/><CurrentSection val=\"0\"/>"
+                + "<CurrentTrackURI val=\"x-file-cifs://server/music/track12.mp3\"/>"
+                + "<CurrentTrackDuration val=\"0:04:12\"/>"
+                + "<CurrentTrackMetaData val=\"&lt;DIDL-Lite xmlns:dc=&quot;http://purl.org/dc/elements/1.1/&quot; "
+                + "xmlns:upnp=&quot;urn:schemas-upnp-org:metadata-1-0/upnp/&quot; "
+                + "xmlns=&quot;urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/&quot;&gt;&lt;item id=&quot;-1&quot; "
+                + "parentID=&quot;-1&quot; restricted=&quot;true&quot;&gt;&lt;dc:title&gt;Title&lt;/dc:title&gt;"
+                + "&lt;upnp:class&gt;object.item.audioItem.musicTrack&lt;/upnp:class&gt;&lt;dc:creator&gt;Artist"
+                + "&lt;/dc:creator&gt;&lt;upnp:album&gt;Album&lt;/upnp:album&gt;&lt;/item&gt;&lt;/DIDL-Lite&gt;\"/>"
+                + "<r:NextTrackURI val=\"x-file-cifs://server/music/track13.mp3\"/>"
+                + "<AVTransportURI val=\"x-rincon-queue:RINCON_000000000000001400#0\"/>"
+                + "<NextAVTransportURI val=\"\"/><TransportStatus val=\"OK\"/>"
+                + "<CurrentTransportActions val=\"Set, Play, Stop, Pause, Seek, Next, Previous\"/>"
+                + "</InstanceID></Event>";
+    }
+}
@@ -0,0 +1,3 @@
+(function(i) {
+    return parseFloat(i) / 10;
+})(input)
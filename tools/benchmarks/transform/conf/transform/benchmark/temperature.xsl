@@ -0,0 +1,6 @@
+<xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+  <xsl:output indent="yes" method="xml" encoding="UTF-8" omit-xml-declaration="yes"/>
+  <xsl:template match="/">
+    <xsl:value-of select="//current_conditions/temp_c/@data"/>
+  </xsl:template>
+</xsl:stylesheet>
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.bin2json.internal.Bin2JsonTransformationService;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager;
+import org.openhab.transform.javascript.internal.JavaScriptTransformationService;
+import org.openhab.transform.jinja.internal.JinjaTransformationService;
+import org.openhab.transform.jsonpath.internal.JSonPathTransformationService;
+import org.openhab.transform.map.internal.MapTransformationService;
+import org.openhab.transform.regex.internal.RegExTransformationService;
+import org.openhab.transform.scale.internal.ScaleTransformationService;
+import org.openhab.transform.xpath.internal.XPathTransformationService;
+import org.openhab.transform.xslt.internal.XsltTemplateManager;
+import org.openhab.transform.xslt.internal.XsltTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the transformation services with payloads typical for the bindings calling them on every inbound
+ * message (MQTT, Modbus, HTTP, serial).
+ *
+ * The services are used in steady state, i.e. the same transformation is applied over and over again, exactly like
+ * a channel transformation is. Allocation rate can be measured by running with <code>-prof gc</code>.
+ *
+ * File based transformations (MAP, SCALE, XSLT, JS) are read from <code>conf/transform/benchmark</code>, relative to
+ * the working directory.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformationServiceBenchmark {
+
+    private static final String SENSOR_JSON = "{\"Time\":\"2020-06-01T12:00:00\",\"AM2301\":{\"Temperature\":21.4,"
+            + "\"Humidity\":47.2},\"TempUnit\":\"C\"}";
+
+    private static final String WEATHER_XML = "<?xml version=\"1.0\"?><xml_api_reply version=\"1\"><weather>"
+            + "<forecast_information><city data=\"Krefeld\"/><unit_system data=\"SI\"/></forecast_information>"
+            + "<current_conditions><condition data=\"Cloudy\"/><temp_f data=\"46\"/><temp_c data=\"8\"/>"
+            + "<humidity data=\"66\"/><wind_condition data=\"N 26 km/h\"/></current_conditions>"
+            + "<forecast_conditions><day_of_week data=\"Tue\"/><low data=\"-1\"/><high data=\"6\"/>"
+            + "<condition data=\"Clear\"/></forecast_conditions><forecast_conditions><day_of_week data=\"Wed\"/>"
+            + "<low data=\"-1\"/><high data=\"8\"/><condition data=\"Clear\"/></forecast_conditions>"
+            + "</weather></xml_api_reply>";
+
+    private TransformationService regex;
+    private TransformationService jsonPath;
+    private TransformationService xpath;
+    private TransformationService xslt;
+    private TransformationService map;
+    private TransformationService scale;
+    private TransformationService javaScript;
+    private TransformationService jinja;
+    private TransformationService bin2json;
+
+    @Setup
+    public void setUp() {
+        regex = new RegExTransformationService();
+        jsonPath = new JSonPathTransformationService();
+        xpath = new XPathTransformationService();
+        XsltTransformationService xsltService = new XsltTransformationService();
+        xsltService.setXsltTemplateManager(new XsltTemplateManager());
+        xslt = xsltService;
+        map = new MapTransformationService() {
+            @Override
+            protected Locale getLocale() {
+                // no LocaleProvider outside of OSGi
+                return Locale.ENGLISH;
+            }
+        };
+        scale = new ScaleTransformationService() {
+            @Override
+            protected Locale getLocale() {
+                return Locale.ENGLISH;
+            }
+        };
+        JavaScriptTransformationService javaScriptService = new JavaScriptTransformationService();
+        javaScriptService.setJavaScriptEngineManager(new JavaScriptEngineManager());
+        javaScript = javaScriptService;
+        jinja = new JinjaTransformationService();
+        bin2json = new Bin2JsonTransformationService();
+    }
+
+    @Benchmark
+    public String regexCaptureGroup() throws TransformationException {
+        return regex.transform("temp=(.*?)'C", "temp=44.0'C");
+    }
+
+    @Benchmark
+    public String regexSubstitution() throws TransformationException {
+        return regex.transform("s/(.{2})(.{3})/$1.$2/g", "48312");
+    }
+
+    @Benchmark
+    public String jsonPath() throws TransformationException {
+        return jsonPath.transform("$.AM2301.Temperature", SENSOR_JSON);
+    }
+
+    @Benchmark
+    public String xpath() throws TransformationException {
+        return xpath.transform("//current_conditions/temp_c/@data", WEATHER_XML);
+    }
+
+    @Benchmark
+    public String xslt() throws TransformationException {
+        return xslt.transform("benchmark/temperature.xsl", WEATHER_XML);
+    }
+
+    @Benchmark
+    public String map() throws TransformationException {
+        return map.transform("benchmark/state.map", "1");
+    }
+
+    @Benchmark
+    public String scale() throws TransformationException {
+        return scale.transform("benchmark/humidity.scale", "47.2");
+    }
+
+    @Benchmark
+    public String javaScript() throws TransformationException {
+        return javaScript.transform("benchmark/temperature.js", "214");
+    }
+
+    @Benchmark
+    public String jinja() throws TransformationException {
+        return jinja.transform("{{value_json['AM2301'].Temperature}}", SENSOR_JSON);
+    }
+
+    @Benchmark
+    public String bin2json() throws TransformationException {
+        return bin2json.transform("byte a; byte b; ubyte c;", "03FAFF");
+    }
+}